@@ -4,9 +4,11 @@ import io.dropwizard.Configuration;
 import io.dropwizard.ConfiguredBundle;
 import io.dropwizard.servlets.assets.AssetServlet;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.DataSize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -25,6 +27,11 @@ public class AssetsBundle implements ConfiguredBundle<Configuration> {
     private final String indexFile;
     private final String assetsName;
     private final String defaultMediaType;
+    private boolean memoryMapped = false;
+    private boolean precompressed = false;
+
+    @Nullable
+    private DataSize cacheMaximumSize;
 
     /**
      * Creates a new AssetsBundle which serves up static assets from
@@ -129,7 +136,15 @@ public class AssetsBundle implements ConfiguredBundle<Configuration> {
     public void run(Configuration configuration, Environment environment) {
         final String pathPattern = uriPath + '*';
         LOGGER.info("Registering AssetBundle with name: {} for path {}", assetsName, pathPattern);
-        environment.servlets().addServlet(assetsName, createServlet()).addMapping(pathPattern);
+        if (cacheMaximumSize == null && (memoryMapped || precompressed)) {
+            throw new IllegalStateException("The assets " + assetsName + " can only be memory-mapped or served "
+                + "precompressed with an asset cache, see setCacheMaximumSize()");
+        }
+        final AssetServlet servlet = createServlet();
+        if (cacheMaximumSize != null) {
+            servlet.enableCache(environment.metrics(), assetsName, cacheMaximumSize);
+        }
+        environment.servlets().addServlet(assetsName, servlet).addMapping(pathPattern);
     }
 
     public String getResourcePath() {
@@ -151,7 +166,72 @@ public class AssetsBundle implements ConfiguredBundle<Configuration> {
         return defaultMediaType;
     }
 
+    /**
+     * @since 2.1
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Sets whether assets located on the file system are served from memory-mapped files instead of being read
+     * onto the heap. Mapping requires the {@link #setCacheMaximumSize(DataSize) asset cache}, and the bundle fails
+     * to run without it.
+     *
+     * @param memoryMapped whether to memory-map assets located on the file system
+     * @see AssetServlet#setMemoryMapped(boolean)
+     * @since 2.1
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * @since 2.1
+     */
+    public boolean isPrecompressed() {
+        return precompressed;
+    }
+
+    /**
+     * Sets whether precompressed {@code .br} and {@code .gz} siblings of assets are served to clients which accept
+     * them, instead of compressing the assets on the fly. Precompressed variants require the
+     * {@link #setCacheMaximumSize(DataSize) asset cache}, and the bundle fails to run without it.
+     *
+     * @param precompressed whether to serve precompressed variants of assets
+     * @see AssetServlet#setPrecompressed(boolean)
+     * @since 2.1
+     */
+    public void setPrecompressed(boolean precompressed) {
+        this.precompressed = precompressed;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @Nullable
+    public DataSize getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    /**
+     * Sets the maximum size of the cache of loaded assets and their compressed variants, or {@code null} to load
+     * assets on every request, which is the default. Cached assets aren't reloaded when they change, so they're
+     * served as they were first loaded until they're evicted or the application is restarted.
+     *
+     * @param cacheMaximumSize the maximum size of the asset cache
+     * @see AssetServlet#enableCache(com.codahale.metrics.MetricRegistry, String, DataSize)
+     * @since 2.1
+     */
+    public void setCacheMaximumSize(@Nullable DataSize cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+    }
+
     protected AssetServlet createServlet() {
-        return new AssetServlet(resourcePath, uriPath, indexFile, defaultMediaType, StandardCharsets.UTF_8);
+        final AssetServlet servlet = new AssetServlet(resourcePath, uriPath, indexFile, defaultMediaType,
+            StandardCharsets.UTF_8);
+        servlet.setMemoryMapped(memoryMapped);
+        servlet.setPrecompressed(precompressed);
+        return servlet;
     }
 }
@@ -13,6 +13,7 @@ import javax.servlet.ServletRegistration;
 import java.net.URL;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
@@ -130,6 +131,26 @@ class AssetsBundleTest {
                 .isEqualTo("/what");
     }
 
+    @Test
+    void requiresTheCacheToMemoryMapAssets() {
+        final AssetsBundle bundle = new AssetsBundle();
+        bundle.setMemoryMapped(true);
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> bundle.run(new Configuration(), environment))
+                .withMessageContaining("setCacheMaximumSize()");
+    }
+
+    @Test
+    void requiresTheCacheToServePrecompressedAssets() {
+        final AssetsBundle bundle = new AssetsBundle();
+        bundle.setPrecompressed(true);
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> bundle.run(new Configuration(), environment))
+                .withMessageContaining("setCacheMaximumSize()");
+    }
+
     @Test
     void canHaveDifferentDefaultMediaType() {
         runBundle(new AssetsBundle("/assets", "/assets", "index.html", "assets", "text/plain"));
@@ -0,0 +1,263 @@
+package io.dropwizard.auth;
+
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.ContainerRequestContext;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A servlet filter which authenticates the credentials of requests with an {@link AsyncAuthenticator} without
+ * holding a container thread: the request is suspended while the authentication runs, and dispatched again once it
+ * completes.
+ * <p>
+ * The filter doesn't reject requests itself. It records the outcome of the authentication on the request, and the
+ * {@link AuthFilter} which extracts the same credentials, on its own or in a
+ * {@link io.dropwizard.auth.chained.ChainedAuthFilter}, uses it instead of calling its {@link Authenticator}, and
+ * handles unauthenticated requests as usual. Once a request has been authenticated, other asynchronous filters don't
+ * authenticate it again, so chains short-circuit before the Jersey filters run.
+ * </p>
+ * <p>
+ * The filter must be mapped to both the {@code REQUEST} and {@code ASYNC} dispatcher types, and every servlet and
+ * filter of the chain must support asynchronous requests. Requests which can't be suspended are passed on as they
+ * are, and are authenticated by the {@link AuthFilter}.
+ * </p>
+ *
+ * @param <C> the type of credentials the filter accepts
+ * @param <P> the type of the principal the filter accepts
+ * @since 2.1
+ */
+public abstract class AsyncAuthFilter<C, P extends Principal> implements Filter {
+    static final String RESULTS_ATTRIBUTE = AsyncAuthFilter.class.getName() + ".results";
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected String prefix = "Basic";
+    protected AsyncAuthenticator<C, P> authenticator =
+        credentials -> CompletableFuture.completedFuture(Optional.empty());
+    protected Duration timeout = Duration.seconds(30);
+
+    /**
+     * Abstract builder for asynchronous auth filters.
+     *
+     * @param <C> the type of credentials that the filter accepts
+     * @param <P> the type of the principal that the filter accepts
+     */
+    public abstract static class AsyncAuthFilterBuilder<C, P extends Principal, T extends AsyncAuthFilter<C, P>> {
+
+        private String prefix = "Basic";
+        private AsyncAuthenticator<C, P> authenticator =
+            credentials -> CompletableFuture.completedFuture(Optional.empty());
+        private Duration timeout = Duration.seconds(30);
+
+        /**
+         * Sets the given prefix
+         *
+         * @param prefix a prefix
+         * @return the current builder
+         */
+        public AsyncAuthFilterBuilder<C, P, T> setPrefix(String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * Sets the given authenticator
+         *
+         * @param authenticator an {@link AsyncAuthenticator}
+         * @return the current builder
+         */
+        public AsyncAuthFilterBuilder<C, P, T> setAuthenticator(AsyncAuthenticator<C, P> authenticator) {
+            this.authenticator = authenticator;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a request is suspended for, 30 seconds by default. Authentications which take longer
+         * are cancelled, and handled as failures by the {@link AuthFilter}.
+         *
+         * @param timeout the maximum time to wait for an authentication
+         * @return the current builder
+         */
+        public AsyncAuthFilterBuilder<C, P, T> setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Builds an instance of the filter with a provided authenticator, a prefix and a timeout.
+         *
+         * @return a new instance of the filter
+         */
+        public T buildAuthFilter() {
+            requireNonNull(prefix, "Prefix is not set");
+            requireNonNull(authenticator, "Authenticator is not set");
+            requireNonNull(timeout, "Timeout is not set");
+
+            final T authFilter = newInstance();
+            authFilter.prefix = prefix;
+            authFilter.authenticator = authenticator;
+            authFilter.timeout = timeout;
+            return authFilter;
+        }
+
+        protected abstract T newInstance();
+    }
+
+    /**
+     * Extracts the credentials of a request, like the matching {@link AuthFilter}.
+     *
+     * @param request the request
+     * @return the credentials, or {@code null} if the request has none
+     */
+    @Nullable
+    protected abstract C getCredentials(HttpServletRequest request);
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException { /* unused */ }
+
+    @Override
+    public void destroy() { /* unused */ }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+        final C credentials = getCredentials((HttpServletRequest) request);
+        if (credentials == null || !request.isAsyncSupported() || isResolved(request, credentials)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(timeout.toMilliseconds());
+        final AtomicBoolean resolved = new AtomicBoolean();
+        CompletableFuture<Optional<P>> future;
+        try {
+            future = authenticator.authenticate(credentials).toCompletableFuture();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        final CompletableFuture<Optional<P>> authentication = future;
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                resolve(asyncContext, resolved, credentials, null,
+                    new TimeoutException("Authentication timed out after " + timeout));
+                authentication.cancel(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) { /* unused */ }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                authentication.cancel(true);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) { /* unused */ }
+        });
+        authentication.whenComplete((principal, failure) ->
+            resolve(asyncContext, resolved, credentials, principal, failure));
+    }
+
+    /**
+     * Records the outcome of an authentication on the request, and dispatches it again, unless it has already been
+     * resolved, e.g. by a timeout.
+     */
+    private static void resolve(AsyncContext asyncContext, AtomicBoolean resolved, Object credentials,
+                                @Nullable Optional<? extends Principal> principal, @Nullable Throwable failure) {
+        if (!resolved.compareAndSet(false, true)) {
+            return;
+        }
+        final ServletRequest request = asyncContext.getRequest();
+        Map<Object, Result> results = getResults(request);
+        if (results == null) {
+            results = new HashMap<>();
+            request.setAttribute(RESULTS_ATTRIBUTE, results);
+        }
+        results.put(credentials, failure == null && principal != null
+            ? new Result(principal.orElse(null), null)
+            : new Result(null, failure));
+        asyncContext.dispatch();
+    }
+
+    private static boolean isResolved(ServletRequest request, Object credentials) {
+        final Map<Object, Result> results = getResults(request);
+        if (results == null) {
+            return false;
+        }
+        // A request which has been authenticated by a previous filter of the chain is passed on as it is
+        return results.containsKey(credentials)
+            || results.values().stream().anyMatch(result -> result.principal != null);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Result> getResults(ServletRequest request) {
+        final Object results = request.getAttribute(RESULTS_ATTRIBUTE);
+        return results instanceof Map ? (Map<Object, Result>) results : null;
+    }
+
+    /**
+     * Returns the outcome of the asynchronous authentication of the given credentials, if any.
+     */
+    @Nullable
+    static Result getResult(ContainerRequestContext requestContext, Object credentials) {
+        final Object results = requestContext.getProperty(RESULTS_ATTRIBUTE);
+        return results instanceof Map ? (Result) ((Map<?, ?>) results).get(credentials) : null;
+    }
+
+    /**
+     * The outcome of an asynchronous authentication: a principal, no principal if the credentials are invalid, or a
+     * failure.
+     */
+    static final class Result {
+        @Nullable
+        private final Principal principal;
+        @Nullable
+        private final Throwable failure;
+
+        private Result(@Nullable Principal principal, @Nullable Throwable failure) {
+            this.principal = principal;
+            this.failure = failure;
+        }
+
+        @SuppressWarnings("unchecked")
+        <P extends Principal> Optional<P> getPrincipal() throws AuthenticationException {
+            if (failure == null) {
+                return Optional.ofNullable((P) principal);
+            }
+            final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+            if (cause instanceof AuthenticationException) {
+                throw (AuthenticationException) cause;
+            }
+            throw new AuthenticationException(cause);
+        }
+    }
+}
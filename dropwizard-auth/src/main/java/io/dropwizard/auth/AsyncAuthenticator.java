@@ -0,0 +1,67 @@
+package io.dropwizard.auth;
+
+import io.dropwizard.util.Duration;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An interface for classes which authenticate user-provided credentials without blocking, e.g. by
+ * introspecting tokens with a non-blocking HTTP client, and return principal objects.
+ *
+ * @param <C> the type of credentials the authenticator can authenticate
+ * @param <P> the type of principals the authenticator returns
+ * @see AsyncAuthFilter
+ * @since 2.1
+ */
+@FunctionalInterface
+public interface AsyncAuthenticator<C, P extends Principal> {
+    /**
+     * Given a set of user-provided credentials, start authenticating them.
+     *
+     * If the credentials are valid and map to a principal, the stage completes with an {@link Optional#of(Object)}.
+     *
+     * If the credentials are invalid, the stage completes with an {@link Optional#empty()}.
+     *
+     * If the credentials cannot be authenticated due to an underlying error, the stage completes exceptionally,
+     * preferably with an {@link AuthenticationException}.
+     *
+     * @param credentials a set of user-provided credentials
+     * @return the stage completing with either an authenticated principal or an absent optional
+     */
+    CompletionStage<Optional<P>> authenticate(C credentials);
+
+    /**
+     * Returns an {@link Authenticator} which waits for this authenticator. If the authentication takes longer than
+     * the timeout, it's cancelled and an {@link AuthenticationException} is thrown.
+     *
+     * @param timeout the maximum time to wait for an authentication
+     * @return an {@link Authenticator} waiting for this authenticator
+     */
+    default Authenticator<C, P> blocking(Duration timeout) {
+        return credentials -> {
+            final CompletableFuture<Optional<P>> future = authenticate(credentials).toCompletableFuture();
+            try {
+                return future.get(timeout.toNanoseconds(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                throw new AuthenticationException(e);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new AuthenticationException("Authentication timed out after " + timeout, e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof AuthenticationException) {
+                    throw (AuthenticationException) cause;
+                }
+                throw new AuthenticationException(cause);
+            }
+        };
+    }
+}
@@ -135,7 +135,11 @@ public abstract class AuthFilter<C, P extends Principal> implements ContainerReq
                 return false;
             }
 
-            final Optional<P> principal = authenticator.authenticate(credentials);
+            // Credentials already authenticated by an AsyncAuthFilter aren't authenticated again
+            final AsyncAuthFilter.Result result = AsyncAuthFilter.getResult(requestContext, credentials);
+            final Optional<P> principal = result == null
+                ? authenticator.authenticate(credentials)
+                : result.getPrincipal();
             if (!principal.isPresent()) {
                 return false;
             }
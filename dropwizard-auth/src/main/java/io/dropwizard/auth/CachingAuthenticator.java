@@ -8,13 +8,16 @@ import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Weigher;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.github.benmanes.caffeine.cache.stats.StatsCounter;
 
+import javax.annotation.Nullable;
 import java.security.Principal;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -24,6 +27,17 @@ import static com.codahale.metrics.MetricRegistry.name;
 /**
  * An {@link Authenticator} decorator which uses a Caffeine cache to temporarily
  * cache credentials and their corresponding principals.
+ * <p>
+ * Concurrent requests with the same uncached credentials are authenticated only once. If the cache
+ * is built with {@link Caffeine#refreshAfterWrite(java.time.Duration) refreshAfterWrite}, the principals
+ * are authenticated again in the background, with the cache's executor, when they're requested after
+ * the refresh interval, and the cached principals are returned in the meantime. If the credentials
+ * can't be authenticated anymore, the principal is discarded, unless negative results are cached.
+ * </p>
+ * <p>
+ * The cache is keyed by the credentials themselves. {@link DigestCachingAuthenticator} keys it by digests of
+ * the credentials instead, so that it doesn't retain secrets unless it refreshes the principals.
+ * </p>
  *
  * @param <C> the type of credentials the authenticator can authenticate
  * @param <P> the type of principals the authenticator returns
@@ -31,6 +45,7 @@ import static com.codahale.metrics.MetricRegistry.name;
 public class CachingAuthenticator<C, P extends Principal> implements Authenticator<C, P> {
     private final LoadingCache<C, Optional<P>> cache;
     private final Meter cacheMisses;
+    private final Meter cacheRefreshes;
     private final Timer gets;
 
     /**
@@ -88,28 +103,44 @@ public class CachingAuthenticator<C, P extends Principal> implements Authenticat
                                 final Caffeine<Object, Object> builder,
                                 final boolean cacheNegativeResult,
                                 final Supplier<StatsCounter> supplier) {
+        this(metricRegistry, authenticator, builder, cacheNegativeResult, supplier, null);
+    }
+
+    /**
+     * Creates a new cached authenticator, whose cache is bounded by the weight of the principals rather than
+     * by their number. The builder must set a {@link Caffeine#maximumWeight(long) maximumWeight}, and the
+     * cached negative results have a weight of 1.
+     *
+     * @param metricRegistry      the application's registry of metrics
+     * @param authenticator       the underlying authenticator
+     * @param builder             a {@link Caffeine}
+     * @param cacheNegativeResult the boolean to enable negative cache
+     * @param supplier            a {@link Supplier<StatsCounter>}
+     * @param weigher             the weigher of the cached credentials and principals, if any
+     * @since 2.1
+     */
+    public CachingAuthenticator(final MetricRegistry metricRegistry,
+                                final Authenticator<C, P> authenticator,
+                                final Caffeine<Object, Object> builder,
+                                final boolean cacheNegativeResult,
+                                final Supplier<StatsCounter> supplier,
+                                @Nullable final Weigher<? super C, ? super P> weigher) {
         this.cacheMisses = metricRegistry.meter(name(authenticator.getClass(), "cache-misses"));
+        this.cacheRefreshes = metricRegistry.meter(name(authenticator.getClass(), "cache-refreshes"));
         this.gets = metricRegistry.timer(name(authenticator.getClass(), "gets"));
-        CacheLoader<C, Optional<P>> loader;
-        if (cacheNegativeResult) {
-            loader = key -> {
-                cacheMisses.mark();
-                return authenticator.authenticate(key);
-            };
+        final CacheLoader<C, Optional<P>> loader = new PrincipalLoader<>(authenticator, credentials -> credentials,
+            cacheNegativeResult, cacheMisses, cacheRefreshes);
+        if (weigher == null) {
+            this.cache = builder
+                    .recordStats(supplier)
+                    .build(loader);
         } else {
-            loader = key -> {
-                cacheMisses.mark();
-                final Optional<P> optPrincipal = authenticator.authenticate(key);
-                if (!optPrincipal.isPresent()) {
-                    // Prevent caching of unknown credentials
-                    throw new InvalidCredentialsException();
-                }
-                return optPrincipal;
-            };
+            this.cache = builder
+                    .<C, Optional<P>>weigher((credentials, principal) ->
+                        principal.map(p -> weigher.weigh(credentials, p)).orElse(1))
+                    .recordStats(supplier)
+                    .build(loader);
         }
-        this.cache = builder
-                .recordStats(supplier)
-                .build(loader);
     }
 
     @Override
@@ -117,17 +148,25 @@ public class CachingAuthenticator<C, P extends Principal> implements Authenticat
         try (Timer.Context context = gets.time()) {
             return cache.get(credentials);
         } catch (CompletionException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof InvalidCredentialsException) {
-                return Optional.empty();
-            }
-            if (cause instanceof AuthenticationException) {
-                throw (AuthenticationException) cause;
-            }
-            throw new AuthenticationException(cause);
+            return handleLoadFailure(e);
         }
     }
 
+    /**
+     * Handles the failure of a cache to load a principal: no principal if the credentials are invalid, or the
+     * exception of the authenticator.
+     */
+    static <P> Optional<P> handleLoadFailure(CompletionException e) throws AuthenticationException {
+        final Throwable cause = e.getCause();
+        if (cause instanceof InvalidCredentialsException) {
+            return Optional.empty();
+        }
+        if (cause instanceof AuthenticationException) {
+            throw (AuthenticationException) cause;
+        }
+        throw new AuthenticationException(cause);
+    }
+
     /**
      * Discards any cached principal for the given credentials.
      *
@@ -183,11 +222,58 @@ public class CachingAuthenticator<C, P extends Principal> implements Authenticat
         return cache.stats();
     }
 
+    /**
+     * Loads the principals of uncached credentials, and reloads them when the cache is refreshed.
+     *
+     * @param <K> the type of the keys of the cache
+     * @param <C> the type of credentials the authenticator can authenticate
+     * @param <P> the type of principals the authenticator returns
+     */
+    static class PrincipalLoader<K, C, P extends Principal> implements CacheLoader<K, Optional<P>> {
+        private final Authenticator<C, P> authenticator;
+        private final Function<? super K, ? extends C> credentials;
+        private final boolean cacheNegativeResult;
+        private final Meter cacheMisses;
+        private final Meter cacheRefreshes;
+
+        PrincipalLoader(Authenticator<C, P> authenticator, Function<? super K, ? extends C> credentials,
+                        boolean cacheNegativeResult, Meter cacheMisses, Meter cacheRefreshes) {
+            this.authenticator = authenticator;
+            this.credentials = credentials;
+            this.cacheNegativeResult = cacheNegativeResult;
+            this.cacheMisses = cacheMisses;
+            this.cacheRefreshes = cacheRefreshes;
+        }
+
+        @Override
+        public Optional<P> load(K key) throws Exception {
+            cacheMisses.mark();
+            final Optional<P> optPrincipal = authenticator.authenticate(credentials.apply(key));
+            if (!optPrincipal.isPresent() && !cacheNegativeResult) {
+                // Prevent caching of unknown credentials
+                throw new InvalidCredentialsException();
+            }
+            return optPrincipal;
+        }
+
+        @Override
+        @Nullable
+        public Optional<P> reload(K key, Optional<P> oldValue) throws Exception {
+            cacheRefreshes.mark();
+            final Optional<P> optPrincipal = authenticator.authenticate(credentials.apply(key));
+            if (!optPrincipal.isPresent() && !cacheNegativeResult) {
+                // Discard the principal of credentials which aren't valid anymore
+                return null;
+            }
+            return optPrincipal;
+        }
+    }
+
     /**
      * Exception thrown by {@link CacheLoader#load(Object)} when the authenticator returns {@link Optional#empty()}.
      * This is used to prevent caching of invalid credentials.
      */
     @SuppressWarnings("serial")
-    private static class InvalidCredentialsException extends Exception {
+    static class InvalidCredentialsException extends Exception {
     }
 }
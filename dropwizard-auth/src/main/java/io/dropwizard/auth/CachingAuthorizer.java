@@ -4,6 +4,7 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.caffeine.MetricsStatsCounter;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -14,6 +15,8 @@ import io.dropwizard.util.Sets;
 import javax.annotation.Nullable;
 import javax.ws.rs.container.ContainerRequestContext;
 import java.security.Principal;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
@@ -21,6 +24,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.Objects.requireNonNull;
 
 /**
  * An {@link Authorizer} decorator which uses a {@link Caffeine} cache to
@@ -28,6 +32,10 @@ import static com.codahale.metrics.MetricRegistry.name;
  * <p>
  * Cache entries include both inclusion and exclusion of a principal
  * within a given role.
+ * <p>
+ * If the underlying authorizer is a {@link RoleSetAuthorizer}, the cache
+ * maps each principal to all its roles instead, so that checking any
+ * role of a cached principal is a set lookup.
  *
  * @param <P> the type of principals on which the authorizer operates
  */
@@ -37,7 +45,8 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
     private final Timer getsTimer;
 
     // A cache which maps (principal, role, uriInfo) to boolean
-    // authorization states.
+    // authorization states, unless the underlying authorizer is a
+    // `RoleSetAuthorizer`.
     //
     // A cached value of `true` indicates that the key's principal is
     // authorized to assume the given role. False values indicate the
@@ -46,8 +55,18 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
     // `null` cache values are interpreted as cache misses, and will
     // thus result in read through to the underlying `Authorizer`.
     //
+    @Nullable
+    private final LoadingCache<AuthorizationContext<P>, Boolean> authorizations;
+
+    // A cache which maps principals to their roles, if the underlying
+    // authorizer is a `RoleSetAuthorizer`.
+    @Nullable
+    private final LoadingCache<P, Set<String>> roleSets;
+
+    // The cache in use.
+    //
     // Field is package-private to be visible for unit tests
-    final LoadingCache<AuthorizationContext<P>, Boolean> cache;
+    final Cache<?, ?> cache;
 
     /**
      * Creates a new cached authorizer.
@@ -94,12 +113,31 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
         this.underlying = authorizer;
         this.cacheMisses = metricRegistry.meter(name(authorizer.getClass(), "cache-misses"));
         this.getsTimer = metricRegistry.timer(name(authorizer.getClass(), "gets"));
-        this.cache = builder
-                .recordStats(supplier)
-                .build(key -> {
-                    cacheMisses.mark();
-                    return underlying.authorize(key.getPrincipal(), key.getRole(), key.getRequestContext());
-                });
+        if (authorizer instanceof RoleSetAuthorizer) {
+            final RoleSetAuthorizer<P> roleSetAuthorizer = (RoleSetAuthorizer<P>) authorizer;
+            final LoadingCache<P, Set<String>> roleSetCache = builder
+                    .recordStats(supplier)
+                    .build(principal -> {
+                        cacheMisses.mark();
+                        final Set<String> roles = roleSetAuthorizer.getRoles(principal);
+                        // A principal without roles may be reported as null
+                        return roles == null ? Collections.emptySet()
+                            : Collections.unmodifiableSet(new HashSet<>(roles));
+                    });
+            this.authorizations = null;
+            this.roleSets = roleSetCache;
+            this.cache = roleSetCache;
+        } else {
+            final LoadingCache<AuthorizationContext<P>, Boolean> authorizationCache = builder
+                    .recordStats(supplier)
+                    .build(key -> {
+                        cacheMisses.mark();
+                        return underlying.authorize(key.getPrincipal(), key.getRole(), key.getRequestContext());
+                    });
+            this.roleSets = null;
+            this.authorizations = authorizationCache;
+            this.cache = authorizationCache;
+        }
     }
 
     @Override
@@ -110,8 +148,12 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
     @Override
     public boolean authorize(P principal, String role, @Nullable ContainerRequestContext requestContext) {
         try (Timer.Context context = getsTimer.time()) {
+            if (roleSets != null) {
+                final Set<String> roles = roleSets.get(principal);
+                return roles != null && roles.contains(role);
+            }
             final AuthorizationContext<P> cacheKey = getAuthorizationContext(principal, role, requestContext);
-            return Boolean.TRUE.equals(cache.get(cacheKey));
+            return Boolean.TRUE.equals(requireNonNull(authorizations).get(cacheKey));
         } catch (CompletionException e) {
             Throwable cause = e.getCause();
             if (cause instanceof RuntimeException) {
@@ -130,14 +172,19 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
     }
 
     /**
-     * Discards any cached role associations for the given principal and role.
+     * Discards any cached role associations for the given principal and role,
+     * or all the roles of the principal if they're cached together.
      *
      * @param principal
      * @param role
      * @param requestContext
      */
     public void invalidate(P principal, String role, ContainerRequestContext requestContext) {
-        cache.invalidate(getAuthorizationContext(principal, role, requestContext));
+        if (roleSets != null) {
+            roleSets.invalidate(principal);
+        } else {
+            requireNonNull(authorizations).invalidate(getAuthorizationContext(principal, role, requestContext));
+        }
     }
 
     /**
@@ -146,10 +193,7 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
      * @param principal
      */
     public void invalidate(P principal) {
-        final Set<AuthorizationContext<P>> keys = cache.asMap().keySet().stream()
-                .filter(cacheKey -> cacheKey.getPrincipal().equals(principal))
-                .collect(Collectors.toSet());
-        cache.invalidateAll(keys);
+        invalidateAll(principal::equals);
     }
 
     /**
@@ -160,10 +204,7 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
      */
     public void invalidateAll(Iterable<P> principals) {
         final Set<P> principalSet = Sets.of(principals);
-        final Set<AuthorizationContext<P>> keys = cache.asMap().keySet().stream()
-                .filter(cacheKey -> principalSet.contains(cacheKey.getPrincipal()))
-                .collect(Collectors.toSet());
-        cache.invalidateAll(keys);
+        invalidateAll(principalSet::contains);
     }
 
     /**
@@ -173,11 +214,18 @@ public class CachingAuthorizer<P extends Principal> implements Authorizer<P> {
      * @param predicate a predicate to filter credentials
      */
     public void invalidateAll(Predicate<? super P> predicate) {
-        final Set<AuthorizationContext<P>> keys = cache.asMap().keySet().stream()
+        if (roleSets != null) {
+            roleSets.invalidateAll(roleSets.asMap().keySet().stream()
+                    .filter(predicate)
+                    .collect(Collectors.toSet()));
+            return;
+        }
+        final LoadingCache<AuthorizationContext<P>, Boolean> authorizations = requireNonNull(this.authorizations);
+        final Set<AuthorizationContext<P>> keys = authorizations.asMap().keySet().stream()
                 .filter(cacheKey -> predicate.test(cacheKey.getPrincipal()))
                 .collect(Collectors.toSet());
 
-        cache.invalidateAll(keys);
+        authorizations.invalidateAll(keys);
     }
 
     /**
@@ -0,0 +1,101 @@
+package io.dropwizard.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * A 128-bit digest of a set of credentials, which {@link DigestCachingAuthenticator} uses as a cache key
+ * instead of the credentials themselves, so that the cache neither retains secrets nor large tokens.
+ * <p>
+ * The digest is the first half of the HMAC-SHA256 of the parts of the credentials, each prefixed with
+ * its length, with a random key generated for each process. The digests of credentials therefore can't be
+ * precomputed, e.g. to guess passwords from a heap dump, and only equal each other within the same process.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class CredentialsDigest {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final SecretKeySpec KEY = createKey();
+    private static final ThreadLocal<Mac> HMAC_SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(KEY);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final long high;
+    private final long low;
+
+    private CredentialsDigest(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    private static SecretKeySpec createKey() {
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, ALGORITHM);
+    }
+
+    /**
+     * Returns the digest of credentials consisting of strings, e.g. a bearer token, or a username and a password.
+     *
+     * @param parts the parts of the credentials
+     * @return the digest of the credentials
+     */
+    public static CredentialsDigest of(String... parts) {
+        final byte[][] bytes = new byte[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            bytes[i] = parts[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return of(bytes);
+    }
+
+    /**
+     * Returns the digest of credentials consisting of byte arrays.
+     *
+     * @param parts the parts of the credentials
+     * @return the digest of the credentials
+     */
+    public static CredentialsDigest of(byte[]... parts) {
+        final Mac mac = HMAC_SHA_256.get();
+        final byte[] length = new byte[Integer.BYTES];
+        for (byte[] part : parts) {
+            ByteBuffer.wrap(length).putInt(part.length);
+            mac.update(length);
+            mac.update(part);
+        }
+        final ByteBuffer hash = ByteBuffer.wrap(mac.doFinal());
+        return new CredentialsDigest(hash.getLong(), hash.getLong());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CredentialsDigest that = (CredentialsDigest) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CredentialsDigest{%016x%016x}", high, low);
+    }
+}
@@ -0,0 +1,202 @@
+package io.dropwizard.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import javax.annotation.Nullable;
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * An {@link Authenticator} decorator which caches principals like {@link CachingAuthenticator}, but keys the
+ * cache by {@link CredentialsDigest digests} of the credentials rather than by the credentials themselves, so
+ * that it doesn't retain secrets and uses a small, fixed amount of memory per key.
+ * <p>
+ * Concurrent requests with the same uncached credentials are authenticated only once. If the cache is built with
+ * {@link Caffeine#refreshAfterWrite(java.time.Duration) refreshAfterWrite}, the principals are authenticated again
+ * in the background when they're requested after the refresh interval, like those of a {@link CachingAuthenticator}.
+ * The credentials are needed for that, so a refreshing cache retains the credentials of each digest alongside it;
+ * otherwise, only the digests are retained, and the principals can only be invalidated by their credentials.
+ * </p>
+ *
+ * @param <C> the type of credentials the authenticator can authenticate
+ * @param <P> the type of principals the authenticator returns
+ * @since 2.1
+ */
+public class DigestCachingAuthenticator<C, P extends Principal> implements Authenticator<C, P> {
+    private final Function<? super C, CredentialsDigest> digester;
+    private final LoadingCache<DigestKey<C>, Optional<P>> cache;
+    private final boolean refreshing;
+    private final Timer gets;
+
+    /**
+     * Creates a new cached authenticator.
+     *
+     * @param metricRegistry the application's registry of metrics
+     * @param authenticator  the underlying authenticator
+     * @param builder        a {@link Caffeine}
+     * @param supplier       a {@link Supplier<StatsCounter>}
+     * @param digester       the function computing the digests of the credentials to key the cache by, e.g.
+     *                       {@code credentials -> CredentialsDigest.of(credentials.getUsername(),
+     *                       credentials.getPassword())}
+     */
+    public DigestCachingAuthenticator(final MetricRegistry metricRegistry,
+                                      final Authenticator<C, P> authenticator,
+                                      final Caffeine<Object, Object> builder,
+                                      final Supplier<StatsCounter> supplier,
+                                      final Function<? super C, CredentialsDigest> digester) {
+        this(metricRegistry, authenticator, builder, false, supplier, null, digester);
+    }
+
+    /**
+     * Creates a new cached authenticator, whose cache is optionally bounded by the weight of the principals
+     * rather than by their number. If a weigher is given, the builder must set a
+     * {@link Caffeine#maximumWeight(long) maximumWeight}, and the cached negative results have a weight of 1.
+     *
+     * @param metricRegistry      the application's registry of metrics
+     * @param authenticator       the underlying authenticator
+     * @param builder             a {@link Caffeine}
+     * @param cacheNegativeResult the boolean to enable negative cache
+     * @param supplier            a {@link Supplier<StatsCounter>}
+     * @param weigher             the weigher of the cached principals, if any
+     * @param digester            the function computing the digests of the credentials to key the cache by
+     */
+    public DigestCachingAuthenticator(final MetricRegistry metricRegistry,
+                                      final Authenticator<C, P> authenticator,
+                                      final Caffeine<Object, Object> builder,
+                                      final boolean cacheNegativeResult,
+                                      final Supplier<StatsCounter> supplier,
+                                      @Nullable final ToIntFunction<? super P> weigher,
+                                      final Function<? super C, CredentialsDigest> digester) {
+        this.digester = digester;
+        this.gets = metricRegistry.timer(name(authenticator.getClass(), "gets"));
+        final CacheLoader<DigestKey<C>, Optional<P>> loader = new CachingAuthenticator.PrincipalLoader<>(
+            authenticator, DigestKey::getCredentials, cacheNegativeResult,
+            metricRegistry.meter(name(authenticator.getClass(), "cache-misses")),
+            metricRegistry.meter(name(authenticator.getClass(), "cache-refreshes")));
+        if (weigher == null) {
+            this.cache = builder
+                    .recordStats(supplier)
+                    .build(loader);
+        } else {
+            this.cache = builder
+                    .<DigestKey<C>, Optional<P>>weigher((key, principal) ->
+                        principal.map(weigher::applyAsInt).orElse(1))
+                    .recordStats(supplier)
+                    .build(loader);
+        }
+        this.refreshing = cache.policy().refreshAfterWrite().isPresent();
+    }
+
+    @Override
+    public Optional<P> authenticate(C credentials) throws AuthenticationException {
+        final DigestKey<C> key = new DigestKey<>(digester.apply(credentials), credentials);
+        try (Timer.Context context = gets.time()) {
+            return cache.get(key);
+        } catch (CompletionException e) {
+            return CachingAuthenticator.handleLoadFailure(e);
+        } finally {
+            if (!refreshing) {
+                // The key may have been stored in the cache, which only needs its credentials to refresh principals
+                key.clearCredentials();
+            }
+        }
+    }
+
+    /**
+     * Discards any cached principal for the given credentials.
+     *
+     * @param credentials a set of credentials
+     */
+    public void invalidate(C credentials) {
+        cache.invalidate(new DigestKey<C>(digester.apply(credentials), null));
+    }
+
+    /**
+     * Discards any cached principal for the given collection of credentials.
+     *
+     * @param credentials a collection of credentials
+     */
+    public void invalidateAll(Iterable<C> credentials) {
+        final Set<DigestKey<C>> keys = new HashSet<>();
+        for (C c : credentials) {
+            keys.add(new DigestKey<>(digester.apply(c), null));
+        }
+        cache.invalidateAll(keys);
+    }
+
+    /**
+     * Discards all cached principals.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached principals.
+     *
+     * @return the number of cached principals
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Returns a set of statistics about the cache contents and usage.
+     *
+     * @return a set of statistics about the cache contents and usage
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * A key of the cache, which equals the keys of the same digest, and references the credentials to load and
+     * refresh the principal with.
+     */
+    private static final class DigestKey<C> {
+        private final CredentialsDigest digest;
+        @Nullable
+        private volatile C credentials;
+
+        private DigestKey(CredentialsDigest digest, @Nullable C credentials) {
+            this.digest = digest;
+            this.credentials = credentials;
+        }
+
+        private C getCredentials() {
+            final C c = credentials;
+            if (c == null) {
+                throw new IllegalStateException("The credentials of the digest are not retained");
+            }
+            return c;
+        }
+
+        private void clearCredentials() {
+            credentials = null;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return this == obj || (obj instanceof DigestKey && digest.equals(((DigestKey<?>) obj).digest));
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.dropwizard.auth;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.container.ContainerRequestContext;
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * An {@link Authorizer} which loads all the roles of a principal at once, regardless of the request.
+ * <p>
+ * {@link CachingAuthorizer} caches the role set of each principal, rather than each combination of
+ * principal, role and request, so that the checks of all the roles of a principal need a single call
+ * to the authorizer.
+ * </p>
+ *
+ * @param <P> the type of principals
+ * @since 2.1
+ */
+public interface RoleSetAuthorizer<P extends Principal> extends Authorizer<P> {
+    /**
+     * Returns the roles of the given principal.
+     *
+     * @param principal a {@link Principal} object, representing a user
+     * @return the roles the principal is in
+     */
+    Set<String> getRoles(P principal);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Deprecated
+    default boolean authorize(P principal, String role) {
+        return getRoles(principal).contains(role);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default boolean authorize(P principal, String role, @Nullable ContainerRequestContext requestContext) {
+        return getRoles(principal).contains(role);
+    }
+}
@@ -0,0 +1,43 @@
+package io.dropwizard.auth.basic;
+
+import io.dropwizard.auth.AsyncAuthFilter;
+import io.dropwizard.auth.AsyncAuthenticator;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
+import java.security.Principal;
+
+/**
+ * An {@link AsyncAuthFilter} for the credentials of HTTP Basic authentication, to be used with a
+ * {@link BasicCredentialAuthFilter} with the same prefix.
+ *
+ * @param <P> the type of the principal
+ * @since 2.1
+ */
+public class BasicCredentialAsyncAuthFilter<P extends Principal> extends AsyncAuthFilter<BasicCredentials, P> {
+
+    private BasicCredentialAsyncAuthFilter() {
+    }
+
+    @Override
+    @Nullable
+    protected BasicCredentials getCredentials(HttpServletRequest request) {
+        return BasicCredentialAuthFilter.getCredentials(prefix, request.getHeader(HttpHeaders.AUTHORIZATION), logger);
+    }
+
+    /**
+     * Builder for {@link BasicCredentialAsyncAuthFilter}.
+     * <p>An {@link AsyncAuthenticator} must be provided during the building process.</p>
+     *
+     * @param <P> the principal
+     */
+    public static class Builder<P extends Principal> extends
+            AsyncAuthFilterBuilder<BasicCredentials, P, BasicCredentialAsyncAuthFilter<P>> {
+
+        @Override
+        protected BasicCredentialAsyncAuthFilter<P> newInstance() {
+            return new BasicCredentialAsyncAuthFilter<>();
+        }
+    }
+}
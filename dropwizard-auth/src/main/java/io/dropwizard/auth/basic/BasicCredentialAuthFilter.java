@@ -2,6 +2,7 @@ package io.dropwizard.auth.basic;
 
 import io.dropwizard.auth.AuthFilter;
 import io.dropwizard.auth.Authenticator;
+import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
 import javax.annotation.Priority;
@@ -23,7 +24,7 @@ public class BasicCredentialAuthFilter<P extends Principal> extends AuthFilter<B
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
         final BasicCredentials credentials =
-                getCredentials(requestContext.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+                getCredentials(prefix, requestContext.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), logger);
         if (!authenticate(requestContext, credentials, SecurityContext.BASIC_AUTH)) {
             throw unauthorizedHandler.buildException(prefix, realm);
         }
@@ -33,11 +34,13 @@ public class BasicCredentialAuthFilter<P extends Principal> extends AuthFilter<B
      * Parses a Base64-encoded value of the `Authorization` header
      * in the form of `Basic dXNlcm5hbWU6cGFzc3dvcmQ=`.
      *
+     * @param prefix the authentication scheme
      * @param header the value of the `Authorization` header
+     * @param logger the logger to report undecodable credentials to
      * @return a username and a password as {@link BasicCredentials}
      */
     @Nullable
-    private BasicCredentials getCredentials(String header) {
+    static BasicCredentials getCredentials(String prefix, @Nullable String header, Logger logger) {
         if (header == null) {
             return null;
         }
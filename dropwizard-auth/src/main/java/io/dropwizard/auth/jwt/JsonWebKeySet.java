@@ -0,0 +1,162 @@
+package io.dropwizard.auth.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.annotation.Nullable;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A set of keys to verify the signatures of {@link JsonWebToken JSON Web Tokens} with, identified by their key IDs.
+ * <p>
+ * It can be read from a JSON Web Key Set document, from which the RSA ({@code RSA}), elliptic curve
+ * ({@code EC}, on the {@code P-256}, {@code P-384} and {@code P-521} curves) and symmetric ({@code oct}) keys
+ * are used, unless they're meant for encryption. Keys without an ID can only verify tokens without a key ID.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class JsonWebKeySet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String NO_KEY_ID = "";
+
+    private final Map<String, Key> keys;
+
+    private JsonWebKeySet(Map<String, Key> keys) {
+        this.keys = Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * Returns a set of configured keys.
+     *
+     * @param keys the public keys, or the secret keys for HMAC signatures, by key ID
+     * @return the set of keys
+     */
+    public static JsonWebKeySet of(Map<String, ? extends Key> keys) {
+        return new JsonWebKeySet(new HashMap<>(keys));
+    }
+
+    /**
+     * Reads a JSON Web Key Set document from a file.
+     *
+     * @param file the path of the document
+     * @return the set of keys
+     * @throws IOException if the document can't be read, or contains invalid keys
+     */
+    public static JsonWebKeySet read(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return read(input);
+        }
+    }
+
+    /**
+     * Reads a JSON Web Key Set document.
+     *
+     * @param input the document
+     * @return the set of keys
+     * @throws IOException if the document can't be read, or contains invalid keys
+     */
+    public static JsonWebKeySet read(InputStream input) throws IOException {
+        final JsonNode document = MAPPER.readTree(input);
+        final JsonNode jwks = document == null ? null : document.get("keys");
+        if (jwks == null || !jwks.isArray()) {
+            throw new IOException("The JSON Web Key Set doesn't have any keys");
+        }
+
+        final Map<String, Key> keys = new HashMap<>();
+        for (JsonNode jwk : jwks) {
+            if ("enc".equals(jwk.path("use").asText(null))) {
+                continue;
+            }
+            try {
+                final Key key = parseKey(jwk);
+                if (key != null) {
+                    keys.put(jwk.path("kid").asText(NO_KEY_ID), key);
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new IOException("Invalid JSON Web Key " + jwk.path("kid").asText(NO_KEY_ID), e);
+            }
+        }
+        return new JsonWebKeySet(keys);
+    }
+
+    @Nullable
+    private static Key parseKey(JsonNode jwk) throws GeneralSecurityException {
+        switch (jwk.path("kty").asText()) {
+            case "RSA":
+                return KeyFactory.getInstance("RSA").generatePublic(
+                    new RSAPublicKeySpec(integer(jwk, "n"), integer(jwk, "e")));
+            case "EC":
+                final AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec(curveName(jwk.path("crv").asText())));
+                return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+                    new ECPoint(integer(jwk, "x"), integer(jwk, "y")),
+                    parameters.getParameterSpec(ECParameterSpec.class)));
+            case "oct":
+                return new SecretKeySpec(bytes(jwk, "k"), "HMAC");
+            default:
+                return null;
+        }
+    }
+
+    private static String curveName(String curve) throws GeneralSecurityException {
+        switch (curve) {
+            case "P-256":
+                return "secp256r1";
+            case "P-384":
+                return "secp384r1";
+            case "P-521":
+                return "secp521r1";
+            default:
+                throw new GeneralSecurityException("Unsupported curve " + curve);
+        }
+    }
+
+    private static BigInteger integer(JsonNode jwk, String name) {
+        return new BigInteger(1, bytes(jwk, name));
+    }
+
+    private static byte[] bytes(JsonNode jwk, String name) {
+        final String value = jwk.path(name).asText();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return Base64.getUrlDecoder().decode(value);
+    }
+
+    /**
+     * Returns the key with the given ID.
+     *
+     * @param keyId the ID of the key, if any
+     * @return the key, or {@link Optional#empty()} if there isn't such a key
+     */
+    public Optional<Key> getKey(@Nullable String keyId) {
+        return Optional.ofNullable(keys.get(keyId == null ? NO_KEY_ID : keyId));
+    }
+
+    /**
+     * @return the keys by key ID, where keys without an ID have an empty ID
+     */
+    public Map<String, Key> getKeys() {
+        return keys;
+    }
+}
@@ -0,0 +1,179 @@
+package io.dropwizard.auth.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A JSON Web Token in the JWS compact serialization, i.e. {@code header.payload.signature}, whose header
+ * and claims are JSON objects.
+ * <p>
+ * Parsing a token doesn't verify it: use a {@link JwtVerifier} to get the tokens which are signed with
+ * known keys and currently valid.
+ * </p>
+ *
+ * @since 2.1
+ */
+public final class JsonWebToken {
+    private static final ObjectReader MAP_READER = new ObjectMapper().readerForMapOf(Object.class);
+
+    private final Map<String, Object> header;
+    private final Map<String, Object> claims;
+    private final byte[] signingInput;
+    private final byte[] signature;
+
+    private JsonWebToken(Map<String, Object> header, Map<String, Object> claims, byte[] signingInput,
+                         byte[] signature) {
+        this.header = header;
+        this.claims = claims;
+        this.signingInput = signingInput;
+        this.signature = signature;
+    }
+
+    /**
+     * Parses a token.
+     *
+     * @param token a token in the JWS compact serialization
+     * @return the token, or {@link Optional#empty()} if it's malformed
+     */
+    public static Optional<JsonWebToken> parse(String token) {
+        final int firstDot = token.indexOf('.');
+        final int secondDot = token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return Optional.empty();
+        }
+
+        try {
+            final Base64.Decoder decoder = Base64.getUrlDecoder();
+            final Map<String, Object> header = MAP_READER.readValue(decoder.decode(token.substring(0, firstDot)));
+            final Map<String, Object> claims = MAP_READER.readValue(
+                decoder.decode(token.substring(firstDot + 1, secondDot)));
+            if (header == null || claims == null) {
+                return Optional.empty();
+            }
+            final byte[] signingInput = token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII);
+            final byte[] signature = decoder.decode(token.substring(secondDot + 1));
+            return Optional.of(new JsonWebToken(Collections.unmodifiableMap(header),
+                Collections.unmodifiableMap(claims), signingInput, signature));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the header parameters of the token
+     */
+    public Map<String, Object> getHeader() {
+        return header;
+    }
+
+    /**
+     * @return the claims of the token
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return the {@code alg} header parameter, if any
+     */
+    @Nullable
+    public String getAlgorithm() {
+        return getString(header, "alg");
+    }
+
+    /**
+     * @return the {@code kid} header parameter, if any
+     */
+    @Nullable
+    public String getKeyId() {
+        return getString(header, "kid");
+    }
+
+    /**
+     * @return the {@code sub} claim, if any
+     */
+    @Nullable
+    public String getSubject() {
+        return getString(claims, "sub");
+    }
+
+    /**
+     * @return the {@code iss} claim, if any
+     */
+    @Nullable
+    public String getIssuer() {
+        return getString(claims, "iss");
+    }
+
+    /**
+     * @return the {@code aud} claim, which can be a single audience or a list of audiences
+     */
+    public List<String> getAudience() {
+        final Object audience = claims.get("aud");
+        if (audience instanceof String) {
+            return Collections.singletonList((String) audience);
+        }
+        if (!(audience instanceof List)) {
+            return Collections.emptyList();
+        }
+        final List<String> audiences = new ArrayList<>();
+        for (Object value : (List<?>) audience) {
+            if (value instanceof String) {
+                audiences.add((String) value);
+            }
+        }
+        return Collections.unmodifiableList(audiences);
+    }
+
+    /**
+     * @return the {@code exp} claim, if any
+     */
+    public Optional<Instant> getExpiration() {
+        return getInstant("exp");
+    }
+
+    /**
+     * @return the {@code nbf} claim, if any
+     */
+    public Optional<Instant> getNotBefore() {
+        return getInstant("nbf");
+    }
+
+    byte[] getSigningInput() {
+        return signingInput;
+    }
+
+    byte[] getSignature() {
+        return signature;
+    }
+
+    private Optional<Instant> getInstant(String name) {
+        final Object value = claims.get(name);
+        if (!(value instanceof Number)) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochSecond(((Number) value).longValue()));
+    }
+
+    @Nullable
+    private static String getString(Map<String, Object> values, String name) {
+        final Object value = values.get(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonWebToken{header=" + header + ", claims=" + claims + "}";
+    }
+}
@@ -0,0 +1,42 @@
+package io.dropwizard.auth.jwt;
+
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An {@link Authenticator} of bearer tokens which are JSON Web Tokens, verified locally by a {@link JwtVerifier}
+ * instead of by a remote service. It's meant to be used with an
+ * {@link io.dropwizard.auth.oauth.OAuthCredentialAuthFilter}:
+ *
+ * <pre>{@code
+ * new OAuthCredentialAuthFilter.Builder<User>()
+ *     .setAuthenticator(new JwtAuthenticator<>(verifier, token -> Optional.of(new User(token.getSubject()))))
+ *     .setPrefix("Bearer")
+ *     .buildAuthFilter();
+ * }</pre>
+ *
+ * @param <P> the type of principals the authenticator returns
+ * @since 2.1
+ */
+public class JwtAuthenticator<P extends Principal> implements Authenticator<String, P> {
+    private final JwtVerifier verifier;
+    private final Function<JsonWebToken, Optional<P>> principalFactory;
+
+    /**
+     * @param verifier         the verifier of the tokens
+     * @param principalFactory the function returning the principal of a verified token, if any
+     */
+    public JwtAuthenticator(JwtVerifier verifier, Function<JsonWebToken, Optional<P>> principalFactory) {
+        this.verifier = verifier;
+        this.principalFactory = principalFactory;
+    }
+
+    @Override
+    public Optional<P> authenticate(String credentials) throws AuthenticationException {
+        return verifier.verify(credentials).flatMap(principalFactory);
+    }
+}
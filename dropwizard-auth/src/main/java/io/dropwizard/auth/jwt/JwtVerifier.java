@@ -0,0 +1,449 @@
+package io.dropwizard.auth.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.dropwizard.auth.CredentialsDigest;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECParameterSpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Verifies {@link JsonWebToken JSON Web Tokens} locally: their signatures against a {@link JsonWebKeySet}, and their
+ * expiration time, not-before time, issuer and audience.
+ * <p>
+ * The {@code RS256}, {@code RS384}, {@code RS512}, {@code ES256}, {@code ES384}, {@code ES512}, {@code HS256},
+ * {@code HS384} and {@code HS512} algorithms are supported, and each algorithm requires a key of the matching type,
+ * and for the {@code ES} algorithms a key on the matching curve. Tokens with critical ({@code crit}) header parameters
+ * are rejected, since no extensions are supported.
+ * Tokens with verified signatures are cached until they expire, so that they're only verified once; their claims
+ * are validated each time.
+ * </p>
+ * <p>
+ * The keys are loaded from a {@link KeySource} when the verifier is built, and again when {@link #rotateKeys()} is
+ * called, or when a token is signed with an unknown key, at most once per {@code minimumRotationInterval}.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class JwtVerifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtVerifier.class);
+    private static final long MAXIMUM_CACHE_NANOS = java.time.Duration.ofHours(1).toNanos();
+
+    /**
+     * A source of keys, e.g. a JSON Web Key Set file.
+     */
+    @FunctionalInterface
+    public interface KeySource {
+        /**
+         * @return the current keys
+         * @throws IOException if the keys can't be loaded
+         */
+        JsonWebKeySet getKeys() throws IOException;
+    }
+
+    private final KeySource keySource;
+    @Nullable
+    private final String issuer;
+    @Nullable
+    private final String audience;
+    private final java.time.Duration clockSkew;
+    private final boolean expirationRequired;
+    private final long minimumRotationIntervalMillis;
+    private final Clock clock;
+    private final Cache<CredentialsDigest, JsonWebToken> verifiedTokens;
+
+    private volatile JsonWebKeySet keys;
+    private volatile long lastRotationMillis;
+
+    private JwtVerifier(Builder builder) throws IOException {
+        this.keySource = requireNonNull(builder.keySource, "Key source is not set");
+        this.issuer = builder.issuer;
+        this.audience = builder.audience;
+        this.clockSkew = java.time.Duration.ofNanos(builder.clockSkew.toNanoseconds());
+        this.expirationRequired = builder.expirationRequired;
+        this.minimumRotationIntervalMillis = builder.minimumRotationInterval.toMilliseconds();
+        this.clock = builder.clock;
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(builder.cacheMaximumSize)
+            .expireAfter(new TokenExpiry())
+            .build();
+        this.keys = keySource.getKeys();
+        this.lastRotationMillis = clock.millis();
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @param token a token in the JWS compact serialization
+     * @return the token, or {@link Optional#empty()} if it's malformed, isn't signed with a known key, or isn't
+     * currently valid
+     */
+    public Optional<JsonWebToken> verify(String token) {
+        final CredentialsDigest digest = CredentialsDigest.of(token);
+        JsonWebToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified == null) {
+            final Optional<JsonWebToken> parsed = JsonWebToken.parse(token)
+                .filter(jwt -> !jwt.getHeader().containsKey("crit"))
+                .filter(this::hasValidSignature);
+            if (!parsed.isPresent()) {
+                return Optional.empty();
+            }
+            verified = parsed.get();
+            verifiedTokens.put(digest, verified);
+        }
+        return hasValidClaims(verified) ? Optional.of(verified) : Optional.empty();
+    }
+
+    /**
+     * Loads the keys again from the key source, e.g. after new keys have been published. The tokens verified with
+     * the previous keys are verified again. If the keys can't be loaded, the previous keys are kept.
+     *
+     * @return {@code true} if the keys have been loaded
+     */
+    public synchronized boolean rotateKeys() {
+        lastRotationMillis = clock.millis();
+        try {
+            keys = keySource.getKeys();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to load the keys to verify JSON Web Tokens with", e);
+            return false;
+        }
+        verifiedTokens.invalidateAll();
+        return true;
+    }
+
+    /**
+     * @return the current keys
+     */
+    public JsonWebKeySet getKeys() {
+        return keys;
+    }
+
+    private Optional<Key> getKey(@Nullable String keyId) {
+        final Optional<Key> key = keys.getKey(keyId);
+        if (key.isPresent() || clock.millis() - lastRotationMillis < minimumRotationIntervalMillis) {
+            return key;
+        }
+        synchronized (this) {
+            // Another thread may have rotated the keys in the meantime
+            if (clock.millis() - lastRotationMillis >= minimumRotationIntervalMillis) {
+                rotateKeys();
+            }
+        }
+        return keys.getKey(keyId);
+    }
+
+    private boolean hasValidSignature(JsonWebToken token) {
+        final String algorithm = token.getAlgorithm();
+        if (algorithm == null || algorithm.length() != 5) {
+            return false;
+        }
+        final String family = algorithm.substring(0, 2);
+        final String bits = algorithm.substring(2);
+        if (!"256".equals(bits) && !"384".equals(bits) && !"512".equals(bits)) {
+            return false;
+        }
+
+        final Optional<Key> key = getKey(token.getKeyId());
+        if (!key.isPresent()) {
+            return false;
+        }
+
+        try {
+            switch (family) {
+                case "RS":
+                    return key.get() instanceof RSAPublicKey
+                        && verifySignature("SHA" + bits + "withRSA", (PublicKey) key.get(), token.getSigningInput(),
+                        token.getSignature());
+                case "ES":
+                    return key.get() instanceof ECPublicKey
+                        && verifyEcdsaSignature(bits, (ECPublicKey) key.get(), token.getSigningInput(),
+                        token.getSignature());
+                case "HS":
+                    return key.get() instanceof SecretKey
+                        && verifyMac("HmacSHA" + bits, key.get(), token.getSigningInput(), token.getSignature());
+                default:
+                    return false;
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            LOGGER.debug("Unable to verify the signature of a JSON Web Token", e);
+            return false;
+        }
+    }
+
+    private static boolean verifySignature(String algorithm, PublicKey key, byte[] signingInput, byte[] signature)
+        throws GeneralSecurityException {
+        final Signature verifier = Signature.getInstance(algorithm);
+        verifier.initVerify(key);
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+
+    private static boolean verifyEcdsaSignature(String bits, ECPublicKey key, byte[] signingInput, byte[] signature)
+        throws GeneralSecurityException {
+        // ES256 uses the P-256 curve, ES384 the P-384 curve and ES512 the P-521 curve
+        final int fieldSize = "512".equals(bits) ? 521 : Integer.parseInt(bits);
+        final ECParameterSpec params = key.getParams();
+        if (params.getCurve().getField().getFieldSize() != fieldSize
+            || signature.length != 2 * ((fieldSize + 7) / 8)) {
+            return false;
+        }
+        final int half = signature.length / 2;
+        final BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 0, half));
+        final BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, half, signature.length));
+        // Values outside of [1, n - 1] are rejected here rather than left to the JCA, see CVE-2022-21449
+        if (!isInRange(r, params.getOrder()) || !isInRange(s, params.getOrder())) {
+            return false;
+        }
+        return verifySignature("SHA" + bits + "withECDSA", key, signingInput, toDer(r, s));
+    }
+
+    private static boolean isInRange(BigInteger value, BigInteger order) {
+        return value.signum() > 0 && value.compareTo(order) < 0;
+    }
+
+    private static boolean verifyMac(String algorithm, Key key, byte[] signingInput, byte[] signature)
+        throws GeneralSecurityException {
+        final Mac mac = Mac.getInstance(algorithm);
+        mac.init(key);
+        return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+    }
+
+    /**
+     * Converts an ECDSA signature from the JWS format, the concatenation of R and S, to the DER format of the JCA.
+     */
+    static byte[] toDer(byte[] signature) {
+        if (signature.length == 0 || signature.length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid ECDSA signature length " + signature.length);
+        }
+        final int half = signature.length / 2;
+        return toDer(new BigInteger(1, Arrays.copyOfRange(signature, 0, half)),
+            new BigInteger(1, Arrays.copyOfRange(signature, half, signature.length)));
+    }
+
+    private static byte[] toDer(BigInteger rValue, BigInteger sValue) {
+        final byte[] r = rValue.toByteArray();
+        final byte[] s = sValue.toByteArray();
+        final int length = 2 + r.length + 2 + s.length;
+        final byte[] der = new byte[(length < 128 ? 2 : 3) + length];
+        int position = 0;
+        der[position++] = 0x30;
+        if (length >= 128) {
+            der[position++] = (byte) 0x81;
+        }
+        der[position++] = (byte) length;
+        der[position++] = 0x02;
+        der[position++] = (byte) r.length;
+        System.arraycopy(r, 0, der, position, r.length);
+        position += r.length;
+        der[position++] = 0x02;
+        der[position++] = (byte) s.length;
+        System.arraycopy(s, 0, der, position, s.length);
+        return der;
+    }
+
+    private boolean hasValidClaims(JsonWebToken token) {
+        final Instant now = clock.instant();
+        final Optional<Instant> expiration = token.getExpiration();
+        if (expiration.isPresent() ? !now.isBefore(expiration.get().plus(clockSkew)) : expirationRequired) {
+            return false;
+        }
+        final Optional<Instant> notBefore = token.getNotBefore();
+        if (notBefore.isPresent() && now.plus(clockSkew).isBefore(notBefore.get())) {
+            return false;
+        }
+        if (issuer != null && !issuer.equals(token.getIssuer())) {
+            return false;
+        }
+        return audience == null || token.getAudience().contains(audience);
+    }
+
+    /**
+     * Keeps the verified tokens until they expire, for an hour at most.
+     */
+    private class TokenExpiry implements Expiry<CredentialsDigest, JsonWebToken> {
+        @Override
+        public long expireAfterCreate(CredentialsDigest key, JsonWebToken token, long currentTime) {
+            return token.getExpiration()
+                .map(expiration -> java.time.Duration.between(clock.instant(), expiration.plus(clockSkew)).toNanos())
+                .map(nanos -> Math.max(0, Math.min(nanos, MAXIMUM_CACHE_NANOS)))
+                .orElse(MAXIMUM_CACHE_NANOS);
+        }
+
+        @Override
+        public long expireAfterUpdate(CredentialsDigest key, JsonWebToken token, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(CredentialsDigest key, JsonWebToken token, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Builder for {@link JwtVerifier}.
+     * <p>A key source must be provided during the building process.</p>
+     */
+    public static class Builder {
+        @Nullable
+        private KeySource keySource;
+        @Nullable
+        private String issuer;
+        @Nullable
+        private String audience;
+        private Duration clockSkew = Duration.seconds(60);
+        private boolean expirationRequired = true;
+        private long cacheMaximumSize = 10_000;
+        private Duration minimumRotationInterval = Duration.minutes(1);
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Sets the source of the keys
+         *
+         * @param keySource a {@link KeySource}
+         * @return the current builder
+         */
+        public Builder setKeySource(KeySource keySource) {
+            this.keySource = keySource;
+            return this;
+        }
+
+        /**
+         * Sets configured keys, which are never rotated
+         *
+         * @param keys a {@link JsonWebKeySet}
+         * @return the current builder
+         */
+        public Builder setKeys(JsonWebKeySet keys) {
+            return setKeySource(() -> keys);
+        }
+
+        /**
+         * Sets a JSON Web Key Set file as the source of the keys, which is read again when the keys are rotated
+         *
+         * @param file the path of the JSON Web Key Set file
+         * @return the current builder
+         */
+        public Builder setKeyFile(Path file) {
+            return setKeySource(() -> JsonWebKeySet.read(file));
+        }
+
+        /**
+         * Sets the required issuer of the tokens
+         *
+         * @param issuer the required {@code iss} claim
+         * @return the current builder
+         */
+        public Builder setIssuer(String issuer) {
+            this.issuer = issuer;
+            return this;
+        }
+
+        /**
+         * Sets the required audience of the tokens
+         *
+         * @param audience the value the {@code aud} claim must contain
+         * @return the current builder
+         */
+        public Builder setAudience(String audience) {
+            this.audience = audience;
+            return this;
+        }
+
+        /**
+         * Sets the tolerated difference between the clocks of the issuer and of the application, 1 minute by default
+         *
+         * @param clockSkew the tolerated clock skew
+         * @return the current builder
+         */
+        public Builder setClockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        /**
+         * Sets whether tokens without an expiration time are rejected, which they are by default
+         *
+         * @param expirationRequired whether the {@code exp} claim is required
+         * @return the current builder
+         */
+        public Builder setExpirationRequired(boolean expirationRequired) {
+            this.expirationRequired = expirationRequired;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of verified tokens to cache, 10000 by default
+         *
+         * @param cacheMaximumSize the maximum number of cached tokens
+         * @return the current builder
+         */
+        public Builder setCacheMaximumSize(long cacheMaximumSize) {
+            this.cacheMaximumSize = cacheMaximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the minimum time between the rotations of the keys caused by tokens signed with unknown keys, 1 minute
+         * by default
+         *
+         * @param minimumRotationInterval the minimum time between rotations
+         * @return the current builder
+         */
+        public Builder setMinimumRotationInterval(Duration minimumRotationInterval) {
+            this.minimumRotationInterval = minimumRotationInterval;
+            return this;
+        }
+
+        /**
+         * Sets the clock to validate the times of the tokens with
+         *
+         * @param clock a {@link Clock}
+         * @return the current builder
+         */
+        public Builder setClock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Builds a verifier, and loads its keys.
+         *
+         * @return a new verifier
+         * @throws UncheckedIOException if the keys can't be loaded
+         */
+        public JwtVerifier build() {
+            try {
+                return new JwtVerifier(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to load the keys to verify JSON Web Tokens with", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.dropwizard.auth.oauth;
+
+import io.dropwizard.auth.AsyncAuthFilter;
+import io.dropwizard.auth.AsyncAuthenticator;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+
+/**
+ * An {@link AsyncAuthFilter} for OAuth 2.0 bearer tokens, to be used with an {@link OAuthCredentialAuthFilter}
+ * with the same prefix. Like the latter, it reads the token from the {@code Authorization} header, or else from the
+ * {@value OAuthCredentialAuthFilter#OAUTH_ACCESS_TOKEN_PARAM} query parameter.
+ *
+ * @param <P> the type of the principal
+ * @since 2.1
+ */
+public class OAuthCredentialAsyncAuthFilter<P extends Principal> extends AsyncAuthFilter<String, P> {
+
+    private OAuthCredentialAsyncAuthFilter() {
+    }
+
+    @Override
+    @Nullable
+    protected String getCredentials(HttpServletRequest request) {
+        final String credentials =
+            OAuthCredentialAuthFilter.getCredentials(prefix, request.getHeader(HttpHeaders.AUTHORIZATION));
+        return credentials == null ? getQueryParameter(request.getQueryString()) : credentials;
+    }
+
+    /**
+     * Reads the token from the query string rather than with {@link HttpServletRequest#getParameter(String)}, which
+     * would consume form entities before Jersey reads them.
+     */
+    @Nullable
+    private String getQueryParameter(@Nullable String query) {
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            final int equals = parameter.indexOf('=');
+            final String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            if (OAuthCredentialAuthFilter.OAUTH_ACCESS_TOKEN_PARAM.equals(name)) {
+                try {
+                    return equals < 0 ? "" : URLDecoder.decode(parameter.substring(equals + 1),
+                        StandardCharsets.UTF_8.name());
+                } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                    logger.warn("Error decoding credentials", e);
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builder for {@link OAuthCredentialAsyncAuthFilter}.
+     * <p>An {@link AsyncAuthenticator} must be provided during the building process.</p>
+     *
+     * @param <P> the type of the principal
+     */
+    public static class Builder<P extends Principal>
+            extends AsyncAuthFilterBuilder<String, P, OAuthCredentialAsyncAuthFilter<P>> {
+
+        @Override
+        protected OAuthCredentialAsyncAuthFilter<P> newInstance() {
+            return new OAuthCredentialAsyncAuthFilter<>();
+        }
+    }
+}
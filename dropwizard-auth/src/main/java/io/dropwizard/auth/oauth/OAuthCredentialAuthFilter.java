@@ -27,7 +27,7 @@ public class OAuthCredentialAuthFilter<P extends Principal> extends AuthFilter<S
 
     @Override
     public void filter(final ContainerRequestContext requestContext) throws IOException {
-        String credentials = getCredentials(requestContext.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        String credentials = getCredentials(prefix, requestContext.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
 
         // If Authorization header is not used, check query parameter where token can be passed as well
         if (credentials == null) {
@@ -42,11 +42,12 @@ public class OAuthCredentialAuthFilter<P extends Principal> extends AuthFilter<S
     /**
      * Parses a value of the `Authorization` header in the form of `Bearer a892bf3e284da9bb40648ab10`.
      *
+     * @param prefix the authentication scheme
      * @param header the value of the `Authorization` header
      * @return a token
      */
     @Nullable
-    private String getCredentials(String header) {
+    static String getCredentials(String prefix, @Nullable String header) {
         if (header == null) {
             return null;
         }
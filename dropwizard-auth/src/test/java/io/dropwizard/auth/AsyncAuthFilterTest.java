@@ -0,0 +1,203 @@
+package io.dropwizard.auth;
+
+import io.dropwizard.auth.basic.BasicCredentialAsyncAuthFilter;
+import io.dropwizard.auth.basic.BasicCredentialAuthFilter;
+import io.dropwizard.auth.basic.BasicCredentials;
+import io.dropwizard.auth.chained.ChainedAuthFilter;
+import io.dropwizard.auth.oauth.OAuthCredentialAsyncAuthFilter;
+import io.dropwizard.auth.oauth.OAuthCredentialAuthFilter;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.SecurityContext;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncAuthFilterTest {
+    private static final Authenticator<String, Principal> UNEXPECTED = credentials -> {
+        throw new AssertionError("Authenticated " + credentials + " synchronously");
+    };
+
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final ServletResponse response = mock(ServletResponse.class);
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final FilterChain chain = mock(FilterChain.class);
+    private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+    private final ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+    private final AtomicReference<SecurityContext> securityContext =
+        new AtomicReference<>(mock(SecurityContext.class));
+    private final CompletableFuture<Optional<Principal>> authentication = new CompletableFuture<>();
+    private final AsyncAuthFilter<String, Principal> asyncFilter = new OAuthCredentialAsyncAuthFilter.Builder<>()
+        .setAuthenticator(credentials -> "token".equals(credentials)
+            ? authentication
+            : CompletableFuture.completedFuture(Optional.empty()))
+        .setPrefix("Bearer")
+        .setTimeout(Duration.seconds(5))
+        .buildAuthFilter();
+    private final AuthFilter<String, Principal> authFilter = new OAuthCredentialAuthFilter.Builder<>()
+        .setAuthenticator(UNEXPECTED)
+        .setPrefix("Bearer")
+        .buildAuthFilter();
+
+    @BeforeEach
+    void setUp() {
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(request).setAttribute(anyString(), any());
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(requestContext.getProperty(anyString()))
+            .thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        when(requestContext.getHeaders()).thenReturn(headers);
+        when(requestContext.getSecurityContext()).thenAnswer(invocation -> securityContext.get());
+        doAnswer(invocation -> {
+            securityContext.set(invocation.getArgument(0));
+            return null;
+        }).when(requestContext).setSecurityContext(any());
+    }
+
+    @Test
+    void suspendsRequestsUntilTheirCredentialsAreAuthenticated() throws Exception {
+        authorize("Bearer token");
+
+        asyncFilter.doFilter(request, response, chain);
+
+        verify(asyncContext).setTimeout(5000);
+        verify(asyncContext, never()).dispatch();
+        verify(chain, never()).doFilter(request, response);
+
+        authentication.complete(Optional.of(new PrincipalImpl("user")));
+        verify(asyncContext).dispatch();
+
+        asyncFilter.doFilter(request, response, chain);
+        verify(chain).doFilter(request, response);
+
+        authFilter.filter(requestContext);
+        assertThat(requestContext.getSecurityContext().getUserPrincipal()).isEqualTo(new PrincipalImpl("user"));
+    }
+
+    @Test
+    void chainedFiltersUseTheAsynchronousResults() throws Exception {
+        authorize("Bearer token");
+        final BasicCredentialAuthFilter<Principal> basicFilter = new BasicCredentialAuthFilter.Builder<>()
+            .setAuthenticator((BasicCredentials credentials) -> {
+                throw new AssertionError("Authenticated " + credentials + " synchronously");
+            })
+            .buildAuthFilter();
+        final ChainedAuthFilter<Object, Principal> chainedFilter =
+            new ChainedAuthFilter<>(Arrays.asList(basicFilter, authFilter));
+
+        asyncFilter.doFilter(request, response, chain);
+        authentication.complete(Optional.of(new PrincipalImpl("user")));
+        asyncFilter.doFilter(request, response, chain);
+        chainedFilter.filter(requestContext);
+
+        assertThat(requestContext.getSecurityContext().getUserPrincipal()).isEqualTo(new PrincipalImpl("user"));
+    }
+
+    @Test
+    void rejectsInvalidCredentialsWithoutAuthenticatingThemAgain() throws Exception {
+        authorize("Bearer other-token");
+
+        asyncFilter.doFilter(request, response, chain);
+        verify(asyncContext).dispatch();
+        asyncFilter.doFilter(request, response, chain);
+
+        assertThatExceptionOfType(WebApplicationException.class)
+            .isThrownBy(() -> authFilter.filter(requestContext))
+            .satisfies(e -> assertThat(e.getResponse().getStatus()).isEqualTo(401));
+    }
+
+    @Test
+    void cancelsAuthenticationsWhichTimeOut() throws Exception {
+        authorize("Bearer token");
+        final ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+
+        asyncFilter.doFilter(request, response, chain);
+        verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+
+        verify(asyncContext).dispatch();
+        assertThat(authentication).isCancelled();
+        assertThatExceptionOfType(InternalServerErrorException.class)
+            .isThrownBy(() -> authFilter.filter(requestContext));
+    }
+
+    @Test
+    void passesOnRequestsWithoutCredentials() throws Exception {
+        asyncFilter.doFilter(request, response, chain);
+
+        verify(request, never()).startAsync();
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void passesOnRequestsAuthenticatedByAPreviousFilter() throws Exception {
+        authorize("Bearer token");
+        asyncFilter.doFilter(request, response, chain);
+        authentication.complete(Optional.of(new PrincipalImpl("user")));
+        final AsyncAuthFilter<BasicCredentials, Principal> basicFilter = new BasicCredentialAsyncAuthFilter.Builder<>()
+            .setAuthenticator(credentials -> {
+                throw new AssertionError("Authenticated " + credentials);
+            })
+            .buildAuthFilter();
+        authorize("Basic dXNlcjpwYXNzd29yZA==");
+
+        basicFilter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void readsTokensFromTheQueryString() throws Exception {
+        when(request.getQueryString()).thenReturn("page=2&access_token=t%2Bken");
+        final AtomicReference<String> credentials = new AtomicReference<>();
+        final AsyncAuthFilter<String, Principal> filter = new OAuthCredentialAsyncAuthFilter.Builder<>()
+            .setAuthenticator(token -> {
+                credentials.set(token);
+                return authentication;
+            })
+            .setPrefix("Bearer")
+            .buildAuthFilter();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(credentials).hasValue("t+ken");
+    }
+
+    private void authorize(String authorization) {
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn(authorization);
+        headers.putSingle(HttpHeaders.AUTHORIZATION, authorization);
+    }
+}
@@ -0,0 +1,54 @@
+package io.dropwizard.auth;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AsyncAuthenticatorTest {
+    private static final Duration TIMEOUT = Duration.milliseconds(50);
+
+    @Test
+    void waitsForThePrincipal() throws Exception {
+        final AsyncAuthenticator<String, Principal> authenticator =
+            credentials -> CompletableFuture.completedFuture(Optional.of(new PrincipalImpl(credentials)));
+
+        assertThat(authenticator.blocking(TIMEOUT).authenticate("user")).contains(new PrincipalImpl("user"));
+    }
+
+    @Test
+    void waitsForInvalidCredentials() throws Exception {
+        final AsyncAuthenticator<String, Principal> authenticator =
+            credentials -> CompletableFuture.completedFuture(Optional.empty());
+
+        assertThat(authenticator.blocking(TIMEOUT).authenticate("user")).isEmpty();
+    }
+
+    @Test
+    void propagatesAuthenticationFailures() {
+        final AuthenticationException failure = new AuthenticationException("Introspection failed");
+        final CompletableFuture<Optional<Principal>> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        final AsyncAuthenticator<String, Principal> authenticator = credentials -> future;
+
+        assertThatExceptionOfType(AuthenticationException.class)
+            .isThrownBy(() -> authenticator.blocking(TIMEOUT).authenticate("user"))
+            .isSameAs(failure);
+    }
+
+    @Test
+    void cancelsAuthenticationsWhichTimeOut() {
+        final CompletableFuture<Optional<Principal>> future = new CompletableFuture<>();
+        final AsyncAuthenticator<String, Principal> authenticator = credentials -> future;
+
+        assertThatExceptionOfType(AuthenticationException.class)
+            .isThrownBy(() -> authenticator.blocking(TIMEOUT).authenticate("user"))
+            .withMessageStartingWith("Authentication timed out");
+        assertThat(future).isCancelled();
+    }
+}
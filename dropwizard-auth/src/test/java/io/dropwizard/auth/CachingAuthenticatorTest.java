@@ -1,6 +1,7 @@
 package io.dropwizard.auth;
 
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.caffeine.MetricsStatsCounter;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,8 +10,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.security.Principal;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -129,4 +137,82 @@ class CachingAuthenticatorTest {
         verify(underlying).authenticate("credentials");
         assertThat(cached.size()).isEqualTo(1);
     }
+
+    @Test
+    void refreshesPrincipalsInTheBackground() throws Exception {
+        final AtomicLong ticker = new AtomicLong();
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        cached = new CachingAuthenticator<>(metricRegistry, underlying, Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .ticker(ticker::get)
+            .executor(Runnable::run));
+
+        cached.authenticate("credentials");
+        when(underlying.authenticate(anyString())).thenReturn(Optional.of(new PrincipalImpl("refreshed")));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // The cached principal is returned while it's refreshed
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("principal"));
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("refreshed"));
+        verify(underlying, times(2)).authenticate("credentials");
+        assertThat(metricRegistry.meter(MetricRegistry.name(underlying.getClass(), "cache-refreshes")).getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void discardsPrincipalsWhichCantBeAuthenticatedAnymoreOnRefresh() throws Exception {
+        final AtomicLong ticker = new AtomicLong();
+        cached = new CachingAuthenticator<>(new MetricRegistry(), underlying, Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .ticker(ticker::get)
+            .executor(Runnable::run));
+
+        cached.authenticate("credentials");
+        when(underlying.authenticate(anyString())).thenReturn(Optional.empty());
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cached.authenticate("credentials");
+
+        assertThat(cached.size()).isZero();
+        assertThat(cached.authenticate("credentials")).isEmpty();
+    }
+
+    @Test
+    void authenticatesConcurrentMissesOnce() throws Exception {
+        final CountDownLatch authenticating = new CountDownLatch(1);
+        final CountDownLatch authenticated = new CountDownLatch(1);
+        when(underlying.authenticate(anyString())).thenAnswer(invocation -> {
+            authenticating.countDown();
+            authenticated.await();
+            return Optional.of(new PrincipalImpl("principal"));
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Optional<Principal>> first = executor.submit(() -> cached.authenticate("credentials"));
+            authenticating.await();
+            final Future<Optional<Principal>> second = executor.submit(() -> cached.authenticate("credentials"));
+            authenticated.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).contains(new PrincipalImpl("principal"));
+            assertThat(second.get(5, TimeUnit.SECONDS)).contains(new PrincipalImpl("principal"));
+            verify(underlying, times(1)).authenticate("credentials");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void boundsTheCacheByTheWeightOfThePrincipals() throws Exception {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        cached = new CachingAuthenticator<>(metricRegistry, underlying,
+            Caffeine.newBuilder().maximumWeight(10).executor(Runnable::run), false,
+            () -> new MetricsStatsCounter(metricRegistry, "weighted"),
+            (credentials, principal) -> principal.getName().length());
+
+        cached.authenticate("credentials1");
+        assertThat(cached.size()).isEqualTo(1);
+
+        cached.authenticate("credentials2");
+        cached.authenticate("credentials3");
+        assertThat(cached.size()).isEqualTo(1);
+    }
 }
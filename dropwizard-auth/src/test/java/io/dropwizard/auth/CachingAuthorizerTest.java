@@ -9,6 +9,7 @@ import org.mockito.InOrder;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import java.security.Principal;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
@@ -17,6 +18,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -143,4 +145,53 @@ class CachingAuthorizerTest {
             .isThrownBy(() -> cached.authorize(principal, role, requestContext))
             .isSameAs(e);
     }
+
+    @Test
+    void cachesTheRoleSetsOfPrincipals() throws Exception {
+        @SuppressWarnings("unchecked")
+        final RoleSetAuthorizer<Principal> roleSetAuthorizer = mock(RoleSetAuthorizer.class);
+        when(roleSetAuthorizer.getRoles(principal)).thenReturn(Sets.of("admin", role));
+        when(roleSetAuthorizer.getRoles(principal2)).thenReturn(Collections.emptySet());
+        final CachingAuthorizer<Principal> cachedRoleSets = new CachingAuthorizer<>(
+            new MetricRegistry(), roleSetAuthorizer, CaffeineSpec.parse("maximumSize=10"));
+
+        assertThat(cachedRoleSets.authorize(principal, role, requestContext)).isTrue();
+        assertThat(cachedRoleSets.authorize(principal, "admin", requestContext)).isTrue();
+        assertThat(cachedRoleSets.authorize(principal, "other", null)).isFalse();
+        assertThat(cachedRoleSets.authorize(principal2, role, requestContext)).isFalse();
+
+        verify(roleSetAuthorizer, times(1)).getRoles(principal);
+        verify(roleSetAuthorizer, times(1)).getRoles(principal2);
+        verify(roleSetAuthorizer, never()).authorize(any(), anyString(), any());
+        assertThat(cachedRoleSets.size()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidatesTheRoleSetsOfPrincipals() throws Exception {
+        @SuppressWarnings("unchecked")
+        final RoleSetAuthorizer<Principal> roleSetAuthorizer = mock(RoleSetAuthorizer.class);
+        when(roleSetAuthorizer.getRoles(any())).thenReturn(Collections.singleton(role));
+        final CachingAuthorizer<Principal> cachedRoleSets = new CachingAuthorizer<>(
+            new MetricRegistry(), roleSetAuthorizer, CaffeineSpec.parse("maximumSize=10"));
+
+        cachedRoleSets.authorize(principal, role, requestContext);
+        cachedRoleSets.authorize(principal2, role, requestContext);
+        cachedRoleSets.invalidate(principal);
+        assertThat(cachedRoleSets.size()).isEqualTo(1);
+
+        cachedRoleSets.invalidate(principal2, role, requestContext);
+        assertThat(cachedRoleSets.size()).isZero();
+    }
+
+    @Test
+    void treatsMissingRoleSetsAsEmpty() throws Exception {
+        @SuppressWarnings("unchecked")
+        final RoleSetAuthorizer<Principal> roleSetAuthorizer = mock(RoleSetAuthorizer.class);
+        when(roleSetAuthorizer.getRoles(principal)).thenReturn(null);
+        final CachingAuthorizer<Principal> cachedRoleSets = new CachingAuthorizer<>(
+            new MetricRegistry(), roleSetAuthorizer, CaffeineSpec.parse("maximumSize=10"));
+
+        assertThat(cachedRoleSets.authorize(principal, role, requestContext)).isFalse();
+        assertThat(cachedRoleSets.size()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,45 @@
+package io.dropwizard.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CredentialsDigestTest {
+    @Test
+    void digestsEqualCredentialsEqually() {
+        assertThat(CredentialsDigest.of("user", "secret"))
+            .isEqualTo(CredentialsDigest.of("user", "secret"))
+            .hasSameHashCodeAs(CredentialsDigest.of("user", "secret"))
+            .isEqualTo(CredentialsDigest.of("user".getBytes(StandardCharsets.UTF_8),
+                "secret".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void digestsDifferentCredentialsDifferently() {
+        assertThat(CredentialsDigest.of("user", "secret")).isNotEqualTo(CredentialsDigest.of("user", "Secret"));
+        assertThat(CredentialsDigest.of("user", "secret")).isNotEqualTo(CredentialsDigest.of("users", "ecret"));
+        assertThat(CredentialsDigest.of("usersecret")).isNotEqualTo(CredentialsDigest.of("user", "secret"));
+    }
+
+    @Test
+    void doesNotRevealTheCredentials() {
+        assertThat(CredentialsDigest.of("user", "secret").toString())
+            .doesNotContain("user", "secret")
+            .matches("CredentialsDigest\\{[0-9a-f]{32}}");
+    }
+
+    @Test
+    void isNotAPlainHashOfTheCredentials() throws Exception {
+        final MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        final byte[] secret = "secret".getBytes(StandardCharsets.UTF_8);
+        sha256.update(ByteBuffer.allocate(Integer.BYTES).putInt(secret.length).array());
+        final ByteBuffer hash = ByteBuffer.wrap(sha256.digest(secret));
+
+        assertThat(CredentialsDigest.of("secret").toString())
+            .isNotEqualTo(String.format("CredentialsDigest{%016x%016x}", hash.getLong(), hash.getLong()));
+    }
+}
@@ -0,0 +1,150 @@
+package io.dropwizard.auth;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.caffeine.MetricsStatsCounter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DigestCachingAuthenticatorTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    @Mock(lenient = true)
+    private Authenticator<String, Principal> underlying;
+    private DigestCachingAuthenticator<String, Principal> cached;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(underlying.authenticate(anyString())).thenReturn(Optional.of(new PrincipalImpl("principal")));
+        cached = new DigestCachingAuthenticator<>(metricRegistry, underlying,
+            Caffeine.newBuilder().maximumSize(1L).executor(Runnable::run),
+            () -> new MetricsStatsCounter(metricRegistry, "digested"), CredentialsDigest::of);
+    }
+
+    @Test
+    void cachesTheFirstReturnedPrincipal() throws Exception {
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("principal"));
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("principal"));
+
+        verify(underlying, times(1)).authenticate("credentials");
+    }
+
+    @Test
+    void invalidatesCredentials() throws Exception {
+        cached.authenticate("credentials");
+        cached.invalidate("credentials");
+        cached.authenticate("credentials");
+        verify(underlying, times(2)).authenticate("credentials");
+
+        cached.invalidateAll(Collections.singleton("credentials"));
+        assertThat(cached.size()).isZero();
+
+        cached.authenticate("credentials");
+        cached.invalidateAll();
+        assertThat(cached.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheInvalidCredentials() throws Exception {
+        when(underlying.authenticate("invalid")).thenReturn(Optional.empty());
+
+        assertThat(cached.authenticate("invalid")).isEmpty();
+        assertThat(cached.authenticate("invalid")).isEmpty();
+
+        verify(underlying, times(2)).authenticate("invalid");
+    }
+
+    @Test
+    void propagatesAuthenticationExceptions() throws Exception {
+        when(underlying.authenticate("failing")).thenThrow(new AuthenticationException("Auth failed"));
+
+        assertThatExceptionOfType(AuthenticationException.class)
+            .isThrownBy(() -> cached.authenticate("failing"))
+            .withMessage("Auth failed");
+    }
+
+    @Test
+    void refreshesPrincipalsInTheBackground() throws Exception {
+        final AtomicLong ticker = new AtomicLong();
+        cached = new DigestCachingAuthenticator<>(metricRegistry, underlying, Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .ticker(ticker::get)
+            .executor(Runnable::run),
+            () -> new MetricsStatsCounter(metricRegistry, "refreshed"), CredentialsDigest::of);
+
+        cached.authenticate("credentials");
+        when(underlying.authenticate(anyString())).thenReturn(Optional.of(new PrincipalImpl("refreshed")));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        // The cached principal is returned while it's refreshed
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("principal"));
+        assertThat(cached.authenticate("credentials")).contains(new PrincipalImpl("refreshed"));
+        verify(underlying, times(2)).authenticate("credentials");
+        assertThat(metricRegistry.meter(MetricRegistry.name(underlying.getClass(), "cache-refreshes")).getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void discardsPrincipalsWhichCantBeAuthenticatedAnymoreOnRefresh() throws Exception {
+        final AtomicLong ticker = new AtomicLong();
+        cached = new DigestCachingAuthenticator<>(metricRegistry, underlying, Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofMinutes(1))
+            .ticker(ticker::get)
+            .executor(Runnable::run),
+            () -> new MetricsStatsCounter(metricRegistry, "refreshed"), CredentialsDigest::of);
+
+        cached.authenticate("credentials");
+        when(underlying.authenticate(anyString())).thenReturn(Optional.empty());
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cached.authenticate("credentials");
+
+        assertThat(cached.size()).isZero();
+        assertThat(cached.authenticate("credentials")).isEmpty();
+    }
+
+    @Test
+    void authenticatesConcurrentMissesOnce() throws Exception {
+        final CountDownLatch authenticating = new CountDownLatch(1);
+        final CountDownLatch authenticated = new CountDownLatch(1);
+        when(underlying.authenticate(anyString())).thenAnswer(invocation -> {
+            authenticating.countDown();
+            authenticated.await();
+            return Optional.of(new PrincipalImpl("principal"));
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Optional<Principal>> first = executor.submit(() -> cached.authenticate("credentials"));
+            authenticating.await();
+            final Future<Optional<Principal>> second = executor.submit(() -> cached.authenticate("credentials"));
+            authenticated.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).contains(new PrincipalImpl("principal"));
+            assertThat(second.get(5, TimeUnit.SECONDS)).contains(new PrincipalImpl("principal"));
+            verify(underlying, times(1)).authenticate("credentials");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.dropwizard.auth.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static io.dropwizard.auth.jwt.JwtVerifierTest.generateKeyPair;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class JsonWebKeySetTest {
+    private final KeyPair rsaKeys = generateKeyPair("RSA", null);
+    private final KeyPair ecKeys = generateKeyPair("EC", "secp256r1");
+
+    @Test
+    void readsRsaEllipticCurveAndSymmetricKeys(@TempDir Path directory) throws Exception {
+        final RSAPublicKey rsaKey = (RSAPublicKey) rsaKeys.getPublic();
+        final ECPublicKey ecKey = (ECPublicKey) ecKeys.getPublic();
+        final String jwks = "{\"keys\":["
+            + "{\"kty\":\"RSA\",\"kid\":\"rsa\",\"use\":\"sig\",\"n\":\"" + encode(rsaKey.getModulus())
+            + "\",\"e\":\"" + encode(rsaKey.getPublicExponent()) + "\"},"
+            + "{\"kty\":\"EC\",\"kid\":\"ec\",\"crv\":\"P-256\",\"x\":\"" + encode(ecKey.getW().getAffineX())
+            + "\",\"y\":\"" + encode(ecKey.getW().getAffineY()) + "\"},"
+            + "{\"kty\":\"oct\",\"kid\":\"hmac\",\"k\":\"c2VjcmV0\"},"
+            + "{\"kty\":\"RSA\",\"kid\":\"encryption\",\"use\":\"enc\",\"n\":\"AQAB\",\"e\":\"AQAB\"},"
+            + "{\"kty\":\"OKP\",\"kid\":\"unsupported\",\"crv\":\"Ed25519\",\"x\":\"AQAB\"}"
+            + "]}";
+        final Path file = Files.write(directory.resolve("jwks.json"), jwks.getBytes(StandardCharsets.UTF_8));
+
+        final JsonWebKeySet keys = JsonWebKeySet.read(file);
+
+        assertThat(keys.getKeys()).containsOnlyKeys("rsa", "ec", "hmac");
+        assertThat(keys.getKey("rsa")).contains(rsaKey);
+        assertThat(keys.getKey("ec")).contains(ecKey);
+        assertThat(keys.getKey("hmac")).hasValueSatisfying(key ->
+            assertThat(key.getEncoded()).isEqualTo("secret".getBytes(StandardCharsets.UTF_8)));
+        assertThat(keys.getKey(null)).isEmpty();
+    }
+
+    @Test
+    void usesKeysWithoutIdsForTokensWithoutKeyIds() throws Exception {
+        final JsonWebKeySet keys = read("{\"keys\":[{\"kty\":\"oct\",\"k\":\"c2VjcmV0\"}]}");
+
+        assertThat(keys.getKey(null)).isPresent();
+        assertThat(keys.getKey("hmac")).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidDocuments() {
+        assertThatIOException().isThrownBy(() -> read("{}"));
+        assertThatIOException().isThrownBy(() -> read("{\"keys\":[{\"kty\":\"EC\",\"kid\":\"ec\",\"crv\":\"P-192\","
+            + "\"x\":\"AQAB\",\"y\":\"AQAB\"}]}"))
+            .withMessage("Invalid JSON Web Key ec");
+        assertThatIOException().isThrownBy(() -> read("{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"rsa\"}]}"));
+    }
+
+    private static JsonWebKeySet read(String jwks) throws IOException {
+        return JsonWebKeySet.read(new ByteArrayInputStream(jwks.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String encode(BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        final int start = bytes[0] == 0 && bytes.length > 1 ? 1 : 0;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+            Arrays.copyOfRange(bytes, start, bytes.length));
+    }
+}
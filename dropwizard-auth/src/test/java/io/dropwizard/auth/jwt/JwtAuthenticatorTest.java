@@ -0,0 +1,47 @@
+package io.dropwizard.auth.jwt;
+
+import io.dropwizard.auth.PrincipalImpl;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+
+import static io.dropwizard.auth.jwt.JwtVerifierTest.generateKeyPair;
+import static io.dropwizard.auth.jwt.JwtVerifierTest.sign;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticatorTest {
+    private final KeyPair keys = generateKeyPair("RSA", null);
+    private final JwtAuthenticator<Principal> authenticator = new JwtAuthenticator<>(
+        new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("rsa", keys.getPublic())))
+            .build(),
+        token -> Optional.ofNullable(token.getSubject()).map(PrincipalImpl::new));
+
+    @Test
+    void authenticatesTheSubjectsOfVerifiedTokens() throws Exception {
+        final String token = sign("RS256", "rsa", keys.getPrivate(), "{\"sub\":\"user\",\"exp\":"
+            + Instant.now().plusSeconds(60).getEpochSecond() + "}");
+
+        assertThat(authenticator.authenticate(token)).contains(new PrincipalImpl("user"));
+    }
+
+    @Test
+    void doesNotAuthenticateUnverifiedTokens() throws Exception {
+        final String token = sign("RS256", "rsa", generateKeyPair("RSA", null).getPrivate(), "{\"sub\":\"user\","
+            + "\"exp\":" + Instant.now().plusSeconds(60).getEpochSecond() + "}");
+
+        assertThat(authenticator.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void doesNotAuthenticateTokensWithoutPrincipals() throws Exception {
+        final String token = sign("RS256", "rsa", keys.getPrivate(), "{\"exp\":"
+            + Instant.now().plusSeconds(60).getEpochSecond() + "}");
+
+        assertThat(authenticator.authenticate(token)).isEmpty();
+    }
+}
@@ -0,0 +1,320 @@
+package io.dropwizard.auth.jwt;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtVerifierTest {
+    private static final Instant NOW = Instant.ofEpochSecond(1_700_000_000L);
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private final KeyPair rsaKeys = generateKeyPair("RSA", null);
+    private final KeyPair ecKeys = generateKeyPair("EC", "secp256r1");
+    private final SecretKeySpec secret = new SecretKeySpec("a-secret-of-at-least-thirty-two-bytes".getBytes(
+        StandardCharsets.UTF_8), "HmacSHA256");
+    private final JwtVerifier verifier = new JwtVerifier.Builder()
+        .setKeys(JsonWebKeySet.of(Collections.singletonMap("rsa", rsaKeys.getPublic())))
+        .setClock(CLOCK)
+        .build();
+
+    @Test
+    void verifiesRsaSignatures() throws Exception {
+        final String token = sign("RS256", "rsa", rsaKeys.getPrivate(), claims(60));
+
+        final Optional<JsonWebToken> verified = verifier.verify(token);
+
+        assertThat(verified).hasValueSatisfying(jwt -> {
+            assertThat(jwt.getSubject()).isEqualTo("user");
+            assertThat(jwt.getIssuer()).isEqualTo("https://issuer.example.com");
+            assertThat(jwt.getAudience()).containsExactly("api");
+            assertThat(jwt.getExpiration()).contains(NOW.plusSeconds(60));
+        });
+    }
+
+    @Test
+    void verifiesEllipticCurveSignatures() throws Exception {
+        final JwtVerifier ecVerifier = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("ec", ecKeys.getPublic())))
+            .setClock(CLOCK)
+            .build();
+
+        assertThat(ecVerifier.verify(sign("ES256", "ec", ecKeys.getPrivate(), claims(60)))).isPresent();
+        assertThat(ecVerifier.verify(sign("ES256", "ec", generateKeyPair("EC", "secp256r1").getPrivate(),
+            claims(60)))).isEmpty();
+    }
+
+    @Test
+    void verifiesEllipticCurveSignaturesOnEachCurve() throws Exception {
+        final KeyPair p384Keys = generateKeyPair("EC", "secp384r1");
+        final KeyPair p521Keys = generateKeyPair("EC", "secp521r1");
+        final Map<String, Key> keys = new HashMap<>();
+        keys.put("p384", p384Keys.getPublic());
+        keys.put("p521", p521Keys.getPublic());
+        final JwtVerifier ecVerifier = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(keys))
+            .setClock(CLOCK)
+            .build();
+
+        assertThat(ecVerifier.verify(sign("ES384", "p384", p384Keys.getPrivate(), claims(60)))).isPresent();
+        assertThat(ecVerifier.verify(sign("ES512", "p521", p521Keys.getPrivate(), claims(60)))).isPresent();
+    }
+
+    @Test
+    void rejectsEllipticCurveSignaturesWhichDontMatchTheAlgorithm() throws Exception {
+        final JwtVerifier ecVerifier = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("ec", ecKeys.getPublic())))
+            .setClock(CLOCK)
+            .build();
+        final String token = sign("ES256", "ec", ecKeys.getPrivate(), claims(60));
+        final String signingInput = token.substring(0, token.lastIndexOf('.'));
+        final byte[] signature = Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1));
+        final byte[] padded = new byte[66];
+        System.arraycopy(signature, 0, padded, 1, 32);
+        System.arraycopy(signature, 32, padded, 34, 32);
+
+        // A P-256 key with a 384-bit hash
+        assertThat(ecVerifier.verify(sign("ES384", "ec", ecKeys.getPrivate(), claims(60)))).isEmpty();
+        // The same values of R and S, padded with leading zeros
+        assertThat(ecVerifier.verify(signingInput + "." + encode(padded))).isEmpty();
+    }
+
+    @Test
+    void rejectsEllipticCurveSignaturesOutOfRange() throws Exception {
+        final JwtVerifier ecVerifier = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("ec", ecKeys.getPublic())))
+            .setClock(CLOCK)
+            .build();
+        final String signingInput = encode("{\"alg\":\"ES256\",\"kid\":\"ec\"}") + "." + encode(claims(60));
+        final byte[] order = new byte[64];
+        copyUnsigned(((ECPublicKey) ecKeys.getPublic()).getParams().getOrder(), order, 0, 32);
+        copyUnsigned(BigInteger.ONE, order, 32, 32);
+
+        assertThat(ecVerifier.verify(signingInput + "." + encode(new byte[64]))).isEmpty();
+        assertThat(ecVerifier.verify(signingInput + "." + encode(order))).isEmpty();
+    }
+
+    @Test
+    void rejectsCriticalHeaderParameters() throws Exception {
+        assertThat(verifier.verify(signWithHeader("{\"alg\":\"RS256\",\"kid\":\"rsa\"}", "RS256", rsaKeys.getPrivate(),
+            claims(60)))).isPresent();
+        assertThat(verifier.verify(signWithHeader("{\"alg\":\"RS256\",\"kid\":\"rsa\",\"crit\":[\"exp\"],\"exp\":1}",
+            "RS256", rsaKeys.getPrivate(), claims(60)))).isEmpty();
+    }
+
+    @Test
+    void verifiesHmacSignatures() throws Exception {
+        final JwtVerifier hmacVerifier = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("hmac", secret)))
+            .setClock(CLOCK)
+            .build();
+
+        assertThat(hmacVerifier.verify(sign("HS256", "hmac", secret, claims(60)))).isPresent();
+        assertThat(hmacVerifier.verify(sign("HS256", "hmac", new SecretKeySpec(new byte[32], "HmacSHA256"),
+            claims(60)))).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidSignatures() throws Exception {
+        final String token = sign("RS256", "rsa", rsaKeys.getPrivate(), claims(60));
+        final String tampered = token.substring(0, token.indexOf('.') + 1)
+            + encode(claims(60).replace("user", "admin"))
+            + token.substring(token.lastIndexOf('.'));
+
+        assertThat(verifier.verify(tampered)).isEmpty();
+        assertThat(verifier.verify(sign("RS256", "rsa", generateKeyPair("RSA", null).getPrivate(), claims(60))))
+            .isEmpty();
+        assertThat(verifier.verify(sign("RS256", "unknown", rsaKeys.getPrivate(), claims(60)))).isEmpty();
+        assertThat(verifier.verify("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void rejectsAlgorithmsWhichDontMatchTheKey() throws Exception {
+        final SecretKeySpec publicKeyAsSecret = new SecretKeySpec(rsaKeys.getPublic().getEncoded(), "HmacSHA256");
+
+        assertThat(verifier.verify(sign("HS256", "rsa", publicKeyAsSecret, claims(60)))).isEmpty();
+        assertThat(verifier.verify(encode("{\"alg\":\"none\",\"kid\":\"rsa\"}") + "." + encode(claims(60)) + "."))
+            .isEmpty();
+    }
+
+    @Test
+    void validatesTheTimesOfTheTokens() throws Exception {
+        assertThat(verifier.verify(sign("RS256", "rsa", rsaKeys.getPrivate(), claims(-30)))).isPresent();
+        assertThat(verifier.verify(sign("RS256", "rsa", rsaKeys.getPrivate(), claims(-60)))).isEmpty();
+        assertThat(verifier.verify(sign("RS256", "rsa", rsaKeys.getPrivate(),
+            "{\"sub\":\"user\",\"exp\":" + NOW.plusSeconds(600).getEpochSecond() + ",\"nbf\":"
+                + NOW.plusSeconds(300).getEpochSecond() + "}"))).isEmpty();
+        assertThat(verifier.verify(sign("RS256", "rsa", rsaKeys.getPrivate(), "{\"sub\":\"user\"}"))).isEmpty();
+    }
+
+    @Test
+    void validatesTheIssuerAndTheAudience() throws Exception {
+        final String token = sign("RS256", "rsa", rsaKeys.getPrivate(), claims(60));
+        final JwtVerifier.Builder builder = new JwtVerifier.Builder()
+            .setKeys(JsonWebKeySet.of(Collections.singletonMap("rsa", rsaKeys.getPublic())))
+            .setClock(CLOCK);
+
+        assertThat(builder.setIssuer("https://issuer.example.com").setAudience("api").build().verify(token))
+            .isPresent();
+        assertThat(builder.setAudience("other-api").build().verify(token)).isEmpty();
+        assertThat(builder.setIssuer("https://other.example.com").setAudience("api").build().verify(token))
+            .isEmpty();
+    }
+
+    @Test
+    void cachesVerifiedTokens() throws Exception {
+        final String token = sign("RS256", "rsa", rsaKeys.getPrivate(), claims(60));
+
+        final JsonWebToken first = verifier.verify(token).orElseThrow(AssertionError::new);
+
+        assertThat(verifier.verify(token)).containsSame(first);
+    }
+
+    @Test
+    void rotatesTheKeysWhenTokensAreSignedWithUnknownKeys() throws Exception {
+        final KeyPair newKeys = generateKeyPair("RSA", null);
+        final Deque<JsonWebKeySet> keySets = new ArrayDeque<>(Arrays.asList(
+            JsonWebKeySet.of(Collections.singletonMap("rsa", rsaKeys.getPublic())),
+            JsonWebKeySet.of(Collections.singletonMap("rsa-2", newKeys.getPublic()))));
+        final JwtVerifier rotatingVerifier = new JwtVerifier.Builder()
+            .setKeySource(() -> keySets.size() > 1 ? keySets.removeFirst() : keySets.getFirst())
+            .setMinimumRotationInterval(Duration.milliseconds(0))
+            .setClock(CLOCK)
+            .build();
+        final String oldToken = sign("RS256", "rsa", rsaKeys.getPrivate(), claims(60));
+        assertThat(rotatingVerifier.verify(oldToken)).isPresent();
+
+        assertThat(rotatingVerifier.verify(sign("RS256", "rsa-2", newKeys.getPrivate(), claims(60)))).isPresent();
+        assertThat(rotatingVerifier.getKeys().getKey("rsa")).isEmpty();
+        assertThat(rotatingVerifier.verify(oldToken)).isEmpty();
+    }
+
+    @Test
+    void rotatesTheKeysAtMostOncePerInterval() throws Exception {
+        final KeyPair newKeys = generateKeyPair("RSA", null);
+        final Deque<JsonWebKeySet> keySets = new ArrayDeque<>(Arrays.asList(
+            JsonWebKeySet.of(Collections.singletonMap("rsa", rsaKeys.getPublic())),
+            JsonWebKeySet.of(Collections.singletonMap("rsa-2", newKeys.getPublic()))));
+        final JwtVerifier rotatingVerifier = new JwtVerifier.Builder()
+            .setKeySource(() -> keySets.size() > 1 ? keySets.removeFirst() : keySets.getFirst())
+            .setClock(CLOCK)
+            .build();
+        final String newToken = sign("RS256", "rsa-2", newKeys.getPrivate(), claims(60));
+
+        assertThat(rotatingVerifier.verify(newToken)).isEmpty();
+
+        assertThat(rotatingVerifier.rotateKeys()).isTrue();
+        assertThat(rotatingVerifier.verify(newToken)).isPresent();
+    }
+
+    @Test
+    void convertsEcdsaSignaturesToDer() {
+        final byte[] signature = new byte[64];
+        signature[0] = (byte) 0x80;
+        signature[63] = 1;
+
+        final byte[] der = JwtVerifier.toDer(signature);
+
+        // The high bit of R needs a leading zero, and S is a single byte
+        assertThat(der).hasSize(2 + 2 + 33 + 2 + 1);
+        assertThat(der[0]).isEqualTo((byte) 0x30);
+        assertThat(der[3]).isEqualTo((byte) 33);
+        assertThat(der[der.length - 1]).isEqualTo((byte) 1);
+    }
+
+    private static String claims(long expiresInSeconds) {
+        return "{\"sub\":\"user\",\"iss\":\"https://issuer.example.com\",\"aud\":\"api\",\"exp\":"
+            + NOW.plusSeconds(expiresInSeconds).getEpochSecond() + "}";
+    }
+
+    static String sign(String algorithm, String keyId, Key key, String claims) throws GeneralSecurityException {
+        return signWithHeader("{\"alg\":\"" + algorithm + "\",\"kid\":\"" + keyId + "\"}", algorithm, key, claims);
+    }
+
+    private static String signWithHeader(String header, String algorithm, Key key, String claims)
+        throws GeneralSecurityException {
+        final String signingInput = encode(header) + "." + encode(claims);
+        final byte[] input = signingInput.getBytes(StandardCharsets.US_ASCII);
+        final byte[] signature;
+        if (algorithm.startsWith("HS")) {
+            final Mac mac = Mac.getInstance("HmacSHA" + algorithm.substring(2));
+            mac.init(key);
+            signature = mac.doFinal(input);
+        } else {
+            final Signature signer = Signature.getInstance("SHA" + algorithm.substring(2)
+                + (algorithm.startsWith("RS") ? "withRSA" : "withECDSA"));
+            signer.initSign((PrivateKey) key);
+            signer.update(input);
+            // ES512 uses the P-521 curve, whose values are 66 bytes long
+            final int length = "ES512".equals(algorithm) ? 66 : Integer.parseInt(algorithm.substring(2)) / 8;
+            signature = algorithm.startsWith("ES") ? toRaw(signer.sign(), length) : signer.sign();
+        }
+        return signingInput + "." + encode(signature);
+    }
+
+    private static byte[] toRaw(byte[] der, int length) {
+        // Signatures on the P-521 curve have a two byte sequence length
+        final int rOffset = der[1] == (byte) 0x81 ? 5 : 4;
+        final int rLength = der[rOffset - 1];
+        final int sOffset = rOffset + rLength + 2;
+        final BigInteger r = new BigInteger(Arrays.copyOfRange(der, rOffset, rOffset + rLength));
+        final BigInteger s = new BigInteger(Arrays.copyOfRange(der, sOffset, sOffset + der[sOffset - 1]));
+        final byte[] raw = new byte[2 * length];
+        copyUnsigned(r, raw, 0, length);
+        copyUnsigned(s, raw, length, length);
+        return raw;
+    }
+
+    private static void copyUnsigned(BigInteger value, byte[] target, int offset, int length) {
+        final byte[] bytes = value.toByteArray();
+        final int start = Math.max(0, bytes.length - length);
+        System.arraycopy(bytes, start, target, offset + length - (bytes.length - start), bytes.length - start);
+    }
+
+    static String encode(String json) {
+        return encode(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static KeyPair generateKeyPair(String algorithm, @Nullable String curve) {
+        try {
+            final KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            if (curve == null) {
+                generator.initialize(2048);
+            } else {
+                generator.initialize(new ECGenParameterSpec(curve));
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
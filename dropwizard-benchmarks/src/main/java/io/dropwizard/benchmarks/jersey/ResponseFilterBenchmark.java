@@ -0,0 +1,112 @@
+package io.dropwizard.benchmarks.jersey;
+
+import io.dropwizard.jersey.filter.RequestIdFilter;
+import io.dropwizard.jersey.filter.RuntimeFilter;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link RequestIdFilter} and {@link RuntimeFilter} with the way they used to build their headers,
+ * using a {@link java.util.UUID} and {@link String#format(Locale, String, Object...)}. Run with the GC profiler
+ * to compare the bytes allocated per request ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ResponseFilterBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseFilterBenchmark.class);
+
+    private final RequestIdFilter requestIdFilter = new RequestIdFilter();
+    private final RuntimeFilter runtimeFilter = new RuntimeFilter();
+
+    private ContainerRequest request = new ContainerRequest(URI.create("http://localhost/"),
+        URI.create("http://localhost/some/path"), "GET", null, new MapPropertiesDelegate(), null);
+    private ContainerResponse response = new ContainerResponse(request, Response.ok().build());
+
+    /**
+     * Don't trust the IDE, it's advisedly non-final to avoid constant folding
+     */
+    private long startTime = System.nanoTime();
+
+    @Setup
+    public void setUp() throws Exception {
+        runtimeFilter.filter(request);
+    }
+
+    @Benchmark
+    public Object requestIdFilter() throws IOException {
+        requestIdFilter.filter(request, response);
+        return response.getHeaders().getFirst("X-Request-Id");
+    }
+
+    @Benchmark
+    public Object previousRequestId() {
+        final String id = Optional.ofNullable(request.getHeaderString("X-Request-Id"))
+            .filter(header -> !header.isEmpty())
+            .orElseGet(() -> generateRandomUuid().toString());
+        LOGGER.trace("method={} path={} request_id={} status={} length={}",
+            request.getMethod(), request.getUriInfo().getPath(), id,
+            response.getStatus(), response.getLength());
+        response.getHeaders().putSingle("X-Request-Id", id);
+        return response.getHeaders().getFirst("X-Request-Id");
+    }
+
+    @Benchmark
+    public Object runtimeFilter() throws IOException {
+        runtimeFilter.filter(request, response);
+        return response.getHeaders().getFirst("X-Runtime");
+    }
+
+    @Benchmark
+    public Object previousRuntime() {
+        final float seconds = (System.nanoTime() - startTime) / 1_000_000_000.0f;
+        response.getHeaders().putSingle("X-Runtime", String.format(Locale.ROOT, "%.6f", seconds));
+        return response.getHeaders().getFirst("X-Runtime");
+    }
+
+    private static UUID generateRandomUuid() {
+        final Random rnd = ThreadLocalRandom.current();
+        long mostSig = rnd.nextLong();
+        long leastSig = rnd.nextLong();
+        mostSig &= 0xffffffffffff0fffL;
+        mostSig |= 0x0000000000004000L;
+        leastSig &= 0x3fffffffffffffffL;
+        leastSig |= 0x8000000000000000L;
+        return new UUID(mostSig, leastSig);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ResponseFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,193 @@
+package io.dropwizard.client;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.util.VersionInfo;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.ProcessingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dropwizard Apache Async Connector.
+ * <p>
+ * A counterpart of {@link DropwizardApacheConnector} that uses Apache's non-blocking
+ * {@link org.apache.http.nio.client.HttpAsyncClient} as an HTTP transport implementation.
+ * Asynchronous and reactive requests don't occupy a thread while waiting for the response:
+ * the I/O is dispatched by a few I/O threads. The responses are then handed to Jersey on the
+ * given executor, so that the callbacks of the requests never run on, and block, an I/O thread.
+ * </p>
+ * <p>
+ * Request entities are buffered before they are sent, and response entities are buffered
+ * before they are handed to Jersey, because Jersey reads and writes entities with blocking
+ * streams.
+ * </p>
+ * <p>
+ * The connector owns the HTTP client: it starts the client and closes it when Jersey
+ * closes the connector.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class DropwizardApacheAsyncConnector implements Connector {
+
+    private static final String ERROR_BUFFERING_ENTITY = "Error buffering the entity.";
+
+    private static final String APACHE_HTTP_ASYNC_CLIENT_VERSION = VersionInfo
+            .loadVersionInfo("org.apache.http.nio.client", DropwizardApacheAsyncConnector.class.getClassLoader())
+            .getRelease();
+
+    /**
+     * Actual HTTP client
+     */
+    private final CloseableHttpAsyncClient client;
+    /**
+     * Default HttpUriRequestConfig
+     */
+    @Nullable
+    private final RequestConfig defaultRequestConfig;
+    /**
+     * Executor completing the asynchronous requests
+     */
+    private final Executor executor;
+
+    public DropwizardApacheAsyncConnector(CloseableHttpAsyncClient client, @Nullable RequestConfig defaultRequestConfig,
+                                          Executor executor) {
+        this.client = client;
+        this.defaultRequestConfig = defaultRequestConfig;
+        this.executor = executor;
+        client.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ClientResponse apply(ClientRequest jerseyRequest) {
+        try {
+            final HttpResponse apacheResponse = client.execute(buildApacheRequest(jerseyRequest), null).get();
+            return DropwizardApacheConnector.buildJerseyResponse(jerseyRequest, apacheResponse);
+        } catch (ExecutionException e) {
+            throw new ProcessingException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        } catch (Exception e) {
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<?> apply(final ClientRequest jerseyRequest, final AsyncConnectorCallback callback) {
+        return client.execute(buildApacheRequest(jerseyRequest), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse apacheResponse) {
+                complete(callback, () -> {
+                    final ClientResponse jerseyResponse;
+                    try {
+                        jerseyResponse = DropwizardApacheConnector.buildJerseyResponse(jerseyRequest, apacheResponse);
+                    } catch (Exception e) {
+                        callback.failure(new ProcessingException(e));
+                        return;
+                    }
+                    callback.response(jerseyResponse);
+                });
+            }
+
+            @Override
+            public void failed(Exception e) {
+                complete(callback, () -> callback.failure(new ProcessingException(e)));
+            }
+
+            @Override
+            public void cancelled() {
+                complete(callback, () -> callback.failure(new CancellationException()));
+            }
+        });
+    }
+
+    /**
+     * Hands the completion of a request over from the I/O thread to the executor. If the executor
+     * rejects it, the request fails on the I/O thread instead.
+     */
+    private void complete(AsyncConnectorCallback callback, Runnable completion) {
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            callback.failure(new ProcessingException(e));
+        }
+    }
+
+    /**
+     * Build a new Apache's {@link org.apache.http.client.methods.HttpUriRequest}
+     * from Jersey's {@link org.glassfish.jersey.client.ClientRequest}, with its
+     * entity buffered.
+     *
+     * @param jerseyRequest representation of an HTTP request in Jersey
+     * @return a new {@link org.apache.http.client.methods.HttpUriRequest}
+     */
+    private HttpUriRequest buildApacheRequest(ClientRequest jerseyRequest) {
+        return DropwizardApacheConnector.buildApacheRequest(jerseyRequest, getHttpEntity(jerseyRequest),
+            defaultRequestConfig);
+    }
+
+    /**
+     * Get a non-blocking Apache's {@link org.apache.http.HttpEntity}
+     * from Jersey's {@link org.glassfish.jersey.client.ClientRequest}
+     *
+     * @param jerseyRequest representation of an HTTP request in Jersey
+     * @return the buffered entity of the request
+     */
+    @Nullable
+    protected NByteArrayEntity getHttpEntity(ClientRequest jerseyRequest) {
+        if (jerseyRequest.getEntity() == null) {
+            return null;
+        }
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream(512);
+        jerseyRequest.setStreamProvider(contentLength -> stream);
+        try {
+            jerseyRequest.writeEntity();
+        } catch (IOException e) {
+            throw new ProcessingException(ERROR_BUFFERING_ENTITY, e);
+        }
+        return new NByteArrayEntity(stream.toByteArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "Apache-HttpAsyncClient/" + APACHE_HTTP_ASYNC_CLIENT_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package io.dropwizard.client;
 
+import io.dropwizard.jersey.gzip.ConfiguredGZipEncoder;
 import io.dropwizard.util.DirectExecutorService;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.VersionInfo;
 import org.glassfish.jersey.client.ClientProperties;
@@ -20,12 +24,15 @@ import org.glassfish.jersey.message.internal.Statuses;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptor;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.Future;
@@ -82,30 +89,48 @@ public class DropwizardApacheConnector implements Connector {
      */
     @Override
     public ClientResponse apply(ClientRequest jerseyRequest) {
+        final HttpEntity entity = getHttpEntity(jerseyRequest);
         try {
-            final HttpUriRequest apacheRequest = buildApacheRequest(jerseyRequest);
+            final HttpUriRequest apacheRequest = buildApacheRequest(jerseyRequest, entity, defaultRequestConfig);
             final CloseableHttpResponse apacheResponse = client.execute(apacheRequest);
-
-            final StatusLine statusLine = apacheResponse.getStatusLine();
-            final String reasonPhrase = statusLine.getReasonPhrase();
-            final Response.StatusType status = Statuses.from(statusLine.getStatusCode(), reasonPhrase == null ? "" : reasonPhrase);
-
-            final ClientResponse jerseyResponse = new ClientResponse(status, jerseyRequest);
-            for (Header header : apacheResponse.getAllHeaders()) {
-                jerseyResponse.getHeaders().computeIfAbsent(header.getName(), k -> new ArrayList<>())
-                    .add(header.getValue());
-            }
-
-            final HttpEntity httpEntity = apacheResponse.getEntity();
-            jerseyResponse.setEntityStream(httpEntity != null ? httpEntity.getContent() :
-                    new ByteArrayInputStream(new byte[0]));
-
-            return jerseyResponse;
+            return buildJerseyResponse(jerseyRequest, apacheResponse);
         } catch (Exception e) {
             throw new ProcessingException(e);
+        } finally {
+            // The request has been sent, including its retries, so the buffer can be reused
+            if (entity instanceof BufferedJerseyRequestHttpEntity) {
+                ((BufferedJerseyRequestHttpEntity) entity).release();
+            }
         }
     }
 
+    /**
+     * Build a new Jersey's {@link org.glassfish.jersey.client.ClientResponse}
+     * from Apache's {@link org.apache.http.HttpResponse}
+     *
+     * @param jerseyRequest  representation of the HTTP request in Jersey
+     * @param apacheResponse representation of the HTTP response in Apache
+     * @return a new {@link org.glassfish.jersey.client.ClientResponse}
+     */
+    static ClientResponse buildJerseyResponse(ClientRequest jerseyRequest, HttpResponse apacheResponse)
+        throws IOException {
+        final StatusLine statusLine = apacheResponse.getStatusLine();
+        final String reasonPhrase = statusLine.getReasonPhrase();
+        final Response.StatusType status = Statuses.from(statusLine.getStatusCode(), reasonPhrase == null ? "" : reasonPhrase);
+
+        final ClientResponse jerseyResponse = new ClientResponse(status, jerseyRequest);
+        for (Header header : apacheResponse.getAllHeaders()) {
+            jerseyResponse.getHeaders().computeIfAbsent(header.getName(), k -> new ArrayList<>())
+                .add(header.getValue());
+        }
+
+        final HttpEntity httpEntity = apacheResponse.getEntity();
+        jerseyResponse.setEntityStream(httpEntity != null ? httpEntity.getContent() :
+                new ByteArrayInputStream(new byte[0]));
+
+        return jerseyResponse;
+    }
+
     /**
      * Build a new Apache's {@link org.apache.http.client.methods.HttpUriRequest}
      * from Jersey's {@link org.glassfish.jersey.client.ClientRequest}
@@ -113,25 +138,29 @@ public class DropwizardApacheConnector implements Connector {
      * Convert a method, URI, body, headers and override a user-agent if necessary
      * </p>
      *
-     * @param jerseyRequest representation of an HTTP request in Jersey
+     * @param jerseyRequest        representation of an HTTP request in Jersey
+     * @param entity               the entity of the request, if any
+     * @param defaultRequestConfig the configuration of the client to override with Jersey properties
      * @return a new {@link org.apache.http.client.methods.HttpUriRequest}
      */
-    private HttpUriRequest buildApacheRequest(ClientRequest jerseyRequest) {
+    static HttpUriRequest buildApacheRequest(ClientRequest jerseyRequest, @Nullable HttpEntity entity,
+                                             @Nullable RequestConfig defaultRequestConfig) {
         final RequestBuilder builder = RequestBuilder
                 .create(jerseyRequest.getMethod())
                 .setUri(jerseyRequest.getUri())
-                .setEntity(getHttpEntity(jerseyRequest));
+                .setEntity(entity);
         for (String headerName : jerseyRequest.getHeaders().keySet()) {
             builder.addHeader(headerName, jerseyRequest.getHeaderString(headerName));
         }
 
-        final Optional<RequestConfig> requestConfig = addJerseyRequestConfig(jerseyRequest);
+        final Optional<RequestConfig> requestConfig = addJerseyRequestConfig(jerseyRequest, defaultRequestConfig);
         requestConfig.ifPresent(builder::setConfig);
 
         return builder.build();
     }
 
-    private Optional<RequestConfig> addJerseyRequestConfig(ClientRequest clientRequest) {
+    private static Optional<RequestConfig> addJerseyRequestConfig(ClientRequest clientRequest,
+                                                                  @Nullable RequestConfig defaultRequestConfig) {
         final Integer timeout = clientRequest.resolveProperty(ClientProperties.READ_TIMEOUT, Integer.class);
         final Integer connectTimeout = clientRequest.resolveProperty(ClientProperties.CONNECT_TIMEOUT, Integer.class);
         final Boolean followRedirects = clientRequest.resolveProperty(ClientProperties.FOLLOW_REDIRECTS, Boolean.class);
@@ -164,20 +193,55 @@ public class DropwizardApacheConnector implements Connector {
      * Create a custom HTTP entity, because Jersey doesn't provide
      * a request stream or a byte buffer.
      * </p>
+     * <p>
+     * {@code byte[]}, {@link File} and {@link ByteBuffer} entities are sent as they are, with their
+     * length, unless they would be encoded by a writer interceptor.
+     * </p>
      *
      * @param jerseyRequest representation of an HTTP request in Jersey
      * @return a correct {@link org.apache.http.HttpEntity} implementation
      */
     @Nullable
     protected HttpEntity getHttpEntity(ClientRequest jerseyRequest) {
-        if (jerseyRequest.getEntity() == null) {
+        final Object entity = jerseyRequest.getEntity();
+        if (entity == null) {
             return null;
         }
 
+        if (isWrittenAsIs(jerseyRequest)) {
+            if (entity instanceof byte[]) {
+                return new ByteArrayEntity((byte[]) entity);
+            } else if (entity instanceof File) {
+                return new FileEntity((File) entity);
+            } else if (entity instanceof ByteBuffer) {
+                return new ByteBufferHttpEntity((ByteBuffer) entity);
+            }
+        }
+
         return chunkedEncodingEnabled ? new JerseyRequestHttpEntity(jerseyRequest) :
                 new BufferedJerseyRequestHttpEntity(jerseyRequest);
     }
 
+    /**
+     * Whether the entity of a request would be written unchanged by Jersey: the only writer interceptor
+     * which can be registered is the GZIP encoder, and only if the entity isn't encoded.
+     */
+    private static boolean isWrittenAsIs(ClientRequest jerseyRequest) {
+        if (jerseyRequest.getHeaderString(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        final Iterable<WriterInterceptor> interceptors = jerseyRequest.getWriterInterceptors();
+        if (interceptors == null) {
+            return true;
+        }
+        for (WriterInterceptor interceptor : interceptors) {
+            if (!(interceptor instanceof ConfiguredGZipEncoder)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -276,26 +340,29 @@ public class DropwizardApacheConnector implements Connector {
      * a Jersey request as a content source.
      * <p>
      * In contrast to {@link io.dropwizard.client.DropwizardApacheConnector.JerseyRequestHttpEntity}
-     * its contents are buffered on initialization.
+     * its contents are buffered on initialization, in pooled segments which are
+     * written to the connection without being copied again.
      * </p>
      */
     private static class BufferedJerseyRequestHttpEntity extends AbstractHttpEntity {
 
-        private static final int BUFFER_INITIAL_SIZE = 512;
-        private byte[] buffer;
+        private final PooledByteArrayOutputStream buffer = new PooledByteArrayOutputStream();
 
         private BufferedJerseyRequestHttpEntity(ClientRequest clientRequest) {
-            final ByteArrayOutputStream stream = new ByteArrayOutputStream(BUFFER_INITIAL_SIZE);
-            clientRequest.setStreamProvider(contentLength -> stream);
+            clientRequest.setStreamProvider(contentLength -> buffer);
             try {
                 clientRequest.writeEntity();
             } catch (IOException e) {
+                buffer.release();
                 throw new ProcessingException(ERROR_BUFFERING_ENTITY, e);
             }
-            buffer = stream.toByteArray();
             setChunked(false);
         }
 
+        private void release() {
+            buffer.release();
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -309,7 +376,7 @@ public class DropwizardApacheConnector implements Connector {
          */
         @Override
         public long getContentLength() {
-            return buffer.length;
+            return buffer.size();
         }
 
         /**
@@ -330,7 +397,7 @@ public class DropwizardApacheConnector implements Connector {
          */
         @Override
         public void writeTo(OutputStream outstream) throws IOException {
-            outstream.write(buffer);
+            buffer.writeTo(outstream);
             outstream.flush();
         }
 
@@ -342,5 +409,76 @@ public class DropwizardApacheConnector implements Connector {
             return false;
         }
     }
-}
 
+    /**
+     * A custom {@link org.apache.http.entity.AbstractHttpEntity} that writes
+     * a {@link ByteBuffer} without changing its position.
+     * <p>
+     * Heap buffers are written from their backing array, and direct buffers
+     * are copied segment by segment.
+     * </p>
+     */
+    private static class ByteBufferHttpEntity extends AbstractHttpEntity {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferHttpEntity(ByteBuffer buffer) {
+            this.buffer = buffer;
+            setChunked(false);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getContentLength() {
+            return buffer.remaining();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public InputStream getContent() {
+            final ByteBuffer content = buffer.duplicate();
+            final byte[] bytes = new byte[content.remaining()];
+            content.get(bytes);
+            return new ByteArrayInputStream(bytes);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void writeTo(OutputStream outstream) throws IOException {
+            if (buffer.hasArray()) {
+                outstream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            } else {
+                final ByteBuffer content = buffer.duplicate();
+                final byte[] segment = new byte[Math.min(content.remaining(), PooledByteArrayOutputStream.SEGMENT_SIZE)];
+                while (content.hasRemaining()) {
+                    final int length = Math.min(content.remaining(), segment.length);
+                    content.get(segment, 0, length);
+                    outstream.write(segment, 0, length);
+                }
+            }
+            outstream.flush();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+}
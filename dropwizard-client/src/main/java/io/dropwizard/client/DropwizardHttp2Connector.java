@@ -0,0 +1,171 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
+import io.dropwizard.util.DirectExecutorService;
+import io.dropwizard.util.Duration;
+import org.apache.http.client.methods.RequestBuilder;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.util.Jetty;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response.StatusType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A Jersey {@link Connector} which sends requests with a Jetty {@link HttpClient}, typically over an HTTP/2 transport
+ * which multiplexes the concurrent requests to a server over a few connections.
+ * <p>
+ * The time to receive the response headers of each request is reported as a timer named by the
+ * {@link HttpClientMetricNameStrategy}, like the requests of an Apache HTTP client built by {@link HttpClientBuilder}.
+ * Request entities are buffered, because HTTP/2 frames them on its own.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class DropwizardHttp2Connector implements Connector {
+    private static final int BUFFER_INITIAL_SIZE = 512;
+
+    private final HttpClient client;
+    private final Duration timeout;
+    private final Duration responseTimeout;
+    private final MetricRegistry metricRegistry;
+    private final HttpClientMetricNameStrategy metricNameStrategy;
+    private final String name;
+
+    /**
+     * @param client             the client to send the requests with, which is started by the connector
+     * @param timeout            the maximum period of inactivity of a request
+     * @param responseTimeout    the maximum time to wait for the response headers of a request, including the time
+     *                           spent waiting for a connection or a stream
+     * @param metricRegistry     the registry to report the timers of the requests to
+     * @param metricNameStrategy the strategy to name the timers of the requests with
+     * @param name               the name of the client
+     */
+    public DropwizardHttp2Connector(HttpClient client, Duration timeout, Duration responseTimeout,
+                                    MetricRegistry metricRegistry, HttpClientMetricNameStrategy metricNameStrategy,
+                                    String name) {
+        this.client = client;
+        this.timeout = timeout;
+        this.responseTimeout = responseTimeout;
+        this.metricRegistry = metricRegistry;
+        this.metricNameStrategy = metricNameStrategy;
+        this.name = name;
+        try {
+            client.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to start the HTTP client", e);
+        }
+    }
+
+    @Override
+    public ClientResponse apply(ClientRequest jerseyRequest) {
+        final Request jettyRequest = buildJettyRequest(jerseyRequest);
+        final InputStreamResponseListener listener = new InputStreamResponseListener();
+        final Timer.Context context = metricRegistry.timer(metricNameStrategy.getNameFor(name,
+            RequestBuilder.create(jerseyRequest.getMethod()).setUri(jerseyRequest.getUri()).build())).time();
+        try {
+            jettyRequest.send(listener);
+            final Response jettyResponse = listener.get(responseTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+            return buildJerseyResponse(jerseyRequest, jettyResponse, listener);
+        } catch (TimeoutException e) {
+            jettyRequest.abort(e);
+            throw new ProcessingException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jettyRequest.abort(e);
+            throw new ProcessingException(e);
+        } catch (ExecutionException e) {
+            throw new ProcessingException(e.getCause());
+        } finally {
+            context.stop();
+        }
+    }
+
+    private Request buildJettyRequest(ClientRequest jerseyRequest) {
+        final Request jettyRequest = client.newRequest(jerseyRequest.getUri())
+            .method(jerseyRequest.getMethod());
+
+        final Integer readTimeout = jerseyRequest.resolveProperty(ClientProperties.READ_TIMEOUT, Integer.class);
+        jettyRequest.idleTimeout(readTimeout != null ? readTimeout : timeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+        final Boolean followRedirects = jerseyRequest.resolveProperty(ClientProperties.FOLLOW_REDIRECTS, Boolean.class);
+        if (followRedirects != null) {
+            jettyRequest.followRedirects(followRedirects);
+        }
+
+        // The entity is written first, because writing it may add headers, such as Content-Encoding
+        if (jerseyRequest.hasEntity()) {
+            final ByteArrayOutputStream stream = new ByteArrayOutputStream(BUFFER_INITIAL_SIZE);
+            jerseyRequest.setStreamProvider(contentLength -> stream);
+            try {
+                jerseyRequest.writeEntity();
+            } catch (IOException e) {
+                throw new ProcessingException("Error buffering the entity.", e);
+            }
+            jettyRequest.content(new BytesContentProvider(stream.toByteArray()));
+        }
+        for (String headerName : jerseyRequest.getHeaders().keySet()) {
+            jettyRequest.header(headerName, jerseyRequest.getHeaderString(headerName));
+        }
+        return jettyRequest;
+    }
+
+    private static ClientResponse buildJerseyResponse(ClientRequest jerseyRequest, Response jettyResponse,
+                                                      InputStreamResponseListener listener) {
+        final String reason = jettyResponse.getReason();
+        final StatusType status = reason == null
+            ? Statuses.from(jettyResponse.getStatus())
+            : Statuses.from(jettyResponse.getStatus(), reason);
+        final ClientResponse jerseyResponse = new ClientResponse(status, jerseyRequest);
+        for (HttpField header : jettyResponse.getHeaders()) {
+            jerseyResponse.getHeaders().computeIfAbsent(header.getName(), k -> new ArrayList<>())
+                .add(header.getValue());
+        }
+        jerseyResponse.setEntityStream(listener.getInputStream());
+        return jerseyResponse;
+    }
+
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+        // Simulate an asynchronous execution, like DropwizardApacheConnector
+        return new DirectExecutorService().submit(() -> {
+            try {
+                callback.response(apply(request));
+            } catch (Exception e) {
+                callback.failure(e);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "Jetty-HttpClient/" + Jetty.VERSION;
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.stop();
+        } catch (Exception e) {
+            throw new ProcessingException("Unable to stop the HTTP client", e);
+        }
+    }
+}
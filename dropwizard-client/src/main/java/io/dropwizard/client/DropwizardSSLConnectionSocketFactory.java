@@ -5,9 +5,11 @@ import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLInitializationException;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 import org.apache.http.ssl.PrivateKeyStrategy;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.TrustStrategy;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,44 @@ public class DropwizardSSLConnectionSocketFactory {
                 chooseHostnameVerifier());
     }
 
+    /**
+     * Creates the equivalent of {@link #getSocketFactory()} for non-blocking HTTP clients.
+     *
+     * @return the TLS strategy for non-blocking I/O sessions
+     * @throws SSLInitializationException if the TLS context can't be initialized
+     * @since 2.1
+     */
+    public SSLIOSessionStrategy getSessionStrategy() throws SSLInitializationException {
+        return new SSLIOSessionStrategy(buildSslContext(), getSupportedProtocols(), getSupportedCiphers(),
+                chooseHostnameVerifier());
+    }
+
+    /**
+     * Creates the equivalent of {@link #getSocketFactory()} for HTTP/2 clients.
+     *
+     * @return the TLS context factory of a Jetty HTTP client
+     * @throws SSLInitializationException if the TLS context can't be initialized
+     * @since 2.1
+     */
+    public SslContextFactory.Client getSslContextFactory() throws SSLInitializationException {
+        final SslContextFactory.Client sslContextFactory = new SslContextFactory.Client();
+        sslContextFactory.setSslContext(buildSslContext());
+        final String[] supportedProtocols = getSupportedProtocols();
+        if (supportedProtocols != null) {
+            sslContextFactory.setIncludeProtocols(supportedProtocols);
+        }
+        final String[] supportedCiphers = getSupportedCiphers();
+        if (supportedCiphers != null) {
+            sslContextFactory.setIncludeCipherSuites(supportedCiphers);
+        }
+        if (configuration.isVerifyHostname() && verifier != null) {
+            sslContextFactory.setHostnameVerifier(verifier);
+        } else if (!configuration.isVerifyHostname()) {
+            sslContextFactory.setEndpointIdentificationAlgorithm(null);
+        }
+        return sslContextFactory;
+    }
+
     @Nullable
     private String[] getSupportedCiphers() {
         final List<String> supportedCiphers = configuration.getSupportedCiphers();
@@ -1,21 +1,40 @@
 package io.dropwizard.client;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategies;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
 import com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager;
 import com.codahale.metrics.httpclient.InstrumentedHttpRequestExecutor;
+import io.dropwizard.client.cache.BoundedHttpCacheStorage;
+import io.dropwizard.client.cache.HttpCacheConfiguration;
+import io.dropwizard.client.cache.InstrumentedHttpCacheInterceptor;
+import io.dropwizard.client.circuitbreaker.BulkheadConfiguration;
+import io.dropwizard.client.circuitbreaker.CircuitBreakerConfiguration;
+import io.dropwizard.client.circuitbreaker.CircuitBreakerHealthCheck;
+import io.dropwizard.client.circuitbreaker.CircuitBreakingHttpClient;
+import io.dropwizard.client.dns.CachingDnsResolver;
+import io.dropwizard.client.dns.DnsCacheConfiguration;
 import io.dropwizard.client.proxy.AuthConfiguration;
 import io.dropwizard.client.proxy.NonProxyListProxyRoutePlanner;
 import io.dropwizard.client.proxy.ProxyConfiguration;
+import io.dropwizard.client.retry.BudgetedHttpRequestRetryHandler;
+import io.dropwizard.client.retry.HedgingConfiguration;
+import io.dropwizard.client.retry.HedgingHttpClient;
+import io.dropwizard.client.retry.RetryBudget;
+import io.dropwizard.client.retry.RetryBudgetConfiguration;
 import io.dropwizard.client.ssl.TlsConfiguration;
+import io.dropwizard.client.warmup.ConnectionPoolWarmer;
+import io.dropwizard.client.warmup.WarmupConfiguration;
 import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.Duration;
 import org.apache.http.ConnectionReuseStrategy;
 import org.apache.http.Header;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
 import org.apache.http.auth.NTCredentials;
@@ -27,6 +46,7 @@ import org.apache.http.client.RedirectStrategy;
 import org.apache.http.client.ServiceUnavailableRetryStrategy;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
@@ -41,13 +61,34 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.client.cache.FileResourceFactory;
+import org.apache.http.impl.conn.DefaultRoutePlanner;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpProcessor;
 import org.apache.http.protocol.HttpRequestExecutor;
+import org.eclipse.jetty.client.MultiplexConnectionPool;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.util.HttpCookieStore;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
 
 import javax.annotation.Nullable;
 import javax.net.ssl.HostnameVerifier;
+import java.io.File;
 import java.util.List;
 
 /**
@@ -299,7 +340,8 @@ public class HttpClientBuilder {
      * @return an {@link io.dropwizard.client.ConfiguredCloseableHttpClient}
      */
     ConfiguredCloseableHttpClient buildWithDefaultRequestConfiguration(String name) {
-        return createClient(createBuilder(),
+        final HttpCacheConfiguration cacheConfiguration = configuration.getCacheConfiguration();
+        return createClient(cacheConfiguration == null ? createBuilder() : createCachingBuilder(cacheConfiguration, name),
                 createConnectionManager(createConfiguredRegistry(), name), name);
     }
 
@@ -330,6 +372,58 @@ public class HttpClientBuilder {
         return org.apache.http.impl.client.HttpClientBuilder.create();
     }
 
+    /**
+     * Creates an Apache {@link CachingHttpClientBuilder}.
+     *
+     * The counterpart of {@link #createBuilder()} for clients with a response cache, which are built with this
+     * builder instead. Intended for use by subclasses to create builder instance from subclass of
+     * {@link CachingHttpClientBuilder}
+     *
+     * @return a {@link CachingHttpClientBuilder}
+     * @since 2.1
+     */
+    protected CachingHttpClientBuilder createCachingBuilder() {
+        return CachingHttpClientBuilder.create();
+    }
+
+    /**
+     * Creates and configures an Apache {@link CachingHttpClientBuilder} for clients with a response cache, using
+     * {@link #createCachingBuilder()}.
+     * <p>
+     * The cache is bounded by the total size of the cached response bodies, which are stored in memory or in the
+     * configured directory. Its hits, misses, validations, size and entries are reported as metrics.
+     * </p>
+     *
+     * @param cacheConfiguration the configuration of the cache
+     * @param name               the name of the client
+     * @return a {@link CachingHttpClientBuilder}
+     * @since 2.1
+     */
+    protected CachingHttpClientBuilder createCachingBuilder(HttpCacheConfiguration cacheConfiguration, String name) {
+        final CacheConfig cacheConfig = CacheConfig.custom()
+            .setMaxObjectSize(cacheConfiguration.getMaxObjectSize().toBytes())
+            .setSharedCache(cacheConfiguration.isShared())
+            .build();
+        final BoundedHttpCacheStorage storage = new BoundedHttpCacheStorage(cacheConfiguration.getMaxSize().toBytes());
+        final String prefix = MetricRegistry.name(HttpClient.class, name, "cache");
+        metricRegistry.gauge(MetricRegistry.name(prefix, "size"), () -> (Gauge<Long>) storage::getSize);
+        metricRegistry.gauge(MetricRegistry.name(prefix, "entries"), () -> (Gauge<Integer>) storage::getEntries);
+
+        final CachingHttpClientBuilder builder = createCachingBuilder();
+        builder.setCacheConfig(cacheConfig)
+            .setHttpCacheStorage(storage)
+            .addInterceptorLast(new InstrumentedHttpCacheInterceptor(metricRegistry, prefix));
+
+        final File directory = cacheConfiguration.getDirectory();
+        if (directory != null) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Unable to create the cache directory " + directory);
+            }
+            builder.setResourceFactory(new FileResourceFactory(directory));
+        }
+        return builder;
+    }
+
     /**
      * Configures an Apache {@link org.apache.http.impl.client.HttpClientBuilder}.
      *
@@ -356,27 +450,17 @@ public class HttpClientBuilder {
             final org.apache.http.impl.client.HttpClientBuilder builder,
             final InstrumentedHttpClientConnectionManager manager,
             final String name) {
-        final String cookiePolicy = configuration.isCookiesEnabled() ? CookieSpecs.DEFAULT : CookieSpecs.IGNORE_COOKIES;
         final Integer timeout = (int) configuration.getTimeout().toMilliseconds();
-        final Integer connectionTimeout = (int) configuration.getConnectionTimeout().toMilliseconds();
-        final Integer connectionRequestTimeout = (int) configuration.getConnectionRequestTimeout().toMilliseconds();
-        final boolean normalizeUri = configuration.isNormalizeUriEnabled();
         final long keepAlive = configuration.getKeepAlive().toMilliseconds();
-        final ConnectionReuseStrategy reuseStrategy = keepAlive == 0
-                ? new NoConnectionReuseStrategy()
-                : new DefaultConnectionReuseStrategy();
+        final RetryBudgetConfiguration retryBudgetConfiguration = configuration.getRetryBudget();
+        final RetryBudget retryBudget = retryBudgetConfiguration == null ? null : new RetryBudget(retryBudgetConfiguration);
         final HttpRequestRetryHandler retryHandler = configuration.getRetries() == 0
                 ? NO_RETRIES
-                : (httpRequestRetryHandler == null ? new DefaultHttpRequestRetryHandler(configuration.getRetries(),
-                false) : httpRequestRetryHandler);
-
-        final RequestConfig requestConfig
-                = RequestConfig.custom().setCookieSpec(cookiePolicy)
-                .setSocketTimeout(timeout)
-                .setConnectTimeout(connectionTimeout)
-                .setConnectionRequestTimeout(connectionRequestTimeout)
-                .setNormalizeUri(normalizeUri)
-                .build();
+                : (httpRequestRetryHandler == null
+                    ? createDefaultRetryHandler(retryBudgetConfiguration, retryBudget, name)
+                    : httpRequestRetryHandler);
+
+        final RequestConfig requestConfig = createDefaultRequestConfig();
         final SocketConfig socketConfig = SocketConfig.custom()
                 .setTcpNoDelay(true)
                 .setSoTimeout(timeout)
@@ -386,41 +470,18 @@ public class HttpClientBuilder {
             .setConnectionManager(manager)
             .setDefaultRequestConfig(requestConfig)
             .setDefaultSocketConfig(socketConfig)
-            .setConnectionReuseStrategy(reuseStrategy)
+            .setConnectionReuseStrategy(createConnectionReuseStrategy())
             .setRetryHandler(retryHandler)
             .setUserAgent(createUserAgent(name));
 
         if (keepAlive != 0) {
-            // either keep alive based on response header Keep-Alive,
-            // or if the server can keep a persistent connection (-1), then override based on client's configuration
-            builder.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
-                @Override
-                public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
-                    final long duration = super.getKeepAliveDuration(response, context);
-                    return (duration == -1) ? keepAlive : duration;
-                }
-            });
+            builder.setKeepAliveStrategy(createKeepAliveStrategy(keepAlive));
         }
 
         // create a tunnel through a proxy host if it's specified in the config
-        final ProxyConfiguration proxy = configuration.getProxyConfiguration();
-        if (proxy != null) {
-            final HttpHost httpHost = new HttpHost(proxy.getHost(), proxy.getPort(), proxy.getScheme());
-            builder.setRoutePlanner(new NonProxyListProxyRoutePlanner(httpHost, proxy.getNonProxyHosts()));
-            // if the proxy host requires authentication then add the host credentials to the credentials provider
-            final AuthConfiguration auth = proxy.getAuth();
-            if (auth != null) {
-                if (credentialsProvider == null) {
-                    credentialsProvider = new BasicCredentialsProvider();
-                }
-                // set the AuthScope
-                AuthScope authScope = new AuthScope(httpHost, auth.getRealm(), auth.getAuthScheme());
-
-                // set the credentials type
-                Credentials credentials = configureCredentials(auth);
-
-                credentialsProvider.setCredentials(authScope, credentials);
-            }
+        final HttpRoutePlanner proxyRoutePlanner = createProxyRoutePlanner();
+        if (proxyRoutePlanner != null) {
+            builder.setRoutePlanner(proxyRoutePlanner);
         }
 
         if (credentialsProvider != null) {
@@ -451,13 +512,297 @@ public class HttpClientBuilder {
             builder.setHttpProcessor(httpProcessor);
         }
 
+        if (configuration.isPropagateRequestId()) {
+            builder.addInterceptorLast(new RequestIdInterceptor());
+        }
+
+        if (retryBudget != null) {
+            builder.addInterceptorFirst(retryBudget);
+        }
+
         if (serviceUnavailableRetryStrategy != null) {
             builder.setServiceUnavailableRetryStrategy(serviceUnavailableRetryStrategy);
         }
 
         customizeBuilder(builder);
 
-        return new ConfiguredCloseableHttpClient(builder.build(), requestConfig);
+        // The connections are warmed up along the routes of the client, e.g. through its proxy
+        final HttpRoutePlanner clientRoutePlanner = routePlanner != null ? routePlanner
+            : proxyRoutePlanner != null ? proxyRoutePlanner : new DefaultRoutePlanner(null);
+        warmUp(manager, clientRoutePlanner);
+
+        final CloseableHttpClient failFastClient = createFailFastClient(builder.build(), name);
+        final HedgingConfiguration hedging = configuration.getHedging();
+        final CloseableHttpClient client = hedging == null
+            ? failFastClient
+            : new HedgingHttpClient(failFastClient, hedging, retryBudget, configuration.getMaxConnections(),
+                metricRegistry, name);
+        return new ConfiguredCloseableHttpClient(client, requestConfig);
+    }
+
+    /**
+     * Opens the connections of the warmup configuration, if any, when the environment starts, i.e. before the server
+     * accepts requests, or right away without an environment.
+     */
+    private void warmUp(InstrumentedHttpClientConnectionManager manager, HttpRoutePlanner clientRoutePlanner) {
+        final WarmupConfiguration warmup = configuration.getWarmup();
+        if (warmup == null) {
+            return;
+        }
+
+        final ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(manager, warmup, configuration.getConnectionTimeout(),
+            clientRoutePlanner);
+        if (environment != null) {
+            environment.lifecycle().manage(warmer);
+        } else {
+            warmer.warmUp();
+        }
+    }
+
+    /**
+     * Wraps the client with the circuit breakers and the bulkhead of the configuration, if any. Each hedged request
+     * goes through them on its own.
+     */
+    private CloseableHttpClient createFailFastClient(CloseableHttpClient client, String name) {
+        final CircuitBreakerConfiguration circuitBreaker = configuration.getCircuitBreaker();
+        final BulkheadConfiguration bulkhead = configuration.getBulkhead();
+        if (circuitBreaker == null && bulkhead == null) {
+            return client;
+        }
+
+        final CircuitBreakingHttpClient circuitBreakingClient =
+            new CircuitBreakingHttpClient(client, circuitBreaker, bulkhead, metricRegistry, name);
+        if (circuitBreaker != null && environment != null) {
+            environment.healthChecks().register(name + "-circuit-breakers",
+                new CircuitBreakerHealthCheck(circuitBreakingClient));
+        }
+        return circuitBreakingClient;
+    }
+
+    private HttpRequestRetryHandler createDefaultRetryHandler(@Nullable RetryBudgetConfiguration retryBudgetConfiguration,
+                                                              @Nullable RetryBudget retryBudget,
+                                                              String name) {
+        if (retryBudgetConfiguration == null || retryBudget == null) {
+            return new DefaultHttpRequestRetryHandler(configuration.getRetries(), false);
+        }
+        return new BudgetedHttpRequestRetryHandler(configuration.getRetries(), retryBudget,
+            retryBudgetConfiguration.getBackoff(), retryBudgetConfiguration.getMaxBackoff(), metricRegistry,
+            MetricRegistry.name(HttpClient.class, name));
+    }
+
+    /**
+     * For internal use only, used in {@link io.dropwizard.client.JerseyClientBuilder}
+     * to create an instance of {@link io.dropwizard.client.DropwizardHttp2Connector}
+     * <p>
+     * Maps the parameters in {@link HttpClientConfiguration} which apply to HTTP/2 on a Jetty
+     * {@link org.eclipse.jetty.client.HttpClient}. The connections to a server multiplex up to
+     * {@code maxConcurrentStreams} requests, or fewer if the server says so.
+     * </p>
+     *
+     * @param name                 the name of the client
+     * @param maxConcurrentStreams the maximum number of concurrent requests per connection
+     * @return a {@link io.dropwizard.client.DropwizardHttp2Connector}
+     */
+    DropwizardHttp2Connector buildHttp2Connector(String name, int maxConcurrentStreams) {
+        final HttpClientTransportOverHTTP2 transport = new HttpClientTransportOverHTTP2(new HTTP2Client());
+        final org.eclipse.jetty.client.HttpClient client =
+            new org.eclipse.jetty.client.HttpClient(transport, createConfiguredSslContextFactory());
+        transport.setConnectionPoolFactory(destination -> new MultiplexConnectionPool(destination,
+            client.getMaxConnectionsPerDestination(), destination, maxConcurrentStreams) {
+            @Override
+            public void setMaxMultiplex(int maxMultiplex) {
+                super.setMaxMultiplex(Math.min(maxMultiplex, maxConcurrentStreams));
+            }
+        });
+
+        client.setName("jetty-client-" + name);
+        client.setConnectTimeout(configuration.getConnectionTimeout().toMilliseconds());
+        final long keepAlive = configuration.getKeepAlive().toMilliseconds();
+        if (keepAlive > 0) {
+            client.setIdleTimeout(keepAlive);
+        }
+        client.setMaxConnectionsPerDestination(configuration.getMaxConnectionsPerRoute());
+        client.setUserAgentField(new HttpField(HttpHeader.USER_AGENT, createUserAgent(name)));
+        if (!configuration.isCookiesEnabled()) {
+            client.setCookieStore(new HttpCookieStore.Empty());
+        }
+
+        final Duration timeout = configuration.getTimeout();
+        final Duration responseTimeout = Duration.milliseconds(configuration.getConnectionRequestTimeout().toMilliseconds()
+            + configuration.getConnectionTimeout().toMilliseconds() + timeout.toMilliseconds());
+        return new DropwizardHttp2Connector(client, timeout, responseTimeout, metricRegistry, metricNameStrategy, name);
+    }
+
+    private SslContextFactory.Client createConfiguredSslContextFactory() {
+        TlsConfiguration tlsConfiguration = configuration.getTlsConfiguration();
+        if (tlsConfiguration == null && verifier != null) {
+            tlsConfiguration = new TlsConfiguration();
+        }
+        if (tlsConfiguration == null) {
+            return new SslContextFactory.Client();
+        }
+        return new DropwizardSSLConnectionSocketFactory(tlsConfiguration, verifier).getSslContextFactory();
+    }
+
+    /**
+     * For internal use only, used in {@link io.dropwizard.client.JerseyClientBuilder}
+     * to create an instance of {@link io.dropwizard.client.DropwizardApacheAsyncConnector}
+     * <p>
+     * Maps the parameters in {@link HttpClientConfiguration} which apply to non-blocking I/O on a
+     * {@link HttpAsyncClientBuilder}. The client isn't started yet.
+     * </p>
+     * <p>
+     * The client reports the same connection pool gauges and request timers as the blocking client, with the
+     * gauges under {@code org.apache.http.nio.conn.NHttpClientConnectionManager.<name>}.
+     * </p>
+     *
+     * @param name      the name of the client
+     * @param ioThreads the number of threads dispatching I/O events
+     * @return an {@link io.dropwizard.client.ConfiguredCloseableHttpAsyncClient}
+     */
+    ConfiguredCloseableHttpAsyncClient buildAsyncWithDefaultRequestConfiguration(String name, int ioThreads) {
+        final RequestConfig requestConfig = createDefaultRequestConfig();
+        final InstrumentedHttpAsyncInterceptor instrumentation =
+            new InstrumentedHttpAsyncInterceptor(metricRegistry, metricNameStrategy, name);
+        final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+            .addInterceptorLast((HttpRequestInterceptor) instrumentation)
+            .addInterceptorFirst((HttpResponseInterceptor) instrumentation)
+            .setConnectionManager(createAsyncConnectionManager(ioThreads, name))
+            .setDefaultRequestConfig(requestConfig)
+            .setConnectionReuseStrategy(createConnectionReuseStrategy())
+            .setUserAgent(createUserAgent(name));
+
+        final long keepAlive = configuration.getKeepAlive().toMilliseconds();
+        if (keepAlive != 0) {
+            builder.setKeepAliveStrategy(createKeepAliveStrategy(keepAlive));
+        }
+
+        final HttpRoutePlanner proxyRoutePlanner = createProxyRoutePlanner();
+        if (proxyRoutePlanner != null) {
+            builder.setRoutePlanner(proxyRoutePlanner);
+        }
+
+        if (credentialsProvider != null) {
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+        }
+
+        if (routePlanner != null) {
+            builder.setRoutePlanner(routePlanner);
+        }
+
+        if (redirectStrategy != null) {
+            builder.setRedirectStrategy(redirectStrategy);
+        }
+
+        if (defaultHeaders != null) {
+            builder.setDefaultHeaders(defaultHeaders);
+        }
+
+        if (configuration.isPropagateRequestId()) {
+            builder.addInterceptorLast(new RequestIdInterceptor());
+        }
+
+        return new ConfiguredCloseableHttpAsyncClient(builder.build(), requestConfig);
+    }
+
+    private InstrumentedNHttpClientConnectionManager createAsyncConnectionManager(int ioThreads, String name) {
+        final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+            .setIoThreadCount(ioThreads)
+            .setTcpNoDelay(true)
+            .setSoTimeout((int) configuration.getTimeout().toMilliseconds())
+            .setConnectTimeout((int) configuration.getConnectionTimeout().toMilliseconds())
+            .build();
+        final ConnectingIOReactor ioReactor;
+        try {
+            ioReactor = new DefaultConnectingIOReactor(ioReactorConfig);
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Unable to create the I/O reactor", e);
+        }
+
+        final Duration ttl = configuration.getTimeToLive();
+        final InstrumentedNHttpClientConnectionManager manager = new InstrumentedNHttpClientConnectionManager(
+            metricRegistry, ioReactor, createConfiguredSessionStrategyRegistry(), createDnsResolver(name),
+            ttl.getQuantity(), ttl.getUnit(), name);
+        manager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerRoute());
+        manager.setMaxTotal(configuration.getMaxConnections());
+        return manager;
+    }
+
+    private Registry<SchemeIOSessionStrategy> createConfiguredSessionStrategyRegistry() {
+        TlsConfiguration tlsConfiguration = configuration.getTlsConfiguration();
+        if (tlsConfiguration == null && verifier != null) {
+            tlsConfiguration = new TlsConfiguration();
+        }
+
+        final SSLIOSessionStrategy sslSessionStrategy;
+        if (tlsConfiguration == null) {
+            sslSessionStrategy = SSLIOSessionStrategy.getDefaultStrategy();
+        } else {
+            sslSessionStrategy = new DropwizardSSLConnectionSocketFactory(tlsConfiguration, verifier)
+                .getSessionStrategy();
+        }
+
+        return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", sslSessionStrategy)
+                .build();
+    }
+
+    private RequestConfig createDefaultRequestConfig() {
+        final String cookiePolicy = configuration.isCookiesEnabled() ? CookieSpecs.DEFAULT : CookieSpecs.IGNORE_COOKIES;
+        return RequestConfig.custom().setCookieSpec(cookiePolicy)
+                .setSocketTimeout((int) configuration.getTimeout().toMilliseconds())
+                .setConnectTimeout((int) configuration.getConnectionTimeout().toMilliseconds())
+                .setConnectionRequestTimeout((int) configuration.getConnectionRequestTimeout().toMilliseconds())
+                .setNormalizeUri(configuration.isNormalizeUriEnabled())
+                .build();
+    }
+
+    private ConnectionReuseStrategy createConnectionReuseStrategy() {
+        return configuration.getKeepAlive().toMilliseconds() == 0
+                ? new NoConnectionReuseStrategy()
+                : new DefaultConnectionReuseStrategy();
+    }
+
+    private ConnectionKeepAliveStrategy createKeepAliveStrategy(long keepAlive) {
+        // either keep alive based on response header Keep-Alive,
+        // or if the server can keep a persistent connection (-1), then override based on client's configuration
+        return new DefaultConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                final long duration = super.getKeepAliveDuration(response, context);
+                return (duration == -1) ? keepAlive : duration;
+            }
+        };
+    }
+
+    /**
+     * Creates a route planner for the configured proxy, if any, and adds the credentials of the proxy to the
+     * credentials provider.
+     */
+    @Nullable
+    private HttpRoutePlanner createProxyRoutePlanner() {
+        final ProxyConfiguration proxy = configuration.getProxyConfiguration();
+        if (proxy == null) {
+            return null;
+        }
+
+        final HttpHost httpHost = new HttpHost(proxy.getHost(), proxy.getPort(), proxy.getScheme());
+        // if the proxy host requires authentication then add the host credentials to the credentials provider
+        final AuthConfiguration auth = proxy.getAuth();
+        if (auth != null) {
+            if (credentialsProvider == null) {
+                credentialsProvider = new BasicCredentialsProvider();
+            }
+            // set the AuthScope
+            AuthScope authScope = new AuthScope(httpHost, auth.getRealm(), auth.getAuthScheme());
+
+            // set the credentials type
+            Credentials credentials = configureCredentials(auth);
+
+            credentialsProvider.setCredentials(authScope, credentials);
+        }
+        return new NonProxyListProxyRoutePlanner(httpHost, proxy.getNonProxyHosts());
     }
 
     /**
@@ -476,7 +821,9 @@ public class HttpClientBuilder {
     /**
      * Create a InstrumentedHttpClientConnectionManager based on the
      * HttpClientConfiguration. It sets the maximum connections per route and
-     * the maximum total connections that the connection manager can create
+     * the maximum total connections that the connection manager can create.
+     * Since 2.1, it's a {@link RouteInstrumentedHttpClientConnectionManager}
+     * which also reports per-route, pool-wait and connection metrics.
      *
      * @param registry
      * @param name
@@ -485,16 +832,19 @@ public class HttpClientBuilder {
     protected InstrumentedHttpClientConnectionManager createConnectionManager(Registry<ConnectionSocketFactory> registry,
                                                                               String name) {
         final Duration ttl = configuration.getTimeToLive();
-        final InstrumentedHttpClientConnectionManager manager = InstrumentedHttpClientConnectionManager.builder(metricRegistry)
-            .socketFactoryRegistry(registry)
-            .dnsResolver(resolver)
-            .connTTL(ttl.getQuantity())
-            .connTTLTimeUnit(ttl.getUnit())
-            .name(name)
-            .build();
+        final InstrumentedHttpClientConnectionManager manager = new RouteInstrumentedHttpClientConnectionManager(
+            metricRegistry, registry, createDnsResolver(name), ttl.getQuantity(), ttl.getUnit(), name);
         return configureConnectionManager(manager);
     }
 
+    /**
+     * Wraps the DNS resolver with a cache if the configuration has one.
+     */
+    private DnsResolver createDnsResolver(String name) {
+        final DnsCacheConfiguration dnsCache = configuration.getDnsCache();
+        return dnsCache == null ? resolver : new CachingDnsResolver(resolver, dnsCache, metricRegistry, name);
+    }
+
     Registry<ConnectionSocketFactory> createConfiguredRegistry() {
         if (registry != null) {
             return registry;
@@ -1,8 +1,15 @@
 package io.dropwizard.client;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.client.cache.HttpCacheConfiguration;
+import io.dropwizard.client.dns.DnsCacheConfiguration;
 import io.dropwizard.client.proxy.ProxyConfiguration;
+import io.dropwizard.client.circuitbreaker.BulkheadConfiguration;
+import io.dropwizard.client.circuitbreaker.CircuitBreakerConfiguration;
+import io.dropwizard.client.retry.HedgingConfiguration;
+import io.dropwizard.client.retry.RetryBudgetConfiguration;
 import io.dropwizard.client.ssl.TlsConfiguration;
+import io.dropwizard.client.warmup.WarmupConfiguration;
 import io.dropwizard.util.Duration;
 
 import javax.annotation.Nullable;
@@ -34,6 +41,8 @@ public class HttpClientConfiguration {
 
     private boolean normalizeUriEnabled = true;
 
+    private boolean propagateRequestId = false;
+
     @Min(1)
     @Max(Integer.MAX_VALUE)
     private int maxConnections = 1024;
@@ -67,6 +76,34 @@ public class HttpClientConfiguration {
     @Nullable
     private TlsConfiguration tlsConfiguration;
 
+    @Valid
+    @Nullable
+    private HttpCacheConfiguration cacheConfiguration;
+
+    @Valid
+    @Nullable
+    private RetryBudgetConfiguration retryBudget;
+
+    @Valid
+    @Nullable
+    private HedgingConfiguration hedging;
+
+    @Valid
+    @Nullable
+    private CircuitBreakerConfiguration circuitBreaker;
+
+    @Valid
+    @Nullable
+    private BulkheadConfiguration bulkhead;
+
+    @Valid
+    @Nullable
+    private WarmupConfiguration warmup;
+
+    @Valid
+    @Nullable
+    private DnsCacheConfiguration dnsCache;
+
     @JsonProperty
     public void setKeepAlive(Duration keepAlive) {
         this.keepAlive = keepAlive;
@@ -152,6 +189,22 @@ public class HttpClientConfiguration {
         this.normalizeUriEnabled = normalizeUriEnabled;
     }
 
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public boolean isPropagateRequestId() {
+        return propagateRequestId;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setPropagateRequestId(boolean propagateRequestId) {
+        this.propagateRequestId = propagateRequestId;
+    }
+
     @JsonProperty
     public int getMaxConnections() {
         return maxConnections;
@@ -213,4 +266,123 @@ public class HttpClientConfiguration {
     public void setTlsConfiguration(TlsConfiguration tlsConfiguration) {
         this.tlsConfiguration = tlsConfiguration;
     }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty("cache")
+    @Nullable
+    public HttpCacheConfiguration getCacheConfiguration() {
+        return cacheConfiguration;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty("cache")
+    public void setCacheConfiguration(@Nullable HttpCacheConfiguration cacheConfiguration) {
+        this.cacheConfiguration = cacheConfiguration;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public RetryBudgetConfiguration getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setRetryBudget(@Nullable RetryBudgetConfiguration retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public HedgingConfiguration getHedging() {
+        return hedging;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setHedging(@Nullable HedgingConfiguration hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public CircuitBreakerConfiguration getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setCircuitBreaker(@Nullable CircuitBreakerConfiguration circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public BulkheadConfiguration getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setBulkhead(@Nullable BulkheadConfiguration bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public WarmupConfiguration getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setWarmup(@Nullable WarmupConfiguration warmup) {
+        this.warmup = warmup;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    @Nullable
+    public DnsCacheConfiguration getDnsCache() {
+        return dnsCache;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setDnsCache(@Nullable DnsCacheConfiguration dnsCache) {
+        this.dnsCache = dnsCache;
+    }
 }
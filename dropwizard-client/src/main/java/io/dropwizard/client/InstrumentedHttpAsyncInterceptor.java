@@ -0,0 +1,45 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Times the requests of the non-blocking client, like the
+ * {@link com.codahale.metrics.httpclient.InstrumentedHttpRequestExecutor} does for the blocking client: the timer
+ * named by the {@link HttpClientMetricNameStrategy} is started when a request is sent and stopped when its response
+ * is received. Requests which fail without a response aren't timed.
+ */
+class InstrumentedHttpAsyncInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private static final String TIMER_CONTEXT = InstrumentedHttpAsyncInterceptor.class.getName() + ".timer";
+
+    private final MetricRegistry metricRegistry;
+    private final HttpClientMetricNameStrategy metricNameStrategy;
+    private final String name;
+
+    InstrumentedHttpAsyncInterceptor(MetricRegistry metricRegistry, HttpClientMetricNameStrategy metricNameStrategy,
+                                     String name) {
+        this.metricRegistry = metricRegistry;
+        this.metricNameStrategy = metricNameStrategy;
+        this.name = name;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        context.setAttribute(TIMER_CONTEXT,
+            metricRegistry.timer(metricNameStrategy.getNameFor(name, request)).time());
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        final Object timerContext = context.removeAttribute(TIMER_CONTEXT);
+        if (timerContext instanceof Timer.Context) {
+            ((Timer.Context) timerContext).stop();
+        }
+    }
+}
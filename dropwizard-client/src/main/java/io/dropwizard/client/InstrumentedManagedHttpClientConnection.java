@@ -0,0 +1,188 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connection which reports its lifetime and the number of requests sent over it when it's closed.
+ */
+class InstrumentedManagedHttpClientConnection implements ManagedHttpClientConnection {
+    private final ManagedHttpClientConnection delegate;
+    private final Timer lifetime;
+    private final Histogram requests;
+    private final long createdAt = System.nanoTime();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    InstrumentedManagedHttpClientConnection(ManagedHttpClientConnection delegate, Timer lifetime, Histogram requests) {
+        this.delegate = delegate;
+        this.lifetime = lifetime;
+        this.requests = requests;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            onClosed();
+        }
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        try {
+            delegate.shutdown();
+        } finally {
+            onClosed();
+        }
+    }
+
+    private void onClosed() {
+        if (closed.compareAndSet(false, true)) {
+            lifetime.update(System.nanoTime() - createdAt, TimeUnit.NANOSECONDS);
+            requests.update(delegate.getMetrics().getRequestCount());
+        }
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public void bind(Socket socket) throws IOException {
+        delegate.bind(socket);
+    }
+
+    @Override
+    @Nullable
+    public Socket getSocket() {
+        return delegate.getSocket();
+    }
+
+    @Override
+    @Nullable
+    public SSLSession getSSLSession() {
+        return delegate.getSSLSession();
+    }
+
+    @Override
+    public boolean isResponseAvailable(int timeout) throws IOException {
+        return delegate.isResponseAvailable(timeout);
+    }
+
+    @Override
+    public void sendRequestHeader(HttpRequest request) throws HttpException, IOException {
+        delegate.sendRequestHeader(request);
+    }
+
+    @Override
+    public void sendRequestEntity(HttpEntityEnclosingRequest request) throws HttpException, IOException {
+        delegate.sendRequestEntity(request);
+    }
+
+    @Override
+    public HttpResponse receiveResponseHeader() throws HttpException, IOException {
+        return delegate.receiveResponseHeader();
+    }
+
+    @Override
+    public void receiveResponseEntity(HttpResponse response) throws HttpException, IOException {
+        delegate.receiveResponseEntity(response);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public boolean isStale() {
+        return delegate.isStale();
+    }
+
+    @Override
+    public void setSocketTimeout(int timeout) {
+        delegate.setSocketTimeout(timeout);
+    }
+
+    @Override
+    public int getSocketTimeout() {
+        return delegate.getSocketTimeout();
+    }
+
+    @Override
+    public HttpConnectionMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    @Override
+    @Nullable
+    public InetAddress getLocalAddress() {
+        return delegate.getLocalAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return delegate.getLocalPort();
+    }
+
+    @Override
+    @Nullable
+    public InetAddress getRemoteAddress() {
+        return delegate.getRemoteAddress();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return delegate.getRemotePort();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * Creates instrumented connections with another factory.
+     */
+    static class Factory implements HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> {
+        private final HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> delegate;
+        private final Timer lifetime;
+        private final Histogram requests;
+
+        Factory(HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> delegate, Timer lifetime,
+                Histogram requests) {
+            this.delegate = delegate;
+            this.lifetime = lifetime;
+            this.requests = requests;
+        }
+
+        @Override
+        public ManagedHttpClientConnection create(HttpRoute route, @Nullable ConnectionConfig config) {
+            return new InstrumentedManagedHttpClientConnection(delegate.create(route, config), lifetime, requests);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link PoolingNHttpClientConnectionManager} of the non-blocking client which reports the same gauges as
+ * {@link com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager}, that is
+ * {@code available-connections}, {@code leased-connections}, {@code max-connections} and
+ * {@code pending-connections}, under {@code org.apache.http.nio.conn.NHttpClientConnectionManager.<name>}.
+ */
+class InstrumentedNHttpClientConnectionManager extends PoolingNHttpClientConnectionManager {
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+
+    InstrumentedNHttpClientConnectionManager(MetricRegistry metricRegistry,
+                                             ConnectingIOReactor ioReactor,
+                                             Registry<SchemeIOSessionStrategy> ioSessionFactoryRegistry,
+                                             DnsResolver dnsResolver,
+                                             long timeToLive,
+                                             TimeUnit timeUnit,
+                                             String name) {
+        super(ioReactor, null, ioSessionFactoryRegistry, null, dnsResolver, timeToLive, timeUnit);
+        this.metricRegistry = metricRegistry;
+        this.prefix = name(NHttpClientConnectionManager.class, name);
+        metricRegistry.gauge(name(prefix, "available-connections"),
+            () -> (Gauge<Integer>) () -> getTotalStats().getAvailable());
+        metricRegistry.gauge(name(prefix, "leased-connections"),
+            () -> (Gauge<Integer>) () -> getTotalStats().getLeased());
+        metricRegistry.gauge(name(prefix, "max-connections"),
+            () -> (Gauge<Integer>) () -> getTotalStats().getMax());
+        metricRegistry.gauge(name(prefix, "pending-connections"),
+            () -> (Gauge<Integer>) () -> getTotalStats().getPending());
+    }
+
+    @Override
+    public void shutdown() throws IOException {
+        try {
+            super.shutdown();
+        } finally {
+            metricRegistry.remove(name(prefix, "available-connections"));
+            metricRegistry.remove(name(prefix, "leased-connections"));
+            metricRegistry.remove(name(prefix, "max-connections"));
+            metricRegistry.remove(name(prefix, "pending-connections"));
+        }
+    }
+}
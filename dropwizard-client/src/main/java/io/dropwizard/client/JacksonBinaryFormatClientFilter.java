@@ -0,0 +1,41 @@
+package io.dropwizard.client;
+
+import io.dropwizard.jersey.jackson.JacksonBinaryFormat;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * Sends JSON request entities in a {@link JacksonBinaryFormat} instead, and asks for responses in that format
+ * rather than JSON, while still accepting JSON from servers which don't support the format.
+ */
+class JacksonBinaryFormatClientFilter implements ClientRequestFilter {
+    private final JacksonBinaryFormat format;
+    private final String accept;
+
+    JacksonBinaryFormatClientFilter(JacksonBinaryFormat format) {
+        this.format = format;
+        this.accept = format.getMediaType() + ", " + MediaType.APPLICATION_JSON + ";q=0.9";
+    }
+
+    @Override
+    public void filter(ClientRequestContext request) {
+        if (request.hasEntity() && isJson(request.getMediaType())) {
+            request.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, format.getMediaType());
+        }
+        final List<MediaType> acceptableMediaTypes = request.getAcceptableMediaTypes();
+        if (acceptableMediaTypes.size() == 1 && isJson(acceptableMediaTypes.get(0))) {
+            request.getHeaders().putSingle(HttpHeaders.ACCEPT, accept);
+        }
+    }
+
+    private static boolean isJson(@Nullable MediaType mediaType) {
+        return mediaType != null
+            && "application".equalsIgnoreCase(mediaType.getType())
+            && "json".equalsIgnoreCase(mediaType.getSubtype());
+    }
+}
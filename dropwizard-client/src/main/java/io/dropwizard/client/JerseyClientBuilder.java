@@ -5,6 +5,7 @@ import com.codahale.metrics.httpclient.HttpClientMetricNameStrategy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.jersey.gzip.ConfiguredGZipEncoder;
 import io.dropwizard.jersey.gzip.GZipDecoder;
+import io.dropwizard.jersey.jackson.JacksonBinaryFormat;
 import io.dropwizard.jersey.jackson.JacksonFeature;
 import io.dropwizard.jersey.validation.HibernateValidationBinder;
 import io.dropwizard.jersey.validation.Validators;
@@ -27,9 +28,11 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.RxInvokerProvider;
 import javax.ws.rs.core.Configuration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 
@@ -41,7 +44,7 @@ import static java.util.Objects.requireNonNull;
  * <p>
  * Among other things,
  * <ul>
- * <li>Backed by Apache HttpClient</li>
+ * <li>Backed by Apache HttpClient, or by Apache HttpAsyncClient for non-blocking I/O</li>
  * <li>Disables stale connection checks</li>
  * <li>Disables Nagle's algorithm</li>
  * <li>Disables cookie management by default</li>
@@ -401,7 +404,10 @@ public class JerseyClientBuilder {
             config.register(provider);
         }
 
-        config.register(new JacksonFeature(objectMapper));
+        final Optional<JacksonBinaryFormat> binaryFormat = configuration.getBinaryFormat();
+        config.register(new JacksonFeature(objectMapper, null,
+            binaryFormat.map(Collections::singleton).orElseGet(Collections::emptySet)));
+        binaryFormat.ifPresent(format -> config.register(new JacksonBinaryFormatClientFilter(format)));
         config.register(new HibernateValidationBinder(validator));
 
         for (Map.Entry<String, Object> property : this.properties.entrySet()) {
@@ -410,7 +416,15 @@ public class JerseyClientBuilder {
 
         config.register(new DropwizardExecutorProvider(threadPool));
 
-        if (connectorProvider == null) {
+        if (connectorProvider == null && configuration.isHttp2Enabled()) {
+            // The connector owns its client, so it's shared by all the runtimes of the client
+            config.connectorProvider(new SharedConnectorProvider(() -> createDropwizardHttp2Connector(name)));
+        } else if (connectorProvider == null && configuration.isNonBlockingIoEnabled()) {
+            // The connector owns its client, so it's shared by all the runtimes of the client
+            config.connectorProvider(new SharedConnectorProvider(() -> createDropwizardApacheAsyncConnector(
+                    apacheHttpClientBuilder.buildAsyncWithDefaultRequestConfiguration(name, configuration.getIoThreads()),
+                    threadPool)));
+        } else if (connectorProvider == null) {
             final ConfiguredCloseableHttpClient apacheHttpClient =
                     apacheHttpClientBuilder.buildWithDefaultRequestConfiguration(name);
             config.connectorProvider((client, runtimeConfig) -> createDropwizardApacheConnector(apacheHttpClient));
@@ -429,4 +443,26 @@ public class JerseyClientBuilder {
         return new DropwizardApacheConnector(configuredClient.getClient(), configuredClient.getDefaultRequestConfig(),
                 configuration.isChunkedEncodingEnabled());
     }
+
+    /**
+     * Builds {@link DropwizardApacheAsyncConnector} based on the configured non-blocking Apache HTTP client
+     * as {@link ConfiguredCloseableHttpAsyncClient}, which completes the requests on the thread pool
+     * of the Jersey client.
+     *
+     * @since 2.1
+     */
+    protected DropwizardApacheAsyncConnector createDropwizardApacheAsyncConnector(
+            ConfiguredCloseableHttpAsyncClient configuredClient, ExecutorService threadPool) {
+        return new DropwizardApacheAsyncConnector(configuredClient.getClient(),
+                configuredClient.getDefaultRequestConfig(), threadPool);
+    }
+
+    /**
+     * Builds {@link DropwizardHttp2Connector} based on the HTTP/2 client configuration.
+     *
+     * @since 2.1
+     */
+    protected DropwizardHttp2Connector createDropwizardHttp2Connector(String name) {
+        return apacheHttpClientBuilder.buildHttp2Connector(name, configuration.getMaxConcurrentStreams());
+    }
 }
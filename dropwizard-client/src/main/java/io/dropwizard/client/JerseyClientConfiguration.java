@@ -2,10 +2,13 @@ package io.dropwizard.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.jersey.jackson.JacksonBinaryFormat;
 import io.dropwizard.validation.ValidationMethod;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.Optional;
 
 /**
  * The configuration class used by {@link JerseyClientBuilder}. Extends
@@ -33,6 +36,21 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
 
     private boolean chunkedEncodingEnabled = true;
 
+    @NotNull
+    private Optional<JacksonBinaryFormat> binaryFormat = Optional.empty();
+
+    private boolean nonBlockingIoEnabled = false;
+
+    @Min(1)
+    @Max(16 * 1024)
+    private int ioThreads = Runtime.getRuntime().availableProcessors();
+
+    private boolean http2Enabled = false;
+
+    @Min(1)
+    @Max(16 * 1024)
+    private int maxConcurrentStreams = 100;
+
     @JsonProperty
     public int getMinThreads() {
         return minThreads;
@@ -83,6 +101,86 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
         this.chunkedEncodingEnabled = chunkedEncodingEnabled;
     }
 
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public Optional<JacksonBinaryFormat> getBinaryFormat() {
+        return binaryFormat;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setBinaryFormat(Optional<JacksonBinaryFormat> binaryFormat) {
+        this.binaryFormat = binaryFormat;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public boolean isNonBlockingIoEnabled() {
+        return nonBlockingIoEnabled;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setNonBlockingIoEnabled(boolean nonBlockingIoEnabled) {
+        this.nonBlockingIoEnabled = nonBlockingIoEnabled;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
     @JsonProperty
     public int getWorkQueueSize() {
         return workQueueSize;
@@ -104,4 +202,10 @@ public class JerseyClientConfiguration extends HttpClientConfiguration {
     public boolean isCompressionConfigurationValid() {
         return !gzipEnabledForRequests || gzipEnabled;
     }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".http2Enabled and nonBlockingIoEnabled can't both be set to true")
+    public boolean isTransportConfigurationValid() {
+        return !http2Enabled || !nonBlockingIoEnabled;
+    }
 }
@@ -0,0 +1,111 @@
+package io.dropwizard.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link OutputStream} which buffers its contents in fixed-size segments borrowed from a shared pool.
+ * <p>
+ * Unlike a {@link java.io.ByteArrayOutputStream}, it never copies its contents to grow or to be read: the segments
+ * are written as they are, and they're returned to the pool when the stream is {@link #release() released}.
+ * </p>
+ */
+final class PooledByteArrayOutputStream extends OutputStream {
+    static final int SEGMENT_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_SEGMENTS = 256;
+
+    private static final Queue<byte[]> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private final List<byte[]> segments = new ArrayList<>();
+    private int position = SEGMENT_SIZE;
+    private long size;
+    private boolean released;
+
+    @Override
+    public void write(int b) {
+        segment()[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final byte[] segment = segment();
+            final int length = Math.min(remaining, SEGMENT_SIZE - position);
+            System.arraycopy(b, offset, segment, position, length);
+            position += length;
+            offset += length;
+            remaining -= length;
+        }
+        size += len;
+    }
+
+    private byte[] segment() {
+        ensureNotReleased();
+        if (position == SEGMENT_SIZE) {
+            segments.add(borrow());
+            position = 0;
+        }
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * @return the number of bytes written to the stream
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Writes the contents of the stream to another stream. It can be called several times until the stream is
+     * released.
+     */
+    void writeTo(OutputStream outputStream) throws IOException {
+        ensureNotReleased();
+        final int last = segments.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            outputStream.write(segments.get(i), 0, i == last ? position : SEGMENT_SIZE);
+        }
+    }
+
+    /**
+     * Returns the segments to the pool. The stream can't be used anymore.
+     */
+    void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (byte[] segment : segments) {
+            if (POOLED.incrementAndGet() <= MAX_POOLED_SEGMENTS) {
+                POOL.offer(segment);
+            } else {
+                POOLED.decrementAndGet();
+            }
+        }
+        segments.clear();
+    }
+
+    private void ensureNotReleased() {
+        if (released) {
+            throw new IllegalStateException("The buffer has been released");
+        }
+    }
+
+    private static byte[] borrow() {
+        final byte[] segment = POOL.poll();
+        if (segment == null) {
+            return new byte[SEGMENT_SIZE];
+        }
+        POOLED.decrementAndGet();
+        return segment;
+    }
+}
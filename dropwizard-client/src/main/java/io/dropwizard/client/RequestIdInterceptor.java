@@ -0,0 +1,32 @@
+package io.dropwizard.client;
+
+import io.dropwizard.jersey.filter.RequestIdFilter;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.MDC;
+
+/**
+ * An {@link HttpRequestInterceptor} which forwards the ID of the request currently being processed, as put into
+ * the SLF4J {@link MDC} by the {@link io.dropwizard.jersey.filter.RequestIdMdcFilter}, in the {@code X-Request-Id}
+ * header of outgoing requests, so that the requests made on behalf of a request can be correlated with it.
+ * <p/>
+ * Requests which already carry the header, or which are sent outside of a request, are left unchanged. As the ID
+ * may have been supplied by the client of the service, it's only forwarded by clients which enable
+ * {@link HttpClientConfiguration#setPropagateRequestId(boolean) propagateRequestId}, which should only be used for
+ * requests to trusted services.
+ *
+ * @since 2.1
+ */
+public class RequestIdInterceptor implements HttpRequestInterceptor {
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        if (request.containsHeader(RequestIdFilter.REQUEST_ID_HEADER)) {
+            return;
+        }
+        final String requestId = MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        if (requestId != null && !requestId.isEmpty()) {
+            request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, requestId);
+        }
+    }
+}
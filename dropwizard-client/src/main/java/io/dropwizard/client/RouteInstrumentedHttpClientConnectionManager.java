@@ -0,0 +1,137 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.pool.PoolStats;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * An {@link InstrumentedHttpClientConnectionManager} which also reports, under
+ * {@code org.apache.http.conn.HttpClientConnectionManager.<name>}:
+ * <ul>
+ *     <li>{@code routes.<route>.leased}, {@code routes.<route>.pending} and {@code routes.<route>.available}:
+ *     gauges of the connections of each route, named as by {@link RouteMetricNames#name}</li>
+ *     <li>{@code pool-wait}: a timer of the time spent waiting for a pooled connection</li>
+ *     <li>{@code pool-wait-timeouts}: a meter of the requests which timed out waiting for a pooled connection</li>
+ *     <li>{@code connections-created} and {@code connections-reused}: meters of the leased connections which were
+ *     new or reused</li>
+ *     <li>{@code connection-lifetime}: a timer of the lifetime of the closed connections</li>
+ *     <li>{@code connection-requests}: a histogram of the number of requests sent over the closed connections</li>
+ * </ul>
+ *
+ * @since 2.1
+ */
+public class RouteInstrumentedHttpClientConnectionManager extends InstrumentedHttpClientConnectionManager {
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final Set<String> routes = ConcurrentHashMap.newKeySet();
+    private final Timer poolWait;
+    private final Meter poolWaitTimeouts;
+    private final Meter connectionsCreated;
+    private final Meter connectionsReused;
+
+    public RouteInstrumentedHttpClientConnectionManager(MetricRegistry metricRegistry,
+                                                        Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                                        DnsResolver dnsResolver,
+                                                        long connTTL,
+                                                        TimeUnit connTTLTimeUnit,
+                                                        String name) {
+        this(metricRegistry, socketFactoryRegistry, dnsResolver, connTTL, connTTLTimeUnit, name,
+            name(HttpClientConnectionManager.class, name));
+    }
+
+    private RouteInstrumentedHttpClientConnectionManager(MetricRegistry metricRegistry,
+                                                         Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                                         DnsResolver dnsResolver,
+                                                         long connTTL,
+                                                         TimeUnit connTTLTimeUnit,
+                                                         String name,
+                                                         String prefix) {
+        super(metricRegistry, socketFactoryRegistry,
+            new InstrumentedManagedHttpClientConnection.Factory(ManagedHttpClientConnectionFactory.INSTANCE,
+                metricRegistry.timer(name(prefix, "connection-lifetime")),
+                metricRegistry.histogram(name(prefix, "connection-requests"))),
+            null, dnsResolver, connTTL, connTTLTimeUnit, name);
+        this.metricRegistry = metricRegistry;
+        this.prefix = prefix;
+        this.poolWait = metricRegistry.timer(name(prefix, "pool-wait"));
+        this.poolWaitTimeouts = metricRegistry.meter(name(prefix, "pool-wait-timeouts"));
+        this.connectionsCreated = metricRegistry.meter(name(prefix, "connections-created"));
+        this.connectionsReused = metricRegistry.meter(name(prefix, "connections-reused"));
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, @Nullable Object state) {
+        registerRouteGauges(route);
+        final ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                final long start = System.nanoTime();
+                final HttpClientConnection connection;
+                try {
+                    connection = request.get(timeout, timeUnit);
+                } catch (ConnectionPoolTimeoutException e) {
+                    poolWaitTimeouts.mark();
+                    throw e;
+                }
+                poolWait.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (connection.isOpen()) {
+                    connectionsReused.mark();
+                } else {
+                    connectionsCreated.mark();
+                }
+                return connection;
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        final String routesPrefix = name(prefix, "routes") + ".";
+        metricRegistry.removeMatching((name, metric) -> name.startsWith(routesPrefix));
+        routes.clear();
+    }
+
+    private void registerRouteGauges(HttpRoute route) {
+        final String key = RouteMetricNames.name(route.getTargetHost());
+        if (!routes.add(key)) {
+            return;
+        }
+        registerRouteGauge(route, key, "leased", PoolStats::getLeased);
+        registerRouteGauge(route, key, "pending", PoolStats::getPending);
+        registerRouteGauge(route, key, "available", PoolStats::getAvailable);
+    }
+
+    private void registerRouteGauge(HttpRoute route, String key, String metric, ToIntFunction<PoolStats> value) {
+        metricRegistry.gauge(name(prefix, "routes", key, metric),
+            () -> (Gauge<Integer>) () -> value.applyAsInt(getStats(route)));
+    }
+}
@@ -0,0 +1,56 @@
+package io.dropwizard.client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+
+import java.util.Locale;
+
+/**
+ * Names the metrics of the routes of a client.
+ *
+ * @since 2.1
+ */
+public final class RouteMetricNames {
+    private RouteMetricNames() {
+    }
+
+    /**
+     * Returns the name of a route in metric names: the scheme of the target host, and the host and port joined by an
+     * underscore, e.g. {@code https.example_com_443} for {@code https://example.com}. The characters of the host which
+     * metric reporters treat as separators, e.g. the dots of a domain name or the colons of an IPv6 address, are
+     * replaced by underscores, and the default port of the scheme is used when the target host has none.
+     *
+     * @param target the target host of the route
+     * @return the name of the route
+     */
+    public static String name(HttpHost target) {
+        final StringBuilder name = new StringBuilder()
+            .append(sanitize(target.getSchemeName()))
+            .append('.')
+            .append(sanitize(target.getHostName()));
+        final int port = resolvePort(target);
+        if (port >= 0) {
+            name.append('_').append(port);
+        }
+        return name.toString();
+    }
+
+    private static int resolvePort(HttpHost target) {
+        try {
+            return DefaultSchemePortResolver.INSTANCE.resolve(target);
+        } catch (UnsupportedSchemeException e) {
+            return -1;
+        }
+    }
+
+    private static String sanitize(String segment) {
+        final String lowerCase = segment.toLowerCase(Locale.ROOT);
+        final StringBuilder sanitized = new StringBuilder(lowerCase.length());
+        for (int i = 0; i < lowerCase.length(); i++) {
+            final char c = lowerCase.charAt(i);
+            sanitized.append((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' ? c : '_');
+        }
+        return sanitized.toString();
+    }
+}
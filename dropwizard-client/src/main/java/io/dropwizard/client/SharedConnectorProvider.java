@@ -0,0 +1,91 @@
+package io.dropwizard.client;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Provides all the runtimes of a Jersey client with a single connector, for connectors which own their transport,
+ * e.g. an I/O reactor or a selector and their threads, and a connection pool.
+ * <p>
+ * Jersey creates a runtime, and asks for a connector, for the client and for each target whose configuration has
+ * been changed, e.g. by {@code register()} or {@code property()}, and closes the connector of a runtime when the
+ * client is closed. The connector is created along with the first runtime, and closed along with the last one.
+ * </p>
+ */
+class SharedConnectorProvider implements ConnectorProvider {
+    private final Supplier<? extends Connector> factory;
+    @Nullable
+    private Connector connector;
+    private int runtimes;
+
+    SharedConnectorProvider(Supplier<? extends Connector> factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public synchronized Connector getConnector(Client client, Configuration runtimeConfig) {
+        Connector shared = connector;
+        if (shared == null) {
+            shared = factory.get();
+            connector = shared;
+        }
+        runtimes++;
+        return new SharedConnector(shared);
+    }
+
+    private synchronized void release(Connector shared) {
+        runtimes--;
+        if (runtimes == 0 && connector == shared) {
+            connector = null;
+            shared.close();
+        }
+    }
+
+    /**
+     * The view of the shared connector given to a runtime, which releases it once when the runtime is closed.
+     */
+    class SharedConnector implements Connector {
+        private final Connector delegate;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private SharedConnector(Connector delegate) {
+            this.delegate = delegate;
+        }
+
+        Connector getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public ClientResponse apply(ClientRequest request) {
+            return delegate.apply(request);
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback) {
+            return delegate.apply(request, callback);
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(delegate);
+            }
+        }
+    }
+}
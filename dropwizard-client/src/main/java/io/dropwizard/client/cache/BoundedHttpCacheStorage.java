@@ -0,0 +1,151 @@
+package io.dropwizard.client.cache;
+
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.HttpCacheStorage;
+import org.apache.http.client.cache.HttpCacheUpdateCallback;
+import org.apache.http.client.cache.Resource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link HttpCacheStorage} which bounds the total size of the cached response bodies rather than the number of
+ * cached responses. When the bound is exceeded, the least recently used responses are evicted.
+ * <p/>
+ * Like the {@link org.apache.http.impl.client.cache.ManagedHttpCacheStorage}, the resources of evicted and removed
+ * responses are only disposed of, which deletes them if they are stored in files, once their entries are no longer
+ * referenced, since requests may still be reading them. Unreferenced resources are disposed of as the cache is
+ * modified, or by calling {@link #cleanResources()}.
+ *
+ * @since 2.1
+ */
+public class BoundedHttpCacheStorage implements HttpCacheStorage {
+    private final long maxSize;
+    private final LinkedHashMap<String, HttpCacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<HttpCacheEntry> releasedEntries = new ReferenceQueue<>();
+    private final Set<ResourceReference> releasedResources = ConcurrentHashMap.newKeySet();
+    private long size;
+
+    /**
+     * @param maxSize the maximum total size of the cached response bodies in bytes
+     */
+    public BoundedHttpCacheStorage(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public synchronized void putEntry(String key, HttpCacheEntry entry) {
+        cleanResources();
+        final HttpCacheEntry previous = entries.put(key, entry);
+        size += sizeOf(entry);
+        if (previous != null) {
+            release(previous, entry);
+        }
+        evict(key);
+    }
+
+    @Override
+    @Nullable
+    public synchronized HttpCacheEntry getEntry(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public synchronized void removeEntry(String key) {
+        cleanResources();
+        final HttpCacheEntry previous = entries.remove(key);
+        if (previous != null) {
+            release(previous, null);
+        }
+    }
+
+    @Override
+    public synchronized void updateEntry(String key, HttpCacheUpdateCallback callback) throws IOException {
+        final HttpCacheEntry updated = callback.update(entries.get(key));
+        if (updated == null) {
+            removeEntry(key);
+        } else {
+            putEntry(key, updated);
+        }
+    }
+
+    /**
+     * Disposes of the resources of the evicted and removed responses whose entries are no longer referenced.
+     */
+    public void cleanResources() {
+        Reference<? extends HttpCacheEntry> reference;
+        while ((reference = releasedEntries.poll()) != null) {
+            final ResourceReference resourceReference = (ResourceReference) reference;
+            releasedResources.remove(resourceReference);
+            resourceReference.getResource().dispose();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached response bodies.
+     *
+     * @return the total size of the cached response bodies in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cache entries.
+     *
+     * @return the number of cache entries, including the entries which only refer to the variants of a response
+     */
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    private void evict(String retainedKey) {
+        final Iterator<Map.Entry<String, HttpCacheEntry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, HttpCacheEntry> eldest = iterator.next();
+            if (!eldest.getKey().equals(retainedKey)) {
+                iterator.remove();
+                release(eldest.getValue(), null);
+            }
+        }
+    }
+
+    private void release(HttpCacheEntry entry, @Nullable HttpCacheEntry replacement) {
+        size -= sizeOf(entry);
+        final Resource resource = entry.getResource();
+        // A replacement of an entry may share its resource
+        if (resource != null && (replacement == null || replacement.getResource() != resource)) {
+            releasedResources.add(new ResourceReference(entry, resource, releasedEntries));
+        }
+    }
+
+    private static long sizeOf(HttpCacheEntry entry) {
+        final Resource resource = entry.getResource();
+        return resource == null ? 0 : resource.length();
+    }
+
+    /**
+     * A reference to a released entry, which is enqueued once the entry is no longer referenced, and keeps the
+     * resource to dispose of then.
+     */
+    private static class ResourceReference extends PhantomReference<HttpCacheEntry> {
+        private final Resource resource;
+
+        ResourceReference(HttpCacheEntry entry, Resource resource, ReferenceQueue<HttpCacheEntry> queue) {
+            super(entry, queue);
+            this.resource = resource;
+        }
+
+        Resource getResource() {
+            return resource;
+        }
+    }
+}
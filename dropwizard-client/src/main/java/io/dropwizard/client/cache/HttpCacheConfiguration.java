@@ -0,0 +1,116 @@
+package io.dropwizard.client.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.DataSize;
+import io.dropwizard.validation.MinDataSize;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.annotation.Nullable;
+import javax.validation.constraints.NotNull;
+import java.io.File;
+
+/**
+ * Configuration of the RFC 7234 response cache of an HTTP client.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxSize}</td>
+ *         <td>10MiB</td>
+ *         <td>
+ *             The maximum total size of the cached response bodies. The least recently used responses are evicted
+ *             first.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxObjectSize}</td>
+ *         <td>256KiB</td>
+ *         <td>The maximum size of a single cached response body. Larger responses aren't cached.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code shared}</td>
+ *         <td>true</td>
+ *         <td>
+ *             Whether the cache behaves as a shared cache, which doesn't store responses marked as
+ *             {@code private} or responses to requests with credentials.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code directory}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *             The directory to store the cached response bodies in. If it is not set then they are kept in memory.
+ *         </td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class HttpCacheConfiguration {
+
+    @NotNull
+    @MinDataSize(1)
+    private DataSize maxSize = DataSize.mebibytes(10);
+
+    @NotNull
+    @MinDataSize(1)
+    private DataSize maxObjectSize = DataSize.kibibytes(256);
+
+    private boolean shared = true;
+
+    @Nullable
+    private File directory;
+
+    @JsonProperty
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    @JsonProperty
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @JsonProperty
+    public DataSize getMaxObjectSize() {
+        return maxObjectSize;
+    }
+
+    @JsonProperty
+    public void setMaxObjectSize(DataSize maxObjectSize) {
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    @JsonProperty
+    public boolean isShared() {
+        return shared;
+    }
+
+    @JsonProperty
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
+    @JsonProperty
+    @Nullable
+    public File getDirectory() {
+        return directory;
+    }
+
+    @JsonProperty
+    public void setDirectory(@Nullable File directory) {
+        this.directory = directory;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".maxObjectSize must be less than or equal to maxSize")
+    public boolean isMaxObjectSizeValid() {
+        return maxObjectSize.toBytes() <= maxSize.toBytes();
+    }
+}
@@ -0,0 +1,56 @@
+package io.dropwizard.client.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.protocol.HttpContext;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Counts the responses of a caching HTTP client by how the cache answered them: the {@code hits} were answered from
+ * the cache alone, the {@code validations} from the cache after revalidating the cached response with the server,
+ * and the {@code misses} by the server.
+ *
+ * @since 2.1
+ */
+public class InstrumentedHttpCacheInterceptor implements HttpResponseInterceptor {
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter validations;
+
+    /**
+     * @param metricRegistry the registry to report the metrics to
+     * @param prefix         the prefix of the names of the metrics
+     */
+    public InstrumentedHttpCacheInterceptor(MetricRegistry metricRegistry, String prefix) {
+        this.hits = metricRegistry.meter(name(prefix, "hits"));
+        this.misses = metricRegistry.meter(name(prefix, "misses"));
+        this.validations = metricRegistry.meter(name(prefix, "validations"));
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        final CacheResponseStatus status = HttpCacheContext.adapt(context).getCacheResponseStatus();
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case CACHE_HIT:
+                hits.mark();
+                break;
+            case VALIDATED:
+                validations.mark();
+                break;
+            case CACHE_MISS:
+                misses.mark();
+                break;
+            default:
+                // Responses generated by the cache itself, e.g. for only-if-cached requests
+                break;
+        }
+    }
+}
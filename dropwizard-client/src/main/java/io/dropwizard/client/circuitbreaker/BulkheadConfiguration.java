@@ -0,0 +1,60 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration of the bulkhead of an HTTP client, which limits its concurrent requests.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxConcurrentRequests}</td>
+ *         <td>64</td>
+ *         <td>The maximum number of requests awaiting a response at the same time.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxWait}</td>
+ *         <td>0 milliseconds</td>
+ *         <td>The maximum time a request waits for one of the other requests to complete before it is rejected.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class BulkheadConfiguration {
+
+    @Min(1)
+    private int maxConcurrentRequests = 64;
+
+    @NotNull
+    private Duration maxWait = Duration.milliseconds(0);
+
+    @JsonProperty
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @JsonProperty
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    @JsonProperty
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    @JsonProperty
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,16 @@
+package io.dropwizard.client.circuitbreaker;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is rejected because the client has too many concurrent requests.
+ *
+ * @since 2.1
+ */
+public class BulkheadFullException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String client) {
+        super("The client " + client + " has too many concurrent requests");
+    }
+}
@@ -0,0 +1,156 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.codahale.metrics.Clock;
+
+/**
+ * A circuit breaker for the requests to a route.
+ * <p>
+ * The circuit is {@link State#CLOSED closed} while the rates of failed and slow requests among the most recent
+ * requests stay below their thresholds. Once a rate reaches its threshold, the circuit {@link State#OPEN opens}, and
+ * rejects requests for a while. Then it is {@link State#HALF_OPEN half-open}: it lets a few probing requests through,
+ * and closes or opens again depending on their outcome.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class CircuitBreaker {
+    /**
+     * The states of a circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final CircuitBreakerConfiguration configuration;
+    private final Clock clock;
+    private final long openNanos;
+    private final boolean[] failures;
+    private final boolean[] slowRequests;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failureCount;
+    private int slowRequestCount;
+    private long openedAt;
+    private int probes;
+
+    public CircuitBreaker(CircuitBreakerConfiguration configuration) {
+        this(configuration, Clock.defaultClock());
+    }
+
+    CircuitBreaker(CircuitBreakerConfiguration configuration, Clock clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+        this.openNanos = configuration.getOpenDuration().toNanoseconds();
+        this.failures = new boolean[configuration.getWindowSize()];
+        this.slowRequests = new boolean[configuration.getWindowSize()];
+    }
+
+    /**
+     * Asks for the permission to send a request. A permitted request must be followed by a call of
+     * {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #onIgnored()}.
+     *
+     * @return whether the request is permitted
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getTick() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= configuration.getProbingRequests()) {
+                return false;
+            }
+            probes++;
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful request.
+     *
+     * @param durationNanos the duration of the request in nanoseconds
+     */
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos);
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param durationNanos the duration of the request in nanoseconds
+     */
+    public void onFailure(long durationNanos) {
+        record(true, durationNanos);
+    }
+
+    /**
+     * Releases the permission of a request whose outcome doesn't tell about the health of the route, such as an
+     * aborted request.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probes > 0) {
+            probes--;
+        }
+    }
+
+    /**
+     * Returns the current state of the circuit, which is half open once the circuit has been open for long enough.
+     *
+     * @return the current state of the circuit
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getTick() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized void record(boolean failure, long durationNanos) {
+        if (state == State.OPEN) {
+            // A request permitted before the circuit opened
+            return;
+        }
+
+        final boolean slow = durationNanos >= configuration.getSlowRequestDuration().toNanoseconds();
+        if (recorded == failures.length) {
+            failureCount -= failures[next] ? 1 : 0;
+            slowRequestCount -= slowRequests[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        slowRequests[next] = slow;
+        failureCount += failure ? 1 : 0;
+        slowRequestCount += slow ? 1 : 0;
+        next = (next + 1) % failures.length;
+
+        final int required = state == State.HALF_OPEN ? configuration.getProbingRequests()
+            : configuration.getMinimumRequests();
+        if (recorded < required) {
+            return;
+        }
+        final boolean exceeded = 100.0 * failureCount / recorded >= configuration.getFailureRateThreshold()
+            || 100.0 * slowRequestCount / recorded >= configuration.getSlowRequestRateThreshold();
+        if (exceeded) {
+            transitionTo(State.OPEN);
+        } else if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        recorded = 0;
+        next = 0;
+        failureCount = 0;
+        slowRequestCount = 0;
+        probes = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.getTick();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration of the circuit breakers of an HTTP client, one per route.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code windowSize}</td>
+ *         <td>100</td>
+ *         <td>The number of most recent requests to a route the failure and slow request rates are computed from.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code minimumRequests}</td>
+ *         <td>20</td>
+ *         <td>The number of requests to a route required before its circuit can open.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code failureRateThreshold}</td>
+ *         <td>50</td>
+ *         <td>
+ *             The percentage of failed requests at which the circuit opens. Requests fail with an I/O error, or with a
+ *             server error status if {@code serverErrorsAreFailures} is set.
+ *         </td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code slowRequestRateThreshold}</td>
+ *         <td>100</td>
+ *         <td>The percentage of slow requests at which the circuit opens.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code slowRequestDuration}</td>
+ *         <td>1 second</td>
+ *         <td>The time after which a request is slow.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code openDuration}</td>
+ *         <td>30 seconds</td>
+ *         <td>The time during which an open circuit rejects requests before it lets probing requests through.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code probingRequests}</td>
+ *         <td>5</td>
+ *         <td>The number of probing requests which decide whether a half-open circuit closes or opens again.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code serverErrorsAreFailures}</td>
+ *         <td>true</td>
+ *         <td>Whether responses with a 5xx status are failures.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class CircuitBreakerConfiguration {
+
+    @Min(1)
+    private int windowSize = 100;
+
+    @Min(1)
+    private int minimumRequests = 20;
+
+    @DecimalMin(value = "0", inclusive = false)
+    @DecimalMax("100")
+    private double failureRateThreshold = 50;
+
+    @DecimalMin(value = "0", inclusive = false)
+    @DecimalMax("100")
+    private double slowRequestRateThreshold = 100;
+
+    @NotNull
+    private Duration slowRequestDuration = Duration.seconds(1);
+
+    @NotNull
+    private Duration openDuration = Duration.seconds(30);
+
+    @Min(1)
+    private int probingRequests = 5;
+
+    private boolean serverErrorsAreFailures = true;
+
+    @JsonProperty
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    @JsonProperty
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    @JsonProperty
+    public int getMinimumRequests() {
+        return minimumRequests;
+    }
+
+    @JsonProperty
+    public void setMinimumRequests(int minimumRequests) {
+        this.minimumRequests = minimumRequests;
+    }
+
+    @JsonProperty
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    @JsonProperty
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    @JsonProperty
+    public double getSlowRequestRateThreshold() {
+        return slowRequestRateThreshold;
+    }
+
+    @JsonProperty
+    public void setSlowRequestRateThreshold(double slowRequestRateThreshold) {
+        this.slowRequestRateThreshold = slowRequestRateThreshold;
+    }
+
+    @JsonProperty
+    public Duration getSlowRequestDuration() {
+        return slowRequestDuration;
+    }
+
+    @JsonProperty
+    public void setSlowRequestDuration(Duration slowRequestDuration) {
+        this.slowRequestDuration = slowRequestDuration;
+    }
+
+    @JsonProperty
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    @JsonProperty
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    @JsonProperty
+    public int getProbingRequests() {
+        return probingRequests;
+    }
+
+    @JsonProperty
+    public void setProbingRequests(int probingRequests) {
+        this.probingRequests = probingRequests;
+    }
+
+    @JsonProperty
+    public boolean isServerErrorsAreFailures() {
+        return serverErrorsAreFailures;
+    }
+
+    @JsonProperty
+    public void setServerErrorsAreFailures(boolean serverErrorsAreFailures) {
+        this.serverErrorsAreFailures = serverErrorsAreFailures;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".minimumRequests must be less than or equal to windowSize")
+    public boolean isMinimumRequestsValid() {
+        return minimumRequests <= windowSize;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".probingRequests must be less than or equal to windowSize")
+    public boolean isProbingRequestsValid() {
+        return probingRequests <= windowSize;
+    }
+}
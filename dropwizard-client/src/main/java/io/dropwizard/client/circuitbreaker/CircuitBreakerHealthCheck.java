@@ -0,0 +1,33 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.codahale.metrics.health.HealthCheck;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * A health check which is unhealthy while the circuit of any route of a {@link CircuitBreakingHttpClient} is open.
+ *
+ * @since 2.1
+ */
+public class CircuitBreakerHealthCheck extends HealthCheck {
+    private final CircuitBreakingHttpClient client;
+
+    public CircuitBreakerHealthCheck(CircuitBreakingHttpClient client) {
+        this.client = client;
+    }
+
+    @Override
+    protected Result check() {
+        final StringJoiner openRoutes = new StringJoiner(", ");
+        for (Map.Entry<String, CircuitBreaker> entry : client.getCircuitBreakers().entrySet()) {
+            if (entry.getValue().getState() == CircuitBreaker.State.OPEN) {
+                openRoutes.add(entry.getKey());
+            }
+        }
+        if (openRoutes.length() > 0) {
+            return Result.unhealthy("Open circuits: " + openRoutes);
+        }
+        return Result.healthy();
+    }
+}
@@ -0,0 +1,16 @@
+package io.dropwizard.client.circuitbreaker;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is rejected because the circuit of its route is open.
+ *
+ * @since 2.1
+ */
+public class CircuitBreakerOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitBreakerOpenException(String route) {
+        super("The circuit to " + route + " is open");
+    }
+}
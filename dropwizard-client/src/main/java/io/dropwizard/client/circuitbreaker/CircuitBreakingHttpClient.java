@@ -0,0 +1,200 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.client.RouteMetricNames;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * An HTTP client which fails fast instead of piling up requests to degraded servers: it rejects the requests to
+ * routes whose {@link CircuitBreaker circuit} is open, and the requests beyond its bulkhead's limit of concurrent
+ * requests, with an {@link IOException}. A request occupies the bulkhead until its response is closed or its
+ * entity has been read.
+ * <p>
+ * The state of the circuit of each route is reported as a gauge, and the rejected requests as meters.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class CircuitBreakingHttpClient extends CloseableHttpClient {
+    private final CloseableHttpClient delegate;
+    private final String name;
+    @Nullable
+    private final CircuitBreakerConfiguration circuitBreakerConfiguration;
+    @Nullable
+    private final Semaphore bulkhead;
+    private final long maxWaitNanos;
+    private final MetricRegistry metricRegistry;
+    private final String prefix;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Meter rejectedByCircuitBreakers;
+    private final Meter rejectedByBulkhead;
+
+    /**
+     * @param delegate                     the client to execute the requests with
+     * @param circuitBreakerConfiguration  the configuration of the circuit breakers, if any
+     * @param bulkheadConfiguration        the configuration of the bulkhead, if any
+     * @param metricRegistry               the registry to report the metrics to
+     * @param name                         the name of the client
+     */
+    public CircuitBreakingHttpClient(CloseableHttpClient delegate,
+                                     @Nullable CircuitBreakerConfiguration circuitBreakerConfiguration,
+                                     @Nullable BulkheadConfiguration bulkheadConfiguration,
+                                     MetricRegistry metricRegistry,
+                                     String name) {
+        this.delegate = delegate;
+        this.name = name;
+        this.circuitBreakerConfiguration = circuitBreakerConfiguration;
+        this.metricRegistry = metricRegistry;
+        this.prefix = name(org.apache.http.client.HttpClient.class, name);
+        this.rejectedByCircuitBreakers = metricRegistry.meter(name(prefix, "circuit-breakers", "rejected"));
+        this.rejectedByBulkhead = metricRegistry.meter(name(prefix, "bulkhead", "rejected"));
+        if (bulkheadConfiguration == null) {
+            this.bulkhead = null;
+            this.maxWaitNanos = 0;
+        } else {
+            final Semaphore semaphore = new Semaphore(bulkheadConfiguration.getMaxConcurrentRequests());
+            this.bulkhead = semaphore;
+            this.maxWaitNanos = bulkheadConfiguration.getMaxWait().toNanoseconds();
+            metricRegistry.gauge(name(prefix, "bulkhead", "available"),
+                () -> (Gauge<Integer>) semaphore::availablePermits);
+        }
+    }
+
+    /**
+     * Returns the circuit breakers of the routes the client has sent requests to.
+     *
+     * @return the circuit breakers of the routes the client has sent requests to, by the name of the route in their
+     * metrics, see {@link RouteMetricNames#name(HttpHost)}
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(@Nullable HttpHost target, HttpRequest request,
+                                              @Nullable HttpContext context) throws IOException {
+        final CircuitBreaker circuitBreaker = target == null ? null : circuitBreaker(target);
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            rejectedByCircuitBreakers.mark();
+            throw new CircuitBreakerOpenException(String.valueOf(target));
+        }
+
+        try {
+            acquireBulkhead();
+        } catch (IOException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnored();
+            }
+            throw e;
+        }
+
+        final long start = System.nanoTime();
+        final CloseableHttpResponse response;
+        try {
+            response = delegate.execute(target, request, context);
+        } catch (RequestAbortedException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnored();
+            }
+            releaseBulkhead();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.onFailure(System.nanoTime() - start);
+            }
+            releaseBulkhead();
+            throw e;
+        }
+
+        if (circuitBreaker != null) {
+            final long duration = System.nanoTime() - start;
+            if (isFailure(response)) {
+                circuitBreaker.onFailure(duration);
+            } else {
+                circuitBreaker.onSuccess(duration);
+            }
+        }
+        // The request occupies the bulkhead until its response has been read
+        return bulkhead == null ? response : new PermitReleasingHttpResponse(response, bulkhead);
+    }
+
+    @Nullable
+    private CircuitBreaker circuitBreaker(HttpHost target) {
+        final CircuitBreakerConfiguration configuration = circuitBreakerConfiguration;
+        if (configuration == null) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(RouteMetricNames.name(target), route -> {
+            final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration);
+            metricRegistry.gauge(name(prefix, "circuit-breakers", route, "state"),
+                () -> (Gauge<String>) () -> circuitBreaker.getState().name());
+            return circuitBreaker;
+        });
+    }
+
+    private void acquireBulkhead() throws IOException {
+        if (bulkhead == null) {
+            return;
+        }
+        try {
+            if (!bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejectedByBulkhead.mark();
+                throw new BulkheadFullException(name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the bulkhead");
+        }
+    }
+
+    private void releaseBulkhead() {
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+    }
+
+    private boolean isFailure(CloseableHttpResponse response) {
+        return circuitBreakerConfiguration != null
+            && circuitBreakerConfiguration.isServerErrorsAreFailures()
+            && response.getStatusLine().getStatusCode() >= 500;
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+}
@@ -0,0 +1,239 @@
+package io.dropwizard.client.circuitbreaker;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.EofSensorInputStream;
+import org.apache.http.conn.EofSensorWatcher;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.params.HttpParams;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A response which holds a permit of the bulkhead until the response is done with: until it's closed, or until its
+ * entity has been read or its content stream closed, since clients such as Jersey's connector only close the content
+ * stream. Responses without an entity release the permit right away.
+ */
+class PermitReleasingHttpResponse implements CloseableHttpResponse {
+    private final CloseableHttpResponse delegate;
+    private final Semaphore bulkhead;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PermitReleasingHttpResponse(CloseableHttpResponse delegate, Semaphore bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+        final HttpEntity entity = delegate.getEntity();
+        if (entity == null) {
+            release();
+        } else {
+            delegate.setEntity(new PermitReleasingEntity(entity));
+        }
+    }
+
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public StatusLine getStatusLine() {
+        return delegate.getStatusLine();
+    }
+
+    @Override
+    public void setStatusLine(StatusLine statusline) {
+        delegate.setStatusLine(statusline);
+    }
+
+    @Override
+    public void setStatusLine(ProtocolVersion ver, int code) {
+        delegate.setStatusLine(ver, code);
+    }
+
+    @Override
+    public void setStatusLine(ProtocolVersion ver, int code, String reason) {
+        delegate.setStatusLine(ver, code, reason);
+    }
+
+    @Override
+    public void setStatusCode(int code) {
+        delegate.setStatusCode(code);
+    }
+
+    @Override
+    public void setReasonPhrase(String reason) {
+        delegate.setReasonPhrase(reason);
+    }
+
+    @Override
+    public HttpEntity getEntity() {
+        return delegate.getEntity();
+    }
+
+    @Override
+    public void setEntity(HttpEntity entity) {
+        delegate.setEntity(entity);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return delegate.getLocale();
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        delegate.setLocale(loc);
+    }
+
+    @Override
+    public ProtocolVersion getProtocolVersion() {
+        return delegate.getProtocolVersion();
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return delegate.containsHeader(name);
+    }
+
+    @Override
+    public Header[] getHeaders(String name) {
+        return delegate.getHeaders(name);
+    }
+
+    @Override
+    public Header getFirstHeader(String name) {
+        return delegate.getFirstHeader(name);
+    }
+
+    @Override
+    public Header getLastHeader(String name) {
+        return delegate.getLastHeader(name);
+    }
+
+    @Override
+    public Header[] getAllHeaders() {
+        return delegate.getAllHeaders();
+    }
+
+    @Override
+    public void addHeader(Header header) {
+        delegate.addHeader(header);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        delegate.addHeader(name, value);
+    }
+
+    @Override
+    public void setHeader(Header header) {
+        delegate.setHeader(header);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        delegate.setHeader(name, value);
+    }
+
+    @Override
+    public void setHeaders(Header[] headers) {
+        delegate.setHeaders(headers);
+    }
+
+    @Override
+    public void removeHeader(Header header) {
+        delegate.removeHeader(header);
+    }
+
+    @Override
+    public void removeHeaders(String name) {
+        delegate.removeHeaders(name);
+    }
+
+    @Override
+    public HeaderIterator headerIterator() {
+        return delegate.headerIterator();
+    }
+
+    @Override
+    public HeaderIterator headerIterator(String name) {
+        return delegate.headerIterator(name);
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public void setParams(HttpParams params) {
+        delegate.setParams(params);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    private class PermitReleasingEntity extends HttpEntityWrapper implements EofSensorWatcher {
+        private PermitReleasingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new EofSensorInputStream(super.getContent(), this);
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try {
+                super.writeTo(outStream);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public boolean eofDetected(@Nullable InputStream wrapped) {
+            release();
+            return true;
+        }
+
+        @Override
+        public boolean streamClosed(@Nullable InputStream wrapped) {
+            release();
+            return true;
+        }
+
+        @Override
+        public boolean streamAbort(@Nullable InputStream wrapped) {
+            release();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.dropwizard.client.dns;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.DnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link DnsResolver} which caches the addresses of each host, and the failed lookups, for the durations of a
+ * {@link DnsCacheConfiguration}. The addresses of a host are looked up again in the background when they're about to
+ * expire, so that requests don't wait for lookups of the hosts they keep sending requests to.
+ * <p>
+ * It reports, under {@code org.apache.http.client.HttpClient.<name>.dns}, the lookups of the underlying resolver as
+ * a timer, the cache hits, misses and failed lookups as meters, and the number of cached hosts as a gauge.
+ * </p>
+ * <p>
+ * The default {@link org.apache.http.impl.conn.SystemDefaultDnsResolver} looks up the hosts with
+ * {@link InetAddress}, which has a cache of its own, bounded by the {@code networkaddress.cache.ttl} and
+ * {@code networkaddress.cache.negative.ttl} security properties. Refreshes only pick up new addresses once that
+ * cache has expired as well, so its TTL should be shorter than the refresh ahead time of this cache, e.g. by calling
+ * {@code java.security.Security.setProperty("networkaddress.cache.ttl", "5")} before the first lookup.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class CachingDnsResolver implements DnsResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDnsResolver.class);
+
+    private final DnsResolver delegate;
+    private final DnsCacheConfiguration configuration;
+    private final Executor refresher;
+    private final Clock clock;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Timer lookups;
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter failures;
+
+    /**
+     * @param delegate       the resolver to look up the hosts with
+     * @param configuration  the configuration of the cache
+     * @param metricRegistry the registry to report the metrics to
+     * @param name           the name of the client
+     */
+    public CachingDnsResolver(DnsResolver delegate, DnsCacheConfiguration configuration,
+                              MetricRegistry metricRegistry, String name) {
+        this(delegate, configuration, metricRegistry, name, createRefresher(name), Clock.defaultClock());
+    }
+
+    CachingDnsResolver(DnsResolver delegate, DnsCacheConfiguration configuration, MetricRegistry metricRegistry,
+                       String name, Executor refresher, Clock clock) {
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.refresher = refresher;
+        this.clock = clock;
+        final String prefix = name(HttpClient.class, name, "dns");
+        this.lookups = metricRegistry.timer(name(prefix, "lookups"));
+        this.hits = metricRegistry.meter(name(prefix, "hits"));
+        this.misses = metricRegistry.meter(name(prefix, "misses"));
+        this.failures = metricRegistry.meter(name(prefix, "failures"));
+        metricRegistry.gauge(name(prefix, "entries"), () -> (Gauge<Integer>) cache::size);
+    }
+
+    private static ExecutorService createRefresher(String name) {
+        final AtomicInteger threads = new AtomicInteger();
+        // Refreshes are rejected rather than queued when all the threads are busy
+        return new ThreadPoolExecutor(0, 4, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "dns-refresh-" + name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        final long now = clock.getTick();
+        final Entry entry = cache.get(host);
+        if (entry == null || now >= entry.expiresAt) {
+            misses.mark();
+            return addresses(host, lookup(host, true));
+        }
+
+        hits.mark();
+        // Failed lookups aren't refreshed, because their refresh time is their expiry time
+        if (now >= entry.refreshAt && entry.refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(() -> refresh(host, entry));
+            } catch (RejectedExecutionException e) {
+                // The host is refreshed by a later request instead
+                entry.refreshing.set(false);
+            }
+        }
+        return addresses(host, entry);
+    }
+
+    private Entry lookup(String host, boolean cacheFailure) throws UnknownHostException {
+        final InetAddress[] addresses;
+        try (Timer.Context ignored = lookups.time()) {
+            addresses = delegate.resolve(host);
+        } catch (UnknownHostException e) {
+            failures.mark();
+            if (cacheFailure) {
+                store(host, new Entry(null, clock.getTick(), configuration.getNegativeTtl().toNanoseconds(), 0));
+            }
+            throw e;
+        }
+        final Entry entry = new Entry(addresses, clock.getTick(), configuration.getTtl().toNanoseconds(),
+            configuration.getRefreshAhead().toNanoseconds());
+        store(host, entry);
+        return entry;
+    }
+
+    private void refresh(String host, Entry entry) {
+        try {
+            lookup(host, false);
+        } catch (UnknownHostException e) {
+            // The addresses are still used until they expire
+            LOGGER.debug("Unable to refresh the addresses of {}", host, e);
+            entry.refreshing.set(false);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to refresh the addresses of {}", host, e);
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void store(String host, Entry entry) {
+        if (cache.size() >= configuration.getMaxEntries() && !cache.containsKey(host)) {
+            final long now = clock.getTick();
+            cache.values().removeIf(cached -> now >= cached.expiresAt);
+            if (cache.size() >= configuration.getMaxEntries()) {
+                return;
+            }
+        }
+        cache.put(host, entry);
+    }
+
+    private InetAddress[] addresses(String host, Entry entry) throws UnknownHostException {
+        final InetAddress[] addresses = entry.addresses;
+        if (addresses == null) {
+            throw new UnknownHostException(host);
+        }
+        if (!configuration.isRoundRobin() || addresses.length < 2) {
+            return addresses.clone();
+        }
+        final int offset = Math.floorMod(entry.next.getAndIncrement(), addresses.length);
+        final InetAddress[] rotated = new InetAddress[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            rotated[i] = addresses[(offset + i) % addresses.length];
+        }
+        return rotated;
+    }
+
+    private static class Entry {
+        @Nullable
+        private final InetAddress[] addresses;
+        private final long expiresAt;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Entry(@Nullable InetAddress[] addresses, long now, long ttl, long refreshAhead) {
+            this.addresses = addresses;
+            this.expiresAt = now + ttl;
+            this.refreshAt = expiresAt - refreshAhead;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.dropwizard.client.dns;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the cache of the DNS lookups of an HTTP client.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code ttl}</td>
+ *         <td>60 seconds</td>
+ *         <td>The time the addresses of a host are cached.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code refreshAhead}</td>
+ *         <td>10 seconds</td>
+ *         <td>The time before the expiry of the addresses of a host from which a request triggers a lookup in the
+ *         background, while the cached addresses are still used.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code negativeTtl}</td>
+ *         <td>5 seconds</td>
+ *         <td>The time the failure of a lookup is cached.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxEntries}</td>
+ *         <td>10000</td>
+ *         <td>The maximum number of cached hosts.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code roundRobin}</td>
+ *         <td>true</td>
+ *         <td>Whether the addresses of a host are rotated at each lookup, so that new connections are spread across
+ *         them.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class DnsCacheConfiguration {
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration ttl = Duration.seconds(60);
+
+    @NotNull
+    private Duration refreshAhead = Duration.seconds(10);
+
+    @NotNull
+    private Duration negativeTtl = Duration.seconds(5);
+
+    @Min(1)
+    @Max(Integer.MAX_VALUE)
+    private int maxEntries = 10_000;
+
+    private boolean roundRobin = true;
+
+    @JsonProperty
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @JsonProperty
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @JsonProperty
+    public Duration getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    @JsonProperty
+    public void setRefreshAhead(Duration refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    @JsonProperty
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    @JsonProperty
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    @JsonProperty
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @JsonProperty
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @JsonProperty
+    public boolean isRoundRobin() {
+        return roundRobin;
+    }
+
+    @JsonProperty
+    public void setRoundRobin(boolean roundRobin) {
+        this.roundRobin = roundRobin;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".refreshAhead must be less than ttl")
+    public boolean isRefreshAheadValid() {
+        return refreshAhead.toNanoseconds() < ttl.toNanoseconds();
+    }
+}
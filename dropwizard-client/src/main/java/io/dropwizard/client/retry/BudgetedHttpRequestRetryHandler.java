@@ -0,0 +1,75 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.apache.http.impl.client.StandardHttpRequestRetryHandler;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Retries idempotent requests which failed with an I/O error, as long as the {@link RetryBudget} allows it, after an
+ * exponential backoff with full jitter.
+ *
+ * @since 2.1
+ */
+public class BudgetedHttpRequestRetryHandler extends StandardHttpRequestRetryHandler {
+    private final RetryBudget budget;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final Meter retries;
+    private final Meter rejectedRetries;
+
+    /**
+     * @param retryCount     the maximum number of retries of a request
+     * @param budget         the budget to withdraw the retries from
+     * @param backoff        the base of the exponential backoff
+     * @param maxBackoff     the maximum backoff
+     * @param metricRegistry the registry to report the retries to
+     * @param prefix         the prefix of the names of the metrics
+     */
+    public BudgetedHttpRequestRetryHandler(int retryCount, RetryBudget budget, Duration backoff, Duration maxBackoff,
+                                           MetricRegistry metricRegistry, String prefix) {
+        super(retryCount, false);
+        this.budget = budget;
+        this.backoffNanos = backoff.toNanoseconds();
+        this.maxBackoffNanos = maxBackoff.toNanoseconds();
+        this.retries = metricRegistry.meter(name(prefix, "retries"));
+        this.rejectedRetries = metricRegistry.meter(name(prefix, "rejected-retries"));
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        if (!super.retryRequest(exception, executionCount, context)) {
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            rejectedRetries.mark();
+            return false;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(backoff(executionCount));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        retries.mark();
+        return true;
+    }
+
+    /**
+     * @param executionCount the number of times the request has been executed
+     * @return a random backoff up to the exponential backoff of the attempt
+     */
+    long backoff(int executionCount) {
+        final int shift = Math.min(executionCount - 1, 62);
+        final long ceiling = (backoffNanos << shift) >>> shift == backoffNanos ? backoffNanos << shift : Long.MAX_VALUE;
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxBackoffNanos) + 1);
+    }
+}
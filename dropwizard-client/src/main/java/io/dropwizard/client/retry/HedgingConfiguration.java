@@ -0,0 +1,64 @@
+package io.dropwizard.client.retry;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Configuration of the hedged requests of an HTTP client: idempotent requests without an entity which take longer
+ * than a percentile of the recent response times are sent a second time, and the first response is used.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code percentile}</td>
+ *         <td>95</td>
+ *         <td>The percentile of the response times of the last minute after which a request is hedged.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code minDelay}</td>
+ *         <td>10 milliseconds</td>
+ *         <td>The minimum time to wait for a response before a request is hedged.</td>
+ *     </tr>
+ * </table>
+ * If a {@link RetryBudgetConfiguration retry budget} is configured, hedged requests are withdrawn from it.
+ *
+ * @since 2.1
+ */
+public class HedgingConfiguration {
+
+    @DecimalMin("0")
+    @DecimalMax("100")
+    private double percentile = 95;
+
+    @NotNull
+    private Duration minDelay = Duration.milliseconds(10);
+
+    @JsonProperty
+    public double getPercentile() {
+        return percentile;
+    }
+
+    @JsonProperty
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    @JsonProperty
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    @JsonProperty
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+}
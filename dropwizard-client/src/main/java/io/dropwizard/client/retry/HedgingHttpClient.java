@@ -0,0 +1,326 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.MDC;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An HTTP client which hedges idempotent requests without an entity: if the response to such a request takes
+ * longer than a percentile of the recent response times, the request is sent a second time, and the first response
+ * is used while the other request is aborted.
+ * <p>
+ * The first attempt is executed on the calling thread, so requests which aren't hedged cost no more than they
+ * would without hedging. Only the second attempt is executed on a pool of threads of the client, with the
+ * {@link MDC} of the calling thread. When all these threads are busy, e.g. because the server is overloaded,
+ * requests aren't hedged, and nothing is withdrawn from the {@link RetryBudget}. The attempts share the context of
+ * the hedged request, so that the budget only counts the hedged request once.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class HedgingHttpClient extends CloseableHttpClient {
+    private static final long DELAY_REFRESH_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final CloseableHttpClient delegate;
+    private final double quantile;
+    private final long minDelayNanos;
+    @Nullable
+    private final RetryBudget budget;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore hedgingThreads;
+    private final Histogram responseTimes = new Histogram(new SlidingTimeWindowArrayReservoir(1, TimeUnit.MINUTES));
+    private final Meter hedges;
+    private final Meter hedgeWins;
+
+    private volatile long delayNanos;
+    private volatile long delayRefreshedAt;
+
+    /**
+     * @param delegate       the client to execute the requests with
+     * @param configuration  the configuration of the hedged requests
+     * @param budget         the budget to withdraw hedged requests from, if any
+     * @param maxThreads     the maximum number of threads executing second attempts, e.g. the maximum number of
+     *                       connections of the client; requests aren't hedged while they're all busy
+     * @param metricRegistry the registry to report the hedged requests to
+     * @param name           the name of the client
+     */
+    public HedgingHttpClient(CloseableHttpClient delegate, HedgingConfiguration configuration,
+                             @Nullable RetryBudget budget, int maxThreads, MetricRegistry metricRegistry, String name) {
+        this.delegate = delegate;
+        this.quantile = configuration.getPercentile() / 100;
+        this.minDelayNanos = configuration.getMinDelay().toNanoseconds();
+        this.budget = budget;
+        this.timer = new ScheduledThreadPoolExecutor(1, new HedgingThreadFactory(name + "-hedging-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        // The semaphore keeps the tasks from queueing up: a task is only submitted once it has a thread
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new HedgingThreadFactory(name + "-hedging"));
+        executor.allowCoreThreadTimeOut(true);
+        this.hedgingThreads = new Semaphore(maxThreads);
+        this.hedges = metricRegistry.meter(name(org.apache.http.client.HttpClient.class, name, "hedges"));
+        this.hedgeWins = metricRegistry.meter(name(org.apache.http.client.HttpClient.class, name, "hedge-wins"));
+        this.delayNanos = minDelayNanos;
+        this.delayRefreshedAt = System.nanoTime();
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(@Nullable HttpHost target, HttpRequest request,
+                                              @Nullable HttpContext context) throws IOException {
+        if (!isHedgeable(request)) {
+            return delegate.execute(target, request, context);
+        }
+
+        // The attempts share the context, so that the interceptors see a single request
+        return new HedgedExecution(target, (HttpRequestBase) request,
+            context == null ? HttpClientContext.create() : context).execute();
+    }
+
+    /**
+     * The attempts to execute a hedged request. The attempt whose response arrives first wins, and aborts the other
+     * one; a response which arrives too late is closed.
+     */
+    private class HedgedExecution {
+        @Nullable
+        private final HttpHost target;
+        private final HttpRequestBase request;
+        private final HttpContext context;
+        private final HttpRequestBase first;
+        private final HttpRequestBase second;
+        @Nullable
+        private final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        private final AtomicReference<HttpRequestBase> winner = new AtomicReference<>();
+        private final CompletableFuture<CloseableHttpResponse> secondResponse = new CompletableFuture<>();
+        // Guarded by this
+        private boolean firstDone;
+        private boolean hedged;
+
+        private HedgedExecution(@Nullable HttpHost target, HttpRequestBase request, HttpContext context)
+            throws IOException {
+            this.target = target;
+            this.request = request;
+            this.context = context;
+            this.first = copy(request);
+            this.second = copy(request);
+        }
+
+        private CloseableHttpResponse execute() throws IOException {
+            final long start = System.nanoTime();
+            final ScheduledFuture<?> hedge = timer.schedule(this::hedge, delay(), TimeUnit.NANOSECONDS);
+            final CloseableHttpResponse response;
+            try {
+                response = delegate.execute(target, first, context);
+            } catch (IOException e) {
+                if (!endFirst(hedge)) {
+                    throw e;
+                }
+                return awaitSecond(e);
+            } catch (RuntimeException | Error e) {
+                if (endFirst(hedge)) {
+                    abortSecond();
+                }
+                throw e;
+            }
+
+            if (!endFirst(hedge) || winner.compareAndSet(null, first)) {
+                responseTimes.update(System.nanoTime() - start);
+                second.abort();
+                return response;
+            }
+            // The second attempt has won
+            response.close();
+            return awaitSecond(null);
+        }
+
+        /**
+         * Marks the first attempt as done, so that the request isn't hedged anymore.
+         *
+         * @return whether the request has been hedged
+         */
+        private boolean endFirst(ScheduledFuture<?> hedge) {
+            hedge.cancel(false);
+            synchronized (this) {
+                firstDone = true;
+                return hedged;
+            }
+        }
+
+        private CloseableHttpResponse awaitSecond(@Nullable IOException firstFailure) throws IOException {
+            try {
+                return secondResponse.get();
+            } catch (ExecutionException e) {
+                throw firstFailure == null ? asIOException(e.getCause()) : firstFailure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abortSecond();
+                throw new InterruptedIOException("Interrupted while waiting for a response");
+            }
+        }
+
+        private void abortSecond() {
+            // Make the second attempt close its response if it arrives late
+            winner.compareAndSet(null, request);
+            second.abort();
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (firstDone || !hedgingThreads.tryAcquire()) {
+                    return;
+                }
+                if (budget != null && !budget.tryWithdraw()) {
+                    hedgingThreads.release();
+                    return;
+                }
+                hedged = true;
+            }
+            hedges.mark();
+            try {
+                executor.execute(this::executeSecond);
+            } catch (RejectedExecutionException e) {
+                // The client has been closed
+                hedgingThreads.release();
+                secondResponse.completeExceptionally(e);
+            }
+        }
+
+        private void executeSecond() {
+            setMdc(mdc);
+            final long start = System.nanoTime();
+            try {
+                final CloseableHttpResponse response = delegate.execute(target, second, new BasicHttpContext(context));
+                if (!winner.compareAndSet(null, second)) {
+                    response.close();
+                    secondResponse.completeExceptionally(new IOException("Another attempt has been used"));
+                    return;
+                }
+                responseTimes.update(System.nanoTime() - start);
+                hedgeWins.mark();
+                first.abort();
+                secondResponse.complete(response);
+            } catch (IOException | RuntimeException e) {
+                secondResponse.completeExceptionally(e);
+            } finally {
+                MDC.clear();
+                hedgingThreads.release();
+            }
+        }
+    }
+
+    private static void setMdc(@Nullable Map<String, String> mdc) {
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+
+    private long delay() {
+        final long now = System.nanoTime();
+        if (now - delayRefreshedAt >= DELAY_REFRESH_INTERVAL) {
+            delayRefreshedAt = now;
+            delayNanos = Math.max(minDelayNanos, (long) responseTimes.getSnapshot().getValue(quantile));
+        }
+        return delayNanos;
+    }
+
+    private static boolean isHedgeable(HttpRequest request) {
+        if (!(request instanceof HttpRequestBase) || request instanceof HttpEntityEnclosingRequest) {
+            return false;
+        }
+        final String method = request.getRequestLine().getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private static HttpRequestBase copy(HttpRequestBase request) throws IOException {
+        try {
+            return (HttpRequestBase) request.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new ClientProtocolException("Unable to copy the request", e);
+        }
+    }
+
+    private static IOException asIOException(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ClientProtocolException(cause);
+    }
+
+    @Override
+    public void close() throws IOException {
+        timer.shutdownNow();
+        executor.shutdownNow();
+        delegate.close();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+
+    private static class HedgingThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private HedgingThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
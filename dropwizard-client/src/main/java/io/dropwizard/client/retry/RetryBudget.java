@@ -0,0 +1,98 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.Clock;
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.Arrays;
+
+/**
+ * A budget for the retries and hedged requests of an HTTP client, which keeps them from multiplying the load on a
+ * struggling server.
+ * <p>
+ * Within the {@code ttl}, the client may retry {@code minRetriesPerSecond} times per second plus {@code ratio}
+ * times per request. Requests are deposited into the budget by the budget itself, as an interceptor, once per
+ * execution.
+ * </p>
+ *
+ * @since 2.1
+ */
+public class RetryBudget implements HttpRequestInterceptor {
+    private static final String DEPOSITED = RetryBudget.class.getName() + ".deposited";
+
+    private final double ratio;
+    private final long minRetries;
+    private final Clock clock;
+    private final long[] requests;
+    private final long[] retries;
+    private final long[] seconds;
+
+    public RetryBudget(RetryBudgetConfiguration configuration) {
+        this(configuration.getRatio(), configuration.getMinRetriesPerSecond(), configuration.getTtl(),
+            Clock.defaultClock());
+    }
+
+    RetryBudget(double ratio, int minRetriesPerSecond, Duration ttl, Clock clock) {
+        final int buckets = (int) Math.max(1, ttl.toSeconds());
+        this.ratio = ratio;
+        this.minRetries = (long) minRetriesPerSecond * buckets;
+        this.clock = clock;
+        this.requests = new long[buckets];
+        this.retries = new long[buckets];
+        this.seconds = new long[buckets];
+        // Expire all the buckets on first use
+        Arrays.fill(seconds, Long.MIN_VALUE / 2);
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        // Retries and hedged requests share the attributes of the original execution
+        if (context.getAttribute(DEPOSITED) == null) {
+            context.setAttribute(DEPOSITED, Boolean.TRUE);
+            deposit();
+        }
+    }
+
+    /**
+     * Accounts for a request.
+     */
+    public synchronized void deposit() {
+        requests[bucket()]++;
+    }
+
+    /**
+     * Accounts for a retry, if the budget allows it.
+     *
+     * @return whether the retry is allowed
+     */
+    public synchronized boolean tryWithdraw() {
+        final int bucket = bucket();
+        long totalRequests = 0;
+        long totalRetries = 0;
+        for (int i = 0; i < requests.length; i++) {
+            totalRequests += requests[i];
+            totalRetries += retries[i];
+        }
+        if (minRetries + ratio * totalRequests - totalRetries < 1) {
+            return false;
+        }
+        retries[bucket]++;
+        return true;
+    }
+
+    private int bucket() {
+        final long second = clock.getTime() / 1000;
+        final int bucket = (int) (second % seconds.length);
+        // Expire the buckets which have been skipped since they were last used
+        for (int i = 0; i < seconds.length; i++) {
+            if (second - seconds[i] >= seconds.length) {
+                requests[i] = 0;
+                retries[i] = 0;
+                seconds[i] = second - ((bucket - i + seconds.length) % seconds.length);
+            }
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,129 @@
+package io.dropwizard.client.retry;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the budget which limits the retries and hedged requests of an HTTP client, and of the backoff
+ * between retries.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code ratio}</td>
+ *         <td>0.1</td>
+ *         <td>The number of retries allowed per request, on top of {@code minRetriesPerSecond}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code minRetriesPerSecond}</td>
+ *         <td>10</td>
+ *         <td>The number of retries allowed per second regardless of the number of requests.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code ttl}</td>
+ *         <td>10 seconds</td>
+ *         <td>The period over which requests and retries are accounted.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code backoff}</td>
+ *         <td>50 milliseconds</td>
+ *         <td>The base of the exponential backoff before retries, which is randomized with full jitter.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code maxBackoff}</td>
+ *         <td>1 second</td>
+ *         <td>The maximum backoff before a retry.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class RetryBudgetConfiguration {
+
+    @DecimalMin("0")
+    @DecimalMax("1000")
+    private double ratio = 0.1;
+
+    @Min(0)
+    private int minRetriesPerSecond = 10;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration ttl = Duration.seconds(10);
+
+    @NotNull
+    private Duration backoff = Duration.milliseconds(50);
+
+    @NotNull
+    private Duration maxBackoff = Duration.seconds(1);
+
+    @JsonProperty
+    public double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    @JsonProperty
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    @JsonProperty
+    public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    @JsonProperty
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @JsonProperty
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @JsonProperty
+    public Duration getBackoff() {
+        return backoff;
+    }
+
+    @JsonProperty
+    public void setBackoff(Duration backoff) {
+        this.backoff = backoff;
+    }
+
+    @JsonProperty
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    @JsonProperty
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".backoff must be less than or equal to maxBackoff")
+    public boolean isBackoffValid() {
+        return backoff.toNanoseconds() <= maxBackoff.toNanoseconds();
+    }
+}
@@ -0,0 +1,191 @@
+package io.dropwizard.client.warmup;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.routing.HttpRoutePlanner;
+import org.apache.http.impl.conn.DefaultRoutePlanner;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens the connections of a {@link WarmupConfiguration} in a connection pool, and returns them to the pool. It warms
+ * up the connections when it's {@link #start() started}, so that the connections are open before the server accepts
+ * requests when it's managed by the lifecycle of an environment.
+ * <p/>
+ * The routes to the hosts are determined by the route planner of the client, so that connections to proxies are
+ * warmed up as well. Routes which tunnel through a proxy aren't warmed up, since the tunnels are only established
+ * along with the requests.
+ *
+ * @since 2.1
+ */
+public class ConnectionPoolWarmer implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolWarmer.class);
+    private static final int MAX_THREADS = 16;
+
+    private final PoolingHttpClientConnectionManager manager;
+    private final WarmupConfiguration configuration;
+    private final Duration connectionTimeout;
+    private final HttpRoutePlanner routePlanner;
+
+    /**
+     * @param manager           the connection pool to warm up
+     * @param configuration     the connections to open
+     * @param connectionTimeout the timeout of each connection attempt
+     */
+    public ConnectionPoolWarmer(PoolingHttpClientConnectionManager manager, WarmupConfiguration configuration,
+                                Duration connectionTimeout) {
+        this(manager, configuration, connectionTimeout, new DefaultRoutePlanner(null));
+    }
+
+    /**
+     * @param manager           the connection pool to warm up
+     * @param configuration     the connections to open
+     * @param connectionTimeout the timeout of each connection attempt
+     * @param routePlanner      the route planner of the client
+     */
+    public ConnectionPoolWarmer(PoolingHttpClientConnectionManager manager, WarmupConfiguration configuration,
+                                Duration connectionTimeout, HttpRoutePlanner routePlanner) {
+        this.manager = manager;
+        this.configuration = configuration;
+        this.connectionTimeout = connectionTimeout;
+        this.routePlanner = routePlanner;
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+    }
+
+    @Override
+    public void stop() {
+        // The connections are closed along with the client
+    }
+
+    /**
+     * Opens the connections, and waits until they are open, or the timeout of the configuration elapses.
+     *
+     * @return the number of opened connections
+     */
+    public int warmUp() {
+        final List<HttpRoute> routes = new ArrayList<>();
+        for (URI host : configuration.getHosts()) {
+            final HttpRoute route = toRoute(host);
+            if (route == null) {
+                continue;
+            }
+            final int connections = Math.min(configuration.getConnections(), manager.getMaxPerRoute(route));
+            for (int i = 0; i < connections; i++) {
+                routes.add(route);
+            }
+        }
+        if (routes.isEmpty()) {
+            return 0;
+        }
+
+        final long deadline = System.nanoTime() + configuration.getTimeout().toNanoseconds();
+        // The connections are leased until all of them are open, so that each request opens a new connection
+        final CountDownLatch opened = new CountDownLatch(routes.size());
+        final AtomicInteger openedCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(routes.size(), MAX_THREADS));
+        for (HttpRoute route : routes) {
+            executor.execute(() -> {
+                HttpClientConnection connection = null;
+                try {
+                    connection = open(manager.requestConnection(route, null), route, deadline);
+                    if (connection != null) {
+                        openedCount.incrementAndGet();
+                    }
+                    opened.countDown();
+                    if (connection != null) {
+                        opened.await(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // The connection is returned to the pool even if the warm-up is interrupted, or it would leak
+                    if (connection != null) {
+                        manager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            // A connection attempt which starts just before the deadline may take up to the connection timeout
+            if (!executor.awaitTermination(remainingNanos(deadline) + connectionTimeout.toNanoseconds(),
+                TimeUnit.NANOSECONDS)) {
+                LOGGER.warn("Timed out warming up connections to {}", configuration.getHosts());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+
+        LOGGER.debug("Opened {} out of {} connections to {}", openedCount.get(), routes.size(), configuration.getHosts());
+        return openedCount.get();
+    }
+
+    @Nullable
+    private HttpClientConnection open(ConnectionRequest request, HttpRoute route, long deadline)
+        throws InterruptedException {
+        HttpClientConnection connection = null;
+        try {
+            connection = request.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            if (!connection.isOpen()) {
+                final HttpClientContext context = HttpClientContext.create();
+                manager.connect(connection, route, (int) connectionTimeout.toMilliseconds(), context);
+                manager.routeComplete(connection, route, context);
+            }
+            return connection;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.warn("Unable to warm up a connection to {}", route.getTargetHost(), e);
+            if (connection != null) {
+                manager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }
+    }
+
+    @Nullable
+    private HttpRoute toRoute(URI uri) {
+        final HttpHost target = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+        final HttpRoute route;
+        try {
+            route = routePlanner.determineRoute(target, new BasicHttpRequest("GET", uri.toString()),
+                HttpClientContext.create());
+        } catch (HttpException e) {
+            LOGGER.warn("Unable to determine the route to {}", uri, e);
+            return null;
+        }
+        if (route.isTunnelled()) {
+            LOGGER.debug("Not warming up connections to {}, which are tunnelled through {}", uri, route.getProxyHost());
+            return null;
+        }
+        return route;
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,98 @@
+package io.dropwizard.client.warmup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the connections which an HTTP client opens before it's used, so that the first requests don't
+ * wait for DNS lookups and TLS handshakes.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code hosts}</td>
+ *         <td>[]</td>
+ *         <td>The hosts to open connections to, as URIs with a scheme, a host and optionally a port, e.g.
+ *         {@code https://api.example.com}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code connections}</td>
+ *         <td>1</td>
+ *         <td>The number of connections to open to each host, up to {@code maxConnectionsPerRoute}.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code timeout}</td>
+ *         <td>10 seconds</td>
+ *         <td>The maximum time to spend opening the connections. The connections which aren't open by then are
+ *         skipped.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+public class WarmupConfiguration {
+
+    @NotNull
+    private List<URI> hosts = Collections.emptyList();
+
+    @Min(1)
+    @Max(Integer.MAX_VALUE)
+    private int connections = 1;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration timeout = Duration.seconds(10);
+
+    @JsonProperty
+    public List<URI> getHosts() {
+        return hosts;
+    }
+
+    @JsonProperty
+    public void setHosts(List<URI> hosts) {
+        this.hosts = hosts;
+    }
+
+    @JsonProperty
+    public int getConnections() {
+        return connections;
+    }
+
+    @JsonProperty
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    @JsonProperty
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @JsonProperty
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = ".hosts must be http or https URIs with a host")
+    public boolean isHostsValid() {
+        return hosts.stream().allMatch(host -> host.getHost() != null
+            && ("http".equalsIgnoreCase(host.getScheme()) || "https".equalsIgnoreCase(host.getScheme())));
+    }
+}
@@ -0,0 +1,233 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.Application;
+import io.dropwizard.Configuration;
+import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.setup.Environment;
+import io.dropwizard.testing.junit5.DropwizardAppExtension;
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpStatus;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.spi.Connector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+class DropwizardApacheAsyncConnectorTest {
+
+    private static final int SLEEP_TIME_IN_MILLIS = 1000;
+    private static final int DEFAULT_TIMEOUT_IN_MILLIS = 500;
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private static final DropwizardAppExtension<Configuration> APP_RULE = new DropwizardAppExtension<>(
+            TestApplication.class,
+            "yaml/dropwizardApacheConnectorTest.yml",
+            new ResourceConfigurationSourceProvider());
+
+    private final URI testUri = URI.create("http://localhost:" + APP_RULE.getLocalPort());
+
+    private JerseyClient client;
+    private Environment environment;
+
+    @BeforeEach
+    void setup() throws Exception {
+        JerseyClientConfiguration clientConfiguration = new JerseyClientConfiguration();
+        clientConfiguration.setConnectionTimeout(Duration.milliseconds(SLEEP_TIME_IN_MILLIS / 2));
+        clientConfiguration.setTimeout(Duration.milliseconds(DEFAULT_TIMEOUT_IN_MILLIS));
+        clientConfiguration.setNonBlockingIoEnabled(true);
+        clientConfiguration.setIoThreads(1);
+        clientConfiguration.setMinThreads(1);
+        clientConfiguration.setMaxThreads(1);
+        clientConfiguration.setWorkQueueSize(CONCURRENT_REQUESTS);
+
+        environment = new Environment("test-dropwizard-apache-async-connector");
+        client = (JerseyClient) new JerseyClientBuilder(environment)
+                .using(clientConfiguration)
+                .build("test");
+        for (LifeCycle lifeCycle : environment.lifecycle().getManagedObjects()) {
+            lifeCycle.start();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (LifeCycle lifeCycle : environment.lifecycle().getManagedObjects()) {
+            lifeCycle.stop();
+        }
+        assertThat(client.isClosed()).isTrue();
+    }
+
+    @Test
+    void uses_the_non_blocking_connector() {
+        final Connector connector = client.getConfiguration().getConnectorProvider()
+                .getConnector(client, client.getConfiguration());
+        try {
+            assertThat(connector).isInstanceOfSatisfying(SharedConnectorProvider.SharedConnector.class,
+                shared -> assertThat(shared.getDelegate()).isInstanceOf(DropwizardApacheAsyncConnector.class));
+        } finally {
+            connector.close();
+        }
+    }
+
+    @Test
+    void when_no_read_timeout_override_then_client_request_times_out() {
+        Invocation.Builder request = client.target(testUri + "/long_running").request();
+        assertThatExceptionOfType(ProcessingException.class)
+            .isThrownBy(request::get)
+            .withCauseInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    void when_read_timeout_override_created_then_client_requests_completes_successfully() {
+        assertThat(client.target(testUri + "/long_running")
+                .property(ClientProperties.READ_TIMEOUT, SLEEP_TIME_IN_MILLIS * 2)
+                .request()
+                .get()
+                .getStatus())
+            .isEqualTo(200);
+    }
+
+    @Test
+    void when_no_override_then_redirected_request_successfully_redirected() {
+        assertThat(client.target(testUri + "/redirect")
+                        .request()
+                        .get(String.class)
+        ).isEqualTo("redirected");
+    }
+
+    @Test
+    void when_configuration_overridden_to_disallow_redirects_temporary_redirect_status_returned() {
+        assertThat(client.target(testUri + "/redirect")
+                        .property(ClientProperties.FOLLOW_REDIRECTS, false)
+                        .request()
+                        .get(Response.class)
+                        .getStatus()
+        ).isEqualTo(HttpStatus.SC_TEMPORARY_REDIRECT);
+    }
+
+    @Test
+    void request_entities_are_sent() {
+        assertThat(client.target(testUri + "/echo")
+                        .request()
+                        .post(Entity.text("hello"), String.class)
+        ).isEqualTo("hello");
+    }
+
+    @Test
+    void outstanding_requests_do_not_occupy_the_thread_pool() throws Exception {
+        final long startTime = System.nanoTime();
+        final List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.target(testUri + "/long_running")
+                    .property(ClientProperties.READ_TIMEOUT, SLEEP_TIME_IN_MILLIS * 2)
+                    .request()
+                    .rx()
+                    .get(String.class)
+                    .toCompletableFuture());
+        }
+
+        for (CompletableFuture<String> response : responses) {
+            assertThat(response.get(SLEEP_TIME_IN_MILLIS * 4, TimeUnit.MILLISECONDS)).isEqualTo("success");
+        }
+        // With a single thread in the pool, blocking requests would take a second each
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+            .isLessThan(SLEEP_TIME_IN_MILLIS * 3L);
+    }
+
+    @Test
+    void responses_are_handled_on_the_thread_pool() throws Exception {
+        final CompletableFuture<String> thread = new CompletableFuture<>();
+        client.target(testUri + "/echo")
+                .request()
+                .async()
+                .post(Entity.text("hello"), new InvocationCallback<String>() {
+                    @Override
+                    public void completed(String response) {
+                        thread.complete(Thread.currentThread().getName());
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        thread.completeExceptionally(throwable);
+                    }
+                });
+
+        assertThat(thread.get(SLEEP_TIME_IN_MILLIS, TimeUnit.MILLISECONDS)).startsWith("jersey-client-test-");
+    }
+
+    @Test
+    void requests_and_the_connection_pool_are_instrumented() {
+        assertThat(client.target(testUri + "/echo")
+                        .request()
+                        .post(Entity.text("hello"), String.class)
+        ).isEqualTo("hello");
+
+        final MetricRegistry metricRegistry = environment.metrics();
+        assertThat(metricRegistry.timer("org.apache.http.client.HttpClient.test.post-requests").getCount())
+            .isEqualTo(1);
+        assertThat(metricRegistry.getGauges())
+            .containsKey("org.apache.http.nio.conn.NHttpClientConnectionManager.test.leased-connections")
+            .hasEntrySatisfying("org.apache.http.nio.conn.NHttpClientConnectionManager.test.max-connections",
+                gauge -> assertThat(gauge.getValue()).isEqualTo(1024));
+    }
+
+    @Path("/")
+    public static class TestResource {
+
+        @GET
+        @Path("/long_running")
+        public String getWithSleep() throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(SLEEP_TIME_IN_MILLIS);
+            return "success";
+        }
+
+        @GET
+        @Path("redirect")
+        public Response getWithRedirect() {
+            return Response.temporaryRedirect(URI.create("/redirected")).build();
+        }
+
+        @GET
+        @Path("redirected")
+        public String redirectedGet() {
+            return "redirected";
+        }
+
+        @POST
+        @Path("echo")
+        public String echo(String entity) {
+            return entity;
+        }
+    }
+
+    public static class TestApplication extends Application<Configuration> {
+        @Override
+        public void run(Configuration configuration, Environment environment) {
+            environment.jersey().register(TestResource.class);
+        }
+    }
+}
@@ -4,16 +4,20 @@ import com.codahale.metrics.health.HealthCheck;
 import io.dropwizard.Application;
 import io.dropwizard.Configuration;
 import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.jersey.gzip.ConfiguredGZipEncoder;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.testing.junit5.DropwizardAppExtension;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.util.Duration;
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.ProtocolVersion;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicStatusLine;
@@ -28,20 +32,33 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import javax.annotation.Nullable;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response;
+import java.io.File;
 import java.net.NoRouteToHostException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.mock;
@@ -197,9 +214,91 @@ class DropwizardApacheConnectorTest {
 
     }
 
+    @Test
+    void byte_array_entities_are_sent_as_they_are() throws Exception {
+        final HttpEntity entity = getHttpEntity(new byte[20_000], null);
+
+        assertThat(entity).isInstanceOf(ByteArrayEntity.class);
+        assertThat(entity.isChunked()).isFalse();
+        assertThat(entity.getContentLength()).isEqualTo(20_000);
+    }
+
+    @Test
+    void file_entities_are_sent_as_they_are(@TempDir java.nio.file.Path directory) throws Exception {
+        final File file = Files.write(directory.resolve("upload.bin"), new byte[30_000]).toFile();
+
+        final HttpEntity entity = getHttpEntity(file, null);
+
+        assertThat(entity).isInstanceOf(FileEntity.class);
+        assertThat(entity.isChunked()).isFalse();
+        assertThat(entity.getContentLength()).isEqualTo(30_000);
+    }
+
+    @Test
+    void encoded_entities_are_written_by_jersey() throws Exception {
+        final HttpEntity entity = getHttpEntity(new byte[20_000], "gzip");
+
+        assertThat(entity).isNotInstanceOf(ByteArrayEntity.class);
+        assertThat(entity.isChunked()).isTrue();
+        assertThat(entity.getContentLength()).isEqualTo(-1);
+    }
+
+    private static HttpEntity getHttpEntity(Object entity, @Nullable String contentEncoding) {
+        final ClientRequest jerseyRequest = mock(ClientRequest.class);
+        when(jerseyRequest.getEntity()).thenReturn(entity);
+        when(jerseyRequest.getHeaderString(HttpHeaders.CONTENT_ENCODING)).thenReturn(contentEncoding);
+        when(jerseyRequest.getWriterInterceptors())
+            .thenReturn(Collections.singletonList(new ConfiguredGZipEncoder(false)));
+
+        return requireNonNull(new DropwizardApacheConnector(mock(CloseableHttpClient.class), null, true)
+            .getHttpEntity(jerseyRequest));
+    }
+
+    @Test
+    void byte_buffer_entities_are_sent_with_their_length() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(40_000);
+        buffer.position(1_000);
+        final JerseyClient client = buildUploadClient(true);
+
+        final String response = client.target(testUri + "/upload").request()
+            .post(Entity.entity(buffer, MediaType.APPLICATION_OCTET_STREAM_TYPE), String.class);
+
+        assertThat(response).isEqualTo("39000 bytes, Content-Length: 39000");
+        assertThat(buffer.position()).isEqualTo(1_000);
+    }
+
+    @Test
+    void other_entities_are_buffered_when_chunked_encoding_is_disabled() {
+        final String entity = new String(new char[50_000]).replace('\0', 'a');
+        final JerseyClient client = buildUploadClient(false);
+
+        for (int i = 0; i < 3; i++) {
+            final String response = client.target(testUri + "/upload").request()
+                .post(Entity.entity(entity, MediaType.TEXT_PLAIN_TYPE), String.class);
+
+            assertThat(response).isEqualTo("50000 bytes, Content-Length: 50000");
+        }
+    }
+
+    private JerseyClient buildUploadClient(boolean chunkedEncodingEnabled) {
+        final JerseyClientConfiguration clientConfiguration = new JerseyClientConfiguration();
+        clientConfiguration.setGzipEnabledForRequests(false);
+        clientConfiguration.setChunkedEncodingEnabled(chunkedEncodingEnabled);
+        return (JerseyClient) new JerseyClientBuilder(environment)
+            .using(clientConfiguration)
+            .build("upload-" + chunkedEncodingEnabled);
+    }
+
     @Path("/")
     public static class TestResource {
 
+        @POST
+        @Path("upload")
+        @Consumes(MediaType.WILDCARD)
+        public String upload(byte[] body, @HeaderParam(HttpHeaders.CONTENT_LENGTH) @Nullable String contentLength) {
+            return body.length + " bytes, Content-Length: " + contentLength;
+        }
+
         @GET
         @Path("/long_running")
         public String getWithSleep() throws InterruptedException {
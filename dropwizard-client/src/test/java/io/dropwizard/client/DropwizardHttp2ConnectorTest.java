@@ -0,0 +1,172 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.DirectExecutorService;
+import io.dropwizard.util.Duration;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class DropwizardHttp2ConnectorTest {
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final Server server = new Server();
+    private final JerseyClientConfiguration configuration = new JerseyClientConfiguration();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    @Nullable
+    private Client client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ServerConnector connector = new ServerConnector(server,
+            new HTTP2CServerConnectionFactory(new HttpConfiguration()));
+        server.addConnector(connector);
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+                clientPorts.add(request.getRemotePort());
+                if ("/slow".equals(target)) {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                final StringBuilder body = new StringBuilder(request.getProtocol()).append(' ')
+                    .append(request.getMethod());
+                if ("POST".equals(request.getMethod())) {
+                    body.append(' ').append(new String(readAll(request), StandardCharsets.UTF_8));
+                }
+                response.setContentType("text/plain");
+                response.getWriter().print(body);
+                baseRequest.setHandled(true);
+            }
+        });
+        server.start();
+
+        configuration.setHttp2Enabled(true);
+        configuration.setGzipEnabledForRequests(false);
+        configuration.setMaxConnectionsPerRoute(1);
+        configuration.setTimeout(Duration.milliseconds(500));
+        configuration.setConnectionRequestTimeout(Duration.seconds(5));
+        client = new JerseyClientBuilder(metricRegistry)
+            .using(configuration)
+            .using(executorService, Jackson.newObjectMapper())
+            .build("test");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        executorService.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    void sendsRequestsOverHttp2() {
+        final String response = target("/").request().get(String.class);
+
+        assertThat(response).isEqualTo("HTTP/2.0 GET");
+        assertThat(metricRegistry.timer("org.apache.http.client.HttpClient.test.get-requests").getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void sendsEntities() {
+        final String response = target("/").request().post(Entity.text("hello"), String.class);
+
+        assertThat(response).isEqualTo("HTTP/2.0 POST hello");
+    }
+
+    @Test
+    void multiplexesConcurrentRequestsOverAConnection() throws Exception {
+        final List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> target("/").request().get(String.class),
+                executorService));
+        }
+
+        for (CompletableFuture<String> response : responses) {
+            assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo("HTTP/2.0 GET");
+        }
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void sharesTheConnectionsWithTargetsConfiguredOnTheirOwn() {
+        assertThat(target("/").request().get(String.class)).isEqualTo("HTTP/2.0 GET");
+        assertThat(target("/").property("test.property", true).request().get(String.class))
+            .isEqualTo("HTTP/2.0 GET");
+        assertThat(target("/").register((ClientRequestFilter) requestContext -> { }).request().get(String.class))
+            .isEqualTo("HTTP/2.0 GET");
+
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void timesOutSlowRequests() {
+        assertThatExceptionOfType(ProcessingException.class)
+            .isThrownBy(() -> target("/slow").request().get(String.class));
+    }
+
+    @Test
+    void usesTheHttp2Connector() {
+        final JerseyClientBuilder builder = new JerseyClientBuilder(new MetricRegistry())
+            .using(configuration)
+            .using(new DirectExecutorService(), Jackson.newObjectMapper());
+
+        final DropwizardHttp2Connector connector = builder.createDropwizardHttp2Connector("other");
+        assertThat(connector.getName()).startsWith("Jetty-HttpClient/");
+        connector.close();
+    }
+
+    private WebTarget target(String path) {
+        return requireNonNull(client).target("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + path);
+    }
+
+    private static byte[] readAll(HttpServletRequest request) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = request.getInputStream().read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,11 +1,25 @@
 package io.dropwizard.client;
 
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.httpclient.HttpClientMetricNameStrategies;
 import com.codahale.metrics.httpclient.InstrumentedHttpClientConnectionManager;
+import io.dropwizard.client.circuitbreaker.BulkheadConfiguration;
+import io.dropwizard.client.circuitbreaker.CircuitBreakerConfiguration;
+import io.dropwizard.client.circuitbreaker.CircuitBreakingHttpClient;
+import io.dropwizard.client.cache.HttpCacheConfiguration;
+import io.dropwizard.client.dns.CachingDnsResolver;
+import io.dropwizard.client.dns.DnsCacheConfiguration;
 import io.dropwizard.client.proxy.AuthConfiguration;
 import io.dropwizard.client.proxy.ProxyConfiguration;
+import io.dropwizard.client.retry.BudgetedHttpRequestRetryHandler;
+import io.dropwizard.client.retry.HedgingConfiguration;
+import io.dropwizard.client.retry.HedgingHttpClient;
+import io.dropwizard.client.retry.RetryBudget;
+import io.dropwizard.client.retry.RetryBudgetConfiguration;
 import io.dropwizard.client.ssl.TlsConfiguration;
+import io.dropwizard.client.warmup.ConnectionPoolWarmer;
+import io.dropwizard.client.warmup.WarmupConfiguration;
 import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
 import io.dropwizard.setup.Environment;
@@ -15,6 +29,7 @@ import org.apache.http.HeaderIterator;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
@@ -41,6 +56,7 @@ import org.apache.http.impl.DefaultConnectionReuseStrategy;
 import org.apache.http.impl.NoConnectionReuseStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
 import org.apache.http.impl.conn.DefaultRoutePlanner;
 import org.apache.http.impl.conn.SystemDefaultDnsResolver;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
@@ -71,6 +87,7 @@ import java.util.Optional;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.validateMockitoUsage;
@@ -199,6 +216,31 @@ class HttpClientBuilderTest {
             .isInstanceOf(SystemDefaultDnsResolver.class);
     }
 
+    @Test
+    void cachesTheDnsResolverIfConfigured() {
+        configuration.setDnsCache(new DnsCacheConfiguration());
+        final InstrumentedHttpClientConnectionManager manager =
+                builder.using(configuration).createConnectionManager(registry, "test");
+
+        assertThat(manager)
+            .extracting("connectionOperator")
+            .extracting("dnsResolver")
+            .isInstanceOf(CachingDnsResolver.class);
+    }
+
+    @Test
+    void createsCachingClientsWithACustomBuilder() {
+        final CachingHttpClientBuilder cachingBuilder = CachingHttpClientBuilder.create();
+        final HttpClientBuilder customBuilder = new HttpClientBuilder(new MetricRegistry()) {
+            @Override
+            protected CachingHttpClientBuilder createCachingBuilder() {
+                return cachingBuilder;
+            }
+        };
+
+        assertThat(customBuilder.createCachingBuilder(new HttpCacheConfiguration(), "test")).isSameAs(cachingBuilder);
+    }
+
     @Test
     void canUseACustomHostnameVerifierWhenTlsConfigurationNotSpecified() {
         final HostnameVerifier customVerifier = (s, sslSession) -> false;
@@ -449,6 +491,80 @@ class HttpClientBuilderTest {
         assertThat(apacheBuilder).extracting("retryHandler").isSameAs(customHandler);
     }
 
+    @Test
+    void usesABudgetedRetryHandlerIfConfigured() {
+        configuration.setRetries(1);
+        configuration.setRetryBudget(new RetryBudgetConfiguration());
+        assertThat(builder.using(configuration).createClient(apacheBuilder, connectionManager, "test")).isNotNull();
+
+        assertThat(apacheBuilder).extracting("retryHandler").isInstanceOf(BudgetedHttpRequestRetryHandler.class);
+        assertThat(apacheBuilder).extracting("requestFirst").asList().hasAtLeastOneElementOfType(RetryBudget.class);
+    }
+
+    @Test
+    void hedgesRequestsIfConfigured() throws Exception {
+        configuration.setHedging(new HedgingConfiguration());
+        final ConfiguredCloseableHttpClient client =
+            builder.using(configuration).createClient(apacheBuilder, connectionManager, "test");
+
+        assertThat(client.getClient()).isInstanceOf(HedgingHttpClient.class);
+        client.getClient().close();
+    }
+
+    @Test
+    void breaksCircuitsInsideTheHedgingIfConfigured() throws Exception {
+        configuration.setHedging(new HedgingConfiguration());
+        configuration.setCircuitBreaker(new CircuitBreakerConfiguration());
+        final ConfiguredCloseableHttpClient client =
+            builder.using(configuration).createClient(apacheBuilder, connectionManager, "test");
+
+        assertThat(client.getClient()).isInstanceOf(HedgingHttpClient.class)
+            .extracting("delegate").isInstanceOf(CircuitBreakingHttpClient.class);
+        client.getClient().close();
+    }
+
+    @Test
+    void usesABulkheadIfConfigured() throws Exception {
+        configuration.setBulkhead(new BulkheadConfiguration());
+        final ConfiguredCloseableHttpClient client =
+            builder.using(configuration).createClient(apacheBuilder, connectionManager, "test");
+
+        assertThat(client.getClient()).isInstanceOf(CircuitBreakingHttpClient.class);
+        client.getClient().close();
+    }
+
+    @Test
+    void registersAHealthCheckOfTheCircuitBreakers() throws Exception {
+        final Environment environment = mock(Environment.class);
+        final HealthCheckRegistry healthChecks = new HealthCheckRegistry();
+        when(environment.getName()).thenReturn("test-env");
+        when(environment.metrics()).thenReturn(new MetricRegistry());
+        when(environment.lifecycle()).thenReturn(mock(LifecycleEnvironment.class));
+        when(environment.healthChecks()).thenReturn(healthChecks);
+        configuration.setCircuitBreaker(new CircuitBreakerConfiguration());
+
+        final CloseableHttpClient client = new HttpClientBuilder(environment).using(configuration).build("test");
+
+        assertThat(healthChecks.getNames()).containsExactly("test-circuit-breakers");
+        assertThat(healthChecks.runHealthCheck("test-circuit-breakers").isHealthy()).isTrue();
+        client.close();
+    }
+
+    @Test
+    void warmsUpTheConnectionPoolWhenTheEnvironmentStarts() throws Exception {
+        final Environment environment = mock(Environment.class);
+        final LifecycleEnvironment lifecycle = mock(LifecycleEnvironment.class);
+        when(environment.getName()).thenReturn("test-env");
+        when(environment.metrics()).thenReturn(new MetricRegistry());
+        when(environment.lifecycle()).thenReturn(lifecycle);
+        configuration.setWarmup(new WarmupConfiguration());
+
+        final CloseableHttpClient client = new HttpClientBuilder(environment).using(configuration).build("test");
+
+        verify(lifecycle).manage(any(ConnectionPoolWarmer.class));
+        client.close();
+    }
+
     @Test
     void usesCredentialsProvider() {
         final CredentialsProvider credentialsProvider = new CredentialsProvider() {
@@ -704,6 +820,27 @@ class HttpClientBuilderTest {
         assertThat(apacheBuilder).extracting("httpprocessor").isSameAs(httpProcessor);
     }
 
+    @Test
+    void propagatesRequestIdsIfEnabled() {
+        configuration.setPropagateRequestId(true);
+        final ConfiguredCloseableHttpClient client =
+            builder.using(configuration).createClient(apacheBuilder, connectionManager, "test");
+        assertThat(client).isNotNull();
+        assertThat(apacheBuilder)
+            .extracting("requestLast")
+            .asInstanceOf(InstanceOfAssertFactories.list(HttpRequestInterceptor.class))
+            .singleElement()
+            .isInstanceOf(RequestIdInterceptor.class);
+    }
+
+    @Test
+    void doesNotPropagateRequestIdsByDefault() {
+        final ConfiguredCloseableHttpClient client =
+            builder.using(configuration).createClient(apacheBuilder, connectionManager, "test");
+        assertThat(client).isNotNull();
+        assertThat(apacheBuilder).extracting("requestLast").isNull();
+    }
+
     @Test
     void usesServiceUnavailableRetryStrategy() {
         ServiceUnavailableRetryStrategy serviceUnavailableRetryStrategy = mock(ServiceUnavailableRetryStrategy.class);
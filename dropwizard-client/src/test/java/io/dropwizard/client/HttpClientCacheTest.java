@@ -0,0 +1,144 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.client.cache.HttpCacheConfiguration;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientCacheTest {
+    private static final byte[] BODY = "reference data".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"v1\"";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicInteger revalidated = new AtomicInteger();
+    private final HttpClientConfiguration configuration = new HttpClientConfiguration();
+
+    private HttpServer httpServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        httpServer = HttpServer.create(new InetSocketAddress(0), 0);
+        httpServer.createContext("/fresh", httpExchange -> {
+            try {
+                httpExchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+                respond(httpExchange.getResponseBody(), () -> httpExchange.sendResponseHeaders(200, BODY.length));
+            } finally {
+                httpExchange.close();
+            }
+        });
+        httpServer.createContext("/revalidated", httpExchange -> {
+            try {
+                httpExchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=0");
+                httpExchange.getResponseHeaders().add(HttpHeaders.ETAG, ETAG);
+                if (ETAG.equals(httpExchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                    revalidated.incrementAndGet();
+                    httpExchange.sendResponseHeaders(304, -1);
+                } else {
+                    respond(httpExchange.getResponseBody(), () -> httpExchange.sendResponseHeaders(200, BODY.length));
+                }
+            } finally {
+                httpExchange.close();
+            }
+        });
+        httpServer.start();
+        configuration.setCacheConfiguration(new HttpCacheConfiguration());
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpServer.stop(0);
+    }
+
+    @Test
+    void servesFreshResponsesFromTheCache() throws Exception {
+        try (CloseableHttpClient client = build()) {
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+        }
+
+        assertThat(served).hasValue(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.cache.misses").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.cache.hits").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.getGauges())
+            .hasEntrySatisfying("org.apache.http.client.HttpClient.test.cache.size",
+                gauge -> assertThat(gauge.getValue()).isEqualTo((long) BODY.length));
+    }
+
+    @Test
+    void revalidatesStaleResponses() throws Exception {
+        try (CloseableHttpClient client = build()) {
+            assertThat(get(client, "/revalidated")).isEqualTo(BODY);
+            assertThat(get(client, "/revalidated")).isEqualTo(BODY);
+        }
+
+        assertThat(served).hasValue(1);
+        assertThat(revalidated).hasValue(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.cache.validations").getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void storesResponsesInTheConfiguredDirectory(@TempDir File directory) throws Exception {
+        final File cacheDirectory = new File(directory, "cache");
+        final HttpCacheConfiguration cacheConfiguration = new HttpCacheConfiguration();
+        cacheConfiguration.setDirectory(cacheDirectory);
+        configuration.setCacheConfiguration(cacheConfiguration);
+
+        try (CloseableHttpClient client = build()) {
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+        }
+
+        assertThat(served).hasValue(1);
+        assertThat(cacheDirectory.listFiles()).hasSize(1);
+    }
+
+    @Test
+    void doesNotCacheWithoutConfiguration() throws Exception {
+        configuration.setCacheConfiguration(null);
+
+        try (CloseableHttpClient client = build()) {
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+            assertThat(get(client, "/fresh")).isEqualTo(BODY);
+        }
+
+        assertThat(served).hasValue(2);
+        assertThat(metricRegistry.getMeters()).doesNotContainKey("org.apache.http.client.HttpClient.test.cache.misses");
+    }
+
+    private CloseableHttpClient build() {
+        return new HttpClientBuilder(metricRegistry).using(configuration).build("test");
+    }
+
+    private byte[] get(CloseableHttpClient client, String path) throws IOException {
+        final HttpGet request = new HttpGet("http://localhost:" + httpServer.getAddress().getPort() + path);
+        return client.execute(request, response -> EntityUtils.toByteArray(response.getEntity()));
+    }
+
+    private void respond(OutputStream body, IoAction sendHeaders) throws IOException {
+        served.incrementAndGet();
+        sendHeaders.run();
+        body.write(BODY);
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package io.dropwizard.client;
+
+import io.dropwizard.jersey.jackson.JacksonBinaryFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JacksonBinaryFormatClientFilterTest {
+    private final JacksonBinaryFormatClientFilter filter = new JacksonBinaryFormatClientFilter(JacksonBinaryFormat.SMILE);
+    private final ClientRequestContext request = mock(ClientRequestContext.class);
+    private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(request.getHeaders()).thenReturn(headers);
+    }
+
+    @Test
+    void sendsJsonEntitiesInTheBinaryFormat() {
+        when(request.hasEntity()).thenReturn(true);
+        when(request.getMediaType()).thenReturn(MediaType.APPLICATION_JSON_TYPE);
+        when(request.getAcceptableMediaTypes()).thenReturn(Collections.emptyList());
+
+        filter.filter(request);
+
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_TYPE)).isEqualTo(JacksonBinaryFormat.SMILE.getMediaType());
+        assertThat(headers).doesNotContainKey(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void leavesOtherEntitiesAlone() {
+        when(request.hasEntity()).thenReturn(true);
+        when(request.getMediaType()).thenReturn(MediaType.TEXT_PLAIN_TYPE);
+        when(request.getAcceptableMediaTypes()).thenReturn(Collections.emptyList());
+
+        filter.filter(request);
+
+        assertThat(headers).isEmpty();
+    }
+
+    @Test
+    void prefersTheBinaryFormatOverJson() {
+        when(request.getAcceptableMediaTypes()).thenReturn(Collections.singletonList(MediaType.APPLICATION_JSON_TYPE));
+
+        filter.filter(request);
+
+        assertThat(headers.getFirst(HttpHeaders.ACCEPT))
+            .isEqualTo("application/x-jackson-smile, application/json;q=0.9");
+    }
+
+    @Test
+    void keepsOtherAcceptableMediaTypes() {
+        when(request.getAcceptableMediaTypes())
+            .thenReturn(Collections.singletonList(MediaType.TEXT_PLAIN_TYPE));
+
+        filter.filter(request);
+
+        assertThat(headers).isEmpty();
+    }
+}
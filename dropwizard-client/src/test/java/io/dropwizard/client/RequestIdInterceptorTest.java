@@ -0,0 +1,50 @@
+package io.dropwizard.client;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestIdInterceptorTest {
+    private final RequestIdInterceptor interceptor = new RequestIdInterceptor();
+    private final HttpRequest request = new BasicHttpRequest("GET", "/");
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove("requestId");
+    }
+
+    @Test
+    void forwardsTheCurrentRequestId() {
+        MDC.put("requestId", "e286b503-aa36-43fe-8312-95ee8773e348");
+
+        interceptor.process(request, new BasicHttpContext());
+
+        assertThat(request.getFirstHeader("X-Request-Id"))
+            .isNotNull()
+            .satisfies(header -> assertThat(header.getValue()).isEqualTo("e286b503-aa36-43fe-8312-95ee8773e348"));
+    }
+
+    @Test
+    void keepsAnExistingRequestId() {
+        MDC.put("requestId", "e286b503-aa36-43fe-8312-95ee8773e348");
+        request.addHeader("X-Request-Id", "explicit");
+
+        interceptor.process(request, new BasicHttpContext());
+
+        assertThat(request.getHeaders("X-Request-Id"))
+            .singleElement()
+            .satisfies(header -> assertThat(header.getValue()).isEqualTo("explicit"));
+    }
+
+    @Test
+    void doesNothingOutsideOfARequest() {
+        interceptor.process(request, new BasicHttpContext());
+
+        assertThat(request.containsHeader("X-Request-Id")).isFalse();
+    }
+}
@@ -0,0 +1,108 @@
+package io.dropwizard.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteInstrumentedHttpClientConnectionManagerTest {
+    private static final String PREFIX = "org.apache.http.conn.HttpClientConnectionManager.test.";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final HttpServer server = createServer();
+    private final RouteInstrumentedHttpClientConnectionManager manager = new RouteInstrumentedHttpClientConnectionManager(
+        metricRegistry,
+        RegistryBuilder.<ConnectionSocketFactory>create().register("http", PlainConnectionSocketFactory.getSocketFactory()).build(),
+        new SystemDefaultDnsResolver(), -1, TimeUnit.MILLISECONDS, "test");
+    private final CloseableHttpClient client = HttpClients.custom().setConnectionManager(manager).build();
+
+    private static HttpServer createServer() {
+        try {
+            return HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        server.createContext("/", exchange -> {
+            final byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void reportsThePoolWaitAndTheReuseOfConnections() throws Exception {
+        execute();
+        execute();
+
+        assertThat(metricRegistry.timer(PREFIX + "pool-wait").getCount()).isEqualTo(2);
+        assertThat(metricRegistry.meter(PREFIX + "connections-created").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter(PREFIX + "connections-reused").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsTheConnectionsOfEachRoute() throws Exception {
+        execute();
+
+        final String route = PREFIX + "routes.http.localhost_" + server.getAddress().getPort();
+        assertThat(metricRegistry.getGauges())
+            .extractingByKey(route + ".leased").extracting("value").isEqualTo(0);
+        assertThat(metricRegistry.getGauges())
+            .extractingByKey(route + ".available").extracting("value").isEqualTo(1);
+        assertThat(metricRegistry.getGauges())
+            .extractingByKey(route + ".pending").extracting("value").isEqualTo(0);
+    }
+
+    @Test
+    void reportsTheLifetimeAndRequestsOfClosedConnections() throws Exception {
+        execute();
+        execute();
+        manager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+
+        assertThat(metricRegistry.timer(PREFIX + "connection-lifetime").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.histogram(PREFIX + "connection-requests").getSnapshot().getValues()).containsExactly(2);
+    }
+
+    @Test
+    void removesTheRouteGaugesOnShutdown() throws Exception {
+        execute();
+
+        manager.shutdown();
+
+        assertThat(metricRegistry.getGauges().keySet()).noneMatch(name -> name.startsWith(PREFIX + "routes."));
+    }
+
+    private void execute() throws Exception {
+        try (CloseableHttpResponse response = client.execute(
+            new HttpGet("http://localhost:" + server.getAddress().getPort() + "/"))) {
+            assertThat(EntityUtils.toString(response.getEntity())).isEqualTo("ok");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.dropwizard.client;
+
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteMetricNamesTest {
+    @Test
+    void namesRoutesByTheirSchemeHostAndPort() {
+        assertThat(RouteMetricNames.name(new HttpHost("Example.com", 8443, "https")))
+            .isEqualTo("https.example_com_8443");
+    }
+
+    @Test
+    void usesTheDefaultPortOfTheScheme() {
+        assertThat(RouteMetricNames.name(new HttpHost("example.com", -1, "https"))).isEqualTo("https.example_com_443");
+        assertThat(RouteMetricNames.name(new HttpHost("example.com", -1, "http"))).isEqualTo("http.example_com_80");
+    }
+
+    @Test
+    void omitsUnknownPorts() {
+        assertThat(RouteMetricNames.name(new HttpHost("example.com", -1, "ftp"))).isEqualTo("ftp.example_com");
+    }
+
+    @Test
+    void replacesSeparatorsInAddresses() {
+        assertThat(RouteMetricNames.name(new HttpHost("::1", 8080, "http"))).isEqualTo("http.__1_8080");
+    }
+}
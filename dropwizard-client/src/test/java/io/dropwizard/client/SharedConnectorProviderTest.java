@@ -0,0 +1,61 @@
+package io.dropwizard.client;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.spi.Connector;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.client.Client;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SharedConnectorProviderTest {
+    private final Client client = mock(Client.class);
+    private final ClientConfig config = new ClientConfig();
+    private final AtomicInteger created = new AtomicInteger();
+    private final Connector connector = mock(Connector.class);
+    private final SharedConnectorProvider provider = new SharedConnectorProvider(() -> {
+        created.incrementAndGet();
+        return connector;
+    });
+
+    @Test
+    void sharesOneConnectorBetweenTheRuntimes() {
+        final ClientRequest request = mock(ClientRequest.class);
+        final Connector first = provider.getConnector(client, config);
+        final Connector second = provider.getConnector(client, config);
+
+        first.apply(request);
+        second.apply(request);
+
+        assertThat(created).hasValue(1);
+        verify(connector, times(2)).apply(request);
+    }
+
+    @Test
+    void closesTheConnectorWithTheLastRuntime() {
+        final Connector first = provider.getConnector(client, config);
+        final Connector second = provider.getConnector(client, config);
+
+        first.close();
+        first.close();
+        verify(connector, never()).close();
+
+        second.close();
+        verify(connector).close();
+    }
+
+    @Test
+    void createsAnotherConnectorOnceTheLastOneIsClosed() {
+        provider.getConnector(client, config).close();
+        provider.getConnector(client, config).close();
+
+        assertThat(created).hasValue(2);
+        verify(connector, times(2)).close();
+    }
+}
@@ -0,0 +1,119 @@
+package io.dropwizard.client.cache;
+
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.Resource;
+import org.apache.http.impl.client.cache.HeapResource;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedHttpCacheStorageTest {
+    private final BoundedHttpCacheStorage storage = new BoundedHttpCacheStorage(100);
+
+    @Test
+    void storesEntries() {
+        final HttpCacheEntry entry = entry(new HeapResource(new byte[40]));
+        storage.putEntry("a", entry);
+
+        assertThat(storage.getEntry("a")).isSameAs(entry);
+        assertThat(storage.getSize()).isEqualTo(40);
+        assertThat(storage.getEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntriesWhenFull() {
+        storage.putEntry("a", entry(new HeapResource(new byte[40])));
+        storage.putEntry("b", entry(new HeapResource(new byte[40])));
+        storage.getEntry("a");
+        storage.putEntry("c", entry(new HeapResource(new byte[40])));
+
+        assertThat(storage.getEntry("a")).isNotNull();
+        assertThat(storage.getEntry("b")).isNull();
+        assertThat(storage.getEntry("c")).isNotNull();
+        assertThat(storage.getSize()).isEqualTo(80);
+    }
+
+    @Test
+    void disposesOfEvictedAndRemovedResourcesOnceUnreferenced() throws Exception {
+        final Resource evicted = resource(60);
+        final Resource removed = resource(30);
+        storage.putEntry("a", entry(evicted));
+        storage.putEntry("b", entry(removed));
+        storage.putEntry("c", entry(resource(60)));
+        storage.removeEntry("b");
+        assertThat(storage.getSize()).isEqualTo(60);
+
+        for (int i = 0; i < 100 && (!isDisposed(evicted) || !isDisposed(removed)); i++) {
+            System.gc();
+            Thread.sleep(10);
+            storage.cleanResources();
+        }
+
+        verify(evicted).dispose();
+        verify(removed).dispose();
+    }
+
+    @Test
+    void keepsResourcesOfEvictedEntriesWhichAreStillReferenced() throws Exception {
+        final Resource resource = resource(60);
+        final HttpCacheEntry entry = entry(resource);
+        storage.putEntry("a", entry);
+        storage.putEntry("b", entry(resource(60)));
+
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(10);
+            storage.cleanResources();
+        }
+
+        verify(resource, never()).dispose();
+        assertThat(entry.getResource()).isSameAs(resource);
+    }
+
+    @Test
+    void keepsResourcesSharedByReplacements() throws Exception {
+        final Resource resource = resource(10);
+        storage.putEntry("a", entry(resource));
+        storage.updateEntry("a", existing -> entry(resource));
+
+        verify(resource, never()).dispose();
+        assertThat(storage.getSize()).isEqualTo(10);
+    }
+
+    @Test
+    void removesEntriesUpdatedToNothing() throws Exception {
+        storage.putEntry("a", entry(new HeapResource(new byte[10])));
+        storage.updateEntry("a", existing -> null);
+
+        assertThat(storage.getEntry("a")).isNull();
+        assertThat(storage.getSize()).isZero();
+    }
+
+    private static boolean isDisposed(Resource resource) {
+        return mockingDetails(resource).getInvocations().stream()
+            .anyMatch(invocation -> invocation.getMethod().getName().equals("dispose"));
+    }
+
+    private static Resource resource(long length) {
+        final Resource resource = mock(Resource.class);
+        when(resource.length()).thenReturn(length);
+        return resource;
+    }
+
+    private static HttpCacheEntry entry(Resource resource) {
+        final Date now = new Date();
+        return new HttpCacheEntry(now, now, new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK"),
+            new Header[0], resource);
+    }
+}
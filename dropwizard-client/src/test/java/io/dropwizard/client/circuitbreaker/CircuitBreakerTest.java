@@ -0,0 +1,146 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.codahale.metrics.Clock;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final FakeClock clock = new FakeClock();
+    private final CircuitBreakerConfiguration configuration = new CircuitBreakerConfiguration();
+
+    @BeforeEach
+    void setUp() {
+        configuration.setWindowSize(10);
+        configuration.setMinimumRequests(4);
+        configuration.setProbingRequests(2);
+        configuration.setOpenDuration(Duration.seconds(30));
+        configuration.setSlowRequestRateThreshold(75);
+    }
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfRequests() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration, clock);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+            circuitBreaker.onFailure(FAST);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration, clock);
+
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onFailure(FAST);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.onFailure(FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void opensWhenTheSlowRequestRateReachesTheThreshold() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration, clock);
+
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(SLOW);
+        circuitBreaker.onSuccess(SLOW);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.onSuccess(SLOW);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void onlyCountsTheMostRecentRequests() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration, clock);
+
+        circuitBreaker.onFailure(FAST);
+        for (int i = 0; i < 9; i++) {
+            circuitBreaker.onSuccess(FAST);
+        }
+        // The first failure leaves the window, which ends with 4 failures out of 10 requests
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        final CircuitBreaker circuitBreaker = openCircuitBreaker();
+        clock.advance(Duration.seconds(30));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void opensAgainAfterFailedProbes() {
+        final CircuitBreaker circuitBreaker = openCircuitBreaker();
+        clock.advance(Duration.seconds(30));
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onFailure(FAST);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void ignoredProbesFreeTheirPermission() {
+        final CircuitBreaker circuitBreaker = openCircuitBreaker();
+        clock.advance(Duration.seconds(30));
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onIgnored();
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    private CircuitBreaker openCircuitBreaker() {
+        final CircuitBreaker circuitBreaker = new CircuitBreaker(configuration, clock);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+
+    private static class FakeClock extends Clock {
+        private long tick;
+
+        void advance(Duration duration) {
+            tick += duration.toNanoseconds();
+        }
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+    }
+}
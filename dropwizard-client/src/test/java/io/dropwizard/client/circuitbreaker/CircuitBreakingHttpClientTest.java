@@ -0,0 +1,191 @@
+package io.dropwizard.client.circuitbreaker;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakingHttpClientTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final CloseableHttpClient delegate = mock(CloseableHttpClient.class);
+    private final CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+    private final CircuitBreakerConfiguration circuitBreakerConfiguration = new CircuitBreakerConfiguration();
+
+    CircuitBreakingHttpClientTest() {
+        circuitBreakerConfiguration.setWindowSize(2);
+        circuitBreakerConfiguration.setMinimumRequests(2);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+    }
+
+    @Test
+    void failsFastOnceTheCircuitOfARouteOpens() throws Exception {
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenThrow(new ConnectException("Connection refused"));
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, circuitBreakerConfiguration, null, metricRegistry, "test");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(ConnectException.class).isThrownBy(() -> client.execute(new HttpGet("http://down/")));
+        }
+        assertThatExceptionOfType(CircuitBreakerOpenException.class)
+            .isThrownBy(() -> client.execute(new HttpGet("http://down/")));
+
+        verify(delegate, times(2)).execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class),
+            ArgumentMatchers.<HttpContext>any());
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.circuit-breakers.rejected").getCount())
+            .isEqualTo(1);
+        assertThat(metricRegistry.getGauges())
+            .extractingByKey("org.apache.http.client.HttpClient.test.circuit-breakers.http.down_80.state")
+            .extracting("value").isEqualTo("OPEN");
+        assertThat(new CircuitBreakerHealthCheck(client).execute().isHealthy()).isFalse();
+    }
+
+    @Test
+    void keepsTheCircuitsOfRoutesApart() throws Exception {
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                final HttpHost target = invocation.getArgument(0);
+                if ("down".equals(target.getHostName())) {
+                    throw new ConnectException("Connection refused");
+                }
+                return response;
+            });
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, circuitBreakerConfiguration, null, metricRegistry, "test");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(ConnectException.class).isThrownBy(() -> client.execute(new HttpGet("http://down/")));
+        }
+
+        assertThat(client.execute(new HttpGet("http://up/"))).isSameAs(response);
+        assertThat(client.getCircuitBreakers()).extractingByKey("http.up_80").extracting("state").isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(client.getCircuitBreakers()).extractingByKey("http.down_80").extracting("state").isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void countsServerErrorsAsFailures() throws Exception {
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, 503, "Service Unavailable"));
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenReturn(response);
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, circuitBreakerConfiguration, null, metricRegistry, "test");
+
+        client.execute(new HttpGet("http://down/"));
+        client.execute(new HttpGet("http://down/"));
+
+        assertThat(client.getCircuitBreakers()).extractingByKey("http.down_80").extracting("state").isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheBulkhead() throws Exception {
+        final CountDownLatch executing = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                executing.countDown();
+                released.await(5, TimeUnit.SECONDS);
+                return response;
+            });
+        final BulkheadConfiguration bulkheadConfiguration = new BulkheadConfiguration();
+        bulkheadConfiguration.setMaxConcurrentRequests(1);
+        bulkheadConfiguration.setMaxWait(Duration.milliseconds(10));
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, null, bulkheadConfiguration, metricRegistry, "test");
+
+        final Thread thread = new Thread(() -> {
+            try {
+                client.execute(new HttpGet("http://slow/"));
+            } catch (IOException ignored) {
+                // Not under test
+            }
+        });
+        thread.start();
+        assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatExceptionOfType(BulkheadFullException.class)
+            .isThrownBy(() -> client.execute(new HttpGet("http://slow/")));
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.bulkhead.rejected").getCount())
+            .isEqualTo(1);
+
+        released.countDown();
+        thread.join();
+        assertThat(client.execute(new HttpGet("http://slow/")).getStatusLine()).isSameAs(response.getStatusLine());
+    }
+
+    @Test
+    void occupiesTheBulkheadUntilTheResponseIsRead() throws Exception {
+        final BasicHttpResponse entityResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                entityResponse.setEntity(new StringEntity("hello"));
+                return closeable(entityResponse);
+            });
+        final BulkheadConfiguration bulkheadConfiguration = new BulkheadConfiguration();
+        bulkheadConfiguration.setMaxConcurrentRequests(1);
+        bulkheadConfiguration.setMaxWait(Duration.milliseconds(10));
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, null, bulkheadConfiguration, metricRegistry, "test");
+
+        final CloseableHttpResponse read = client.execute(new HttpGet("http://slow/"));
+        assertThatExceptionOfType(BulkheadFullException.class)
+            .isThrownBy(() -> client.execute(new HttpGet("http://slow/")));
+        assertThat(EntityUtils.toString(read.getEntity())).isEqualTo("hello");
+
+        final CloseableHttpResponse closed = client.execute(new HttpGet("http://slow/"));
+        assertThatExceptionOfType(BulkheadFullException.class)
+            .isThrownBy(() -> client.execute(new HttpGet("http://slow/")));
+        closed.close();
+
+        assertThat(client.execute(new HttpGet("http://slow/")).getStatusLine().getStatusCode()).isEqualTo(200);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.bulkhead.rejected").getCount())
+            .isEqualTo(2);
+    }
+
+    private static CloseableHttpResponse closeable(HttpResponse response) {
+        final CloseableHttpResponse closeable = mock(CloseableHttpResponse.class);
+        when(closeable.getStatusLine()).thenAnswer(invocation -> response.getStatusLine());
+        when(closeable.getEntity()).thenAnswer(invocation -> response.getEntity());
+        doAnswer(invocation -> {
+            response.setEntity(invocation.getArgument(0));
+            return null;
+        }).when(closeable).setEntity(any());
+        return closeable;
+    }
+
+    @Test
+    void isHealthyWhileNoCircuitIsOpen() throws Exception {
+        final CircuitBreakingHttpClient client =
+            new CircuitBreakingHttpClient(delegate, circuitBreakerConfiguration, null, metricRegistry, "test");
+
+        final HealthCheck.Result result = new CircuitBreakerHealthCheck(client).execute();
+
+        assertThat(result.isHealthy()).isTrue();
+    }
+}
@@ -0,0 +1,193 @@
+package io.dropwizard.client.dns;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.apache.http.conn.DnsResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingDnsResolverTest {
+    private final DnsResolver delegate = mock(DnsResolver.class);
+    private final DnsCacheConfiguration configuration = new DnsCacheConfiguration();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final FakeClock clock = new FakeClock();
+    private final InetAddress first = address(1);
+    private final InetAddress second = address(2);
+
+    private final CachingDnsResolver resolver =
+        new CachingDnsResolver(delegate, configuration, metricRegistry, "test", refreshes::add, clock);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(delegate.resolve("example.com")).thenReturn(new InetAddress[]{first, second});
+    }
+
+    @Test
+    void cachesTheAddressesOfHosts() throws Exception {
+        configuration.setRoundRobin(false);
+
+        assertThat(resolver.resolve("example.com")).containsExactly(first, second);
+        assertThat(resolver.resolve("example.com")).containsExactly(first, second);
+
+        verify(delegate).resolve("example.com");
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.dns.misses").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.dns.hits").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("org.apache.http.client.HttpClient.test.dns.lookups").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.getGauges())
+            .extractingByKey("org.apache.http.client.HttpClient.test.dns.entries")
+            .extracting("value")
+            .isEqualTo(1);
+    }
+
+    @Test
+    void looksUpExpiredHostsAgain() throws Exception {
+        resolver.resolve("example.com");
+        clock.advance(60, TimeUnit.SECONDS);
+        resolver.resolve("example.com");
+
+        verify(delegate, times(2)).resolve("example.com");
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void refreshesHostsInTheBackgroundBeforeTheyExpire() throws Exception {
+        resolver.resolve("example.com");
+        clock.advance(50, TimeUnit.SECONDS);
+        resolver.resolve("example.com");
+        resolver.resolve("example.com");
+
+        assertThat(refreshes).hasSize(1);
+        verify(delegate).resolve("example.com");
+
+        refreshes.get(0).run();
+        verify(delegate, times(2)).resolve("example.com");
+
+        // The refreshed addresses are valid for a whole TTL
+        clock.advance(30, TimeUnit.SECONDS);
+        resolver.resolve("example.com");
+        verify(delegate, times(2)).resolve("example.com");
+        assertThat(refreshes).hasSize(1);
+    }
+
+    @Test
+    void keepsTheAddressesWhenARefreshFails() throws Exception {
+        resolver.resolve("example.com");
+        when(delegate.resolve("example.com")).thenThrow(new UnknownHostException("example.com"));
+        clock.advance(50, TimeUnit.SECONDS);
+        resolver.resolve("example.com");
+        refreshes.get(0).run();
+
+        assertThat(resolver.resolve("example.com")).containsExactlyInAnyOrder(first, second);
+        assertThat(refreshes).hasSize(2);
+    }
+
+    @Test
+    void refreshesHostsLaterWhenARefreshIsRejected() throws Exception {
+        final AtomicInteger rejected = new AtomicInteger();
+        final CachingDnsResolver resolver = new CachingDnsResolver(delegate, configuration, metricRegistry, "test",
+            runnable -> {
+                if (rejected.getAndIncrement() == 0) {
+                    throw new RejectedExecutionException();
+                }
+                refreshes.add(runnable);
+            }, clock);
+        resolver.resolve("example.com");
+        clock.advance(50, TimeUnit.SECONDS);
+
+        resolver.resolve("example.com");
+        assertThat(refreshes).isEmpty();
+        resolver.resolve("example.com");
+
+        assertThat(rejected).hasValue(2);
+        assertThat(refreshes).hasSize(1);
+    }
+
+    @Test
+    void cachesFailedLookups() throws Exception {
+        configuration.setNegativeTtl(Duration.seconds(5));
+        when(delegate.resolve("unknown.example.com")).thenThrow(new UnknownHostException("unknown.example.com"));
+
+        assertThatExceptionOfType(UnknownHostException.class).isThrownBy(() -> resolver.resolve("unknown.example.com"));
+        assertThatExceptionOfType(UnknownHostException.class)
+            .isThrownBy(() -> resolver.resolve("unknown.example.com"))
+            .withMessage("unknown.example.com");
+        verify(delegate).resolve("unknown.example.com");
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.dns.failures").getCount()).isEqualTo(1);
+
+        clock.advance(5, TimeUnit.SECONDS);
+        assertThatExceptionOfType(UnknownHostException.class).isThrownBy(() -> resolver.resolve("unknown.example.com"));
+        verify(delegate, times(2)).resolve("unknown.example.com");
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void rotatesTheAddressesOfHosts() throws Exception {
+        assertThat(resolver.resolve("example.com")).containsExactly(first, second);
+        assertThat(resolver.resolve("example.com")).containsExactly(second, first);
+        assertThat(resolver.resolve("example.com")).containsExactly(first, second);
+    }
+
+    @Test
+    void boundsTheNumberOfCachedHosts() throws Exception {
+        configuration.setMaxEntries(1);
+        when(delegate.resolve("other.example.com")).thenReturn(new InetAddress[]{first});
+
+        resolver.resolve("example.com");
+        resolver.resolve("other.example.com");
+        resolver.resolve("other.example.com");
+        verify(delegate, times(2)).resolve("other.example.com");
+
+        // Expired hosts make room for new ones
+        clock.advance(60, TimeUnit.SECONDS);
+        resolver.resolve("other.example.com");
+        resolver.resolve("other.example.com");
+        verify(delegate, times(3)).resolve("other.example.com");
+    }
+
+    @Test
+    void refreshAheadMustBeShorterThanTheTtl() {
+        configuration.setRefreshAhead(Duration.seconds(60));
+        assertThat(configuration.isRefreshAheadValid()).isFalse();
+
+        configuration.setRefreshAhead(Duration.seconds(59));
+        assertThat(configuration.isRefreshAheadValid()).isTrue();
+    }
+
+    private static InetAddress address(int last) {
+        try {
+            return InetAddress.getByAddress(new byte[]{10, 0, 0, (byte) last});
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class FakeClock extends Clock {
+        private long tick;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+        void advance(long amount, TimeUnit unit) {
+            tick += unit.toNanos(amount);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetedHttpRequestRetryHandlerTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final RetryBudgetConfiguration configuration = new RetryBudgetConfiguration();
+
+    @Test
+    void retriesIdempotentRequestsWithinTheBudget() {
+        configuration.setRatio(0);
+        configuration.setMinRetriesPerSecond(1);
+        configuration.setTtl(Duration.seconds(1));
+        configuration.setBackoff(Duration.milliseconds(1));
+        final BudgetedHttpRequestRetryHandler handler = handler(new RetryBudget(configuration));
+
+        assertThat(handler.retryRequest(new IOException(), 1, context(new HttpGet("http://localhost/")))).isTrue();
+        assertThat(handler.retryRequest(new IOException(), 1, context(new HttpGet("http://localhost/")))).isFalse();
+        assertThat(metricRegistry.meter("test.retries").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter("test.rejected-retries").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotRetrySentNonIdempotentRequests() {
+        final BudgetedHttpRequestRetryHandler handler = handler(new RetryBudget(configuration));
+        final HttpClientContext context = context(new HttpPost("http://localhost/"));
+        context.setAttribute(HttpClientContext.HTTP_REQ_SENT, Boolean.TRUE);
+
+        assertThat(handler.retryRequest(new IOException(), 1, context)).isFalse();
+    }
+
+    @Test
+    void doesNotRetryMoreThanTheRetryCount() {
+        final BudgetedHttpRequestRetryHandler handler = handler(new RetryBudget(configuration));
+
+        assertThat(handler.retryRequest(new IOException(), 3, context(new HttpGet("http://localhost/")))).isFalse();
+    }
+
+    @Test
+    void backsOffExponentiallyWithJitter() {
+        configuration.setBackoff(Duration.milliseconds(10));
+        configuration.setMaxBackoff(Duration.milliseconds(25));
+        final BudgetedHttpRequestRetryHandler handler = handler(new RetryBudget(configuration));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(handler.backoff(1)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(10));
+            assertThat(handler.backoff(2)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(20));
+            assertThat(handler.backoff(3)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(25));
+            assertThat(handler.backoff(100)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(25));
+        }
+    }
+
+    private BudgetedHttpRequestRetryHandler handler(RetryBudget budget) {
+        return new BudgetedHttpRequestRetryHandler(2, budget, configuration.getBackoff(),
+            configuration.getMaxBackoff(), metricRegistry, "test");
+    }
+
+    private static HttpClientContext context(Object request) {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpClientContext.HTTP_REQUEST, request);
+        return context;
+    }
+}
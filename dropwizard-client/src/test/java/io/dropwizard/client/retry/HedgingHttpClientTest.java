@@ -0,0 +1,216 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.slf4j.MDC;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HedgingHttpClientTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final CloseableHttpClient delegate = mock(CloseableHttpClient.class);
+    private final CloseableHttpResponse slowResponse = mock(CloseableHttpResponse.class);
+    private final CloseableHttpResponse fastResponse = mock(CloseableHttpResponse.class);
+    private final CountDownLatch released = new CountDownLatch(1);
+    private final AtomicInteger executions = new AtomicInteger();
+    private final HedgingConfiguration configuration = new HedgingConfiguration();
+    @Nullable
+    private HedgingHttpClient client;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        released.countDown();
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void hedgesSlowIdempotentRequests() throws Exception {
+        firstExecutionIsSlow();
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, null, 10, metricRegistry, "test");
+
+        assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(fastResponse);
+
+        released.countDown();
+        verify(slowResponse, timeout(1000)).close();
+        assertThat(executions).hasValue(2);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.hedges").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.hedge-wins").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeFastRequests() throws Exception {
+        configuration.setMinDelay(Duration.seconds(5));
+        firstExecutionIsSlow();
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, null, 10, metricRegistry, "test");
+        released.countDown();
+
+        assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(slowResponse);
+        assertThat(executions).hasValue(1);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.hedges").getCount()).isZero();
+    }
+
+    @Test
+    void doesNotHedgeNonIdempotentRequests() throws Exception {
+        firstExecutionIsSlow();
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, null, 10, metricRegistry, "test");
+        released.countDown();
+
+        assertThat(client.execute(new HttpPost("http://localhost/"))).isSameAs(slowResponse);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void doesNotHedgeBeyondTheBudget() throws Exception {
+        final RetryBudgetConfiguration budgetConfiguration = new RetryBudgetConfiguration();
+        budgetConfiguration.setMinRetriesPerSecond(0);
+        budgetConfiguration.setRatio(0);
+        firstExecutionIsSlow();
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, new RetryBudget(budgetConfiguration),
+            10, metricRegistry, "test");
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+                // The test is over
+            }
+            released.countDown();
+        }).start();
+        assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(slowResponse);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void executesTheAttemptsWithTheMdcAndContextOfTheRequest() throws Exception {
+        final List<String> requestIds = new CopyOnWriteArrayList<>();
+        final List<Object> firstAttempts = new CopyOnWriteArrayList<>();
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                requestIds.add(String.valueOf(MDC.get("request-id")));
+                final HttpContext context = invocation.getArgument(2);
+                if (executions.incrementAndGet() == 1) {
+                    context.setAttribute("first-attempt", Boolean.TRUE);
+                    releaseOnAbort(invocation.getArgument(1));
+                    released.await(5, TimeUnit.SECONDS);
+                    return slowResponse;
+                }
+                firstAttempts.add(String.valueOf(context.getAttribute("first-attempt")));
+                return fastResponse;
+            });
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, null, 10, metricRegistry, "test");
+
+        MDC.put("request-id", "hedged");
+        try {
+            assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(fastResponse);
+        } finally {
+            MDC.remove("request-id");
+        }
+
+        assertThat(requestIds).containsExactly("hedged", "hedged");
+        assertThat(firstAttempts).containsExactly("true");
+    }
+
+    @Test
+    void executesTheFirstAttemptOnTheCallingThread() throws Exception {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                threads.add(Thread.currentThread());
+                return fastResponse;
+            });
+        configuration.setMinDelay(Duration.seconds(5));
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, null, 10, metricRegistry, "test");
+
+        assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(fastResponse);
+        assertThat(threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void doesNotHedgeWhileTheHedgingThreadsAreBusy() throws Exception {
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                executions.incrementAndGet();
+                released.await(5, TimeUnit.SECONDS);
+                return slowResponse;
+            });
+        final RetryBudget budget = mock(RetryBudget.class);
+        when(budget.tryWithdraw()).thenReturn(true);
+        final HedgingHttpClient client = this.client = new HedgingHttpClient(delegate, configuration, budget, 1, metricRegistry, "test");
+
+        // The first request and its second attempt occupy the only hedging thread
+        final CompletableFuture<CloseableHttpResponse> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.execute(new HttpGet("http://localhost/"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        verify(delegate, timeout(1000).times(2))
+            .execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any());
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+                // The test is over
+            }
+            released.countDown();
+        }).start();
+
+        assertThat(client.execute(new HttpGet("http://localhost/"))).isSameAs(slowResponse);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(slowResponse);
+        assertThat(executions).hasValue(3);
+        assertThat(metricRegistry.meter("org.apache.http.client.HttpClient.test.hedges").getCount()).isEqualTo(1);
+        verify(budget).tryWithdraw();
+    }
+
+    private void firstExecutionIsSlow() throws Exception {
+        when(delegate.execute(ArgumentMatchers.<HttpHost>any(), any(HttpRequest.class), ArgumentMatchers.<HttpContext>any()))
+            .thenAnswer(invocation -> {
+                if (executions.incrementAndGet() == 1) {
+                    releaseOnAbort(invocation.getArgument(1));
+                    released.await(5, TimeUnit.SECONDS);
+                    return slowResponse;
+                }
+                return fastResponse;
+            });
+    }
+
+    /**
+     * Makes an aborted attempt return, like a real client whose connection is shut down.
+     */
+    private void releaseOnAbort(HttpRequestBase attempt) {
+        attempt.setCancellable(() -> {
+            released.countDown();
+            return true;
+        });
+    }
+}
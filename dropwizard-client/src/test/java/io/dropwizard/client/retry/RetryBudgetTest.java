@@ -0,0 +1,87 @@
+package io.dropwizard.client.retry;
+
+import com.codahale.metrics.Clock;
+import io.dropwizard.util.Duration;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    void allowsTheMinimumRetriesWithoutRequests() {
+        final RetryBudget budget = new RetryBudget(0.1, 2, Duration.seconds(1), clock);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void allowsARatioOfTheRequests() {
+        final RetryBudget budget = new RetryBudget(0.5, 0, Duration.seconds(10), clock);
+        for (int i = 0; i < 4; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void forgetsRequestsAndRetriesAfterTheTtl() {
+        final RetryBudget budget = new RetryBudget(1, 0, Duration.seconds(2), clock);
+        budget.deposit();
+        clock.time += 1000;
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // The first request is forgotten
+        clock.time += 1000;
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // The second request and the retries are forgotten
+        clock.time += 1000;
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        clock.time += 5000;
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+    }
+
+    @Test
+    void depositsOncePerExecution() {
+        final RetryBudget budget = new RetryBudget(1, 0, Duration.seconds(10), clock);
+        final HttpContext context = new BasicHttpContext();
+        budget.process(new BasicHttpRequest("GET", "/"), context);
+        budget.process(new BasicHttpRequest("GET", "/"), context);
+        budget.process(new BasicHttpRequest("GET", "/"), new BasicHttpContext(context));
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    private static class FakeClock extends Clock {
+        private long time = 1_000_000;
+
+        @Override
+        public long getTick() {
+            return time * 1_000_000;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.dropwizard.client.warmup;
+
+import io.dropwizard.util.Duration;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolWarmerTest {
+    private final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+    private final WarmupConfiguration configuration = new WarmupConfiguration();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+    private final ServerSocket serverSocket = createServerSocket();
+
+    private static ServerSocket createServerSocket() {
+        try {
+            return new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        final Thread acceptor = new Thread(() -> {
+            try {
+                while (!serverSocket.isClosed()) {
+                    sockets.add(serverSocket.accept());
+                    accepted.incrementAndGet();
+                }
+            } catch (IOException ignored) {
+                // The server socket is closed
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        configuration.setHosts(Collections.singletonList(
+            URI.create("http://127.0.0.1:" + serverSocket.getLocalPort())));
+        configuration.setTimeout(Duration.seconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        manager.shutdown();
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void opensTheConfiguredConnectionsOnStart() {
+        configuration.setConnections(3);
+        manager.setDefaultMaxPerRoute(10);
+
+        new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1)).start();
+
+        assertThat(manager.getTotalStats().getAvailable()).isEqualTo(3);
+        assertThat(manager.getTotalStats().getLeased()).isZero();
+    }
+
+    @Test
+    void opensNoMoreConnectionsThanThePoolAllowsPerRoute() {
+        configuration.setConnections(3);
+        manager.setDefaultMaxPerRoute(2);
+
+        assertThat(new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1)).warmUp()).isEqualTo(2);
+        assertThat(manager.getTotalStats().getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void returnsTheOpenedConnectionsWhenInterrupted() throws Exception {
+        configuration.setConnections(2);
+        manager.setDefaultMaxPerRoute(2);
+        // The second connection waits for a free slot in the pool, so the first one is held until the interruption
+        manager.setMaxTotal(1);
+        final ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1));
+        final Thread thread = new Thread(warmer::warmUp);
+        thread.start();
+        while (manager.getTotalStats().getLeased() == 0 || accepted.get() == 0) {
+            Thread.sleep(10);
+        }
+
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(thread.isAlive()).isFalse();
+        // The workers return the connections once they are interrupted
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (manager.getTotalStats().getLeased() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(manager.getTotalStats().getLeased()).isZero();
+        assertThat(manager.getTotalStats().getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsUnreachableHosts() throws Exception {
+        final int port = serverSocket.getLocalPort();
+        serverSocket.close();
+        configuration.setHosts(Collections.singletonList(URI.create("http://127.0.0.1:" + port)));
+
+        assertThat(new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1)).warmUp()).isZero();
+        assertThat(manager.getTotalStats().getLeased()).isZero();
+        assertThat(manager.getTotalStats().getAvailable()).isZero();
+    }
+
+    @Test
+    void opensTheConnectionsAlongTheRoutesOfTheClient() {
+        configuration.setConnections(2);
+        configuration.setHosts(Collections.singletonList(URI.create("http://backend.invalid:8080")));
+        final HttpHost proxy = new HttpHost("127.0.0.1", serverSocket.getLocalPort());
+
+        assertThat(new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1),
+            new DefaultProxyRoutePlanner(proxy)).warmUp()).isEqualTo(2);
+        assertThat(manager.getStats(new HttpRoute(new HttpHost("backend.invalid", 8080), null, proxy, false))
+            .getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void skipsRoutesTunnelledThroughAProxy() {
+        configuration.setHosts(Collections.singletonList(URI.create("https://backend.invalid")));
+        final HttpHost proxy = new HttpHost("127.0.0.1", serverSocket.getLocalPort());
+
+        assertThat(new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1),
+            new DefaultProxyRoutePlanner(proxy)).warmUp()).isZero();
+        assertThat(accepted).hasValue(0);
+    }
+
+    @Test
+    void doesNothingWithoutHosts() {
+        configuration.setHosts(Collections.emptyList());
+
+        assertThat(new ConnectionPoolWarmer(manager, configuration, Duration.seconds(1)).warmUp()).isZero();
+        assertThat(accepted).hasValue(0);
+    }
+}
@@ -54,6 +54,8 @@ public abstract class EnvironmentCommand<T extends Configuration> extends Config
                                            configuration);
         configuration.getMetricsFactory().configure(environment.lifecycle(),
                                                     bootstrap.getMetricRegistry());
+        environment.jersey().getResourceConfig()
+                   .setTimerReservoirSupplier(configuration.getMetricsFactory().getResourceTimerReservoir()::build);
         configuration.getServerFactory().configure(environment);
         configuration.getHealthFactory().ifPresent(health -> health.configure(
                 environment.lifecycle(),
@@ -11,10 +11,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dropwizard.jersey.filter.AllowedMethodsFilter;
+import io.dropwizard.jersey.jackson.JacksonBinaryFormat;
 import io.dropwizard.jersey.jackson.JacksonFeature;
 import io.dropwizard.jersey.setup.JerseyEnvironment;
 import io.dropwizard.jersey.validation.HibernateValidationBinder;
 import io.dropwizard.jetty.GzipHandlerFactory;
+import io.dropwizard.jetty.InstrumentedVirtualThreadPool;
 import io.dropwizard.jetty.MutableServletContextHandler;
 import io.dropwizard.jetty.ServerPushFilterFactory;
 import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
@@ -50,6 +52,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
@@ -102,6 +105,16 @@ import java.util.stream.Collectors;
  *         <td>The amount of time a worker thread can be idle before being stopped.</td>
  *     </tr>
  *     <tr>
+ *         <td>{@code enableVirtualThreads}</td>
+ *         <td>false</td>
+ *         <td>
+ *             Whether to run each request on its own virtual thread instead of a thread taken from the pool.
+ *             {@code maxThreads} then only serves as the reference for the utilization metrics, and
+ *             {@code minThreads}, {@code maxQueuedRequests} and {@code idleThreadTimeout} are ignored.
+ *             <b>Requires Java 21 or later.</b>
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code nofileSoftLimit}</td>
  *         <td>(none)</td>
  *         <td>
@@ -205,6 +218,14 @@ import java.util.stream.Collectors;
  *         </td>
  *     </tr>
  *     <tr>
+ *         <td>{@code jacksonBinaryFormats}</td>
+ *         <td>(none)</td>
+ *         <td>
+ *           The binary formats ({@code SMILE}, {@code CBOR}, {@code MESSAGE_PACK}) which JSON resources also consume
+ *           and produce, negotiated by the {@code Content-Type} and {@code Accept} headers of requests.
+ *         </td>
+ *     </tr>
+ *     <tr>
  *         <td>{@code dumpAfterStart}</td>
  *         <td>true</td>
  *         <td>
@@ -249,6 +270,8 @@ public abstract class AbstractServerFactory implements ServerFactory {
     @MinDuration(1)
     private Duration idleThreadTimeout = Duration.minutes(1);
 
+    private boolean enableVirtualThreads = false;
+
     @Min(1)
     @Nullable
     private Integer nofileSoftLimit;
@@ -288,6 +311,9 @@ public abstract class AbstractServerFactory implements ServerFactory {
 
     private boolean enableThreadNameFilter = true;
 
+    @NotNull
+    private Set<JacksonBinaryFormat> jacksonBinaryFormats = Collections.emptySet();
+
     private boolean dumpAfterStart = false;
 
     private boolean dumpBeforeStop = false;
@@ -372,6 +398,22 @@ public abstract class AbstractServerFactory implements ServerFactory {
         this.idleThreadTimeout = idleThreadTimeout;
     }
 
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public boolean getEnableVirtualThreads() {
+        return enableVirtualThreads;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setEnableVirtualThreads(boolean enableVirtualThreads) {
+        this.enableVirtualThreads = enableVirtualThreads;
+    }
+
     @JsonProperty
     @Nullable
     public Integer getNofileSoftLimit() {
@@ -518,6 +560,22 @@ public abstract class AbstractServerFactory implements ServerFactory {
         this.enableThreadNameFilter = enableThreadNameFilter;
     }
 
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public Set<JacksonBinaryFormat> getJacksonBinaryFormats() {
+        return jacksonBinaryFormats;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setJacksonBinaryFormats(Set<JacksonBinaryFormat> jacksonBinaryFormats) {
+        this.jacksonBinaryFormats = jacksonBinaryFormats;
+    }
+
     /**
      * @since 2.0
      */
@@ -594,7 +652,7 @@ public abstract class AbstractServerFactory implements ServerFactory {
         serverPush.addFilter(handler);
         if (jerseyContainer != null) {
             jerseyRootPath.ifPresent(jersey::setUrlPattern);
-            jersey.register(new JacksonFeature(objectMapper));
+            jersey.register(new JacksonFeature(objectMapper, metricRegistry, jacksonBinaryFormats));
             jersey.register(new HibernateValidationBinder(validator));
             if (registerDefaultExceptionMappers == null || registerDefaultExceptionMappers) {
                 jersey.register(new ExceptionMapperBinder(detailedJsonProcessingExceptionMapper));
@@ -608,6 +666,9 @@ public abstract class AbstractServerFactory implements ServerFactory {
     }
 
     protected ThreadPool createThreadPool(MetricRegistry metricRegistry) {
+        if (enableVirtualThreads) {
+            return new InstrumentedVirtualThreadPool(metricRegistry, "dw", maxThreads);
+        }
         final BlockingQueue<Runnable> queue = new BlockingArrayQueue<>(minThreads, maxThreads, maxQueuedRequests);
         final InstrumentedQueuedThreadPool threadPool =
                 new InstrumentedQueuedThreadPool(metricRegistry, maxThreads, minThreads,
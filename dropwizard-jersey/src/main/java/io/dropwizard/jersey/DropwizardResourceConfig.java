@@ -1,7 +1,9 @@
 package io.dropwizard.jersey;
 
 import com.codahale.metrics.Clock;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
 import com.codahale.metrics.jersey2.InstrumentedResourceMethodApplicationListener;
 import com.fasterxml.classmate.ResolvedType;
 import com.fasterxml.classmate.TypeResolver;
@@ -38,6 +40,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -52,6 +55,7 @@ public class DropwizardResourceConfig extends ResourceConfig {
 
     private String urlPattern = "/*";
     private String contextPath = "/";
+    private Supplier<Reservoir> timerReservoirSupplier = ExponentiallyDecayingReservoir::new;
     private final ComponentLoggingListener loggingListener = new ComponentLoggingListener(this);
 
     public DropwizardResourceConfig() {
@@ -69,7 +73,8 @@ public class DropwizardResourceConfig extends ResourceConfig {
         register(loggingListener);
 
         register(new MetricRegistryBinder(metricRegistry));
-        register(new InstrumentedResourceMethodApplicationListener(metricRegistry, Clock.defaultClock(), true));
+        register(new InstrumentedResourceMethodApplicationListener(metricRegistry, Clock.defaultClock(), true,
+            () -> timerReservoirSupplier.get()));
         register(CacheControlledResponseFeature.class);
         register(io.dropwizard.jersey.guava.OptionalMessageBodyWriter.class);
         register(new io.dropwizard.jersey.guava.OptionalParamBinder());
@@ -105,6 +110,24 @@ public class DropwizardResourceConfig extends ResourceConfig {
         return config;
     }
 
+    /**
+     * @since 2.1
+     */
+    public Supplier<Reservoir> getTimerReservoirSupplier() {
+        return timerReservoirSupplier;
+    }
+
+    /**
+     * Sets the supplier of the {@link Reservoir reservoirs} backing the timers of resource methods. The timers are
+     * created when Jersey initializes the application, so the supplier has to be set before that.
+     *
+     * @param timerReservoirSupplier the supplier of a new reservoir for every timer
+     * @since 2.1
+     */
+    public void setTimerReservoirSupplier(Supplier<Reservoir> timerReservoirSupplier) {
+        this.timerReservoirSupplier = timerReservoirSupplier;
+    }
+
     public String getUrlPattern() {
         return urlPattern;
     }
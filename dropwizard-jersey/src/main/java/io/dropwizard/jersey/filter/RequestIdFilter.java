@@ -2,31 +2,55 @@ package io.dropwizard.jersey.filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 
+import javax.annotation.Nullable;
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
 import javax.ws.rs.ext.Provider;
 import java.io.IOException;
-import java.util.Optional;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class adds a "X-Request-Id" HTTP response header and logs the following
  * information: request method, request path, request ID, response status,
  * response length (or -1 if not known).
+ * <p/>
+ * The request ID is taken from the "X-Request-Id" request header, or generated
+ * if there is none, as soon as the request arrives. To also make it available in
+ * the SLF4J {@link MDC} under {@link #REQUEST_ID_MDC_KEY} while the request is being
+ * processed, register a {@link RequestIdMdcFilter} in front of Jersey, whose ID this
+ * filter then reuses.
  *
  * @see <a href="https://devcenter.heroku.com/articles/http-request-id">Heroku - HTTP Request IDs</a>
  */
 @Provider
+@PreMatching
 @Priority(Priorities.USER)
-public class RequestIdFilter implements ContainerResponseFilter {
+public class RequestIdFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
-    private static final String REQUEST_ID = "X-Request-Id";
+    /**
+     * The name of the HTTP header which carries the request ID.
+     *
+     * @since 2.1
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * The key under which the ID of the current request is stored in the SLF4J {@link MDC}.
+     *
+     * @since 2.1
+     */
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    static final String REQUEST_ID_PROPERTY = RequestIdFilter.class.getName() + ".requestId";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
     private Logger logger = LoggerFactory.getLogger(RequestIdFilter.class);
 
@@ -34,28 +58,50 @@ public class RequestIdFilter implements ContainerResponseFilter {
         this.logger = logger;
     }
 
+    @Override
+    public void filter(final ContainerRequestContext request) throws IOException {
+        if (!(request.getProperty(REQUEST_ID_PROPERTY) instanceof String)) {
+            request.setProperty(REQUEST_ID_PROPERTY, resolveRequestId(request.getHeaderString(REQUEST_ID_HEADER)));
+        }
+    }
+
     @Override
     public void filter(final ContainerRequestContext request,
             final ContainerResponseContext response) throws IOException {
 
-        String id = Optional.ofNullable(request.getHeaderString(REQUEST_ID))
-            .filter(header -> !header.isEmpty())
-            .orElseGet(() -> generateRandomUuid().toString());
+        final Object property = request.getProperty(REQUEST_ID_PROPERTY);
+        final String id = property instanceof String
+                ? (String) property
+                : resolveRequestId(request.getHeaderString(REQUEST_ID_HEADER));
+
+        if (logger.isTraceEnabled()) {
+            logger.trace("method={} path={} request_id={} status={} length={}",
+                    request.getMethod(), request.getUriInfo().getPath(), id,
+                    response.getStatus(), response.getLength());
+        }
+        response.getHeaders().putSingle(REQUEST_ID_HEADER, id);
+    }
 
-        logger.trace("method={} path={} request_id={} status={} length={}",
-                request.getMethod(), request.getUriInfo().getPath(), id,
-                response.getStatus(), response.getLength());
-        response.getHeaders().putSingle(REQUEST_ID, id);
+    /**
+     * Returns the request ID carried by the given header value, or a new one if there is none.
+     */
+    static String resolveRequestId(@Nullable String id) {
+        if (id == null || id.isEmpty()) {
+            return generateRandomUuid();
+        }
+        return id;
     }
 
     /**
-     * Generate a random UUID v4 that will perform reasonably when used by
-     * multiple threads under load.
+     * Generate the string representation of a random UUID v4 that will perform
+     * reasonably when used by multiple threads under load. The digits are
+     * written into a single buffer, so that neither a {@link java.util.UUID}
+     * nor intermediate strings are allocated.
      *
      * @see <a href="https://github.com/Netflix/netflix-commons/blob/v0.3.0/netflix-commons-util/src/main/java/com/netflix/util/concurrent/ConcurrentUUIDFactory.java">ConcurrentUUIDFactory</a>
      * @return random UUID
      */
-    private static UUID generateRandomUuid() {
+    static String generateRandomUuid() {
         final Random rnd = ThreadLocalRandom.current();
         long mostSig  = rnd.nextLong();
         long leastSig = rnd.nextLong();
@@ -69,6 +115,27 @@ public class RequestIdFilter implements ContainerResponseFilter {
         leastSig &= 0x3fffffffffffffffL;
         leastSig |= 0x8000000000000000L;
 
-        return new UUID(mostSig, leastSig);
+        final char[] buffer = new char[36];
+        formatHex(buffer, 0, mostSig >>> 32, 8);
+        buffer[8] = '-';
+        formatHex(buffer, 9, mostSig >>> 16, 4);
+        buffer[13] = '-';
+        formatHex(buffer, 14, mostSig, 4);
+        buffer[18] = '-';
+        formatHex(buffer, 19, leastSig >>> 48, 4);
+        buffer[23] = '-';
+        formatHex(buffer, 24, leastSig, 12);
+        return new String(buffer);
+    }
+
+    /**
+     * Writes the given number of lowest hexadecimal digits of a value into the
+     * buffer, starting at the given offset.
+     */
+    private static void formatHex(char[] buffer, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX_DIGITS[(int) (value & 0xf)];
+            value >>>= 4;
+        }
     }
 }
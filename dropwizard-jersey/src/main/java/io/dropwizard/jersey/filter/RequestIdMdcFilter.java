@@ -0,0 +1,61 @@
+package io.dropwizard.jersey.filter;
+
+import org.slf4j.MDC;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * A servlet filter which puts the ID of the request being dispatched into the SLF4J {@link MDC} under
+ * {@link RequestIdFilter#REQUEST_ID_MDC_KEY}, so that it can be included in log messages, and clients built by
+ * {@code io.dropwizard.client.HttpClientBuilder} with {@code propagateRequestId} enabled forward it to other
+ * services.
+ * <p/>
+ * The ID is taken from the "X-Request-Id" request header, or generated if there is none, and is shared with the
+ * {@link RequestIdFilter}, which adds it to the response. It's removed from the MDC as soon as the request leaves
+ * the filter chain, even if processing failed or the request was suspended, so that it never outlives the request
+ * on a pooled thread.
+ *
+ * @since 2.1
+ */
+public class RequestIdMdcFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException { /* unused */ }
+
+    @Override
+    public void destroy() { /* unused */ }
+
+    @Override
+    public void doFilter(ServletRequest request,
+                         ServletResponse response,
+                         FilterChain chain) throws IOException, ServletException {
+        final Object attribute = request.getAttribute(RequestIdFilter.REQUEST_ID_PROPERTY);
+        final String id;
+        if (attribute instanceof String) {
+            id = (String) attribute;
+        } else {
+            id = RequestIdFilter.resolveRequestId(
+                ((HttpServletRequest) request).getHeader(RequestIdFilter.REQUEST_ID_HEADER));
+            request.setAttribute(RequestIdFilter.REQUEST_ID_PROPERTY, id);
+        }
+
+        final String previousId = MDC.get(RequestIdFilter.REQUEST_ID_MDC_KEY);
+        MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, id);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (previousId == null) {
+                MDC.remove(RequestIdFilter.REQUEST_ID_MDC_KEY);
+            } else {
+                MDC.put(RequestIdFilter.REQUEST_ID_MDC_KEY, previousId);
+            }
+        }
+    }
+}
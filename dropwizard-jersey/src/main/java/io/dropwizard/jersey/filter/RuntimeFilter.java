@@ -9,7 +9,6 @@ import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.container.PreMatching;
 import javax.ws.rs.ext.Provider;
 import java.io.IOException;
-import java.util.Locale;
 import java.util.function.Supplier;
 
 /**
@@ -23,7 +22,8 @@ import java.util.function.Supplier;
 @PreMatching
 public class RuntimeFilter implements ContainerRequestFilter, ContainerResponseFilter {
 
-    private static final float NANOS_IN_SECOND = Duration.seconds(1).toNanoseconds();
+    private static final long NANOS_IN_MICROSECOND = Duration.microseconds(1).toNanoseconds();
+    private static final long MICROS_IN_SECOND = Duration.seconds(1).toMicroseconds();
     private static final String RUNTIME_HEADER = "X-Runtime";
     private static final String RUNTIME_PROPERTY = "io.dropwizard.jersey.filter.runtime";
 
@@ -44,8 +44,41 @@ public class RuntimeFilter implements ContainerRequestFilter, ContainerResponseF
 
         final Long startTime = (Long) request.getProperty(RUNTIME_PROPERTY);
         if (startTime != null) {
-            final float seconds = (currentTimeProvider.get() - startTime) / NANOS_IN_SECOND;
-            response.getHeaders().putSingle(RUNTIME_HEADER, String.format(Locale.ROOT, "%.6f", seconds));
+            final long elapsedNanos = currentTimeProvider.get() - startTime;
+            response.getHeaders().putSingle(RUNTIME_HEADER, formatSeconds(elapsedNanos));
         }
     }
+
+    /**
+     * Formats a duration as seconds with six decimal places, equivalent to
+     * {@code String.format(Locale.ROOT, "%.6f", seconds)} but without parsing
+     * a format string or going through floating point numbers. The digits are
+     * written into a single buffer, which is only copied into the resulting
+     * string.
+     */
+    static String formatSeconds(long nanos) {
+        final boolean negative = nanos < 0;
+        final long absoluteNanos = Math.abs(nanos);
+        long micros = absoluteNanos / NANOS_IN_MICROSECOND
+            + (absoluteNanos % NANOS_IN_MICROSECOND >= NANOS_IN_MICROSECOND / 2 ? 1 : 0);
+        long seconds = micros / MICROS_IN_SECOND;
+        micros %= MICROS_IN_SECOND;
+
+        // a sign, up to 13 digits of seconds, a decimal point and 6 decimal places
+        final char[] buffer = new char[21];
+        int position = buffer.length;
+        for (int i = 0; i < 6; i++) {
+            buffer[--position] = (char) ('0' + micros % 10);
+            micros /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + seconds % 10);
+            seconds /= 10;
+        } while (seconds > 0);
+        if (negative) {
+            buffer[--position] = '-';
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
 }
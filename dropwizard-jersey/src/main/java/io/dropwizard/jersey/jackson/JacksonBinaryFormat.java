@@ -0,0 +1,74 @@
+package io.dropwizard.jersey.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Binary data formats which Jackson can read and write with the same object mapping as JSON, and which are more
+ * compact and faster to parse than JSON.
+ *
+ * @see JacksonFeature
+ * @since 2.1
+ */
+public enum JacksonBinaryFormat {
+    /**
+     * <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>, a binary equivalent of JSON.
+     */
+    SMILE(new MediaType("application", "x-jackson-smile")) {
+        @Override
+        public JsonFactory createFactory() {
+            return new SmileFactory();
+        }
+    },
+
+    /**
+     * <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a>, the Concise Binary Object Representation.
+     */
+    CBOR(new MediaType("application", "cbor")) {
+        @Override
+        public JsonFactory createFactory() {
+            return new CBORFactory();
+        }
+    },
+
+    /**
+     * <a href="https://msgpack.org/">MessagePack</a>, which requires {@code org.msgpack:jackson-dataformat-msgpack}
+     * on the classpath.
+     */
+    MESSAGE_PACK(new MediaType("application", "x-msgpack")) {
+        @Override
+        public JsonFactory createFactory() {
+            try {
+                return (JsonFactory) Class.forName("org.msgpack.jackson.dataformat.MessagePackFactory")
+                    .getConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                throw new IllegalStateException(
+                    "MessagePack requires org.msgpack:jackson-dataformat-msgpack on the classpath", e);
+            }
+        }
+    };
+
+    private final MediaType mediaType;
+
+    JacksonBinaryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Returns the media type which identifies the format in {@code Content-Type} and {@code Accept} headers.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Creates a new factory for the parsers and generators of the format.
+     *
+     * @throws IllegalStateException if the format is not available
+     */
+    public abstract JsonFactory createFactory();
+}
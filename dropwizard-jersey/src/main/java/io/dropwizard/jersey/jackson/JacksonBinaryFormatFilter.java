@@ -0,0 +1,155 @@
+package io.dropwizard.jersey.jackson;
+
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+
+import javax.annotation.Nullable;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Negotiates {@link JacksonBinaryFormat binary formats} for resources which consume and produce JSON, so that
+ * clients can use them without any change to the resources.
+ * <p/>
+ * Request entities in one of the formats are matched to resources as if they were JSON, and then read by the
+ * provider of the format, unless a resource method consumes the format itself, in which case requests in that
+ * format are matched as they are. JSON response entities are written in one of the formats instead, if the client
+ * prefers it to JSON according to its {@code Accept} header, and vary by {@code Accept} either way. As the resources
+ * still have to produce JSON to be matched, clients should accept JSON as well, with a lower quality, e.g.
+ * {@code Accept: application/x-jackson-smile, application/json;q=0.9}.
+ */
+@PreMatching
+@Priority(Priorities.HEADER_DECORATOR)
+class JacksonBinaryFormatFilter implements ContainerRequestFilter, ReaderInterceptor, ContainerResponseFilter {
+    private static final String FORMAT_PROPERTY = JacksonBinaryFormatFilter.class.getName() + ".format";
+
+    private final Collection<JacksonBinaryFormat> formats;
+
+    @Context
+    @Nullable
+    private ExtendedResourceContext resourceContext;
+
+    // the formats consumed by resource methods, which is only known once the application has been initialized
+    @Nullable
+    private volatile Set<JacksonBinaryFormat> consumedFormats;
+
+    JacksonBinaryFormatFilter(Collection<JacksonBinaryFormat> formats) {
+        this.formats = formats;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        final JacksonBinaryFormat format = findFormat(request.getMediaType());
+        if (format != null && !getConsumedFormats().contains(format)) {
+            request.setProperty(FORMAT_PROPERTY, format);
+            request.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        final Object format = context.getProperty(FORMAT_PROPERTY);
+        if (format instanceof JacksonBinaryFormat) {
+            context.setMediaType(((JacksonBinaryFormat) format).getMediaType());
+        }
+        return context.proceed();
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        final MediaType mediaType = response.getMediaType();
+        if (!response.hasEntity() || mediaType == null || !isJson(mediaType)) {
+            return;
+        }
+        addVaryAccept(response);
+        for (MediaType acceptable : request.getAcceptableMediaTypes()) {
+            final JacksonBinaryFormat format = findFormat(acceptable);
+            if (format != null) {
+                response.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, format.getMediaType());
+                return;
+            }
+            if (acceptable.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                // the client prefers JSON
+                return;
+            }
+        }
+    }
+
+    private static void addVaryAccept(ContainerResponseContext response) {
+        final List<String> vary = response.getStringHeaders().get(HttpHeaders.VARY);
+        if (vary != null) {
+            for (String value : vary) {
+                for (String header : value.split(",", -1)) {
+                    final String name = header.trim();
+                    if (name.equalsIgnoreCase(HttpHeaders.ACCEPT) || "*".equals(name)) {
+                        return;
+                    }
+                }
+            }
+        }
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    private Set<JacksonBinaryFormat> getConsumedFormats() {
+        Set<JacksonBinaryFormat> consumed = consumedFormats;
+        if (consumed == null) {
+            consumed = EnumSet.noneOf(JacksonBinaryFormat.class);
+            final ExtendedResourceContext context = resourceContext;
+            if (context != null) {
+                for (Resource resource : context.getResourceModel().getRootResources()) {
+                    addConsumedFormats(resource, consumed);
+                }
+            }
+            consumedFormats = consumed;
+        }
+        return consumed;
+    }
+
+    private void addConsumedFormats(Resource resource, Set<JacksonBinaryFormat> consumed) {
+        for (ResourceMethod method : resource.getAllMethods()) {
+            for (MediaType mediaType : method.getConsumedTypes()) {
+                final JacksonBinaryFormat format = findFormat(mediaType);
+                if (format != null) {
+                    consumed.add(format);
+                }
+            }
+        }
+        for (Resource child : resource.getChildResources()) {
+            addConsumedFormats(child, consumed);
+        }
+    }
+
+    @Nullable
+    private JacksonBinaryFormat findFormat(@Nullable MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return null;
+        }
+        for (JacksonBinaryFormat format : formats) {
+            if (format.getMediaType().getType().equalsIgnoreCase(mediaType.getType())
+                && format.getMediaType().getSubtype().equalsIgnoreCase(mediaType.getSubtype())) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return "application".equalsIgnoreCase(mediaType.getType()) && "json".equalsIgnoreCase(mediaType.getSubtype());
+    }
+}
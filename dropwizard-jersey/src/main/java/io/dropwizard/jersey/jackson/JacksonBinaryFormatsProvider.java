@@ -0,0 +1,83 @@
+package io.dropwizard.jersey.jackson;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes entities in several {@link JacksonBinaryFormat binary formats}, by delegating to the
+ * {@link JacksonBinaryMessageBodyProvider} of the format of each entity. Jersey only registers a single instance of
+ * each provider class, so the providers of the formats can't be registered on their own.
+ */
+class JacksonBinaryFormatsProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+    private final List<JacksonBinaryMessageBodyProvider> providers;
+
+    JacksonBinaryFormatsProvider(List<JacksonBinaryMessageBodyProvider> providers) {
+        this.providers = providers;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type,
+                              @Nullable Type genericType,
+                              @Nullable Annotation[] annotations,
+                              @Nullable MediaType mediaType) {
+        final JacksonBinaryMessageBodyProvider provider = findProvider(mediaType);
+        return provider != null && provider.isReadable(type, genericType, annotations, mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type,
+                           Type genericType,
+                           Annotation[] annotations,
+                           MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders,
+                           InputStream entityStream) throws IOException {
+        return getProvider(mediaType).readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type,
+                               @Nullable Type genericType,
+                               @Nullable Annotation[] annotations,
+                               @Nullable MediaType mediaType) {
+        final JacksonBinaryMessageBodyProvider provider = findProvider(mediaType);
+        return provider != null && provider.isWriteable(type, genericType, annotations, mediaType);
+    }
+
+    @Override
+    public void writeTo(Object value,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        getProvider(mediaType).writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+    }
+
+    @Nullable
+    private JacksonBinaryMessageBodyProvider findProvider(@Nullable MediaType mediaType) {
+        for (JacksonBinaryMessageBodyProvider provider : providers) {
+            if (provider.hasMatchingMediaType(mediaType)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    private JacksonBinaryMessageBodyProvider getProvider(MediaType mediaType) {
+        final JacksonBinaryMessageBodyProvider provider = findProvider(mediaType);
+        if (provider == null) {
+            throw new IllegalStateException("No binary format matches " + mediaType);
+        }
+        return provider;
+    }
+}
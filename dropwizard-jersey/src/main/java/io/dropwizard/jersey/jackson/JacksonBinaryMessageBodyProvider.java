@@ -0,0 +1,66 @@
+package io.dropwizard.jersey.jackson;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.jaxrs.json.JsonEndpointConfig;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.core.MediaType;
+import java.lang.annotation.Annotation;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link JacksonMessageBodyProvider} which reads and writes entities in a {@link JacksonBinaryFormat} instead of
+ * JSON. Entities are mapped by the same {@link ObjectMapper}, including its modules and configuration, as JSON
+ * entities, only the parsers and generators differ.
+ *
+ * @since 2.1
+ */
+public class JacksonBinaryMessageBodyProvider extends JacksonMessageBodyProvider {
+    private final JacksonBinaryFormat format;
+    private final JsonFactory factory;
+
+    public JacksonBinaryMessageBodyProvider(ObjectMapper mapper, JacksonBinaryFormat format) {
+        this(mapper, format, null);
+    }
+
+    /**
+     * @param mapper         the object mapper to read and write entities with
+     * @param format         the binary format of the entities
+     * @param metricRegistry the registry to report the hits and misses of the reader and writer caches to, if any,
+     *                       prefixed with the name of this class and the subtype of the media type of the format
+     */
+    public JacksonBinaryMessageBodyProvider(ObjectMapper mapper,
+                                            JacksonBinaryFormat format,
+                                            @Nullable MetricRegistry metricRegistry) {
+        super(mapper, metricRegistry, name(JacksonBinaryMessageBodyProvider.class, format.getMediaType().getSubtype()));
+        this.format = format;
+        this.factory = format.createFactory();
+        this.factory.setCodec(mapper);
+    }
+
+    public JacksonBinaryFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    protected boolean hasMatchingMediaType(@Nullable MediaType mediaType) {
+        return mediaType != null
+            && format.getMediaType().getType().equalsIgnoreCase(mediaType.getType())
+            && format.getMediaType().getSubtype().equalsIgnoreCase(mediaType.getSubtype());
+    }
+
+    @Override
+    protected JsonEndpointConfig _configForReading(ObjectReader reader, Annotation[] annotations) {
+        return super._configForReading(reader.with(factory), annotations);
+    }
+
+    @Override
+    protected JsonEndpointConfig _configForWriting(ObjectWriter writer, Annotation[] annotations) {
+        return super._configForWriting(writer.with(factory), annotations);
+    }
+}
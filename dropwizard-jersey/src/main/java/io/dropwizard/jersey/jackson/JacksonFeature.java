@@ -1,27 +1,77 @@
 package io.dropwizard.jersey.jackson;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import javax.annotation.Nullable;
+import javax.ws.rs.RuntimeType;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 
 /**
  * A binder that registers the Jackson JSON provider while allowing users to override.
+ * <p/>
+ * Optionally, it also registers providers for {@link JacksonBinaryFormat binary formats}, which use the same
+ * {@link ObjectMapper} as JSON. On the server side, the binary formats are negotiated for resources which consume
+ * and produce JSON, based on the {@code Content-Type} and {@code Accept} headers of requests.
  *
  * @since 2.0
  */
 public class JacksonFeature implements Feature {
     private final ObjectMapper mapper;
+    @Nullable
+    private final MetricRegistry metricRegistry;
+    private final Collection<JacksonBinaryFormat> binaryFormats;
 
     public JacksonFeature(ObjectMapper mapper) {
+        this(mapper, null);
+    }
+
+    /**
+     * @param mapper         the object mapper to read and write entities with
+     * @param metricRegistry the registry to report the metrics of the {@link JacksonMessageBodyProvider} to, if any
+     * @since 2.1
+     */
+    public JacksonFeature(ObjectMapper mapper, @Nullable MetricRegistry metricRegistry) {
+        this(mapper, metricRegistry, Collections.emptySet());
+    }
+
+    /**
+     * @param mapper         the object mapper to read and write entities with
+     * @param metricRegistry the registry to report the metrics of the {@link JacksonMessageBodyProvider} to, if any
+     * @param binaryFormats  the binary formats to support in addition to JSON
+     * @since 2.1
+     */
+    public JacksonFeature(ObjectMapper mapper,
+                          @Nullable MetricRegistry metricRegistry,
+                          Collection<JacksonBinaryFormat> binaryFormats) {
         this.mapper = mapper;
+        this.metricRegistry = metricRegistry;
+        this.binaryFormats = binaryFormats.isEmpty() ? Collections.emptySet() : EnumSet.copyOf(binaryFormats);
     }
 
     @Override
     public boolean configure(FeatureContext context) {
-        context.register(new JacksonMessageBodyProvider(mapper), MessageBodyReader.class, MessageBodyWriter.class);
+        context.register(new JacksonMessageBodyProvider(mapper, metricRegistry), MessageBodyReader.class, MessageBodyWriter.class);
+        if (binaryFormats.isEmpty()) {
+            return true;
+        }
+
+        final List<JacksonBinaryMessageBodyProvider> providers = new ArrayList<>();
+        for (JacksonBinaryFormat format : binaryFormats) {
+            providers.add(new JacksonBinaryMessageBodyProvider(mapper, format, metricRegistry));
+        }
+        context.register(new JacksonBinaryFormatsProvider(providers), MessageBodyReader.class, MessageBodyWriter.class);
+        if (context.getConfiguration().getRuntimeType() == RuntimeType.SERVER) {
+            context.register(new JacksonBinaryFormatFilter(binaryFormats));
+        }
         return true;
     }
 }
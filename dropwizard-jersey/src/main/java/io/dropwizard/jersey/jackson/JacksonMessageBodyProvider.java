@@ -1,34 +1,127 @@
 package io.dropwizard.jersey.jackson;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
 import com.fasterxml.jackson.annotation.JsonIgnoreType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.jaxrs.cfg.JaxRSFeature;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectReaderInjector;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterInjector;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterModifier;
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.fasterxml.jackson.jaxrs.json.JsonEndpointConfig;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 /**
  * A Jersey provider which enables using Jackson to parse request entities into objects and generate
  * response entities from objects.
  * <p/>
  * (Essentially, extends {@link JacksonJaxbJsonProvider} with support for {@link JsonIgnoreType}.)
+ * <p/>
+ * Response entities which are a {@link Stream}, an {@link Iterator} or a {@link JsonStreamingOutput} are
+ * written element by element instead of as a whole, so that large responses don't have to be held in memory.
+ * Streams and iterators are written as JSON arrays and the output is flushed periodically while they are
+ * consumed. Once written, streams are closed, as are iterators which implement {@link AutoCloseable}, which
+ * releases the resources backing them, e.g. a database cursor.
+ * <p/>
+ * Whether a type can be read or written, and the {@link ObjectReader} and {@link ObjectWriter} bound to the
+ * type, generic type and Jackson annotations (such as {@link com.fasterxml.jackson.annotation.JsonView}) of an
+ * entity are resolved once and cached, rather than on every request. If a {@link MetricRegistry} is given, the
+ * hits and misses of the reader and writer caches are reported as counters, prefixed with the name of this class
+ * by default.
  */
 public class JacksonMessageBodyProvider extends JacksonJaxbJsonProvider {
+    // the maximum number of readers and writers cached, each, beyond which they are resolved on every request
+    private static final int MAX_CACHED_ENDPOINTS = 1000;
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
     private final ObjectMapper mapper;
+    private final ConcurrentMap<Class<?>, Boolean> readableTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Boolean> writeableTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EndpointKey, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EndpointKey, CachedWriter> writers = new ConcurrentHashMap<>();
+    private final Counter readerHits;
+    private final Counter readerMisses;
+    private final Counter writerHits;
+    private final Counter writerMisses;
+    private int streamingFlushInterval = 100;
 
     public JacksonMessageBodyProvider(ObjectMapper mapper) {
+        this(mapper, null);
+    }
+
+    /**
+     * @param mapper         the object mapper to read and write entities with
+     * @param metricRegistry the registry to report the hits and misses of the reader and writer caches to, if any
+     * @since 2.1
+     */
+    public JacksonMessageBodyProvider(ObjectMapper mapper, @Nullable MetricRegistry metricRegistry) {
+        this(mapper, metricRegistry, JacksonMessageBodyProvider.class.getName());
+    }
+
+    /**
+     * @param mapper         the object mapper to read and write entities with
+     * @param metricRegistry the registry to report the hits and misses of the reader and writer caches to, if any
+     * @param metricPrefix   the prefix of the names of the metrics
+     * @since 2.1
+     */
+    protected JacksonMessageBodyProvider(ObjectMapper mapper,
+                                         @Nullable MetricRegistry metricRegistry,
+                                         String metricPrefix) {
         this.mapper = mapper;
+        this.readerHits = counter(metricRegistry, metricPrefix, "readers", "hits");
+        this.readerMisses = counter(metricRegistry, metricPrefix, "readers", "misses");
+        this.writerHits = counter(metricRegistry, metricPrefix, "writers", "hits");
+        this.writerMisses = counter(metricRegistry, metricPrefix, "writers", "misses");
         setMapper(mapper);
     }
 
+    private static Counter counter(@Nullable MetricRegistry metricRegistry, String prefix, String... names) {
+        return metricRegistry == null ? new Counter() : metricRegistry.counter(name(prefix, names));
+    }
+
     @Override
     public boolean isReadable(Class<?> type,
                               @Nullable Type genericType,
                               @Nullable Annotation[] annotations,
                               @Nullable MediaType mediaType) {
-        return isProvidable(type) && super.isReadable(type, genericType, annotations, mediaType);
+        if (!hasMatchingMediaType(mediaType)) {
+            return false;
+        }
+        final Boolean readable = readableTypes.get(type);
+        if (readable != null) {
+            return readable;
+        }
+        final boolean result = isProvidable(type) && super.isReadable(type, genericType, annotations, mediaType);
+        readableTypes.put(type, result);
+        return result;
     }
 
     @Override
@@ -36,7 +129,289 @@ public class JacksonMessageBodyProvider extends JacksonJaxbJsonProvider {
                                @Nullable Type genericType,
                                @Nullable Annotation[] annotations,
                                @Nullable MediaType mediaType) {
-        return isProvidable(type) && super.isWriteable(type, genericType, annotations, mediaType);
+        if (!hasMatchingMediaType(mediaType)) {
+            return false;
+        }
+        final Boolean writeable = writeableTypes.get(type);
+        if (writeable != null) {
+            return writeable;
+        }
+        final boolean result = isProvidable(type) && super.isWriteable(type, genericType, annotations, mediaType);
+        writeableTypes.put(type, result);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("NullAway") // returns null for empty entities if JaxRSFeature.ALLOW_EMPTY_INPUT is enabled
+    public Object readFrom(Class<Object> type,
+                           Type genericType,
+                           Annotation[] annotations,
+                           MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders,
+                           InputStream entityStream) throws IOException {
+        final Class<?> rawType = type;
+        if (rawType == JsonParser.class || ObjectReaderInjector.get() != null
+            || !isEnabled(JaxRSFeature.CACHE_ENDPOINT_READERS)) {
+            return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+        }
+
+        final ObjectReader reader = readerFor(type, genericType, annotations, mediaType, httpHeaders);
+        final JsonParser parser = _createParser(reader, entityStream);
+        if (parser == null || parser.nextToken() == null) {
+            if (isEnabled(JaxRSFeature.ALLOW_EMPTY_INPUT)) {
+                return null;
+            }
+            throw _createNoContentException();
+        }
+        if (isMappingIterator(type)) {
+            return reader.readValues(parser);
+        }
+        return reader.readValue(parser);
+    }
+
+    @Override
+    public void writeTo(Object value,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        if (value instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) value) {
+                writeElements(stream.iterator(), value, type, genericType, annotations, mediaType, httpHeaders,
+                    entityStream);
+            }
+        } else if (value instanceof Iterator) {
+            try {
+                writeElements((Iterator<?>) value, value, type, genericType, annotations, mediaType, httpHeaders,
+                    entityStream);
+            } finally {
+                if (value instanceof AutoCloseable) {
+                    close((AutoCloseable) value);
+                }
+            }
+        } else if (value instanceof JsonStreamingOutput) {
+            final JsonEndpointConfig endpoint = endpointForWriting(value, type, genericType, annotations, mediaType,
+                httpHeaders);
+            try (JsonGenerator generator = createGenerator(endpoint, endpoint.getWriter(), value, type, genericType,
+                annotations, mediaType, httpHeaders, entityStream)) {
+                // the entity writes its output itself, so only the changes of a modifier to the generator apply
+                modifyWriter(endpoint, endpoint.getWriter(), value, httpHeaders, generator);
+                ((JsonStreamingOutput) value).write(generator);
+            }
+        } else if (value == null || ObjectWriterInjector.get() != null
+            || !isEnabled(JaxRSFeature.CACHE_ENDPOINT_WRITERS)) {
+            super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+        } else {
+            final CachedWriter cached = writerFor(value, type, genericType, annotations, mediaType, httpHeaders);
+            _modifyHeaders(value, type, genericType, annotations, httpHeaders, cached.endpoint);
+            final JsonGenerator generator = _createGenerator(cached.writer, entityStream,
+                findEncoding(mediaType, httpHeaders));
+            boolean ok = false;
+            try {
+                if (cached.writer.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+                    generator.useDefaultPrettyPrinter();
+                }
+                cached.writer.writeValue(generator, cached.endpoint.modifyBeforeWrite(value));
+                ok = true;
+            } finally {
+                if (ok) {
+                    generator.close();
+                } else {
+                    try {
+                        generator.close();
+                    } catch (IOException ignored) {
+                        // the original exception is more relevant
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeElements(Iterator<?> elements,
+                               Object value,
+                               Class<?> type,
+                               Type genericType,
+                               Annotation[] annotations,
+                               MediaType mediaType,
+                               MultivaluedMap<String, Object> httpHeaders,
+                               OutputStream entityStream) throws IOException {
+        final JsonEndpointConfig endpoint = endpointForWriting(value, type, genericType, annotations, mediaType,
+            httpHeaders);
+        try (JsonGenerator generator = createGenerator(endpoint, endpoint.getWriter(), value, type, genericType,
+            annotations, mediaType, httpHeaders, entityStream)) {
+            final ObjectWriter writer = modifyWriter(endpoint, endpoint.getWriter(), value, httpHeaders, generator)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartArray();
+            int count = 0;
+            while (elements.hasNext()) {
+                writer.writeValue(generator, elements.next());
+                if (++count % streamingFlushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Creates the generator of a streamed response entity the way the parent class creates the generator of any
+     * other entity: the headers of the endpoint are added, and the output is encoded and indented as configured.
+     */
+    private JsonGenerator createGenerator(JsonEndpointConfig endpoint,
+                                          ObjectWriter writer,
+                                          Object value,
+                                          Class<?> type,
+                                          Type genericType,
+                                          Annotation[] annotations,
+                                          MediaType mediaType,
+                                          MultivaluedMap<String, Object> httpHeaders,
+                                          OutputStream entityStream) throws IOException {
+        _modifyHeaders(value, type, genericType, annotations, httpHeaders, endpoint);
+        final JsonGenerator generator = _createGenerator(writer, entityStream, findEncoding(mediaType, httpHeaders));
+        if (writer.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
+    }
+
+    /**
+     * Applies the {@link ObjectWriterModifier} injected for the current request, if any, as the parent class does.
+     */
+    private static ObjectWriter modifyWriter(JsonEndpointConfig endpoint,
+                                             ObjectWriter writer,
+                                             Object value,
+                                             MultivaluedMap<String, Object> httpHeaders,
+                                             JsonGenerator generator) throws IOException {
+        final ObjectWriterModifier modifier = ObjectWriterInjector.getAndClear();
+        return modifier == null ? writer : modifier.modify(endpoint, httpHeaders, value, writer, generator);
+    }
+
+    private JsonEndpointConfig endpointForWriting(Object value,
+                                                  Class<?> type,
+                                                  Type genericType,
+                                                  Annotation[] annotations,
+                                                  MediaType mediaType,
+                                                  MultivaluedMap<String, Object> httpHeaders) {
+        if (!isEnabled(JaxRSFeature.CACHE_ENDPOINT_WRITERS)) {
+            return _endpointForWriting(value, type, genericType, annotations, mediaType, httpHeaders);
+        }
+        return writerFor(value, type, genericType, annotations, mediaType, httpHeaders).endpoint;
+    }
+
+    private ObjectReader readerFor(Class<Object> type,
+                                   Type genericType,
+                                   Annotation[] annotations,
+                                   MediaType mediaType,
+                                   MultivaluedMap<String, String> httpHeaders) {
+        final EndpointKey key = new EndpointKey(type, genericType, jacksonAnnotations(annotations));
+        final ObjectReader cached = readers.get(key);
+        if (cached != null) {
+            readerHits.inc();
+            return cached;
+        }
+        readerMisses.inc();
+
+        final JsonEndpointConfig endpoint = _endpointForReading(type, genericType, annotations, mediaType,
+            httpHeaders);
+        final ObjectReader reader = endpoint.getReader();
+        final TypeFactory typeFactory = reader.getTypeFactory();
+        final JavaType resolvedType = typeFactory.constructType(genericType);
+        final ObjectReader typedReader;
+        if (isMappingIterator(type)) {
+            final JavaType[] contents = typeFactory.findTypeParameters(resolvedType, MappingIterator.class);
+            typedReader = reader.forType(contents.length == 0 ? typeFactory.constructType(Object.class) : contents[0]);
+        } else {
+            typedReader = reader.forType(resolvedType);
+        }
+        if (readers.size() < MAX_CACHED_ENDPOINTS) {
+            readers.putIfAbsent(key, typedReader);
+        }
+        return typedReader;
+    }
+
+    private CachedWriter writerFor(Object value,
+                                   Class<?> type,
+                                   Type genericType,
+                                   Annotation[] annotations,
+                                   MediaType mediaType,
+                                   MultivaluedMap<String, Object> httpHeaders) {
+        final EndpointKey key = new EndpointKey(type, genericType, jacksonAnnotations(annotations));
+        final CachedWriter cached = writers.get(key);
+        if (cached != null) {
+            writerHits.inc();
+            return cached;
+        }
+        writerMisses.inc();
+
+        final JsonEndpointConfig endpoint = _endpointForWriting(value, type, genericType, annotations, mediaType,
+            httpHeaders);
+        ObjectWriter writer = endpoint.getWriter();
+        // as in the parent class, only force the root type of truly generic types, so that polymorphic types
+        // are still serialized according to their runtime type
+        if (genericType != null && !(genericType instanceof Class<?>)) {
+            final TypeFactory typeFactory = writer.getTypeFactory();
+            final JavaType rootType = typeFactory.constructSpecializedType(typeFactory.constructType(genericType),
+                type);
+            if (rootType.getRawClass() != Object.class) {
+                writer = writer.forType(rootType);
+            }
+        }
+        final CachedWriter result = new CachedWriter(endpoint, writer);
+        if (writers.size() < MAX_CACHED_ENDPOINTS) {
+            writers.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    private static boolean isMappingIterator(Class<?> type) {
+        return type == MappingIterator.class;
+    }
+
+    /**
+     * Returns the annotations which affect the configuration of readers and writers, i.e. Jackson annotations and
+     * bundles of them, so that entities which only differ by other annotations share readers and writers.
+     */
+    private static Annotation[] jacksonAnnotations(@Nullable Annotation[] annotations) {
+        if (annotations == null || annotations.length == 0) {
+            return NO_ANNOTATIONS;
+        }
+        int count = 0;
+        for (Annotation annotation : annotations) {
+            if (isJacksonAnnotation(annotation)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return NO_ANNOTATIONS;
+        } else if (count == annotations.length) {
+            return annotations;
+        }
+        final Annotation[] result = new Annotation[count];
+        int i = 0;
+        for (Annotation annotation : annotations) {
+            if (isJacksonAnnotation(annotation)) {
+                result[i++] = annotation;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isJacksonAnnotation(Annotation annotation) {
+        final Class<? extends Annotation> annotationType = annotation.annotationType();
+        return annotationType.getName().startsWith("com.fasterxml.jackson.")
+            || annotationType.isAnnotationPresent(JacksonAnnotationsInside.class);
+    }
+
+    private static void close(AutoCloseable closeable) throws IOException {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
     }
 
     private boolean isProvidable(Class<?> type) {
@@ -47,4 +422,115 @@ public class JacksonMessageBodyProvider extends JacksonJaxbJsonProvider {
     public ObjectMapper getObjectMapper() {
         return mapper;
     }
+
+    /**
+     * Returns the number of elements of a streamed response entity after which the output is flushed.
+     *
+     * @since 2.1
+     */
+    public int getStreamingFlushInterval() {
+        return streamingFlushInterval;
+    }
+
+    /**
+     * Sets the number of elements of a streamed response entity after which the output is flushed.
+     *
+     * @param streamingFlushInterval a positive number of elements
+     * @since 2.1
+     */
+    public void setStreamingFlushInterval(int streamingFlushInterval) {
+        if (streamingFlushInterval < 1) {
+            throw new IllegalArgumentException("The flush interval must be positive");
+        }
+        this.streamingFlushInterval = streamingFlushInterval;
+    }
+
+    @Override
+    public void setMapper(ObjectMapper m) {
+        super.setMapper(m);
+        clearCaches();
+    }
+
+    @Override
+    public JacksonJsonProvider setDefaultWriteView(Class<?> view) {
+        super.setDefaultWriteView(view);
+        clearCaches();
+        return this;
+    }
+
+    @Override
+    public void addUntouchable(Class<?> type) {
+        super.addUntouchable(type);
+        clearCaches();
+    }
+
+    @Override
+    public void removeUntouchable(Class<?> type) {
+        super.removeUntouchable(type);
+        clearCaches();
+    }
+
+    @Override
+    public void checkCanDeserialize(boolean state) {
+        super.checkCanDeserialize(state);
+        clearCaches();
+    }
+
+    @Override
+    public void checkCanSerialize(boolean state) {
+        super.checkCanSerialize(state);
+        clearCaches();
+    }
+
+    private void clearCaches() {
+        readableTypes.clear();
+        writeableTypes.clear();
+        readers.clear();
+        writers.clear();
+    }
+
+    private static final class EndpointKey {
+        private final Class<?> type;
+        @Nullable
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final int hashCode;
+
+        EndpointKey(Class<?> type, @Nullable Type genericType, Annotation[] annotations) {
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.hashCode = 31 * (31 * type.hashCode() + Objects.hashCode(genericType))
+                + (annotations.length == 0 ? 0 : Arrays.hashCode(annotations));
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EndpointKey)) {
+                return false;
+            }
+            final EndpointKey other = (EndpointKey) obj;
+            return type == other.type
+                && Objects.equals(genericType, other.genericType)
+                && Arrays.equals(annotations, other.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class CachedWriter {
+        private final JsonEndpointConfig endpoint;
+        private final ObjectWriter writer;
+
+        CachedWriter(JsonEndpointConfig endpoint, ObjectWriter writer) {
+            this.endpoint = endpoint;
+            this.writer = writer;
+        }
+    }
 }
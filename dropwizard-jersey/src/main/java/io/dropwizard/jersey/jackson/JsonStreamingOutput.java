@@ -0,0 +1,24 @@
+package io.dropwizard.jersey.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * A response entity which writes itself as JSON to a {@link JsonGenerator}, for responses which are too large to be
+ * materialized in memory as a whole. The generator is configured with the {@link com.fasterxml.jackson.databind.ObjectMapper}
+ * of the {@link JacksonMessageBodyProvider}, so that nested objects can be written with
+ * {@link JsonGenerator#writeObject(Object)}.
+ *
+ * @since 2.1
+ */
+@FunctionalInterface
+public interface JsonStreamingOutput {
+    /**
+     * Writes the entity to the given generator. The generator is flushed and closed once this method returns.
+     *
+     * @param generator the generator to write the entity to
+     * @throws IOException if the entity cannot be written
+     */
+    void write(JsonGenerator generator) throws IOException;
+}
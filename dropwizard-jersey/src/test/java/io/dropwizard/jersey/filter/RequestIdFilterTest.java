@@ -1,20 +1,30 @@
 package io.dropwizard.jersey.filter;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriInfo;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 class RequestIdFilterTest {
@@ -29,6 +39,7 @@ class RequestIdFilterTest {
     @BeforeEach
     void setUp() throws Exception {
         requestIdFilter.setLogger(logger);
+        when(logger.isTraceEnabled()).thenReturn(true);
 
         when(request.getMethod()).thenReturn("GET");
         UriInfo uriInfo = Mockito.mock(UriInfo.class);
@@ -40,6 +51,11 @@ class RequestIdFilterTest {
         when(response.getHeaders()).thenReturn(headers);
     }
 
+    @AfterEach
+    void tearDown() {
+        MDC.remove(RequestIdFilter.REQUEST_ID_MDC_KEY);
+    }
+
     @Test
     void addsRandomRequestIdHeader() throws Exception {
 
@@ -52,6 +68,29 @@ class RequestIdFilterTest {
             "GET", "/some/path", requestId, 200, 2048);
     }
 
+    @Test
+    void generatesVersion4Uuids() {
+        for (int i = 0; i < 100; i++) {
+            final String requestId = RequestIdFilter.generateRandomUuid();
+            final UUID uuid = UUID.fromString(requestId);
+            assertThat(uuid.version()).isEqualTo(4);
+            assertThat(uuid.variant()).isEqualTo(2);
+            assertThat(uuid).hasToString(requestId);
+        }
+    }
+
+    @Test
+    void doesNotLogWhenTraceIsDisabled() throws Exception {
+        when(logger.isTraceEnabled()).thenReturn(false);
+
+        requestIdFilter.filter(request, response);
+
+        assertThat(headers.getFirst("X-Request-Id")).isNotNull();
+        verify(logger).isTraceEnabled();
+        verifyNoMoreInteractions(logger);
+        verify(request, never()).getUriInfo();
+    }
+
     @Test
     void doesNotAddRandomRequestIdHeaderIfItExists() throws Exception {
         String existedRequestId = "e286b503-aa36-43fe-8312-95ee8773e348";
@@ -66,4 +105,46 @@ class RequestIdFilterTest {
             "GET", "/some/path", requestId, 200, 2048);
     }
 
+    @Test
+    void doesNotTouchTheMdc() throws Exception {
+        String existedRequestId = "e286b503-aa36-43fe-8312-95ee8773e348";
+        when(request.getHeaderString("X-Request-Id")).thenReturn(existedRequestId);
+
+        requestIdFilter.filter(request);
+
+        assertThat(MDC.get("requestId")).isNull();
+        verify(request).setProperty(anyString(), eq(existedRequestId));
+
+        requestIdFilter.filter(request, response);
+
+        assertThat(headers.getFirst("X-Request-Id")).isEqualTo(existedRequestId);
+    }
+
+    @Test
+    void respondsWithTheRequestIdGeneratedAtRequestStart() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(request).setProperty(anyString(), any());
+        when(request.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+
+        requestIdFilter.filter(request);
+        String requestId = (String) properties.get(RequestIdFilter.REQUEST_ID_PROPERTY);
+
+        requestIdFilter.filter(request, response);
+
+        assertThat(requestId).isNotNull();
+        assertThat(headers.getFirst("X-Request-Id")).isEqualTo(requestId);
+    }
+
+    @Test
+    void reusesTheRequestIdOfTheServletFilter() throws Exception {
+        String servletRequestId = "e286b503-aa36-43fe-8312-95ee8773e348";
+        when(request.getProperty(RequestIdFilter.REQUEST_ID_PROPERTY)).thenReturn(servletRequestId);
+
+        requestIdFilter.filter(request);
+        requestIdFilter.filter(request, response);
+
+        verify(request, never()).setProperty(anyString(), any());
+        assertThat(headers.getFirst("X-Request-Id")).isEqualTo(servletRequestId);
+    }
 }
@@ -0,0 +1,96 @@
+package io.dropwizard.jersey.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestIdMdcFilterTest {
+    private static final String REQUEST_ID = "e286b503-aa36-43fe-8312-95ee8773e348";
+
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final FilterChain chain = mock(FilterChain.class);
+    private final RequestIdMdcFilter filter = new RequestIdMdcFilter();
+
+    @AfterEach
+    void tearDown() {
+        MDC.remove(RequestIdFilter.REQUEST_ID_MDC_KEY);
+    }
+
+    @Test
+    void putsTheRequestIdIntoTheMdcWhileTheRequestIsDispatched() throws Exception {
+        when(request.getHeader("X-Request-Id")).thenReturn(REQUEST_ID);
+        final AtomicReference<String> requestId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            return null;
+        }).when(chain).doFilter(request, response);
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(requestId).hasValue(REQUEST_ID);
+        assertThat(MDC.get("requestId")).isNull();
+        verify(request).setAttribute(RequestIdFilter.REQUEST_ID_PROPERTY, REQUEST_ID);
+    }
+
+    @Test
+    void generatesARequestIdIfThereIsNone() throws Exception {
+        final AtomicReference<String> requestId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            return null;
+        }).when(chain).doFilter(request, response);
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(UUID.fromString(requestId.get())).isNotNull();
+        verify(request).setAttribute(RequestIdFilter.REQUEST_ID_PROPERTY, requestId.get());
+    }
+
+    @Test
+    void removesTheRequestIdFromTheMdcIfTheRequestFails() throws Exception {
+        when(request.getHeader("X-Request-Id")).thenReturn(REQUEST_ID);
+        doThrow(new ServletException("failed")).when(chain).doFilter(request, response);
+
+        assertThatExceptionOfType(ServletException.class)
+            .isThrownBy(() -> filter.doFilter(request, response, chain));
+
+        assertThat(MDC.get("requestId")).isNull();
+    }
+
+    @Test
+    void reusesTheRequestIdOfEarlierDispatches() throws Exception {
+        when(request.getAttribute(RequestIdFilter.REQUEST_ID_PROPERTY)).thenReturn(REQUEST_ID);
+        when(request.getHeader("X-Request-Id")).thenReturn("another-id");
+        MDC.put("requestId", "outer-id");
+        final AtomicReference<String> requestId = new AtomicReference<>();
+        doAnswer(invocation -> {
+            requestId.set(MDC.get("requestId"));
+            return null;
+        }).when(chain).doFilter(request, response);
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(requestId).hasValue(REQUEST_ID);
+        assertThat(MDC.get("requestId")).isEqualTo("outer-id");
+        verify(request, never()).setAttribute(eq(RequestIdFilter.REQUEST_ID_PROPERTY), any());
+    }
+}
@@ -37,4 +37,15 @@ class RuntimeFilterTest {
 
         assertThat(headers.getFirst("X-Runtime")).isEqualTo("0.123000");
     }
+
+    @Test
+    void formatsSecondsWithSixDecimalPlaces() {
+        assertThat(RuntimeFilter.formatSeconds(0L)).isEqualTo("0.000000");
+        assertThat(RuntimeFilter.formatSeconds(1_499L)).isEqualTo("0.000001");
+        assertThat(RuntimeFilter.formatSeconds(1_500L)).isEqualTo("0.000002");
+        assertThat(RuntimeFilter.formatSeconds(123_456_789L)).isEqualTo("0.123457");
+        assertThat(RuntimeFilter.formatSeconds(98_765_432_100L)).isEqualTo("98.765432");
+        assertThat(RuntimeFilter.formatSeconds(-2_500_000L)).isEqualTo("-0.002500");
+        assertThat(RuntimeFilter.formatSeconds(Long.MAX_VALUE)).isEqualTo("9223372036.854776");
+    }
 }
@@ -0,0 +1,142 @@
+package io.dropwizard.jersey.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.jersey.AbstractJerseyTest;
+import io.dropwizard.jersey.DropwizardResourceConfig;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class JacksonBinaryFormatFilterTest extends AbstractJerseyTest {
+    private static final MediaType SMILE = JacksonBinaryFormat.SMILE.getMediaType();
+    private static final MediaType CBOR = JacksonBinaryFormat.CBOR.getMediaType();
+
+    public static class Message {
+        @JsonProperty
+        public String text = "";
+    }
+
+    @Path("/messages")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class MessageResource {
+        @GET
+        public Message get() {
+            final Message message = new Message();
+            message.text = "hello";
+            return message;
+        }
+
+        @POST
+        public Message echo(Message message) {
+            message.text = message.text + "!";
+            return message;
+        }
+    }
+
+    @Path("/raw")
+    public static class RawSmileResource {
+        @POST
+        @Consumes("application/x-jackson-smile")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String length(byte[] smile) {
+            return Integer.toString(smile.length);
+        }
+    }
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Override
+    protected Application configure() {
+        return DropwizardResourceConfig.forTesting()
+            .register(new JacksonFeature(Jackson.newObjectMapper(), null,
+                EnumSet.of(JacksonBinaryFormat.SMILE, JacksonBinaryFormat.CBOR)))
+            .register(MessageResource.class)
+            .register(RawSmileResource.class);
+    }
+
+    @Test
+    void writesResponsesInAPreferredBinaryFormat() throws Exception {
+        final Response response = target("/messages").request()
+            .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9")
+            .get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMediaType()).isEqualTo(SMILE);
+        assertThat(response.getHeaderString(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+        assertThat(smileMapper.readValue(response.readEntity(byte[].class), Message.class).text)
+            .isEqualTo("hello");
+    }
+
+    @Test
+    void readsRequestsInABinaryFormat() throws Exception {
+        final Message message = new Message();
+        message.text = "hi";
+
+        final Response response = target("/messages").request()
+            .header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.9")
+            .post(Entity.entity(cborMapper.writeValueAsBytes(message), CBOR));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMediaType()).isEqualTo(CBOR);
+        assertThat(cborMapper.readValue(response.readEntity(byte[].class), Message.class).text)
+            .isEqualTo("hi!");
+    }
+
+    @Test
+    void writesJsonIfPreferred() {
+        final Response response = target("/messages").request()
+            .header(HttpHeaders.ACCEPT, "application/json, application/x-jackson-smile;q=0.5")
+            .get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMediaType().isCompatible(MediaType.APPLICATION_JSON_TYPE)).isTrue();
+        assertThat(response.getHeaderString(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+        assertThat(response.readEntity(String.class)).isEqualTo("{\"text\":\"hello\"}");
+    }
+
+    @Test
+    void leavesFormatsConsumedByResourcesAsTheyAre() throws Exception {
+        final byte[] smile = smileMapper.writeValueAsBytes(new Message());
+
+        final Response response = target("/raw").request()
+            .post(Entity.entity(smile, SMILE));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.readEntity(String.class)).isEqualTo(Integer.toString(smile.length));
+    }
+
+    @Test
+    void writesJsonByDefault() {
+        final Response response = target("/messages").request().get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getMediaType().isCompatible(MediaType.APPLICATION_JSON_TYPE)).isTrue();
+        assertThat(response.getHeaderString(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void failsToCreateUnavailableFormats() {
+        assertThatIllegalStateException()
+            .isThrownBy(JacksonBinaryFormat.MESSAGE_PACK::createFactory)
+            .withMessageContaining("jackson-dataformat-msgpack");
+    }
+}
@@ -1,10 +1,14 @@
 package io.dropwizard.jersey.jackson;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.annotation.JsonIgnoreType;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.jaxrs.cfg.JaxRSFeature;
 import io.dropwizard.jackson.Jackson;
 import io.dropwizard.validation.Validated;
 import org.junit.jupiter.api.Test;
@@ -20,19 +24,27 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -90,6 +102,19 @@ public class JacksonMessageBodyProviderTest {
         public String text;
     }
 
+    public interface PublicView {
+    }
+
+    public static class ViewExample {
+        @JsonView(PublicView.class)
+        @JsonProperty
+        public int id = 1;
+
+        @JsonView(Partial1.class)
+        @JsonProperty
+        public String secret = "hidden";
+    }
+
     @JsonIgnoreType
     public interface Ignorable {
 
@@ -101,8 +126,9 @@ public class JacksonMessageBodyProviderTest {
     }
 
     private final ObjectMapper mapper = spy(Jackson.newObjectMapper());
+    private final MetricRegistry metricRegistry = new MetricRegistry();
     private final JacksonMessageBodyProvider provider =
-            new JacksonMessageBodyProvider(mapper);
+            new JacksonMessageBodyProvider(mapper, metricRegistry);
 
     @Test
     void readsDeserializableTypes() {
@@ -246,6 +272,209 @@ public class JacksonMessageBodyProviderTest {
                 .hasToString("{\"id\":500}");
     }
 
+    @Test
+    void streamsStreamResponseEntities() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<Example> examples = IntStream.range(0, 3)
+            .mapToObj(this::example)
+            .onClose(() -> closed.set(true));
+
+        provider.writeTo(examples,
+                         Stream.class,
+                         new TypeReference<Stream<Example>>() {
+                         }.getType(),
+                         NONE,
+                         MediaType.APPLICATION_JSON_TYPE,
+                         new MultivaluedHashMap<>(),
+                         output);
+
+        assertThat(output)
+                .hasToString("[{\"id\":0},{\"id\":1},{\"id\":2}]");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void streamsIteratorResponseEntitiesAndClosesThem() throws Exception {
+        final AtomicInteger flushes = new AtomicInteger();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        final ClosableIterator examples = new ClosableIterator(5);
+        provider.setStreamingFlushInterval(2);
+
+        provider.writeTo(examples,
+                         Iterator.class,
+                         Iterator.class,
+                         NONE,
+                         MediaType.APPLICATION_JSON_TYPE,
+                         new MultivaluedHashMap<>(),
+                         output);
+
+        assertThat(output)
+                .hasToString("[{\"id\":0},{\"id\":1},{\"id\":2},{\"id\":3},{\"id\":4}]");
+        assertThat(examples.closed).isTrue();
+        assertThat(flushes).hasValueGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void writesJsonStreamingOutputResponseEntities() throws Exception {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final JsonStreamingOutput entity = generator -> {
+            generator.writeStartObject();
+            generator.writeNumberField("count", 1);
+            generator.writeFieldName("examples");
+            generator.writeObject(Collections.singletonList(example(7)));
+            generator.writeEndObject();
+        };
+
+        provider.writeTo(entity,
+                         JsonStreamingOutput.class,
+                         JsonStreamingOutput.class,
+                         NONE,
+                         MediaType.APPLICATION_JSON_TYPE,
+                         new MultivaluedHashMap<>(),
+                         output);
+
+        assertThat(output)
+                .hasToString("{\"count\":1,\"examples\":[{\"id\":7}]}");
+    }
+
+    @Test
+    void configuresStreamedResponseEntitiesLikeOtherEntities() throws Exception {
+        final JacksonMessageBodyProvider indentingProvider = new JacksonMessageBodyProvider(
+            Jackson.newObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+        indentingProvider.enable(JaxRSFeature.ADD_NO_SNIFF_HEADER);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+
+        indentingProvider.writeTo(Stream.of(example(1)),
+                                  Stream.class,
+                                  new TypeReference<Stream<Example>>() {
+                                  }.getType(),
+                                  NONE,
+                                  MediaType.APPLICATION_JSON_TYPE,
+                                  headers,
+                                  output);
+
+        assertThat(output)
+                .hasToString(String.format("[ {%n  \"id\" : 1%n} ]"));
+        assertThat(headers.getFirst("X-Content-Type-Options")).isEqualTo("nosniff");
+    }
+
+    @Test
+    void configuresJsonStreamingOutputResponseEntitiesLikeOtherEntities() throws Exception {
+        final JacksonMessageBodyProvider indentingProvider = new JacksonMessageBodyProvider(
+            Jackson.newObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+        indentingProvider.enable(JaxRSFeature.ADD_NO_SNIFF_HEADER);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+        final JsonStreamingOutput entity = generator -> {
+            generator.writeStartObject();
+            generator.writeNumberField("count", 1);
+            generator.writeEndObject();
+        };
+
+        indentingProvider.writeTo(entity,
+                                  JsonStreamingOutput.class,
+                                  JsonStreamingOutput.class,
+                                  NONE,
+                                  MediaType.APPLICATION_JSON_TYPE,
+                                  headers,
+                                  output);
+
+        assertThat(output)
+                .hasToString(String.format("{%n  \"count\" : 1%n}"));
+        assertThat(headers.getFirst("X-Content-Type-Options")).isEqualTo("nosniff");
+    }
+
+    @Test
+    void rejectsNonPositiveFlushIntervals() {
+        assertThatIllegalArgumentException().isThrownBy(() -> provider.setStreamingFlushInterval(0));
+    }
+
+    @Test
+    void cachesWritersOfResponseEntities() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            provider.writeTo(example(i), Example.class, Example.class, NONE, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedHashMap<>(), output);
+            assertThat(output).hasToString("{\"id\":" + i + "}");
+        }
+
+        assertThat(counter("writers.misses")).isEqualTo(1);
+        assertThat(counter("writers.hits")).isEqualTo(2);
+    }
+
+    @Test
+    void cachesWritersPerGenericType() throws Exception {
+        final Type listType = new TypeReference<List<Example>>() {
+        }.getType();
+        final Type setType = new TypeReference<Set<Example>>() {
+        }.getType();
+
+        final ByteArrayOutputStream listOutput = new ByteArrayOutputStream();
+        provider.writeTo(Collections.singletonList(example(1)), List.class, listType, NONE,
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), listOutput);
+        final ByteArrayOutputStream setOutput = new ByteArrayOutputStream();
+        provider.writeTo(Collections.singleton(example(2)), Set.class, setType, NONE,
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), setOutput);
+
+        assertThat(listOutput).hasToString("[{\"id\":1}]");
+        assertThat(setOutput).hasToString("[{\"id\":2}]");
+        assertThat(counter("writers.misses")).isEqualTo(2);
+    }
+
+    @Test
+    void cachesWritersPerJsonView() throws Exception {
+        final Annotation[] publicView = getClass().getDeclaredMethod("publicView").getAnnotations();
+        final Annotation[] otherAnnotations = getClass().getDeclaredMethod("otherAnnotations").getAnnotations();
+
+        final ByteArrayOutputStream viewOutput = new ByteArrayOutputStream();
+        provider.writeTo(new ViewExample(), ViewExample.class, ViewExample.class, publicView,
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), viewOutput);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provider.writeTo(new ViewExample(), ViewExample.class, ViewExample.class, NONE,
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), output);
+        final ByteArrayOutputStream otherOutput = new ByteArrayOutputStream();
+        provider.writeTo(new ViewExample(), ViewExample.class, ViewExample.class, otherAnnotations,
+            MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), otherOutput);
+
+        assertThat(viewOutput).hasToString("{\"id\":1}");
+        assertThat(output).hasToString("{\"id\":1,\"secret\":\"hidden\"}");
+        assertThat(otherOutput).hasToString("{\"id\":1,\"secret\":\"hidden\"}");
+        assertThat(counter("writers.misses")).isEqualTo(2);
+        assertThat(counter("writers.hits")).isEqualTo(1);
+    }
+
+    @Test
+    void cachesReadersOfRequestEntities() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            final ByteArrayInputStream entity = new ByteArrayInputStream(
+                ("{\"id\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+            final Object obj = provider.readFrom((Class<Object>) (Class<?>) Example.class, Example.class, NONE,
+                MediaType.APPLICATION_JSON_TYPE, new MultivaluedHashMap<>(), entity);
+            assertThat(obj).isEqualTo(example(i));
+        }
+
+        assertThat(counter("readers.misses")).isEqualTo(1);
+        assertThat(counter("readers.hits")).isEqualTo(2);
+    }
+
+    @Test
+    void reevaluatesCachedDecisionsWhenUntouchablesChange() {
+        assertThat(provider.isWriteable(Example.class, null, null, MediaType.APPLICATION_JSON_TYPE)).isTrue();
+        assertThat(provider.isWriteable(Example.class, null, null, MediaType.TEXT_PLAIN_TYPE)).isFalse();
+
+        provider.addUntouchable(Example.class);
+
+        assertThat(provider.isWriteable(Example.class, null, null, MediaType.APPLICATION_JSON_TYPE)).isFalse();
+        assertThat(provider.isReadable(Example.class, null, null, MediaType.APPLICATION_JSON_TYPE)).isFalse();
+    }
+
     @Test
     void returnsValidatedCollectionRequestEntities() throws Exception {
         testValidatedCollectionType(Collection.class,
@@ -284,6 +513,52 @@ public class JacksonMessageBodyProviderTest {
         assertThat((Iterable<Example>) obj).extracting(item -> item.id).contains(1 , 2);
     }
 
+    @JsonView(PublicView.class)
+    private void publicView() {
+    }
+
+    @Deprecated
+    private void otherAnnotations() {
+    }
+
+    private long counter(String name) {
+        return metricRegistry.counter("io.dropwizard.jersey.jackson.JacksonMessageBodyProvider." + name).getCount();
+    }
+
+    private Example example(int id) {
+        final Example example = new Example();
+        example.id = id;
+        return example;
+    }
+
+    private class ClosableIterator implements Iterator<Example>, Closeable {
+        private final int size;
+        private int next = 0;
+        private boolean closed = false;
+
+        ClosableIterator(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Example next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return example(next++);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
     private static boolean isDefaultLocaleEnglish() {
         return "en".equals(Locale.getDefault().getLanguage());
     }
@@ -0,0 +1,215 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A {@link ThreadPool} which runs every job on a new virtual thread instead of a bounded set of pooled platform
+ * threads, so blocking request handling is no longer capped by {@code maxThreads} and {@code maxQueuedRequests}.
+ * Requires a Java runtime with virtual thread support (Java 21 or later).
+ * <p/>
+ * The pool registers the same gauges as {@link com.codahale.metrics.jetty9.InstrumentedQueuedThreadPool}, so
+ * existing dashboards keep working: {@code size} reports the number of running jobs, {@code jobs} and
+ * {@code jobs-queue-utilization} are always zero since jobs are never queued, and both {@code utilization} and
+ * {@code utilization-max} relate the running jobs to {@code maxThreads}, which only serves as the nominal capacity
+ * of the pool and may be exceeded.
+ *
+ * @since 2.1
+ */
+public class InstrumentedVirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedVirtualThreadPool.class);
+
+    private static final String NAME_UTILIZATION = "utilization";
+    private static final String NAME_UTILIZATION_MAX = "utilization-max";
+    private static final String NAME_SIZE = "size";
+    private static final String NAME_JOBS = "jobs";
+    private static final String NAME_JOBS_QUEUE_UTILIZATION = "jobs-queue-utilization";
+
+    private final MetricRegistry metricRegistry;
+    private final String name;
+    private final int maxThreads;
+    private final ThreadFactory threadFactory;
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private volatile CountDownLatch stopped = new CountDownLatch(0);
+
+    public InstrumentedVirtualThreadPool(MetricRegistry metricRegistry, String name, int maxThreads) {
+        this(metricRegistry, name, maxThreads, newVirtualThreadFactory(name + '-'));
+    }
+
+    public InstrumentedVirtualThreadPool(MetricRegistry metricRegistry,
+                                         String name,
+                                         int maxThreads,
+                                         ThreadFactory threadFactory) {
+        this.metricRegistry = metricRegistry;
+        this.name = name;
+        this.maxThreads = maxThreads;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Returns whether the current Java runtime is able to create virtual threads.
+     */
+    public static boolean isSupported() {
+        try {
+            newVirtualThreadFactory("probe-");
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} for virtual threads named {@code prefix} followed by a counter. The factory is
+     * looked up reflectively so that Dropwizard can still be compiled for and run on older Java runtimes.
+     */
+    private static ThreadFactory newVirtualThreadFactory(String prefix) {
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Object namedBuilder = builderClass.getMethod("name", String.class, long.class)
+                .invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Virtual threads are not supported by the current Java runtime", e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        stopped = new CountDownLatch(1);
+        super.doStart();
+
+        final String prefix = name(QueuedThreadPool.class, name);
+
+        metricRegistry.register(name(prefix, NAME_UTILIZATION), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(getThreads(), maxThreads);
+            }
+        });
+        metricRegistry.register(name(prefix, NAME_UTILIZATION_MAX), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(getThreads(), maxThreads);
+            }
+        });
+        metricRegistry.register(name(prefix, NAME_SIZE), (Gauge<Integer>) this::getThreads);
+        metricRegistry.register(name(prefix, NAME_JOBS), (Gauge<Integer>) () -> 0);
+        metricRegistry.register(name(prefix, NAME_JOBS_QUEUE_UTILIZATION), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(0, 1);
+            }
+        });
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        final String prefix = name(QueuedThreadPool.class, name);
+        metricRegistry.remove(name(prefix, NAME_UTILIZATION));
+        metricRegistry.remove(name(prefix, NAME_UTILIZATION_MAX));
+        metricRegistry.remove(name(prefix, NAME_SIZE));
+        metricRegistry.remove(name(prefix, NAME_JOBS));
+        metricRegistry.remove(name(prefix, NAME_JOBS_QUEUE_UTILIZATION));
+
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getStopTimeout());
+            for (Thread thread : threads) {
+                final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining > 0) {
+                    thread.join(remaining);
+                }
+            }
+            for (Thread thread : threads) {
+                LOGGER.warn("Interrupting {} which did not stop in time", thread);
+                thread.interrupt();
+            }
+            super.doStop();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        if (!isRunning()) {
+            throw new RejectedExecutionException(job.toString());
+        }
+        final Thread thread = threadFactory.newThread(() -> runJob(job));
+        threads.add(thread);
+        try {
+            thread.start();
+        } catch (RuntimeException | Error e) {
+            threads.remove(thread);
+            throw e;
+        }
+    }
+
+    private void runJob(Runnable job) {
+        try {
+            job.run();
+        } catch (Throwable t) {
+            LOGGER.warn("Job failed: {}", job, t);
+        } finally {
+            threads.remove(Thread.currentThread());
+        }
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * @return the number of jobs currently running, each on its own thread
+     */
+    @Override
+    public int getThreads() {
+        return threads.size();
+    }
+
+    /**
+     * @return always zero, as threads are never kept around once their job has completed
+     */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    /**
+     * @return always false, as virtual threads are created on demand
+     */
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]@%x{%s,%d}", getClass().getSimpleName(), name, hashCode(), getState(),
+            getThreads());
+    }
+}
@@ -0,0 +1,144 @@
+package io.dropwizard.jetty;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class InstrumentedVirtualThreadPoolTest {
+    private static final String PREFIX = "org.eclipse.jetty.util.thread.QueuedThreadPool.dw.";
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final InstrumentedVirtualThreadPool threadPool =
+        new InstrumentedVirtualThreadPool(metricRegistry, "dw", 4, Executors.defaultThreadFactory());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threadPool.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        threadPool.stop();
+    }
+
+    @Test
+    void registersTheSameGaugesAsTheQueuedThreadPool() {
+        assertThat(metricRegistry.getGauges().keySet()).containsOnly(
+            PREFIX + "utilization",
+            PREFIX + "utilization-max",
+            PREFIX + "size",
+            PREFIX + "jobs",
+            PREFIX + "jobs-queue-utilization");
+    }
+
+    @Test
+    void reportsRunningJobs() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            threadPool.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threadPool.getThreads()).isEqualTo(2);
+        assertThat(threadPool.getIdleThreads()).isZero();
+        assertThat(gauge("size").getValue()).isEqualTo(2);
+        assertThat(gauge("jobs").getValue()).isEqualTo(0);
+        assertThat(gauge("utilization").getValue()).isEqualTo(0.5);
+        assertThat(gauge("utilization-max").getValue()).isEqualTo(0.5);
+        assertThat(gauge("jobs-queue-utilization").getValue()).isEqualTo(0.0);
+
+        release.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threadPool.getThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(threadPool.getThreads()).isZero();
+    }
+
+    @Test
+    void removesGaugesWhenStopped() throws Exception {
+        threadPool.stop();
+
+        assertThat(metricRegistry.getGauges()).isEmpty();
+    }
+
+    @Test
+    void rejectsJobsWhenNotRunning() throws Exception {
+        threadPool.stop();
+
+        assertThatExceptionOfType(RejectedExecutionException.class)
+            .isThrownBy(() -> threadPool.execute(() -> { }));
+    }
+
+    @Test
+    void joinReturnsOnceStopped() throws Exception {
+        final CountDownLatch joined = new CountDownLatch(1);
+        final Thread joiner = new Thread(() -> {
+            try {
+                threadPool.join();
+                joined.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        joiner.start();
+
+        assertThat(joined.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        threadPool.stop();
+        assertThat(joined.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failsWhenVirtualThreadsAreNotSupported() {
+        assumeThat(InstrumentedVirtualThreadPool.isSupported()).isFalse();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> new InstrumentedVirtualThreadPool(metricRegistry, "dw", 4));
+    }
+
+    @Test
+    void runsJobsOnVirtualThreadsWhenSupported() throws Exception {
+        assumeThat(InstrumentedVirtualThreadPool.isSupported()).isTrue();
+
+        final InstrumentedVirtualThreadPool virtualThreadPool =
+            new InstrumentedVirtualThreadPool(new MetricRegistry(), "dw", 4);
+        virtualThreadPool.start();
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            final String[] threadName = new String[1];
+            virtualThreadPool.execute(() -> {
+                threadName[0] = Thread.currentThread().toString();
+                done.countDown();
+            });
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(threadName[0]).startsWith("VirtualThread").contains("dw-");
+        } finally {
+            virtualThreadPool.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Gauge<T> gauge(String name) {
+        return (Gauge<T>) requireNonNull(metricRegistry.getGauges().get(PREFIX + name));
+    }
+}
@@ -0,0 +1,24 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Reservoir;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * A factory for {@link ExponentiallyDecayingReservoir} instances, the default reservoir of histograms and timers.
+ * It keeps a fixed-size sample of the values which is biased towards the last five minutes.
+ *
+ * @since 2.1
+ */
+@JsonTypeName("exponentiallyDecaying")
+public class ExponentiallyDecayingReservoirFactory implements ReservoirFactory {
+    @Override
+    public Reservoir build() {
+        return new ExponentiallyDecayingReservoir();
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentiallyDecayingReservoirFactory{}";
+    }
+}
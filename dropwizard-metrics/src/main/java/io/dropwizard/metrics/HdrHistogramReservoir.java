@@ -0,0 +1,183 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import javax.annotation.Nullable;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Reservoir} backed by an <a href="http://hdrhistogram.org/">HdrHistogram</a>, which records every value
+ * with a fixed relative precision instead of keeping a sample of the values.
+ * <p/>
+ * Unlike sampling reservoirs, the quantiles of its snapshots reflect all values, including rare outliers in the
+ * tail, and recording a value is wait-free and does not allocate, except for the first value of each window, whose
+ * recording drains the values of the window which has ended. Snapshots reflect the values recorded within the
+ * current window and the one before it, so that they always cover between one and two windows worth of values.
+ *
+ * @since 2.1
+ */
+public class HdrHistogramReservoir implements Reservoir {
+    private final long window;
+    private final Clock clock;
+    private final Recorder recorder;
+
+    private Histogram current;
+    private Histogram previous;
+    @Nullable
+    private Histogram interval;
+    private volatile long windowStart;
+
+    /**
+     * Creates a reservoir which records values with the given number of significant decimal digits, and whose
+     * snapshots reflect the values recorded within the last one to two windows of the given duration.
+     *
+     * @param significantDigits the number of significant decimal digits to which values are recorded, between 0
+     *                          and 5
+     * @param window            the duration of a window
+     * @param windowUnit        the unit of {@code window}
+     */
+    public HdrHistogramReservoir(int significantDigits, long window, TimeUnit windowUnit) {
+        this(significantDigits, window, windowUnit, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a reservoir which records values with the given number of significant decimal digits, and whose
+     * snapshots reflect the values recorded within the last one to two windows of the given duration.
+     *
+     * @param significantDigits the number of significant decimal digits to which values are recorded, between 0
+     *                          and 5
+     * @param window            the duration of a window
+     * @param windowUnit        the unit of {@code window}
+     * @param clock             the clock used to roll the windows
+     */
+    public HdrHistogramReservoir(int significantDigits, long window, TimeUnit windowUnit, Clock clock) {
+        this.window = windowUnit.toNanos(window);
+        this.clock = clock;
+        this.recorder = new Recorder(significantDigits);
+        this.current = new Histogram(significantDigits);
+        this.previous = new Histogram(significantDigits);
+        this.windowStart = clock.getTick();
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        final long now = clock.getTick();
+        if (now - windowStart >= window) {
+            roll(now);
+        }
+        recorder.recordValue(Math.max(0, value));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        roll(clock.getTick());
+        interval = recorder.getIntervalHistogram(interval);
+        current.add(interval);
+
+        final Histogram histogram = previous.copy();
+        histogram.add(current);
+        return new HdrHistogramSnapshot(histogram);
+    }
+
+    /**
+     * Starts a new window if the current one has ended, after draining the values recorded within it. Once two
+     * windows or more have ended, all values are dropped.
+     */
+    private synchronized void roll(long now) {
+        final long elapsed = now - windowStart;
+        if (elapsed < window) {
+            return;
+        }
+        interval = recorder.getIntervalHistogram(interval);
+        if (elapsed >= 2 * window) {
+            previous.reset();
+        } else {
+            current.add(interval);
+            final Histogram recycled = previous;
+            previous = current;
+            current = recycled;
+        }
+        current.reset();
+        windowStart = now;
+    }
+
+    static class HdrHistogramSnapshot extends Snapshot {
+        private final Histogram histogram;
+
+        HdrHistogramSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        /**
+         * Returns all recorded values, each rounded to the precision of the histogram. As this allocates an array
+         * the size of the number of recorded values, prefer {@link #getValue(double)} and the other statistics.
+         */
+        @Override
+        public long[] getValues() {
+            final long[] values = new long[size()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                for (long count = 0; count < value.getCountAtValueIteratedTo() && i < values.length; count++) {
+                    values[i++] = value.getValueIteratedTo();
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
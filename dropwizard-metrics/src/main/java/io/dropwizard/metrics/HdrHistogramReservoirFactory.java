@@ -0,0 +1,80 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A factory for {@link HdrHistogramReservoir} instances, which record every value with a fixed relative precision,
+ * so that the tail of the distribution is reported accurately, using a bounded amount of memory.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>significantDigits</td>
+ *         <td>2</td>
+ *         <td>The number of significant decimal digits to which values are recorded, between 0 and 5. Every
+ *         additional digit improves the precision tenfold, at the cost of roughly ten times the memory.</td>
+ *     </tr>
+ *     <tr>
+ *         <td>window</td>
+ *         <td>1 minute</td>
+ *         <td>The duration of a window. Snapshots reflect the values recorded within the current window and the
+ *         one before it.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+@JsonTypeName("hdrHistogram")
+public class HdrHistogramReservoirFactory implements ReservoirFactory {
+    @Min(0)
+    @Max(5)
+    private int significantDigits = 2;
+
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration window = Duration.minutes(1);
+
+    @JsonProperty
+    public int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    @JsonProperty
+    public void setSignificantDigits(int significantDigits) {
+        this.significantDigits = significantDigits;
+    }
+
+    @JsonProperty
+    public Duration getWindow() {
+        return window;
+    }
+
+    @JsonProperty
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public Reservoir build() {
+        return new HdrHistogramReservoir(significantDigits, window.getQuantity(), window.getUnit());
+    }
+
+    @Override
+    public String toString() {
+        return "HdrHistogramReservoirFactory{significantDigits=" + significantDigits + ", window=" + window + '}';
+    }
+}
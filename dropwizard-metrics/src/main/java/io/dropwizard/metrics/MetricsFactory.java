@@ -41,6 +41,11 @@ import java.util.List;
  *         <td>{@code false}</td>
  *         <td>To report metrics one last time when stopping Dropwizard.</td>
  *     </tr>
+ *     <tr>
+ *         <td>resourceTimerReservoir</td>
+ *         <td>{@link ExponentiallyDecayingReservoirFactory exponentiallyDecaying}</td>
+ *         <td>The {@link ReservoirFactory reservoir} backing the timers of Jersey resource methods.</td>
+ *     </tr>
  * </table>
  */
 public class MetricsFactory {
@@ -56,6 +61,10 @@ public class MetricsFactory {
 
     private boolean reportOnStop = false;
 
+    @Valid
+    @NotNull
+    private ReservoirFactory resourceTimerReservoir = new ExponentiallyDecayingReservoirFactory();
+
     @JsonProperty
     public List<ReporterFactory> getReporters() {
         return reporters;
@@ -92,6 +101,22 @@ public class MetricsFactory {
         this.reportOnStop = reportOnStop;
     }
 
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public ReservoirFactory getResourceTimerReservoir() {
+        return resourceTimerReservoir;
+    }
+
+    /**
+     * @since 2.1
+     */
+    @JsonProperty
+    public void setResourceTimerReservoir(ReservoirFactory resourceTimerReservoir) {
+        this.resourceTimerReservoir = resourceTimerReservoir;
+    }
+
     /**
      * Configures the given lifecycle with the {@link com.codahale.metrics.ScheduledReporter
      * reporters} configured for the given registry.
@@ -120,6 +145,7 @@ public class MetricsFactory {
 
     @Override
     public String toString() {
-        return "MetricsFactory{frequency=" + frequency + ", reporters=" + reporters + ", reportOnStop=" + reportOnStop + '}';
+        return "MetricsFactory{frequency=" + frequency + ", reporters=" + reporters + ", reportOnStop=" + reportOnStop +
+            ", resourceTimerReservoir=" + resourceTimerReservoir + '}';
     }
 }
@@ -0,0 +1,31 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.dropwizard.jackson.Discoverable;
+
+/**
+ * A service provider interface for creating the {@link Reservoir reservoirs} which back histograms and timers.
+ * <p/>
+ * To create your own, just:
+ * <ol>
+ *     <li>Create a class which implements {@link ReservoirFactory}.</li>
+ *     <li>Annotate it with {@code @JsonTypeName} and give it a unique type name.</li>
+ *     <li>Add a {@code META-INF/services/io.dropwizard.metrics.ReservoirFactory}
+ *     file with your implementation's full class name to the class path.</li>
+ * </ol>
+ *
+ * @see ExponentiallyDecayingReservoirFactory
+ * @see SlidingTimeWindowReservoirFactory
+ * @see HdrHistogramReservoirFactory
+ * @since 2.1
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+public interface ReservoirFactory extends Discoverable {
+    /**
+     * Builds a new {@link Reservoir}. Every histogram or timer gets a reservoir of its own.
+     *
+     * @return a new reservoir
+     */
+    Reservoir build();
+}
@@ -0,0 +1,58 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+
+import javax.validation.constraints.NotNull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A factory for {@link SlidingTimeWindowArrayReservoir} instances, which keep every value recorded within a
+ * sliding window of time. Its snapshots are exact, but its memory use grows with the rate of recorded values.
+ * <p/>
+ * <b>Configuration Parameters:</b>
+ * <table>
+ *     <tr>
+ *         <td>Name</td>
+ *         <td>Default</td>
+ *         <td>Description</td>
+ *     </tr>
+ *     <tr>
+ *         <td>window</td>
+ *         <td>1 minute</td>
+ *         <td>The duration for which recorded values are kept.</td>
+ *     </tr>
+ * </table>
+ *
+ * @since 2.1
+ */
+@JsonTypeName("slidingTimeWindow")
+public class SlidingTimeWindowReservoirFactory implements ReservoirFactory {
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.SECONDS)
+    private Duration window = Duration.minutes(1);
+
+    @JsonProperty
+    public Duration getWindow() {
+        return window;
+    }
+
+    @JsonProperty
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public Reservoir build() {
+        return new SlidingTimeWindowArrayReservoir(window.getQuantity(), window.getUnit());
+    }
+
+    @Override
+    public String toString() {
+        return "SlidingTimeWindowReservoirFactory{window=" + window + '}';
+    }
+}
@@ -0,0 +1,102 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class HdrHistogramReservoirTest {
+    private final ManualClock clock = new ManualClock();
+    private final HdrHistogramReservoir reservoir = new HdrHistogramReservoir(3, 1, TimeUnit.MINUTES, clock);
+
+    @Test
+    void reportsAllRecordedValues() {
+        for (int i = 1; i <= 1000; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isEqualTo(1000);
+        assertThat(snapshot.getMean()).isCloseTo(500.5, offset(0.5));
+        assertThat(snapshot.getMedian()).isCloseTo(500, offset(1.0));
+        assertThat(snapshot.get999thPercentile()).isCloseTo(999, offset(1.0));
+        assertThat(snapshot.getValues()).hasSize(1000).startsWith(1, 2, 3).endsWith(999, 1000);
+    }
+
+    @Test
+    void reportsRareOutliersInTheTail() {
+        for (int i = 0; i < 100_000; i++) {
+            reservoir.update(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        for (int i = 0; i < 200; i++) {
+            reservoir.update(TimeUnit.SECONDS.toNanos(2));
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.get99thPercentile()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(10), offset(1e4));
+        assertThat(snapshot.get999thPercentile()).isCloseTo(TimeUnit.SECONDS.toNanos(2), offset(2e6));
+    }
+
+    @Test
+    void reportsNothingWhenEmpty() {
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getMin()).isZero();
+        assertThat(snapshot.getMax()).isZero();
+        assertThat(snapshot.getMean()).isZero();
+        assertThat(snapshot.getStdDev()).isZero();
+        assertThat(snapshot.get99thPercentile()).isZero();
+        assertThat(snapshot.getValues()).isEmpty();
+    }
+
+    @Test
+    void dropsValuesOlderThanTheLastWindow() {
+        reservoir.update(100);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+
+        clock.tick += TimeUnit.MINUTES.toNanos(1);
+        reservoir.update(200);
+        final Snapshot previousAndCurrentWindow = reservoir.getSnapshot();
+        assertThat(previousAndCurrentWindow.size()).isEqualTo(2);
+
+        clock.tick += TimeUnit.MINUTES.toNanos(1);
+        reservoir.update(300);
+        final Snapshot lastWindows = reservoir.getSnapshot();
+        assertThat(lastWindows.size()).isEqualTo(2);
+        assertThat(lastWindows.getMin()).isEqualTo(200);
+        assertThat(lastWindows.getMax()).isEqualTo(300);
+    }
+
+    @Test
+    void dropsAllValuesAfterTwoWindowsWithoutSnapshots() {
+        reservoir.update(100);
+        reservoir.update(200);
+
+        clock.tick += TimeUnit.MINUTES.toNanos(5);
+        reservoir.update(300);
+        final Snapshot lastWindow = reservoir.getSnapshot();
+        assertThat(lastWindow.size()).isEqualTo(1);
+        assertThat(lastWindow.getMin()).isEqualTo(300);
+
+        clock.tick += TimeUnit.MINUTES.toNanos(2);
+        assertThat(reservoir.getSnapshot().size()).isZero();
+    }
+
+    private static class ManualClock extends Clock {
+        private long tick = 0;
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.dropwizard.metrics;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
+import io.dropwizard.configuration.YamlConfigurationFactory;
+import io.dropwizard.jackson.DiscoverableSubtypeResolver;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.BaseValidator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservoirFactoryTest {
+    private final ObjectMapper objectMapper = Jackson.newObjectMapper();
+    private final YamlConfigurationFactory<MetricsFactory> factory = new YamlConfigurationFactory<>(
+        MetricsFactory.class, BaseValidator.newValidator(), objectMapper, "dw");
+
+    @Test
+    void isDiscoverable() {
+        assertThat(new DiscoverableSubtypeResolver().getDiscoveredSubtypes())
+            .contains(ExponentiallyDecayingReservoirFactory.class, SlidingTimeWindowReservoirFactory.class,
+                HdrHistogramReservoirFactory.class);
+    }
+
+    @Test
+    void buildsExponentiallyDecayingReservoirsByDefault() {
+        assertThat(new MetricsFactory().getResourceTimerReservoir().build())
+            .isInstanceOf(ExponentiallyDecayingReservoir.class);
+    }
+
+    @Test
+    void buildsSlidingTimeWindowReservoirs() {
+        assertThat(new SlidingTimeWindowReservoirFactory().build())
+            .isInstanceOf(SlidingTimeWindowArrayReservoir.class);
+    }
+
+    @Test
+    void canReadAHdrHistogramReservoir() throws Exception {
+        final MetricsFactory config = factory.build(new ResourceConfigurationSourceProvider(),
+            "yaml/metrics-reservoir.yml");
+
+        assertThat(config.getResourceTimerReservoir())
+            .isInstanceOfSatisfying(HdrHistogramReservoirFactory.class, reservoir -> {
+                assertThat(reservoir.getSignificantDigits()).isEqualTo(3);
+                assertThat(reservoir.getWindow()).isEqualTo(Duration.seconds(30));
+                assertThat(reservoir.build()).isInstanceOf(HdrHistogramReservoir.class);
+            });
+    }
+}
@@ -0,0 +1,240 @@
+package io.dropwizard.servlets;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * A servlet filter which limits the number of requests being processed concurrently and rejects excess requests
+ * with {@code 503 Service Unavailable} and a {@code Retry-After} header, before they reach the application.
+ * <p/>
+ * Rather than being fixed, the limit adapts to the observed latency of requests, following the gradient algorithm:
+ * as long as recent requests are about as fast as the long-term average, the limit grows by its square root, and
+ * once requests start to queue up and slow down, it shrinks in proportion to the slowdown. This keeps latency close
+ * to its unloaded level under overload, whereas a fixed number of threads and a queue let it grow without bounds.
+ * Recent latency is averaged over windows of completed requests, as many as the current limit but at least ten, and
+ * the limit is updated once per window, so that a single slow request doesn't shrink it.
+ * <p/>
+ * Each filter instance maintains its own limit, so a global limit is enforced by mapping a single instance to all
+ * requests, and per-route limits by mapping separate instances, with distinct names, to the routes. The current
+ * limit, the number of requests in flight and the rate of rejected requests are reported as metrics prefixed with
+ * the name of this class and the name of the filter.
+ *
+ * @since 2.1
+ */
+public class ConcurrencyLimitFilter implements Filter {
+    // the number of windows over which the long-term latency is averaged
+    private static final int LONG_WINDOW = 600;
+
+    // the minimum number of completed requests over which recent latency is averaged
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    // how much slower than the long-term latency recent requests may be before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+
+    // the weight of a new limit against the previous one
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Meter rejected;
+
+    private final LongAdder windowRtt = new LongAdder();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicInteger windowConcurrency = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private Supplier<Long> currentTimeProvider = System::nanoTime;
+
+    // only accessed by the thread closing a window
+    private double estimatedLimit;
+    private double longRtt = 0;
+
+    private volatile int limit;
+
+    /**
+     * Creates a filter with an initial limit of 20 concurrent requests, which adapts between 1 and 1000 concurrent
+     * requests, and which asks rejected clients to retry after 1 second.
+     *
+     * @param metricRegistry the registry to report metrics to
+     * @param name           the name of the filter, which distinguishes its metrics from those of other instances
+     */
+    public ConcurrencyLimitFilter(MetricRegistry metricRegistry, String name) {
+        this(metricRegistry, name, 20, 1, 1000, Duration.seconds(1));
+    }
+
+    /**
+     * Creates a filter with the given bounds of the concurrency limit.
+     *
+     * @param metricRegistry the registry to report metrics to
+     * @param name           the name of the filter, which distinguishes its metrics from those of other instances
+     * @param initialLimit   the number of concurrent requests allowed before any latency has been observed
+     * @param minLimit       the lower bound of the limit
+     * @param maxLimit       the upper bound of the limit
+     * @param retryAfter     the duration after which rejected clients are asked to retry
+     */
+    public ConcurrencyLimitFilter(MetricRegistry metricRegistry,
+                                  String name,
+                                  int initialLimit,
+                                  int minLimit,
+                                  int maxLimit,
+                                  Duration retryAfter) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+
+        final String prefix = name(ConcurrencyLimitFilter.class, name);
+        metricRegistry.register(name(prefix, "limit"), (Gauge<Integer>) this::getLimit);
+        metricRegistry.register(name(prefix, "in-flight"), (Gauge<Integer>) this::getInFlight);
+        this.rejected = metricRegistry.meter(name(prefix, "rejected"));
+    }
+
+    void setCurrentTimeProvider(Supplier<Long> currentTimeProvider) {
+        this.currentTimeProvider = currentTimeProvider;
+    }
+
+    /**
+     * Returns the current number of requests which may be processed concurrently.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests currently being processed.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException { /* unused */ }
+
+    @Override
+    public void destroy() { /* unused */ }
+
+    @Override
+    public void doFilter(ServletRequest request,
+                         ServletResponse response,
+                         FilterChain chain) throws IOException, ServletException {
+        final int concurrency = inFlight.incrementAndGet();
+        if (concurrency > limit) {
+            inFlight.decrementAndGet();
+            rejected.mark();
+            final HttpServletResponse resp = (HttpServletResponse) response;
+            resp.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        final long startTime = currentTimeProvider.get();
+        final AtomicBoolean completed = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        complete(completed, startTime, concurrency);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        complete(completed, startTime, concurrency);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        complete(completed, startTime, concurrency);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else {
+                complete(completed, startTime, concurrency);
+            }
+        }
+    }
+
+    private void complete(AtomicBoolean completed, long startTime, int concurrency) {
+        if (completed.compareAndSet(false, true)) {
+            inFlight.decrementAndGet();
+            update(currentTimeProvider.get() - startTime, concurrency);
+        }
+    }
+
+    /**
+     * Adds a sample to the current window, and updates the limit once the window is full. Only one thread at a time
+     * closes a window, while the others keep adding samples to the next one.
+     */
+    private void update(long rtt, int concurrency) {
+        if (rtt <= 0) {
+            return;
+        }
+        windowRtt.add(rtt);
+        windowConcurrency.accumulateAndGet(concurrency, Math::max);
+        if (windowSamples.incrementAndGet() < Math.max(MIN_WINDOW_SAMPLES, limit)
+                || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final int samples = windowSamples.getAndSet(0);
+            final double shortRtt = (double) windowRtt.sumThenReset() / samples;
+            updateLimit(shortRtt, windowConcurrency.getAndSet(0));
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void updateLimit(double shortRtt, int concurrency) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+            // let the long-term latency recover quickly after a period of overload has passed
+            if (longRtt > 2.0 * shortRtt) {
+                longRtt *= 0.95;
+            }
+        }
+
+        // the limit is not being tested, so there is no point in growing it
+        if (concurrency < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
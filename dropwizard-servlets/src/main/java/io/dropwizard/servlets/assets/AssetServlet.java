@@ -1,30 +1,59 @@
 package io.dropwizard.servlets.assets;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.caffeine.MetricsStatsCounter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import io.dropwizard.util.ByteStreams;
+import io.dropwizard.util.DataSize;
 import io.dropwizard.util.Resources;
+import org.eclipse.jetty.server.HttpOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 public class AssetServlet extends HttpServlet {
     private static final long serialVersionUID = 6393345594784987908L;
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssetServlet.class);
 
     // HTTP header names
     private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
@@ -35,32 +64,154 @@ public class AssetServlet extends HttpServlet {
     private static final String CONTENT_RANGE = "Content-Range";
     private static final String ETAG = "ETag";
     private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String VARY = "Vary";
+
+    private static final String BROTLI = "br";
+    private static final String GZIP = "gzip";
+
+    // the content codings of precompressed variants, in order of preference
+    private static final String[] ENCODINGS = {BROTLI, GZIP};
+
+    // the file name extensions of precompressed siblings, in the same order as ENCODINGS
+    private static final String[] ENCODING_EXTENSIONS = {".br", ".gz"};
+
+    // assets smaller than this are not worth compressing, see GzipHandlerFactory#minimumEntitySize
+    private static final int MIN_GZIP_SIZE = 256;
+
+    // larger assets are compressed on the fly rather than holding a compressed copy of them on the heap
+    private static final int MAX_GZIP_SIZE = 1024 * 1024;
+
+    // media types worth compressing besides text/*, +json and +xml ones
+    private static final Set<String> COMPRESSIBLE_MEDIA_TYPES = new HashSet<>(Arrays.asList(
+            "application/javascript", "application/x-javascript", "application/ecmascript", "application/json",
+            "application/xml", "application/wasm"));
 
     private static class CachedAsset {
-        private final byte[] resource;
+        private final ByteBuffer resource;
         private final String eTag;
         private final long lastModifiedTime;
+        private final Map<String, ByteBuffer> variants;
+
+        private CachedAsset(ByteBuffer resource, long lastModifiedTime) {
+            this(resource, '"' + hash(resource) + '"', lastModifiedTime, Collections.emptyMap());
+        }
 
-        private CachedAsset(byte[] resource, long lastModifiedTime) {
+        private CachedAsset(ByteBuffer resource, String eTag, long lastModifiedTime,
+                            Map<String, ByteBuffer> variants) {
             this.resource = resource;
-            this.eTag = '"' + hash(resource) + '"';
+            this.eTag = eTag;
             this.lastModifiedTime = lastModifiedTime;
+            this.variants = variants;
+        }
+
+        /**
+         * Returns a copy of this asset which also holds the given variant of the resource, compressed with the given
+         * content coding.
+         */
+        private CachedAsset withVariant(String encoding, ByteBuffer variant) {
+            final Map<String, ByteBuffer> withVariant = new HashMap<>(variants);
+            withVariant.put(encoding, variant);
+            return new CachedAsset(resource, eTag, lastModifiedTime, withVariant);
+        }
+
+        /**
+         * Returns a copy of this asset which also holds a gzip-compressed variant of the resource, unless it already
+         * has one, the resource is memory-mapped, too small or too large, or does not compress well.
+         */
+        private CachedAsset withGzipVariant() throws IOException {
+            final int length = resource.remaining();
+            if (variants.containsKey(GZIP) || resource instanceof MappedByteBuffer
+                    || length < MIN_GZIP_SIZE || length > MAX_GZIP_SIZE) {
+                return this;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 4);
+            try (WritableByteChannel channel = Channels.newChannel(new GZIPOutputStream(bytes))) {
+                final ByteBuffer content = resource.duplicate();
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            if (bytes.size() > length / 10 * 9) {
+                return this;
+            }
+            return withVariant(GZIP, ByteBuffer.wrap(bytes.toByteArray()));
         }
 
-        private static String hash(byte[] resource) {
+        private static String hash(ByteBuffer resource) {
             final CRC32 crc32 = new CRC32();
-            crc32.update(resource);
+            crc32.update(resource.duplicate());
             return Long.toHexString(crc32.getValue());
         }
 
-        public byte[] getResource() {
-            return resource;
+        public int getLength() {
+            return resource.remaining();
+        }
+
+        /**
+         * Returns a view of {@code length} bytes of the resource starting at {@code offset}, which does not share
+         * its position with other requests serving the same asset.
+         */
+        public ByteBuffer getResource(int offset, int length) {
+            final ByteBuffer view = resource.duplicate();
+            view.position(offset);
+            view.limit(offset + length);
+            return view.slice();
         }
 
         public String getETag() {
             return eTag;
         }
 
+        /**
+         * Returns the ETag of the variant compressed with the given content coding. The suffix is the same as the
+         * one used by Jetty, whose GzipHandler strips it from conditional request headers.
+         */
+        public String getETag(String encoding) {
+            return eTag.substring(0, eTag.length() - 1) + "--" + encoding + '"';
+        }
+
+        public boolean matchesETag(String header) {
+            if (eTag.equals(header)) {
+                return true;
+            }
+            for (String encoding : variants.keySet()) {
+                if (getETag(encoding).equals(header)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean hasVariants() {
+            return !variants.isEmpty();
+        }
+
+        public boolean hasVariant(String encoding) {
+            return variants.containsKey(encoding);
+        }
+
+        /**
+         * Returns a view of the variant compressed with the given content coding, or {@code null} if there is none.
+         */
+        @Nullable
+        public ByteBuffer getVariant(String encoding) {
+            final ByteBuffer variant = variants.get(encoding);
+            return variant == null ? null : variant.duplicate();
+        }
+
+        /**
+         * Returns the number of bytes held by this asset, used to bound the size of the asset cache.
+         */
+        public int getWeight() {
+            long weight = resource.remaining();
+            for (ByteBuffer variant : variants.values()) {
+                weight += variant.remaining();
+            }
+            return (int) Math.min(weight, Integer.MAX_VALUE);
+        }
+
         public long getLastModifiedTime() {
             return lastModifiedTime;
         }
@@ -79,6 +230,13 @@ public class AssetServlet extends HttpServlet {
     @Nullable
     private final Charset defaultCharset;
 
+    private boolean memoryMapped = false;
+
+    private boolean precompressed = false;
+
+    @Nullable
+    private transient LoadingCache<String, CachedAsset> cache;
+
     /**
      * Creates a new {@code AssetServlet} that serves static assets loaded from {@code resourceURL}
      * (typically a file: or jar: URL). The assets are served at URIs rooted at {@code uriPath}. For
@@ -181,6 +339,97 @@ public class AssetServlet extends HttpServlet {
         return defaultCharset;
     }
 
+    /**
+     * @since 2.1
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Sets whether assets located on the file system, which includes exploded jars, are served from memory-mapped
+     * files instead of being read onto the heap. When running on Jetty, mapped assets are handed to the connection
+     * without being copied. Assets packaged in jar files and files larger than 2 GiB are always read onto the heap.
+     * <p/>
+     * Mapping only takes effect when the {@link #enableCache(MetricRegistry, String, DataSize) cache} is enabled,
+     * so that each asset is mapped once rather than on every request: a mapping is only released once its buffer
+     * has been garbage collected. A warning is logged when the servlet is initialized without the cache. Files must
+     * not be truncated or rewritten in place while they are mapped, which can crash the JVM; replace them atomically
+     * instead, e.g. by moving a new file over the old one.
+     *
+     * @param memoryMapped whether to memory-map assets located on the file system
+     * @since 2.1
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * @since 2.1
+     */
+    public boolean isPrecompressed() {
+        return precompressed;
+    }
+
+    /**
+     * Sets whether precompressed variants of assets are served to clients which accept them. For an asset such as
+     * {@code app.js}, the servlet looks for the siblings {@code app.js.br} and {@code app.js.gz} and serves them with
+     * the corresponding {@code Content-Encoding}, so that they are not compressed on the fly. Variants which are
+     * not smaller than the asset itself are ignored.
+     * <p/>
+     * Precompressed variants are only served when the {@link #enableCache(MetricRegistry, String, DataSize) cache}
+     * is enabled, so that the siblings of an asset are looked up and read once rather than on every request. A
+     * warning is logged when the servlet is initialized without the cache.
+     *
+     * @param precompressed whether to serve precompressed variants of assets
+     * @since 2.1
+     */
+    public void setPrecompressed(boolean precompressed) {
+        this.precompressed = precompressed;
+    }
+
+    /**
+     * Enables a cache of loaded assets across requests, so that frequently requested assets are served without
+     * reading and hashing them again. Besides the resource, its ETag, its last modified time and its
+     * {@link #setPrecompressed(boolean) precompressed variants}, the cache holds a gzip-compressed variant of each
+     * textual asset of up to 1 MiB that compresses well and isn't memory-mapped, which is served to clients
+     * accepting gzip instead of compressing the asset on every request.
+     * <p/>
+     * Cached assets are never reloaded: an asset which changes on disk is served as it was first loaded, with its
+     * old ETag, until it's evicted or the application is restarted. Only enable the cache for assets which don't
+     * change while the application runs.
+     * <p/>
+     * The hits, misses and evictions of the cache are reported as metrics prefixed with the name of this class
+     * and the given name.
+     *
+     * @param metricRegistry the registry for the cache metrics
+     * @param name           the name of this servlet, used in the name of the cache metrics
+     * @param maximumSize    the maximum size of the cached assets, including their compressed variants
+     * @since 2.1
+     */
+    public void enableCache(MetricRegistry metricRegistry, String name, DataSize maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<String, CachedAsset>weigher((key, asset) -> asset.getWeight())
+                .recordStats(() -> new MetricsStatsCounter(metricRegistry, name(AssetServlet.class, name)))
+                .build(key -> {
+                    final CachedAsset asset = loadAsset(key, true);
+                    if (asset == null || !isCompressible(getMediaType(getServletContext(), key))) {
+                        return asset;
+                    }
+                    return asset.withGzipVariant();
+                });
+    }
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        if (cache == null && (memoryMapped || precompressed)) {
+            LOGGER.warn("The asset servlet at {} serves neither memory-mapped assets nor precompressed variants, "
+                + "which require the asset cache to be enabled", uriPath);
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest req,
                          HttpServletResponse resp) throws ServletException, IOException {
@@ -189,7 +438,7 @@ public class AssetServlet extends HttpServlet {
             if (req.getPathInfo() != null) {
                 builder.append(req.getPathInfo());
             }
-            final CachedAsset cachedAsset = loadAsset(builder.toString());
+            final CachedAsset cachedAsset = getAsset(builder.toString());
             if (cachedAsset == null) {
                 resp.sendError(HttpServletResponse.SC_NOT_FOUND);
                 return;
@@ -202,7 +451,7 @@ public class AssetServlet extends HttpServlet {
 
             final String rangeHeader = req.getHeader(RANGE);
 
-            final int resourceLength = cachedAsset.getResource().length;
+            final int resourceLength = cachedAsset.getLength();
             List<ByteRange> ranges = Collections.emptyList();
 
             boolean usingRanges = false;
@@ -231,12 +480,22 @@ public class AssetServlet extends HttpServlet {
             }
 
             resp.setDateHeader(LAST_MODIFIED, cachedAsset.getLastModifiedTime());
-            resp.setHeader(ETAG, cachedAsset.getETag());
 
-            final String requestUri = req.getRequestURI();
-            final String mediaType = Optional.ofNullable(req.getServletContext().getMimeType(
-                    indexFile != null && requestUri.endsWith("/") ? requestUri + indexFile : requestUri))
-                    .orElse(defaultMediaType);
+            ByteBuffer variant = null;
+            if (cachedAsset.hasVariants()) {
+                resp.addHeader(VARY, ACCEPT_ENCODING);
+                final String encoding = usingRanges ? null : negotiateEncoding(req, cachedAsset);
+                if (encoding != null) {
+                    variant = cachedAsset.getVariant(encoding);
+                    resp.setHeader(CONTENT_ENCODING, encoding);
+                    resp.setHeader(ETAG, cachedAsset.getETag(encoding));
+                }
+            }
+            if (variant == null) {
+                resp.setHeader(ETAG, cachedAsset.getETag());
+            }
+
+            final String mediaType = getMediaType(req.getServletContext(), req.getRequestURI());
             if (mediaType.startsWith("video") || mediaType.startsWith("audio") || usingRanges) {
                 resp.addHeader(ACCEPT_RANGES, "bytes");
             }
@@ -246,14 +505,27 @@ public class AssetServlet extends HttpServlet {
                 resp.setCharacterEncoding(defaultCharset.toString());
             }
 
+            // mapped content is written without aggregation, so the container cannot compute the length itself
+            if (variant != null) {
+                resp.setContentLength(variant.remaining());
+            } else {
+                resp.setContentLength(usingRanges
+                        ? ranges.stream().mapToInt(range -> range.getEnd() - range.getStart() + 1).sum()
+                        : resourceLength);
+            }
+
             try (ServletOutputStream output = resp.getOutputStream()) {
-                if (usingRanges) {
+                if (variant != null) {
+                    write(output, variant);
+                } else if (usingRanges) {
                     for (ByteRange range : ranges) {
-                        output.write(cachedAsset.getResource(), range.getStart(),
-                                range.getEnd() - range.getStart() + 1);
+                        write(output, cachedAsset.getResource(range.getStart(),
+                                range.getEnd() - range.getStart() + 1));
                     }
+                } else if (output instanceof HttpOutput) {
+                    ((HttpOutput) output).sendContent(cachedAsset.getResource(0, resourceLength));
                 } else {
-                    output.write(cachedAsset.getResource());
+                    write(output, cachedAsset.getResource(0, resourceLength));
                 }
             }
         } catch (RuntimeException | URISyntaxException ignored) {
@@ -264,8 +536,45 @@ public class AssetServlet extends HttpServlet {
         }
     }
 
+    private String getMediaType(ServletContext servletContext, String path) {
+        return Optional.ofNullable(servletContext.getMimeType(
+                indexFile != null && path.endsWith("/") ? path + indexFile : path))
+                .orElse(defaultMediaType);
+    }
+
+    private static boolean isCompressible(String mediaType) {
+        final int parameters = mediaType.indexOf(';');
+        final String type = (parameters < 0 ? mediaType : mediaType.substring(0, parameters))
+                .trim().toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.endsWith("+json") || type.endsWith("+xml")
+                || COMPRESSIBLE_MEDIA_TYPES.contains(type);
+    }
+
+    @Nullable
+    private CachedAsset getAsset(String key) throws URISyntaxException, IOException {
+        final LoadingCache<String, CachedAsset> assets = cache;
+        if (assets == null) {
+            return loadAsset(key, false);
+        }
+        try {
+            return assets.get(key);
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads an asset, which is memory-mapped if enabled and the asset is going to be cached.
+     */
     @Nullable
-    private CachedAsset loadAsset(String key) throws URISyntaxException, IOException {
+    private CachedAsset loadAsset(String key, boolean cached) throws URISyntaxException, IOException {
         if (!key.startsWith(uriPath)) {
             throw new IllegalArgumentException("Cache key must start with " + uriPath);
         }
@@ -273,10 +582,12 @@ public class AssetServlet extends HttpServlet {
         final String requestedResourcePath = trimSlashes(key.substring(uriPath.length()));
         final String absoluteRequestedResourcePath = trimSlashes(this.resourcePath + requestedResourcePath);
 
-        URL requestedResourceURL = getResourceURL(absoluteRequestedResourcePath);
+        String resolvedResourcePath = absoluteRequestedResourcePath;
+        URL requestedResourceURL = getResourceURL(resolvedResourcePath);
         if (ResourceURL.isDirectory(requestedResourceURL)) {
             if (indexFile != null) {
-                requestedResourceURL = getResourceURL(absoluteRequestedResourcePath + '/' + indexFile);
+                resolvedResourcePath = absoluteRequestedResourcePath + '/' + indexFile;
+                requestedResourceURL = getResourceURL(resolvedResourcePath);
             } else {
                 // directory requested but no index file defined
                 return null;
@@ -291,7 +602,71 @@ public class AssetServlet extends HttpServlet {
 
         // zero out the millis since the date we get back from If-Modified-Since will not have them
         lastModified = (lastModified / 1000) * 1000;
-        return new CachedAsset(readResource(requestedResourceURL), lastModified);
+        CachedAsset asset = new CachedAsset(loadResource(requestedResourceURL, cached), lastModified);
+        if (precompressed && cached) {
+            for (int i = 0; i < ENCODINGS.length; i++) {
+                final URL variantURL = findPrecompressedVariant(resolvedResourcePath + ENCODING_EXTENSIONS[i]);
+                if (variantURL != null) {
+                    final ByteBuffer variant = loadResource(variantURL, cached);
+                    // a variant which is not smaller than the resource is not worth the decompression
+                    if (variant.remaining() < asset.getLength()) {
+                        asset = asset.withVariant(ENCODINGS[i], variant);
+                    }
+                }
+            }
+        }
+        return asset;
+    }
+
+    private ByteBuffer loadResource(URL resourceURL, boolean cached) throws URISyntaxException, IOException {
+        if (memoryMapped && cached && "file".equals(resourceURL.getProtocol())) {
+            final ByteBuffer mapped = mapResource(Paths.get(resourceURL.toURI()));
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        return ByteBuffer.wrap(readResource(resourceURL));
+    }
+
+    @Nullable
+    private URL findPrecompressedVariant(String variantResourcePath) throws URISyntaxException {
+        final URL variantURL;
+        try {
+            variantURL = getResourceURL(variantResourcePath);
+        } catch (IllegalArgumentException e) {
+            // no such resource
+            return null;
+        }
+        return ResourceURL.isDirectory(variantURL) ? null : variantURL;
+    }
+
+    /**
+     * Maps a file into memory, or returns {@code null} if it is too large to be mapped into a single buffer.
+     */
+    @Nullable
+    private static ByteBuffer mapResource(Path path) throws IOException {
+        // the mapping stays valid after the channel has been closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static void write(ServletOutputStream output, ByteBuffer content) throws IOException {
+        if (output instanceof HttpOutput) {
+            // Jetty writes the buffer to the connection directly, without copying mapped content onto the heap
+            ((HttpOutput) output).write(content);
+        } else if (content.hasArray()) {
+            output.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+        } else {
+            final WritableByteChannel channel = Channels.newChannel(output);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
     }
 
     /**
@@ -319,12 +694,75 @@ public class AssetServlet extends HttpServlet {
         // Indicates that with the presense of If-None-Match If-Modified-Since should be ignored.
         String ifNoneMatchHeader = req.getHeader(IF_NONE_MATCH);
         if (ifNoneMatchHeader != null) {
-            return cachedAsset.getETag().equals(ifNoneMatchHeader);
+            return cachedAsset.matchesETag(ifNoneMatchHeader);
         } else {
             return req.getDateHeader(IF_MODIFIED_SINCE) >= cachedAsset.getLastModifiedTime();
         }
     }
 
+    /**
+     * Picks the content coding of the variant to serve, which is the one with the highest quality value in the
+     * Accept-Encoding headers of the request, preferring brotli over gzip when both are equally acceptable.
+     *
+     * @param req   the request
+     * @param asset the requested asset
+     * @return the content coding, or {@code null} to serve the asset as is
+     */
+    @Nullable
+    private static String negotiateEncoding(HttpServletRequest req, CachedAsset asset) {
+        String negotiated = null;
+        double negotiatedQuality = 0;
+        for (String encoding : ENCODINGS) {
+            if (asset.hasVariant(encoding)) {
+                final double quality = getQuality(req, encoding);
+                if (quality > negotiatedQuality) {
+                    negotiated = encoding;
+                    negotiatedQuality = quality;
+                }
+            }
+        }
+        return negotiated;
+    }
+
+    /**
+     * Returns the quality value which the Accept-Encoding headers of the request give to the given content coding.
+     *
+     * @param req      the request
+     * @param encoding the content coding, in lower case
+     * @return the quality value, where zero means the content coding is not acceptable
+     */
+    private static double getQuality(HttpServletRequest req, String encoding) {
+        double anyQuality = 0;
+        final Enumeration<String> headers = req.getHeaders(ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",", -1)) {
+                final String[] parameters = coding.split(";", -1);
+                final String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+                if (name.equals(encoding)) {
+                    return parseQuality(parameters);
+                } else if ("*".equals(name)) {
+                    anyQuality = parseQuality(parameters);
+                }
+            }
+        }
+        return anyQuality;
+    }
+
+    private static double parseQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String[] parameter = parameters[i].split("=", 2);
+            if (parameter.length == 2 && "q".equalsIgnoreCase(parameter[0].trim())) {
+                try {
+                    final double quality = Double.parseDouble(parameter[1].trim());
+                    return quality > 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
     /**
      * Parses a given Range header for one or more byte ranges.
      *
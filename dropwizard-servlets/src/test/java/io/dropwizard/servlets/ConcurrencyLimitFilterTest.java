@@ -0,0 +1,205 @@
+package io.dropwizard.servlets;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitFilterTest {
+    private static final String PREFIX = "io.dropwizard.servlets.ConcurrencyLimitFilter.test.";
+
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final FilterChain chain = mock(FilterChain.class);
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final List<AsyncListener> pendingRequests = new ArrayList<>();
+
+    private long currentTime = 1510330244000000L;
+
+    @BeforeEach
+    void setUp() {
+        // every request completes asynchronously, so that tests control how many of them are in flight
+        when(request.isAsyncStarted()).thenReturn(true);
+        when(request.getAsyncContext()).thenReturn(asyncContext);
+        doAnswer(invocation -> pendingRequests.add(invocation.getArgument(0)))
+            .when(asyncContext).addListener(any(AsyncListener.class));
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheLimit() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(2, 2, 2);
+
+        filter.doFilter(request, response, chain);
+        filter.doFilter(request, response, chain);
+        filter.doFilter(request, response, chain);
+
+        verify(chain, times(2)).doFilter(request, response);
+        verify(response).setHeader("Retry-After", "1");
+        verify(response).sendError(503);
+        assertThat(filter.getInFlight()).isEqualTo(2);
+        assertThat(metricRegistry.meter(PREFIX + "rejected").getCount()).isEqualTo(1);
+
+        completeAll(TimeUnit.MILLISECONDS.toNanos(10));
+        filter.doFilter(request, response, chain);
+
+        verify(chain, times(3)).doFilter(request, response);
+        assertThat(filter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsRequestsWithinTheLimit() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(10, 1, 100);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verify(response, never()).sendError(503);
+        assertThat(filter.getInFlight()).isEqualTo(1);
+
+        completeAll(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(filter.getInFlight()).isZero();
+    }
+
+    @Test
+    void growsTheLimitWhileLatencyIsSteady() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(10, 1, 100);
+
+        for (int i = 0; i < 10; i++) {
+            saturate(filter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(filter.getLimit()).isGreaterThan(10);
+        assertThat(metricRegistry.meter(PREFIX + "rejected").getCount()).isZero();
+    }
+
+    @Test
+    void shrinksTheLimitWhenLatencyRises() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(50, 1, 100);
+        for (int i = 0; i < 5; i++) {
+            saturate(filter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        final int limit = filter.getLimit();
+
+        // the limit is updated once per window of requests
+        for (int i = 0; i < 20; i++) {
+            saturate(filter, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertThat(filter.getLimit()).isLessThan(limit / 2);
+    }
+
+    @Test
+    void averagesTheLatencyOverAWindowOfRequests() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(50, 1, 100);
+        saturate(filter, TimeUnit.MILLISECONDS.toNanos(10));
+        final int limit = filter.getLimit();
+
+        // a single slow request among fast ones doesn't shrink the limit
+        for (int i = 0; i < limit; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        final AsyncListener slowRequest = pendingRequests.remove(pendingRequests.size() - 1);
+        completeAll(TimeUnit.MILLISECONDS.toNanos(10));
+        currentTime += TimeUnit.MILLISECONDS.toNanos(100);
+        slowRequest.onComplete(new AsyncEvent(asyncContext));
+
+        assertThat(filter.getLimit()).isGreaterThanOrEqualTo(limit);
+    }
+
+    @Test
+    void keepsTheLimitForMixedFastAndSlowRequests() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(20, 1, 20);
+
+        for (int i = 0; i < 100; i++) {
+            // half of the requests are twenty times faster than the other half
+            for (int j = 0; j < filter.getLimit() / 2; j++) {
+                filter.doFilter(request, response, chain);
+            }
+            completeAll(TimeUnit.MILLISECONDS.toNanos(5));
+            for (int j = 0; j < filter.getLimit() / 2; j++) {
+                filter.doFilter(request, response, chain);
+            }
+            completeAll(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertThat(filter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void neverShrinksTheLimitBelowTheMinimum() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(10, 5, 100);
+        saturate(filter, TimeUnit.MILLISECONDS.toNanos(10));
+
+        for (int i = 0; i < 50; i++) {
+            saturate(filter, TimeUnit.SECONDS.toNanos(10));
+        }
+
+        assertThat(filter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void reportsTheLimitAndTheRequestsInFlight() throws Exception {
+        final ConcurrencyLimitFilter filter = filter(10, 1, 100);
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(metricRegistry.getGauges())
+            .hasEntrySatisfying(PREFIX + "limit", gauge -> assertThat(gauge.getValue()).isEqualTo(10))
+            .hasEntrySatisfying(PREFIX + "in-flight", gauge -> assertThat(gauge.getValue()).isEqualTo(1));
+    }
+
+    @Test
+    void rejectsInconsistentLimits() {
+        assertThatIllegalArgumentException().isThrownBy(() -> filter(10, 20, 100));
+        assertThatIllegalArgumentException().isThrownBy(() -> filter(10, 0, 100));
+        assertThatIllegalArgumentException().isThrownBy(() -> filter(100, 1, 10));
+    }
+
+    private ConcurrencyLimitFilter filter(int initialLimit, int minLimit, int maxLimit) {
+        final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(metricRegistry, "test",
+            initialLimit, minLimit, maxLimit, Duration.seconds(1));
+        filter.setCurrentTimeProvider(() -> currentTime);
+        return filter;
+    }
+
+    /**
+     * Starts as many requests as the current limit allows, and completes them all after the given latency.
+     */
+    private void saturate(ConcurrencyLimitFilter filter, long latency) throws Exception {
+        final int limit = filter.getLimit();
+        for (int i = 0; i < limit; i++) {
+            filter.doFilter(request, response, chain);
+        }
+        completeAll(latency);
+    }
+
+    private void completeAll(long latency) throws Exception {
+        currentTime += latency;
+        for (AsyncListener listener : pendingRequests) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+        pendingRequests.clear();
+    }
+}
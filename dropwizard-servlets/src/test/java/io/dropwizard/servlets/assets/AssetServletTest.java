@@ -1,5 +1,8 @@
 package io.dropwizard.servlets.assets;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.ByteStreams;
+import io.dropwizard.util.DataSize;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpTester;
 import org.eclipse.jetty.http.HttpVersion;
@@ -11,6 +14,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -20,7 +25,9 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class AssetServletTest {
@@ -29,6 +36,10 @@ public class AssetServletTest {
     private static final String NOCHARSET_SERVLET = "/nocharset_servlet/";
     private static final String NOMEDIATYPE_SERVLET = "/nomediatype_servlet/";
     private static final String MEDIATYPE_SERVLET = "/mediatype_servlet/";
+    private static final String MAPPED_SERVLET = "/mapped_servlet/";
+    private static final String CACHING_SERVLET = "/caching_servlet/";
+    private static final String PRECOMPRESSED_SERVLET = "/precompressed_servlet/";
+    private static final MetricRegistry METRIC_REGISTRY = new MetricRegistry();
     private static final String ROOT_SERVLET = "/";
     private static final String RESOURCE_PATH = "/assets";
 
@@ -82,6 +93,35 @@ public class AssetServletTest {
         }
     }
 
+    public static class MappedAssetServlet extends AssetServlet {
+        private static final long serialVersionUID = 1L;
+
+        public MappedAssetServlet() {
+            super(RESOURCE_PATH, MAPPED_SERVLET, "index.htm", StandardCharsets.UTF_8);
+            setMemoryMapped(true);
+            enableCache(METRIC_REGISTRY, "mapped", DataSize.kibibytes(64));
+        }
+    }
+
+    public static class CachingAssetServlet extends AssetServlet {
+        private static final long serialVersionUID = 1L;
+
+        public CachingAssetServlet() {
+            super(RESOURCE_PATH, CACHING_SERVLET, "index.htm", StandardCharsets.UTF_8);
+            enableCache(METRIC_REGISTRY, "caching", DataSize.kibibytes(64));
+        }
+    }
+
+    public static class PrecompressedAssetServlet extends AssetServlet {
+        private static final long serialVersionUID = 1L;
+
+        public PrecompressedAssetServlet() {
+            super(RESOURCE_PATH, PRECOMPRESSED_SERVLET, "index.htm", StandardCharsets.UTF_8);
+            setPrecompressed(true);
+            enableCache(METRIC_REGISTRY, "precompressed", DataSize.kibibytes(64));
+        }
+    }
+
     private static final ServletTester SERVLET_TESTER = new ServletTester();
     private final HttpTester.Request request = HttpTester.newRequest();
     @Nullable
@@ -94,6 +134,9 @@ public class AssetServletTest {
         SERVLET_TESTER.addServlet(NoCharsetAssetServlet.class, NOCHARSET_SERVLET + '*');
         SERVLET_TESTER.addServlet(NoDefaultMediaTypeAssetServlet.class, NOMEDIATYPE_SERVLET + '*');
         SERVLET_TESTER.addServlet(DefaultMediaTypeAssetServlet.class, MEDIATYPE_SERVLET + '*');
+        SERVLET_TESTER.addServlet(MappedAssetServlet.class, MAPPED_SERVLET + '*');
+        SERVLET_TESTER.addServlet(CachingAssetServlet.class, CACHING_SERVLET + '*');
+        SERVLET_TESTER.addServlet(PrecompressedAssetServlet.class, PRECOMPRESSED_SERVLET + '*');
         SERVLET_TESTER.addServlet(RootAssetServlet.class, ROOT_SERVLET + '*');
         SERVLET_TESTER.start();
 
@@ -376,6 +419,181 @@ public class AssetServletTest {
         assertThat(response.get(HttpHeader.CONTENT_LENGTH)).isEqualTo("6");
     }
 
+    @Test
+    void servesMemoryMappedFiles() throws Exception {
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        final String heapEtag = response.get(HttpHeader.ETAG);
+
+        request.setURI(MAPPED_SERVLET + "example.txt");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContent()).isEqualTo("HELLO THERE");
+        assertThat(response.get(HttpHeader.CONTENT_LENGTH)).isEqualTo("11");
+        assertThat(response.get(HttpHeader.ETAG)).isEqualTo(heapEtag);
+
+        request.setURI(MAPPED_SERVLET);
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContent()).contains("/assets Index File");
+    }
+
+    @Test
+    void supportsMultipleByteRangesForMemoryMappedFiles() throws Exception {
+        request.setURI(MAPPED_SERVLET + "example.txt");
+        request.setHeader(HttpHeader.RANGE.asString(), "bytes=0-0,-1");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContent()).isEqualTo("HE");
+        assertThat(response.get(HttpHeader.CONTENT_RANGE)).isEqualTo("bytes 0-0,10-10/11");
+        assertThat(response.get(HttpHeader.CONTENT_LENGTH)).isEqualTo("2");
+
+        request.setHeader(HttpHeader.RANGE.asString(), "bytes=5-6,7-10");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContent()).isEqualTo(" THERE");
+        assertThat(response.get(HttpHeader.CONTENT_RANGE)).isEqualTo("bytes 5-6,7-10/11");
+    }
+
+    @Test
+    void cachesAssetsAcrossRequests() throws Exception {
+        final String prefix = "io.dropwizard.servlets.assets.AssetServlet.caching.";
+        final long hits = METRIC_REGISTRY.counter(prefix + "hits").getCount();
+        final long misses = METRIC_REGISTRY.counter(prefix + "misses").getCount();
+
+        request.setURI(CACHING_SERVLET + "foo.bar");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        final String etag = response.get(HttpHeader.ETAG);
+
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.ETAG)).isEqualTo(etag);
+
+        assertThat(METRIC_REGISTRY.counter(prefix + "misses").getCount()).isEqualTo(misses + 1);
+        assertThat(METRIC_REGISTRY.counter(prefix + "hits").getCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void servesPrecompressedVariantsFromTheCache() throws Exception {
+        request.setURI(CACHING_SERVLET + "compressible.txt");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.get(HttpHeader.VARY)).isEqualTo("Accept-Encoding");
+        final String content = response.getContent();
+        final String etag = response.get(HttpHeader.ETAG);
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "deflate, gzip;q=0.8");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.get(HttpHeader.VARY)).isEqualTo("Accept-Encoding");
+        assertThat(response.get(HttpHeader.ETAG)).isEqualTo(etag.substring(0, etag.length() - 1) + "--gzip\"");
+        assertThat(response.getContentBytes()).hasSizeLessThan(content.length());
+        assertThat(gunzip(response.getContentBytes())).isEqualTo(content);
+
+        request.setHeader(HttpHeader.IF_NONE_MATCH.asString(), response.get(HttpHeader.ETAG));
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void doesNotServeCompressedVariantsToClientsNotAcceptingThem() throws Exception {
+        request.setURI(CACHING_SERVLET + "compressible.txt");
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip;q=0, identity");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip");
+        request.setHeader(HttpHeader.RANGE.asString(), "bytes=0-3");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContent()).isEqualTo("Line");
+    }
+
+    @Test
+    void onlyCompressesTextualAssetsWhichAreNotMapped() throws Exception {
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip");
+        request.setURI(CACHING_SERVLET + "compressible.png");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.get(HttpHeader.VARY)).isNull();
+
+        request.setURI(MAPPED_SERVLET + "compressible.txt");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.get(HttpHeader.VARY)).isNull();
+    }
+
+    @Test
+    void servesPrecompressedSiblingsOfAssets() throws Exception {
+        request.setURI(PRECOMPRESSED_SERVLET + "precompressed.txt");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.get(HttpHeader.VARY)).isEqualTo("Accept-Encoding");
+        final String content = response.getContent();
+        final String etag = response.get(HttpHeader.ETAG);
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip, deflate, br");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(response.get(HttpHeader.ETAG)).isEqualTo(etag.substring(0, etag.length() - 1) + "--br\"");
+        assertThat(response.getContentBytes()).isEqualTo(resource("precompressed.txt.br"));
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip, br;q=0");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.get(HttpHeader.ETAG)).isEqualTo(etag.substring(0, etag.length() - 1) + "--gzip\"");
+        assertThat(gunzip(response.getContentBytes())).isEqualTo(content);
+    }
+
+    @Test
+    void servesThePrecompressedVariantWithTheHighestQuality() throws Exception {
+        request.setURI(PRECOMPRESSED_SERVLET + "precompressed.txt");
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "br;q=0.5, gzip;q=0.8");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isEqualTo("gzip");
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "*, br; Q = 0");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isEqualTo("gzip");
+
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "br;q=0, gzip;q=0");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentBytes()).isEqualTo(resource("precompressed.txt"));
+    }
+
+    @Test
+    void servesAssetsWithoutPrecompressedSiblingsAsIs() throws Exception {
+        request.setURI(PRECOMPRESSED_SERVLET + "example.txt");
+        request.setHeader(HttpHeader.ACCEPT_ENCODING.asString(), "gzip, br");
+        response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request.generate()));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.get(HttpHeader.CONTENT_ENCODING)).isNull();
+        assertThat(response.get(HttpHeader.VARY)).isNull();
+        assertThat(response.getContent()).isEqualTo("HELLO THERE");
+    }
+
+    private static byte[] resource(String name) throws Exception {
+        try (InputStream input = AssetServletTest.class.getResourceAsStream(RESOURCE_PATH + '/' + name)) {
+            return ByteStreams.toByteArray(requireNonNull(input));
+        }
+    }
+
+    private static String gunzip(byte[] bytes) throws Exception {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(ByteStreams.toByteArray(input), StandardCharsets.UTF_8);
+        }
+    }
+
     @Test
     void supportsIfRangeMatchRequests() throws Exception {
         response = HttpTester.parseResponse(SERVLET_TESTER.getResponses(request